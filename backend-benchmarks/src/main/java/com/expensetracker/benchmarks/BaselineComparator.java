@@ -0,0 +1,106 @@
+package com.expensetracker.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Compares a JMH JSON result file against the committed baseline and exits non-zero when any
+// benchmark got slower than the allowed threshold. Benchmarks missing from either side are reported
+// but do not fail the run, so adding or renaming a benchmark only needs a baseline refresh.
+public final class BaselineComparator {
+    
+    private BaselineComparator() {
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator <baseline.json> <result.json> [threshold]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.15;
+        
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+        
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null) {
+                System.out.printf("NEW        %s: %.3f %s%n", entry.getKey(), after.value(), after.unit());
+                continue;
+            }
+            double change = after.slowdownAgainst(before);
+            // Noisy runs whose error bars still overlap the baseline are not counted as regressions
+            boolean regressed = change > threshold && !after.overlaps(before);
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-10s %s: %.3f -> %.3f %s (%+.1f%%)%n",
+                regressed ? "REGRESSED" : "OK", entry.getKey(), before.value(), after.value(), after.unit(), change * 100);
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf("MISSING    %s%n", key);
+            }
+        }
+        
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+    }
+    
+    static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            JsonNode metric = run.get("primaryMetric");
+            scores.put(key(run), new Score(
+                run.get("mode").asText(),
+                metric.get("score").asDouble(),
+                metric.path("scoreError").asDouble(0),
+                metric.get("scoreUnit").asText()));
+        }
+        return scores;
+    }
+    
+    // Benchmark name plus its parameters, e.g. ExpenseMappingBenchmark.mapList{size=100}
+    private static String key(JsonNode run) {
+        String name = run.get("benchmark").asText();
+        JsonNode params = run.get("params");
+        if (params == null || params.isEmpty()) {
+            return name;
+        }
+        Map<String, String> sorted = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            sorted.put(field.getKey(), field.getValue().asText());
+        }
+        return name + sorted.toString().replace('[', '{').replace(']', '}');
+    }
+    
+    record Score(String mode, double value, double error, String unit) {
+        
+        // Positive when the current run is slower. Throughput is "higher is better", every other mode is time per op.
+        double slowdownAgainst(Score baseline) {
+            if ("thrpt".equals(mode)) {
+                return (baseline.value - value) / baseline.value;
+            }
+            return (value - baseline.value) / baseline.value;
+        }
+        
+        boolean overlaps(Score baseline) {
+            // JMH reports NaN as the error when there are too few iterations to estimate it
+            double ownError = Double.isNaN(error) ? 0 : error;
+            double baselineError = Double.isNaN(baseline.error) ? 0 : baseline.error;
+            return Math.abs(value - baseline.value) <= ownError + baselineError;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Entity to response mapping done for every expense in every list endpoint
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseMappingBenchmark {
+    
+    @State(Scope.Benchmark)
+    public static class Single {
+        
+        private Expense expense;
+        
+        @Setup
+        public void setUp() {
+            expense = BenchmarkData.expenses(1).get(0);
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class Batch {
+        
+        @Param({"100", "10000"})
+        private int size;
+        
+        private List<Expense> expenses;
+        
+        @Setup
+        public void setUp() {
+            expenses = BenchmarkData.expenses(size);
+        }
+    }
+    
+    @Benchmark
+    public ExpenseResponse fromEntity(Single state) {
+        return ExpenseResponse.fromEntity(state.expense);
+    }
+    
+    // Same shape as ExpenseService.getAllExpenses
+    @Benchmark
+    public List<ExpenseResponse> mapList(Batch state) {
+        return state.expenses.stream()
+            .map(ExpenseResponse::fromEntity)
+            .collect(Collectors.toList());
+    }
+    
+    static final class BenchmarkData {
+        
+        private static final String[] CATEGORY_NAMES = {"Groceries", "Transportation", "Entertainment", "Utilities", "Other"};
+        
+        private BenchmarkData() {
+        }
+        
+        static List<Expense> expenses(int size) {
+            List<Category> categories = new ArrayList<>();
+            for (int i = 0; i < CATEGORY_NAMES.length; i++) {
+                categories.add(new Category((long) i + 1, CATEGORY_NAMES[i], null, true,
+                    LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 1, 1, 0, 0), 0L));
+            }
+            List<Expense> expenses = new ArrayList<>(size);
+            LocalDate start = LocalDate.of(2025, 1, 1);
+            LocalDateTime created = LocalDateTime.of(2025, 1, 1, 12, 0);
+            for (int i = 0; i < size; i++) {
+                expenses.add(new Expense(
+                    (long) i + 1,
+                    BigDecimal.valueOf(100 + (i * 37L) % 10000, 2),
+                    categories.get(i % categories.size()),
+                    start.plusDays(i % 365),
+                    "Expense number " + i,
+                    created.plusMinutes(i),
+                    created.plusMinutes(i),
+                    0L));
+            }
+            return expenses;
+        }
+        
+        static List<ExpenseResponse> responses(int size) {
+            return expenses(size).stream()
+                .map(ExpenseResponse::fromEntity)
+                .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.BudgetStatusResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// BigDecimal arithmetic behind every budget status response and summary stream push
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BudgetStatusBenchmark {
+    
+    // Healthy, warning and over-budget spending against a 2000.00 limit
+    @Param({"1000.00", "1800.00", "2500.00"})
+    private String totalSpent;
+    
+    private BigDecimal monthlyLimit;
+    private BigDecimal spent;
+    
+    @Setup
+    public void setUp() {
+        monthlyLimit = new BigDecimal("2000.00");
+        spent = new BigDecimal(totalSpent);
+    }
+    
+    @Benchmark
+    public BudgetStatusResponse calculateStatus() {
+        return BudgetService.calculateStatus(monthlyLimit, spent);
+    }
+}
@@ -0,0 +1,42 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.RecurringExpense.RecurrenceFrequency;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Walks a schedule forward over a long horizon, as catching up a long-idle recurring expense would
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecurrenceBenchmark {
+    
+    @Param({"DAILY", "WEEKLY", "MONTHLY"})
+    private RecurrenceFrequency frequency;
+    
+    @Param({"10"})
+    private int horizonYears;
+    
+    private LocalDate start;
+    private LocalDate horizon;
+    
+    @Setup
+    public void setUp() {
+        // Month-end start dates exercise the day-of-month clamping in plusMonths
+        start = LocalDate.of(2024, 1, 31);
+        horizon = start.plusYears(horizonYears);
+    }
+    
+    @Benchmark
+    public LocalDate walkSchedule() {
+        LocalDate current = start;
+        while (current.isBefore(horizon)) {
+            current = RecurringExpenseService.calculateNextOccurrence(current, frequency);
+        }
+        return current;
+    }
+}
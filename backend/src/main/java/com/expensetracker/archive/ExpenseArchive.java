@@ -0,0 +1,154 @@
+package com.expensetracker.archive;
+
+import com.expensetracker.model.ArchivedExpense;
+import com.expensetracker.model.Expense;
+import com.expensetracker.repository.ArchivedExpenseRepository;
+import com.expensetracker.repository.ExpenseMonthlyRollupRepository;
+import com.expensetracker.repository.ExpenseRepository.CategorySummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+// Archive tier for old expenses (app.archive.enabled). Every night whole months older than the horizon
+// move from expenses to expenses_archive in batches, each batch adding its totals to the monthly rollups
+// in the same transaction. Reads go through here so a date range reaching past the horizon still sees
+// archived expenses, while ranges after it never touch the archive. The current month is never archived.
+@Service
+@Slf4j
+public class ExpenseArchive {
+    
+    static final String MOVED_COUNTER = "app.archive.expenses.moved";
+    
+    private final ArchivedExpenseRepository archivedExpenseRepository;
+    private final ExpenseMonthlyRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter moved;
+    private final boolean enabled;
+    private final Period horizon;
+    private final int batchSize;
+    // Day after the newest archived expense, or null while the archive is empty
+    private volatile LocalDate archivedBefore;
+    
+    public ExpenseArchive(ArchivedExpenseRepository archivedExpenseRepository,
+                          ExpenseMonthlyRollupRepository rollupRepository,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.archive.enabled:false}") boolean enabled,
+                          @Value("${app.archive.horizon:P2Y}") Period horizon,
+                          @Value("${app.archive.batch-size:1000}") int batchSize) {
+        if (horizon.isNegative() || horizon.isZero()) {
+            throw new IllegalArgumentException("app.archive.horizon must be positive");
+        }
+        this.archivedExpenseRepository = archivedExpenseRepository;
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.moved = Counter.builder(MOVED_COUNTER)
+            .description("Expenses moved from the expenses table into the archive")
+            .register(meterRegistry);
+        this.enabled = enabled;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+    }
+    
+    // Also when disabled: what an earlier run archived stays readable
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadBoundary() {
+        archivedBefore = archivedExpenseRepository.findLatestDate().map(date -> date.plusDays(1)).orElse(null);
+    }
+    
+    @Scheduled(cron = "${app.archive.cron:0 0 2 * * *}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate cutoff = cutoff();
+        long started = System.currentTimeMillis();
+        long total = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> archivedExpenseRepository.archiveBefore(cutoff, batchSize));
+            total += batch;
+            moved.increment(batch);
+        } while (batch == batchSize);
+        loadBoundary();
+        if (total > 0) {
+            log.info("Archived {} expenses dated before {} in {} ms", total, cutoff, System.currentTimeMillis() - started);
+        }
+    }
+    
+    // Whether expenses dated from startDate on (null: any date) may be in the archive. With archiving on,
+    // the cutoff counts too, so an instance whose boundary predates another instance's run still looks.
+    public boolean mayHoldExpensesFrom(LocalDate startDate) {
+        LocalDate before = archivedBefore;
+        if (enabled) {
+            LocalDate cutoff = cutoff();
+            before = before == null || cutoff.isAfter(before) ? cutoff : before;
+        }
+        return before != null && (startDate == null || startDate.isBefore(before));
+    }
+    
+    public List<Expense> findAll() {
+        if (!mayHoldExpensesFrom(null)) {
+            return List.of();
+        }
+        return toExpenses(archivedExpenseRepository.findAll());
+    }
+    
+    // Same filters and order as ExpenseService.getFilteredExpenses, minus the unfiltered case
+    public List<Expense> findFiltered(List<String> categoryNames, LocalDate startDate, LocalDate endDate) {
+        boolean hasCategories = categoryNames != null && !categoryNames.isEmpty();
+        boolean hasDateRange = startDate != null && endDate != null;
+        if (!mayHoldExpensesFrom(hasDateRange ? startDate : null)) {
+            return List.of();
+        }
+        if (hasCategories && hasDateRange) {
+            return toExpenses(archivedExpenseRepository.findByCategoryNamesAndDateBetweenOrderByDateDesc(
+                categoryNames, startDate, endDate));
+        }
+        if (hasCategories) {
+            return toExpenses(archivedExpenseRepository.findByCategoryNamesOrderByDateDesc(categoryNames));
+        }
+        if (hasDateRange) {
+            return toExpenses(archivedExpenseRepository.findByDateBetweenOrderByDateDesc(startDate, endDate));
+        }
+        return findAll();
+    }
+    
+    public Optional<Expense> findById(Long id) {
+        if (!mayHoldExpensesFrom(null)) {
+            return Optional.empty();
+        }
+        return archivedExpenseRepository.findById(id).map(ArchivedExpense::toExpense);
+    }
+    
+    public List<CategorySummary> findTotalByCategory() {
+        if (!mayHoldExpensesFrom(null)) {
+            return List.of();
+        }
+        return rollupRepository.findTotalByCategory();
+    }
+    
+    // First day of the month the horizon falls in, and never later than the start of the current month
+    LocalDate cutoff() {
+        LocalDate today = LocalDate.now();
+        LocalDate cutoff = YearMonth.from(today.minus(horizon)).atDay(1);
+        LocalDate currentMonth = YearMonth.from(today).atDay(1);
+        return cutoff.isAfter(currentMonth) ? currentMonth : cutoff;
+    }
+    
+    private static List<Expense> toExpenses(List<ArchivedExpense> archived) {
+        return archived.stream().map(ArchivedExpense::toExpense).toList();
+    }
+}
@@ -0,0 +1,32 @@
+package com.expensetracker.config;
+
+import com.expensetracker.resilience.RequestDeadline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+    
+    // Bounded pool for the dashboard's independent sub-queries. When the queue is full the
+    // caller runs the task itself, so a burst degrades to sequential execution instead of failing.
+    @Bean
+    public ThreadPoolTaskExecutor dashboardExecutor(
+            @Value("${app.dashboard.executor.core-size:4}") int coreSize,
+            @Value("${app.dashboard.executor.max-size:8}") int maxSize,
+            @Value("${app.dashboard.executor.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // Sub-queries must honour the request's read-your-writes routing and its deadline
+        executor.setTaskDecorator(task -> RequestDeadline.propagate(ReadConsistencyContext.propagate(task)));
+        executor.initialize();
+        return executor;
+    }
+}
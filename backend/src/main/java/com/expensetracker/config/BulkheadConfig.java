@@ -0,0 +1,106 @@
+package com.expensetracker.config;
+
+import com.expensetracker.resilience.BulkheadAspect;
+import com.expensetracker.resilience.BulkheadStatementTimeouts;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Interactive and reporting bulkheads (app.bulkheads.enabled): separate worker threads for @Bulkhead methods,
+// and for reporting a separate connection pool on the primary, built from spring.datasource plus
+// app.bulkheads.reporting.hikari. With replica routing on, reporting also gets a pool of the same size on
+// the replica, routed the way the application's pools are. Interactive work keeps using the application's
+// pool or pools.
+@Configuration
+@ConditionalOnProperty(name = "app.bulkheads.enabled", havingValue = "true")
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfig {
+    
+    static final String REPORTING_POOL_PROPERTIES = "app.bulkheads.reporting.hikari";
+    
+    @Bean
+    public BulkheadAspect bulkheadAspect(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        return new BulkheadAspect(properties, meterRegistry);
+    }
+    
+    @Bean
+    public BulkheadStatementTimeouts bulkheadStatementTimeouts(BulkheadProperties properties) {
+        return new BulkheadStatementTimeouts(properties);
+    }
+    
+    // Replaces the DataSource bean, whichever configuration made it, with a router in front of it and the
+    // reporting pool. A pool the SQL listeners have not been attached to yet gets them here, so the outcome
+    // does not depend on which post-processor runs first.
+    @Bean
+    static BeanPostProcessor bulkheadDataSourcePostProcessor(ObjectProvider<DataSourceProperties> dataSourceProperties,
+                                                             Environment environment,
+                                                             ObjectProvider<QueryExecutionListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                DataSourceProperties properties = dataSourceProperties.getObject();
+                HikariDataSource reportingPool = reportingPool(properties.initializeDataSourceBuilder(), environment,
+                    "reporting");
+                List<HikariDataSource> reportingPools = new ArrayList<>(List.of(reportingPool));
+                DataSource reporting = SqlMonitoringConfig.monitored("reportingDataSource", reportingPool, listeners);
+                if (environment.getProperty("app.datasource.replica.enabled", Boolean.class, false)) {
+                    HikariDataSource replicaPool = reportingPool(DataSourceBuilder.create()
+                            .driverClassName(properties.determineDriverClassName())
+                            .url(environment.getRequiredProperty("app.datasource.replica.url"))
+                            .username(environment.getRequiredProperty("app.datasource.replica.username"))
+                            .password(environment.getRequiredProperty("app.datasource.replica.password")),
+                        environment, "reporting-replica");
+                    reportingPools.add(replicaPool);
+                    reporting = ReplicaRoutingConfig.routed(reporting,
+                        SqlMonitoringConfig.monitored("reportingReplicaDataSource", replicaPool, listeners));
+                }
+                DataSource interactive = bean instanceof HikariDataSource hikari
+                    ? SqlMonitoringConfig.monitored(beanName, hikari, listeners)
+                    : dataSource;
+                return new BulkheadRoutingDataSource(interactive, reportingPools, reporting);
+            }
+        };
+    }
+    
+    private static HikariDataSource reportingPool(DataSourceBuilder<?> builder, Environment environment, String poolName) {
+        HikariDataSource pool = builder.type(HikariDataSource.class).build();
+        Binder.get(environment).bind(REPORTING_POOL_PROPERTIES, Bindable.ofInstance(pool));
+        pool.setPoolName(poolName);
+        return pool;
+    }
+    
+    // Spring Boot only instruments pools that are beans, or that a bean unwraps to
+    @Bean
+    public MeterBinder reportingPoolMetrics(DataSource dataSource) {
+        return registry -> {
+            try {
+                for (HikariDataSource pool : dataSource.unwrap(BulkheadRoutingDataSource.class).getReportingPools()) {
+                    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                }
+            } catch (SQLException ex) {
+                throw new IllegalStateException("The DataSource is not routed by bulkhead", ex);
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.expensetracker.config;
+
+import com.expensetracker.resilience.BulkheadType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// app.bulkheads.<bulkhead>: worker threads, how many calls may queue for them, and the timeout of each
+// statement they run. The reporting connection pool is configured under app.bulkheads.reporting.hikari.
+@ConfigurationProperties("app.bulkheads")
+public record BulkheadProperties(@DefaultValue("1s") Duration retryAfter, Settings interactive, Settings reporting) {
+    
+    public Settings settings(BulkheadType bulkhead) {
+        Settings settings = bulkhead == BulkheadType.REPORTING ? reporting : interactive;
+        if (settings == null) {
+            throw new IllegalStateException("app.bulkheads." + bulkhead.name().toLowerCase() + " is not configured");
+        }
+        return settings;
+    }
+    
+    public record Settings(int threads, int queueCapacity, Duration statementTimeout) {
+    }
+}
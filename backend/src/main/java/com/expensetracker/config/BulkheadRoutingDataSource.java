@@ -0,0 +1,51 @@
+package com.expensetracker.config;
+
+import com.expensetracker.resilience.BulkheadContext;
+import com.expensetracker.resilience.BulkheadType;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+// Hands reporting bulkhead workers connections from their own pools and everyone else the application's
+// DataSource as it was, replica routing included. Takes over closing that DataSource, since it replaces
+// the bean.
+public class BulkheadRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    
+    private final DataSource interactive;
+    private final List<HikariDataSource> reportingPools;
+    
+    // The first reporting pool is the one on the primary; a second one, on the replica, sits behind reporting
+    public BulkheadRoutingDataSource(DataSource interactive, List<HikariDataSource> reportingPools, DataSource reporting) {
+        this.interactive = interactive;
+        this.reportingPools = List.copyOf(reportingPools);
+        setTargetDataSources(Map.of(BulkheadType.INTERACTIVE, interactive, BulkheadType.REPORTING, reporting));
+        setDefaultTargetDataSource(interactive);
+        afterPropertiesSet();
+    }
+    
+    public HikariDataSource getReportingPool() {
+        return reportingPools.get(0);
+    }
+    
+    public List<HikariDataSource> getReportingPools() {
+        return reportingPools;
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return BulkheadContext.current() == BulkheadType.REPORTING ? BulkheadType.REPORTING : BulkheadType.INTERACTIVE;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reportingPools.forEach(HikariDataSource::close);
+        if (interactive instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
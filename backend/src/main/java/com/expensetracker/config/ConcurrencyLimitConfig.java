@@ -0,0 +1,44 @@
+package com.expensetracker.config;
+
+import com.expensetracker.resilience.AdaptiveConcurrencyLimiter;
+import com.expensetracker.resilience.ConcurrencyLimitFilter;
+import com.expensetracker.resilience.EndpointGroup;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "app.concurrency.enabled", havingValue = "true")
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+    
+    // Ahead of every other application filter, so a refused request costs as little as possible
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ConcurrencyLimitProperties properties,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+            MeterRegistry meterRegistry) {
+        Map<EndpointGroup, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+        for (EndpointGroup group : EndpointGroup.values()) {
+            ConcurrencyLimitProperties.Group limits = properties.groups().get(group);
+            if (limits == null) {
+                throw new IllegalStateException("app.concurrency.groups." + group.name().toLowerCase() + " is not configured");
+            }
+            limiters.put(group, new AdaptiveConcurrencyLimiter(limits.initialLimit(), limits.minLimit(),
+                limits.maxLimit(), limits.latencyTarget().toNanos()));
+        }
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+            new ConcurrencyLimitFilter(limiters, properties.retryAfter(), exceptionResolver, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+}
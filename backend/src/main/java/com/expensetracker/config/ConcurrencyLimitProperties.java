@@ -0,0 +1,18 @@
+package com.expensetracker.config;
+
+import com.expensetracker.resilience.EndpointGroup;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+// app.concurrency.groups.<group>: where each endpoint group's limit starts, how far it may move, and the
+// latency above which a request counts as a sign of overload
+@ConfigurationProperties("app.concurrency")
+public record ConcurrencyLimitProperties(@DefaultValue("1s") Duration retryAfter,
+                                         @DefaultValue Map<EndpointGroup, Group> groups) {
+    
+    public record Group(int initialLimit, int minLimit, int maxLimit, Duration latencyTarget) {
+    }
+}
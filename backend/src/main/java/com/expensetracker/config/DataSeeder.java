@@ -3,6 +3,7 @@ package com.expensetracker.config;
 import com.expensetracker.model.Category;
 import com.expensetracker.model.Expense;
 import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.ExpenseEventRepository;
 import com.expensetracker.repository.ExpenseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,9 +24,10 @@ public class DataSeeder {
     
     private final ExpenseRepository expenseRepository;
     private final CategoryRepository categoryRepository;
+    private final ExpenseEventRepository expenseEventRepository;
     
     @Bean
-    @Profile("dev")
+    @Profile("dev & !synthetic")
     public CommandLineRunner seedData() {
         return args -> {
             // Seed default categories first
@@ -118,6 +120,7 @@ public class DataSeeder {
             );
             
             expenseRepository.saveAll(sampleExpenses);
+            expenseEventRepository.recordUnloggedCreations();
             log.info("Successfully seeded {} expense records", sampleExpenses.size());
         };
     }
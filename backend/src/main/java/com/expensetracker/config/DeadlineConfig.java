@@ -0,0 +1,32 @@
+package com.expensetracker.config;
+
+import com.expensetracker.resilience.DeadlineFilter;
+import com.expensetracker.resilience.DeadlineStatementTimeouts;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "app.deadlines.enabled", havingValue = "true")
+@EnableConfigurationProperties(DeadlineProperties.class)
+public class DeadlineConfig {
+    
+    // The clock starts before load shedding, so time spent in any filter counts against the deadline
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter(DeadlineProperties properties, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<DeadlineFilter> registration = new FilterRegistrationBean<>(
+            new DeadlineFilter(properties.groups(), properties.max(), meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 90);
+        return registration;
+    }
+    
+    // Picked up by SqlMonitoringConfig, like every QueryExecutionListener bean
+    @Bean
+    public DeadlineStatementTimeouts deadlineStatementTimeouts() {
+        return new DeadlineStatementTimeouts();
+    }
+}
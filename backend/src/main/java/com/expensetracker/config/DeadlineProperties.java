@@ -0,0 +1,14 @@
+package com.expensetracker.config;
+
+import com.expensetracker.resilience.EndpointGroup;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+// app.deadlines.groups.<group>: deadline of requests that do not send X-Request-Timeout; max caps the ones
+// that do
+@ConfigurationProperties("app.deadlines")
+public record DeadlineProperties(@DefaultValue("2m") Duration max, @DefaultValue Map<EndpointGroup, Duration> groups) {
+}
@@ -0,0 +1,42 @@
+package com.expensetracker.config;
+
+// Per-thread hint that the current request must see its own recent writes, so reads go to the primary
+// even inside read-only transactions. Set by ReadConsistencyFilter and carried onto worker threads
+// by propagate().
+public final class ReadConsistencyContext {
+    
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+    
+    private ReadConsistencyContext() {
+    }
+    
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+    
+    public static void setPrimaryRequired(boolean primaryRequired) {
+        if (primaryRequired) {
+            PRIMARY_REQUIRED.set(Boolean.TRUE);
+        } else {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+    
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+    
+    // Usable as a TaskDecorator for executors that run work on behalf of a request
+    public static Runnable propagate(Runnable task) {
+        boolean primaryRequired = isPrimaryRequired();
+        return () -> {
+            boolean previous = isPrimaryRequired();
+            setPrimaryRequired(primaryRequired);
+            try {
+                task.run();
+            } finally {
+                setPrimaryRequired(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.expensetracker.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// Clients report how long ago (in milliseconds, by their own clock) they last wrote. Requests inside
+// the read-your-writes window are pinned to the primary so they never see a replica that has not
+// caught up with that write yet.
+public class ReadConsistencyFilter extends OncePerRequestFilter {
+    
+    static final String LAST_WRITE_AGE_HEADER = "X-Last-Write-Age";
+    
+    private final long readYourWritesWindowMillis;
+    
+    public ReadConsistencyFilter(Duration readYourWritesWindow) {
+        this.readYourWritesWindowMillis = readYourWritesWindow.toMillis();
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ReadConsistencyContext.setPrimaryRequired(isWithinWindow(request.getHeader(LAST_WRITE_AGE_HEADER)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadConsistencyContext.clear();
+        }
+    }
+    
+    private boolean isWithinWindow(String lastWriteAge) {
+        if (lastWriteAge == null || lastWriteAge.isBlank()) {
+            return false;
+        }
+        try {
+            long age = Long.parseLong(lastWriteAge.trim());
+            return age >= 0 && age < readYourWritesWindowMillis;
+        } catch (NumberFormatException ex) {
+            // A garbled header costs a primary read, never a stale one
+            return true;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.expensetracker.config;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class SchedulingConfig {
+    
+    // Declaring any scheduler turns off Boot's, so the shared one is still built from spring.task.scheduling
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+    
+    // The summary stream flushes every half second, so it must not queue behind the pollers or the nightly jobs
+    @Bean
+    public ThreadPoolTaskScheduler summaryStreamScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("summary-stream-");
+        return scheduler;
+    }
+}
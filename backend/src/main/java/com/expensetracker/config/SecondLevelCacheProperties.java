@@ -0,0 +1,15 @@
+package com.expensetracker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+// app.cache.regions.<region>: size and time-to-live of each Hibernate cache region
+@ConfigurationProperties("app.cache")
+public record SecondLevelCacheProperties(@DefaultValue Map<String, Region> regions) {
+    
+    public record Region(long maxEntries, Duration ttl) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.expensetracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SqlMonitoringConfig {
+    
+    // Wraps each connection pool, not the routing proxy in front of them, so a statement is seen exactly
+    // once whichever pool serves it. The proxy delegates unwrap(), so pool metrics still find Hikari.
+    // Every QueryExecutionListener bean is attached, which is also how tests count statements.
+    @Bean
+    static BeanPostProcessor sqlListenerDataSourcePostProcessor(ObjectProvider<QueryExecutionListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    return monitored(beanName, dataSource, listeners);
+                }
+                return bean;
+            }
+        };
+    }
+    
+    // Also used for pools that are not beans of their own, such as the reporting bulkhead's
+    static DataSource monitored(String name, HikariDataSource dataSource, ObjectProvider<QueryExecutionListener> listeners) {
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(name, dataSource);
+        listeners.orderedStream().forEach(builder::listener);
+        return builder.build();
+    }
+}
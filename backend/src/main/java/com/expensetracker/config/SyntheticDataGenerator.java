@@ -0,0 +1,236 @@
+package com.expensetracker.config;
+
+import com.expensetracker.config.SyntheticDataset.ExpenseRow;
+import com.expensetracker.config.SyntheticDataset.RecurringRow;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import com.expensetracker.repository.ExpenseEventRepository;
+import com.expensetracker.repository.SecondLevelCache;
+import com.expensetracker.repository.TableVersionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Capacity-testing data: SPRING_PROFILES_ACTIVE=dev,synthetic replaces the hand-written DataSeeder rows
+// with a generated dataset sized by app.synthetic.*. Rows are streamed through Postgres COPY; other
+// databases (H2 in tests) fall back to JDBC batches. Runs only against an empty expenses table.
+@Configuration
+@Profile("synthetic")
+@Slf4j
+public class SyntheticDataGenerator {
+    
+    private static final String EXPENSE_COLUMNS = "amount, category_id, date, description, created_at, updated_at";
+    private static final String RECURRING_COLUMNS =
+        "amount, category_id, description, frequency, start_date, end_date, next_occurrence, active, created_at, updated_at";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TableVersionRepository tableVersionRepository;
+    private final SecondLevelCache secondLevelCache;
+    private final ExpenseEventRepository expenseEventRepository;
+    private final int categories;
+    private final long expenses;
+    private final int years;
+    private final int recurring;
+    private final long seed;
+    private final int batchSize;
+    private final String endDate;
+    
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  TableVersionRepository tableVersionRepository,
+                                  SecondLevelCache secondLevelCache,
+                                  ExpenseEventRepository expenseEventRepository,
+                                  @Value("${app.synthetic.categories:20}") int categories,
+                                  @Value("${app.synthetic.expenses:1000000}") long expenses,
+                                  @Value("${app.synthetic.years:3}") int years,
+                                  @Value("${app.synthetic.recurring:200}") int recurring,
+                                  @Value("${app.synthetic.seed:42}") long seed,
+                                  @Value("${app.synthetic.batch-size:5000}") int batchSize,
+                                  @Value("${app.synthetic.end-date:}") String endDate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tableVersionRepository = tableVersionRepository;
+        this.secondLevelCache = secondLevelCache;
+        this.expenseEventRepository = expenseEventRepository;
+        this.categories = categories;
+        this.expenses = expenses;
+        this.years = years;
+        this.recurring = recurring;
+        this.seed = seed;
+        this.batchSize = batchSize;
+        this.endDate = endDate;
+    }
+    
+    @Bean
+    public CommandLineRunner generateSyntheticData() {
+        return args -> generate();
+    }
+    
+    void generate() {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Database already contains {} expenses. Skipping synthetic data generation.", existing);
+            return;
+        }
+        
+        // A fixed end date makes the dataset reproducible across days, not just across runs
+        LocalDate end = endDate.isBlank() ? LocalDate.now() : LocalDate.parse(endDate);
+        SyntheticDataset dataset = new SyntheticDataset(seed, categories, years, end);
+        long started = System.currentTimeMillis();
+        log.info("Generating {} expenses, {} categories and {} recurring expenses over {} years (seed {})",
+            expenses, categories, recurring, years, seed);
+        
+        long[] categoryIds = loadCategories(dataset.categoryNames());
+        boolean postgres = Boolean.TRUE.equals(jdbcTemplate.execute(
+            (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class)));
+        BigDecimal total = postgres
+            ? copyExpenses(dataset, categoryIds)
+            : batchInsertExpenses(dataset, categoryIds);
+        insertRecurring(dataset, categoryIds);
+        insertBudget(total);
+        // Projections learn about the loaded rows from the outbox like about any other expense
+        expenseEventRepository.recordUnloggedCreations();
+        
+        if (postgres) {
+            jdbcTemplate.execute("ANALYZE expenses");
+        }
+        // Bulk loads bypass the services, so cached ETags and Hibernate's caches have to be invalidated here
+        tableVersionRepository.incrementVersions(EnumSet.allOf(TrackedTable.class));
+        secondLevelCache.evictAll();
+        log.info("Generated synthetic dataset in {} ms", System.currentTimeMillis() - started);
+    }
+    
+    // Reuses categories that already exist (the defaults), returns ids in dataset order
+    private long[] loadCategories(List<String> names) {
+        Map<String, Long> existing = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM categories",
+            row -> {
+                existing.put(row.getString("name"), row.getLong("id"));
+            });
+        
+        List<Object[]> missing = new ArrayList<>();
+        for (String name : names) {
+            if (!existing.containsKey(name)) {
+                missing.add(new Object[] {name, "Generated category", false});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO categories (name, description, is_default, created_at, updated_at) "
+                + "VALUES (?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", missing);
+        
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM categories",
+            row -> {
+                ids.put(row.getString("name"), row.getLong("id"));
+            });
+        return names.stream().mapToLong(ids::get).toArray();
+    }
+    
+    private BigDecimal copyExpenses(SyntheticDataset dataset, long[] categoryIds) {
+        return jdbcTemplate.execute((ConnectionCallback<BigDecimal>) connection -> {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            String sql = "COPY expenses (" + EXPENSE_COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+            BigDecimal total = BigDecimal.ZERO;
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(pgConnection, sql, 1 << 16), StandardCharsets.UTF_8), 1 << 16)) {
+                for (long i = 0; i < expenses; i++) {
+                    ExpenseRow row = dataset.nextExpense();
+                    total = total.add(row.amount());
+                    // Generated descriptions never contain commas or quotes, so no CSV quoting is needed
+                    writer.write(row.amount().toPlainString());
+                    writer.write(',');
+                    writer.write(Long.toString(categoryIds[row.categoryIndex()]));
+                    writer.write(',');
+                    writer.write(row.date().toString());
+                    writer.write(',');
+                    writer.write(row.description());
+                    writer.write(',');
+                    writer.write(row.createdAt().toString());
+                    writer.write(',');
+                    writer.write(row.createdAt().toString());
+                    writer.write('\n');
+                    logProgress(i + 1);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("COPY into expenses failed", ex);
+            }
+            return total;
+        });
+    }
+    
+    private BigDecimal batchInsertExpenses(SyntheticDataset dataset, long[] categoryIds) {
+        String sql = "INSERT INTO expenses (" + EXPENSE_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?)";
+        BigDecimal total = BigDecimal.ZERO;
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (long i = 0; i < expenses; i++) {
+            ExpenseRow row = dataset.nextExpense();
+            total = total.add(row.amount());
+            Timestamp createdAt = Timestamp.valueOf(row.createdAt());
+            batch.add(new Object[] {row.amount(), categoryIds[row.categoryIndex()], Date.valueOf(row.date()),
+                row.description(), createdAt, createdAt});
+            if (batch.size() == batchSize) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+            logProgress(i + 1);
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+        return total;
+    }
+    
+    private void insertRecurring(SyntheticDataset dataset, long[] categoryIds) {
+        List<Object[]> rows = new ArrayList<>(recurring);
+        for (int i = 0; i < recurring; i++) {
+            RecurringRow row = dataset.nextRecurring();
+            Timestamp createdAt = Timestamp.valueOf(row.createdAt());
+            rows.add(new Object[] {row.amount(), categoryIds[row.categoryIndex()], row.description(),
+                row.frequency().name(), Date.valueOf(row.startDate()),
+                row.endDate() == null ? null : Date.valueOf(row.endDate()),
+                Date.valueOf(row.nextOccurrence()), row.active(), createdAt, createdAt});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO recurring_expenses (" + RECURRING_COLUMNS + ") "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+    
+    // A limit a little above the average month, so the budget status has something to say
+    private void insertBudget(BigDecimal total) {
+        Long budgets = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM budgets", Long.class);
+        if (budgets != null && budgets > 0) {
+            return;
+        }
+        BigDecimal monthlyAverage = total.divide(BigDecimal.valueOf(years * 12L), 2, RoundingMode.HALF_UP);
+        BigDecimal limit = monthlyAverage.multiply(new BigDecimal("1.1")).setScale(-2, RoundingMode.CEILING)
+            .max(new BigDecimal("100")).setScale(2);
+        jdbcTemplate.update("INSERT INTO budgets (monthly_limit, created_at, updated_at) "
+            + "VALUES (?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", limit);
+    }
+    
+    private void logProgress(long written) {
+        if (written % 1_000_000 == 0) {
+            log.info("Generated {} of {} expenses", written, expenses);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.expensetracker.config;
+
+import com.expensetracker.model.RecurringExpense.RecurrenceFrequency;
+import com.expensetracker.service.RecurringExpenseService;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Deterministic synthetic rows: the same seed and end date always produce the same dataset.
+// Categories follow a Zipf-like popularity, amounts are log-normal around a per-category median,
+// and dates lean towards weekends and December the way real spending does.
+public class SyntheticDataset {
+    
+    private static final String[] DEFAULT_CATEGORIES = {"Groceries", "Transportation", "Entertainment", "Utilities", "Other"};
+    private static final String[] EXTRA_CATEGORIES = {"Dining", "Health", "Travel", "Education", "Shopping",
+        "Insurance", "Gifts", "Pets", "Home", "Fitness", "Childcare", "Personal Care", "Subscriptions", "Charity"};
+    private static final String[] DESCRIPTIONS = {"Card payment", "Online order", "Monthly bill", "Weekly shop",
+        "Quick purchase", "Refill", "Booking", "Service fee", "Store visit", "Cash payment"};
+    
+    private static final double ZIPF_EXPONENT = 1.1;
+    private static final double AMOUNT_SIGMA = 0.6;
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("99999999.99");
+    
+    // Frequencies and weights for recurring schedules, most bills are monthly
+    private static final RecurrenceFrequency[] FREQUENCIES = RecurrenceFrequency.values();
+    private static final double[] FREQUENCY_CUMULATIVE = cumulative(new double[] {0.05, 0.20, 0.10, 0.50, 0.05, 0.10});
+    
+    private final SplittableRandom random;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final List<String> categoryNames;
+    private final double[] categoryCumulative;
+    private final double[] categoryMedians;
+    private final double[] dayCumulative;
+    private long expenseCounter;
+    
+    public SyntheticDataset(long seed, int categories, int years, LocalDate endDate) {
+        if (categories < 1 || years < 1) {
+            throw new IllegalArgumentException("Synthetic dataset needs at least one category and one year");
+        }
+        this.random = new SplittableRandom(seed);
+        this.endDate = endDate;
+        this.startDate = endDate.minusYears(years).plusDays(1);
+        this.categoryNames = buildCategoryNames(categories);
+        
+        double[] popularity = new double[categories];
+        for (int rank = 0; rank < categories; rank++) {
+            popularity[rank] = 1 / Math.pow(rank + 1, ZIPF_EXPONENT);
+        }
+        this.categoryCumulative = cumulative(popularity);
+        
+        // Typical spend per category between 5 and 150
+        this.categoryMedians = new double[categories];
+        for (int i = 0; i < categories; i++) {
+            categoryMedians[i] = 5 + random.nextDouble() * 145;
+        }
+        
+        int days = (int) (endDate.toEpochDay() - startDate.toEpochDay()) + 1;
+        double[] dayWeights = new double[days];
+        for (int day = 0; day < days; day++) {
+            LocalDate date = startDate.plusDays(day);
+            double weight = 1.0;
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                weight *= 1.4;
+            }
+            if (date.getMonth() == Month.DECEMBER) {
+                weight *= 1.3;
+            }
+            dayWeights[day] = weight;
+        }
+        this.dayCumulative = cumulative(dayWeights);
+    }
+    
+    public List<String> categoryNames() {
+        return categoryNames;
+    }
+    
+    public LocalDate startDate() {
+        return startDate;
+    }
+    
+    public ExpenseRow nextExpense() {
+        int category = pick(categoryCumulative);
+        LocalDate date = startDate.plusDays(pick(dayCumulative));
+        BigDecimal amount = logNormalAmount(categoryMedians[category]);
+        String description = DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)] + " #" + (++expenseCounter);
+        LocalDateTime createdAt = date.atStartOfDay().plusSeconds(random.nextInt(86_400));
+        return new ExpenseRow(amount, category, date, description, createdAt);
+    }
+    
+    public RecurringRow nextRecurring() {
+        int category = pick(categoryCumulative);
+        RecurrenceFrequency frequency = FREQUENCIES[pick(FREQUENCY_CUMULATIVE)];
+        LocalDate start = startDate.plusDays(random.nextLong(endDate.toEpochDay() - startDate.toEpochDay() + 1));
+        // Recurring bills are steadier than one-off spending, so no per-row noise beyond rounding
+        BigDecimal amount = BigDecimal.valueOf(categoryMedians[category] * (0.5 + random.nextDouble()))
+            .setScale(2, RoundingMode.HALF_UP);
+        
+        // One in five schedules has an end date, which may already be in the past
+        LocalDate end = random.nextInt(5) == 0 ? start.plusMonths(1 + random.nextInt(36)) : null;
+        LocalDate next = start;
+        while (!next.isAfter(endDate)) {
+            next = RecurringExpenseService.calculateNextOccurrence(next, frequency);
+        }
+        boolean active = end == null || !end.isBefore(next);
+        String description = frequency.name().charAt(0) + frequency.name().substring(1).toLowerCase() + " "
+            + categoryNames.get(category).toLowerCase() + " payment";
+        return new RecurringRow(amount, category, description, frequency, start, end, next, active,
+            start.atStartOfDay().plusSeconds(random.nextInt(86_400)));
+    }
+    
+    private BigDecimal logNormalAmount(double median) {
+        double value = median * Math.exp(AMOUNT_SIGMA * random.nextGaussian());
+        BigDecimal amount = BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+        if (amount.signum() <= 0) {
+            return new BigDecimal("0.01");
+        }
+        return amount.min(MAX_AMOUNT);
+    }
+    
+    private int pick(double[] cumulative) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, target);
+        return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+    }
+    
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+    
+    // The application's default categories come first so they are also the most popular
+    private static List<String> buildCategoryNames(int count) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (i < DEFAULT_CATEGORIES.length) {
+                names.add(DEFAULT_CATEGORIES[i]);
+            } else if (i < DEFAULT_CATEGORIES.length + EXTRA_CATEGORIES.length) {
+                names.add(EXTRA_CATEGORIES[i - DEFAULT_CATEGORIES.length]);
+            } else {
+                names.add("Category " + (i + 1));
+            }
+        }
+        return names;
+    }
+    
+    public record ExpenseRow(BigDecimal amount, int categoryIndex, LocalDate date, String description,
+                             LocalDateTime createdAt) {
+    }
+    
+    public record RecurringRow(BigDecimal amount, int categoryIndex, String description,
+                               RecurrenceFrequency frequency, LocalDate startDate, LocalDate endDate,
+                               LocalDate nextOccurrence, boolean active, LocalDateTime createdAt) {
+    }
+}
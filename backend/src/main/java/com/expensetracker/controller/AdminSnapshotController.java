@@ -0,0 +1,44 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.dto.SnapshotImportResponse;
+import com.expensetracker.snapshot.DatasetSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Whole-dataset export and restore. Only mapped when app.admin.enabled is set, since a PUT replaces everything.
+@RestController
+@RequestMapping("/api/admin/snapshot")
+@ConditionalOnProperty(name = "app.admin.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminSnapshotController {
+    
+    private final DatasetSnapshotService datasetSnapshotService;
+    
+    @GetMapping(produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportSnapshot() {
+        log.info("GET /api/admin/snapshot - Exporting dataset snapshot");
+        String filename = "expenses-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".snapshot";
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body(datasetSnapshotService::export);
+    }
+    
+    // The body is read as it arrives, so a large file never has to fit in memory
+    @PutMapping(consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<SnapshotImportResponse> importSnapshot(InputStream body) {
+        log.info("PUT /api/admin/snapshot - Replacing the dataset from a snapshot");
+        return ResponseEntity.ok(datasetSnapshotService.importSnapshot(body));
+    }
+}
@@ -3,13 +3,18 @@ package com.expensetracker.controller;
 import com.expensetracker.dto.BudgetRequest;
 import com.expensetracker.dto.BudgetResponse;
 import com.expensetracker.dto.BudgetStatusResponse;
+import com.expensetracker.model.TableVersion.TrackedTable;
 import com.expensetracker.service.BudgetService;
+import com.expensetracker.service.TableVersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.YearMonth;
 
 @RestController
 @RequestMapping("/api/budget")
@@ -19,10 +24,14 @@ import org.springframework.web.bind.annotation.*;
 public class BudgetController {
     
     private final BudgetService budgetService;
+    private final TableVersionService tableVersionService;
     
     @GetMapping
-    public ResponseEntity<BudgetResponse> getBudget() {
+    public ResponseEntity<BudgetResponse> getBudget(WebRequest webRequest) {
         log.info("GET /api/budget - Fetching budget");
+        if (webRequest.checkNotModified(tableVersionService.etag(TrackedTable.BUDGETS))) {
+            return null;
+        }
         BudgetResponse budget = budgetService.getBudget();
         return ResponseEntity.ok(budget);
     }
@@ -35,8 +44,12 @@ public class BudgetController {
     }
     
     @GetMapping("/status")
-    public ResponseEntity<BudgetStatusResponse> getBudgetStatus() {
+    public ResponseEntity<BudgetStatusResponse> getBudgetStatus(WebRequest webRequest) {
         log.info("GET /api/budget/status - Fetching budget status");
+        if (webRequest.checkNotModified(
+                tableVersionService.etag(YearMonth.now(), TrackedTable.BUDGETS, TrackedTable.EXPENSES))) {
+            return null;
+        }
         BudgetStatusResponse status = budgetService.getBudgetStatus();
         return ResponseEntity.ok(status);
     }
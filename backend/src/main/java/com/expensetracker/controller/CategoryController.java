@@ -2,13 +2,16 @@ package com.expensetracker.controller;
 
 import com.expensetracker.dto.CategoryRequest;
 import com.expensetracker.dto.CategoryResponse;
+import com.expensetracker.model.TableVersion.TrackedTable;
 import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.TableVersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -20,17 +23,24 @@ import java.util.List;
 public class CategoryController {
     
     private final CategoryService categoryService;
+    private final TableVersionService tableVersionService;
     
     @GetMapping
-    public ResponseEntity<List<CategoryResponse>> getAllCategories() {
+    public ResponseEntity<List<CategoryResponse>> getAllCategories(WebRequest webRequest) {
         log.info("GET /api/categories - Fetching all categories");
+        if (webRequest.checkNotModified(tableVersionService.etag(TrackedTable.CATEGORIES))) {
+            return null;
+        }
         List<CategoryResponse> categories = categoryService.getAllCategories();
         return ResponseEntity.ok(categories);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryResponse> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<CategoryResponse> getCategoryById(@PathVariable Long id, WebRequest webRequest) {
         log.info("GET /api/categories/{} - Fetching category", id);
+        if (webRequest.checkNotModified(tableVersionService.etag(TrackedTable.CATEGORIES))) {
+            return null;
+        }
         CategoryResponse category = categoryService.getCategoryById(id);
         return ResponseEntity.ok(category);
     }
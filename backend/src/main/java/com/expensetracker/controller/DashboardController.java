@@ -0,0 +1,45 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.dto.DashboardResponse;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import com.expensetracker.service.DashboardService;
+import com.expensetracker.service.TableVersionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class DashboardController {
+    
+    private final DashboardService dashboardService;
+    private final TableVersionService tableVersionService;
+    
+    @GetMapping
+    public ResponseEntity<DashboardResponse> getDashboard(
+            @RequestParam(required = false) List<String> categories,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean consistent,
+            WebRequest webRequest) {
+        log.info("GET /api/dashboard - categories: {}, startDate: {}, endDate: {}, consistent: {}",
+            categories, startDate, endDate, consistent);
+        if (webRequest.checkNotModified(tableVersionService.etag(YearMonth.now(), TrackedTable.values()))) {
+            return null;
+        }
+        DashboardResponse dashboard = consistent
+            ? dashboardService.getDashboardSnapshot(categories, startDate, endDate)
+            : dashboardService.getDashboard(categories, startDate, endDate);
+        return ResponseEntity.ok(dashboard);
+    }
+}
@@ -1,16 +1,23 @@
 package com.expensetracker.controller;
 
 import com.expensetracker.dto.*;
+import com.expensetracker.model.TableVersion.TrackedTable;
 import com.expensetracker.service.ExpenseService;
+import com.expensetracker.service.ExpenseSyncService;
+import com.expensetracker.service.ExpenseWriteQueue;
+import com.expensetracker.service.TableVersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -20,11 +27,20 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class ExpenseController {
     
+    // RFC 7396; plain application/json is accepted as well
+    static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+    
     private final ExpenseService expenseService;
+    private final ExpenseSyncService expenseSyncService;
+    private final ExpenseWriteQueue expenseWriteQueue;
+    private final TableVersionService tableVersionService;
     
     @GetMapping
-    public ResponseEntity<List<ExpenseResponse>> getAllExpenses() {
+    public ResponseEntity<List<ExpenseResponse>> getAllExpenses(WebRequest webRequest) {
         log.info("GET /api/expenses - Fetching all expenses");
+        if (webRequest.checkNotModified(tableVersionService.etag(TrackedTable.EXPENSES, TrackedTable.CATEGORIES))) {
+            return null;
+        }
         List<ExpenseResponse> expenses = expenseService.getAllExpenses();
         return ResponseEntity.ok(expenses);
     }
@@ -33,15 +49,29 @@ public class ExpenseController {
     public ResponseEntity<List<ExpenseResponse>> getFilteredExpenses(
             @RequestParam(required = false) List<String> categories,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest webRequest) {
         log.info("GET /api/expenses/filter - categories: {}, startDate: {}, endDate: {}", categories, startDate, endDate);
+        if (webRequest.checkNotModified(tableVersionService.etag(TrackedTable.EXPENSES, TrackedTable.CATEGORIES))) {
+            return null;
+        }
         List<ExpenseResponse> expenses = expenseService.getFilteredExpenses(categories, startDate, endDate);
         return ResponseEntity.ok(expenses);
     }
     
+    @GetMapping("/changes")
+    public ResponseEntity<ExpenseChangesResponse> getChanges(@RequestParam(required = false) String since) {
+        log.info("GET /api/expenses/changes - since: {}", since);
+        ExpenseChangesResponse changes = expenseSyncService.getChangesSince(since);
+        return ResponseEntity.ok(changes);
+    }
+    
     @GetMapping("/{id}")
-    public ResponseEntity<ExpenseResponse> getExpenseById(@PathVariable Long id) {
+    public ResponseEntity<ExpenseResponse> getExpenseById(@PathVariable Long id, WebRequest webRequest) {
         log.info("GET /api/expenses/{} - Fetching expense by id", id);
+        if (webRequest.checkNotModified(tableVersionService.etag(TrackedTable.EXPENSES, TrackedTable.CATEGORIES))) {
+            return null;
+        }
         ExpenseResponse expense = expenseService.getExpenseById(id);
         return ResponseEntity.ok(expense);
     }
@@ -49,7 +79,9 @@ public class ExpenseController {
     @PostMapping
     public ResponseEntity<ExpenseResponse> createExpense(@Valid @RequestBody ExpenseRequest request) {
         log.info("POST /api/expenses - Creating new expense");
-        ExpenseResponse expense = expenseService.createExpense(request);
+        ExpenseResponse expense = expenseWriteQueue.isEnabled()
+            ? expenseWriteQueue.create(request)
+            : expenseService.createExpense(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(expense);
     }
     
@@ -62,6 +94,16 @@ public class ExpenseController {
         return ResponseEntity.ok(expense);
     }
     
+    // Only the members present in the body are written
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ExpenseResponse> patchExpense(
+            @PathVariable Long id,
+            @Valid @RequestBody ExpensePatchRequest patch) {
+        log.info("PATCH /api/expenses/{} - Patching expense", id);
+        ExpenseResponse expense = expenseService.patchExpense(id, patch);
+        return ResponseEntity.ok(expense);
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteExpense(@PathVariable Long id) {
         log.info("DELETE /api/expenses/{} - Deleting expense", id);
@@ -70,15 +112,23 @@ public class ExpenseController {
     }
     
     @GetMapping("/summary/by-category")
-    public ResponseEntity<List<CategorySummaryResponse>> getCategorySummary() {
+    public ResponseEntity<List<CategorySummaryResponse>> getCategorySummary(WebRequest webRequest) {
         log.info("GET /api/expenses/summary/by-category - Fetching category summary");
+        if (webRequest.checkNotModified(
+                tableVersionService.etag(TrackedTable.EXPENSES, TrackedTable.CATEGORIES, TrackedTable.SUMMARY_VIEWS))) {
+            return null;
+        }
         List<CategorySummaryResponse> summary = expenseService.getCategorySummary();
         return ResponseEntity.ok(summary);
     }
     
     @GetMapping("/summary/monthly")
-    public ResponseEntity<MonthlySummaryResponse> getMonthlySummary() {
+    public ResponseEntity<MonthlySummaryResponse> getMonthlySummary(WebRequest webRequest) {
         log.info("GET /api/expenses/summary/monthly - Fetching monthly summary");
+        if (webRequest.checkNotModified(
+                tableVersionService.etag(YearMonth.now(), TrackedTable.EXPENSES, TrackedTable.SUMMARY_VIEWS))) {
+            return null;
+        }
         MonthlySummaryResponse summary = expenseService.getMonthlySummary();
         return ResponseEntity.ok(summary);
     }
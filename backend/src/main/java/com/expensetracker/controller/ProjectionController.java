@@ -0,0 +1,34 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.dto.ProjectionStatusResponse;
+import com.expensetracker.projection.ProjectionDispatcher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/projections")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class ProjectionController {
+    
+    private final ProjectionDispatcher projectionDispatcher;
+    
+    @GetMapping
+    public ResponseEntity<List<ProjectionStatusResponse>> getProjections() {
+        log.info("GET /api/projections - Fetching projector offsets");
+        return ResponseEntity.ok(projectionDispatcher.status());
+    }
+    
+    // The projection is emptied right away and refilled in the background
+    @PostMapping("/{name}/rebuild")
+    public ResponseEntity<Void> rebuildProjection(@PathVariable String name) {
+        log.info("POST /api/projections/{}/rebuild - Rebuilding projection", name);
+        projectionDispatcher.rebuild(name);
+        return ResponseEntity.accepted().build();
+    }
+}
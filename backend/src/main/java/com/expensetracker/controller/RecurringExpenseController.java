@@ -1,14 +1,19 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.dto.RecurringExpensePatchRequest;
 import com.expensetracker.dto.RecurringExpenseRequest;
 import com.expensetracker.dto.RecurringExpenseResponse;
+import com.expensetracker.model.TableVersion.TrackedTable;
 import com.expensetracker.service.RecurringExpenseService;
+import com.expensetracker.service.TableVersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -20,24 +25,34 @@ import java.util.List;
 public class RecurringExpenseController {
     
     private final RecurringExpenseService recurringExpenseService;
+    private final TableVersionService tableVersionService;
     
     @GetMapping
-    public ResponseEntity<List<RecurringExpenseResponse>> getAllRecurringExpenses() {
+    public ResponseEntity<List<RecurringExpenseResponse>> getAllRecurringExpenses(WebRequest webRequest) {
         log.info("GET /api/recurring-expenses - Fetching all recurring expenses");
+        if (webRequest.checkNotModified(tableVersionService.etag(TrackedTable.RECURRING_EXPENSES, TrackedTable.CATEGORIES))) {
+            return null;
+        }
         List<RecurringExpenseResponse> expenses = recurringExpenseService.getAllRecurringExpenses();
         return ResponseEntity.ok(expenses);
     }
     
     @GetMapping("/active")
-    public ResponseEntity<List<RecurringExpenseResponse>> getActiveRecurringExpenses() {
+    public ResponseEntity<List<RecurringExpenseResponse>> getActiveRecurringExpenses(WebRequest webRequest) {
         log.info("GET /api/recurring-expenses/active - Fetching active recurring expenses");
+        if (webRequest.checkNotModified(tableVersionService.etag(TrackedTable.RECURRING_EXPENSES, TrackedTable.CATEGORIES))) {
+            return null;
+        }
         List<RecurringExpenseResponse> expenses = recurringExpenseService.getActiveRecurringExpenses();
         return ResponseEntity.ok(expenses);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<RecurringExpenseResponse> getRecurringExpenseById(@PathVariable Long id) {
+    public ResponseEntity<RecurringExpenseResponse> getRecurringExpenseById(@PathVariable Long id, WebRequest webRequest) {
         log.info("GET /api/recurring-expenses/{} - Fetching recurring expense by id", id);
+        if (webRequest.checkNotModified(tableVersionService.etag(TrackedTable.RECURRING_EXPENSES, TrackedTable.CATEGORIES))) {
+            return null;
+        }
         RecurringExpenseResponse expense = recurringExpenseService.getRecurringExpenseById(id);
         return ResponseEntity.ok(expense);
     }
@@ -58,6 +73,15 @@ public class RecurringExpenseController {
         return ResponseEntity.ok(expense);
     }
     
+    @PatchMapping(value = "/{id}", consumes = {ExpenseController.MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<RecurringExpenseResponse> patchRecurringExpense(
+            @PathVariable Long id,
+            @Valid @RequestBody RecurringExpensePatchRequest patch) {
+        log.info("PATCH /api/recurring-expenses/{} - Patching recurring expense", id);
+        RecurringExpenseResponse expense = recurringExpenseService.patchRecurringExpense(id, patch);
+        return ResponseEntity.ok(expense);
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteRecurringExpense(@PathVariable Long id) {
         log.info("DELETE /api/recurring-expenses/{} - Deleting recurring expense", id);
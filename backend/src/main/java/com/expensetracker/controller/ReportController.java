@@ -0,0 +1,70 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.dto.ReportJobResponse;
+import com.expensetracker.dto.ReportRequest;
+import com.expensetracker.model.ReportJob;
+import com.expensetracker.model.ReportJob.ReportFormat;
+import com.expensetracker.model.ReportJob.Status;
+import com.expensetracker.report.ReportJobService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.zip.GZIPInputStream;
+
+// Asynchronous reports. POST queues a definition (or finds the job that already has it) and answers 202
+// with the job; GET answers 202 with the job's progress until it is done and then streams the result.
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+@Slf4j
+public class ReportController {
+    
+    private final ReportJobService reportJobService;
+    
+    @PostMapping
+    public ResponseEntity<ReportJobResponse> submitReport(@Valid @RequestBody ReportRequest request) {
+        log.info("POST /api/reports - {} as {}", request.getType(), request.getFormat());
+        ReportJob job = reportJobService.submit(request);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(job.getId()).toUri();
+        return ResponseEntity.accepted().location(location).body(ReportJobResponse.fromEntity(job));
+    }
+    
+    // Stored results are gzipped, so clients that accept gzip get them as they are stored
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getReport(@PathVariable Long id,
+                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("GET /api/reports/{} - Fetching report", id);
+        ReportJob job = reportJobService.getJob(id);
+        if (job.getStatus() == Status.QUEUED || job.getStatus() == Status.RUNNING) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ReportJobResponse.fromEntity(job));
+        }
+        if (job.getStatus() == Status.FAILED) {
+            return ResponseEntity.ok(ReportJobResponse.fromEntity(job));
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        String extension = job.getReportFormat().name().toLowerCase();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"report-" + id + "." + extension + "\"")
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .contentType(job.getReportFormat() == ReportFormat.CSV ? new MediaType("text", "csv") : MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip").contentLength(job.getResultBytes());
+        }
+        StreamingResponseBody body = out -> {
+            try (InputStream in = gzip ? reportJobService.openResult(job) : new GZIPInputStream(reportJobService.openResult(job), 1 << 16)) {
+                in.transferTo(out);
+            }
+        };
+        return response.body(body);
+    }
+}
@@ -0,0 +1,24 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.service.SummaryStreamService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class SummaryStreamController {
+    
+    private final SummaryStreamService summaryStreamService;
+    
+    @GetMapping(value = "/summary", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSummary() {
+        log.info("GET /api/stream/summary - Subscribing to summary updates");
+        return summaryStreamService.subscribe();
+    }
+}
@@ -17,4 +17,6 @@ public class CategoryRequest {
     
     @Size(max = 200, message = "Description must not exceed 200 characters")
     private String description;
+    
+    private Long version;
 }
@@ -18,6 +18,7 @@ public class CategoryResponse {
     private Boolean isDefault;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
     
     public static CategoryResponse fromEntity(Category category) {
         return new CategoryResponse(
@@ -26,7 +27,8 @@ public class CategoryResponse {
             category.getDescription(),
             category.getIsDefault(),
             category.getCreatedAt(),
-            category.getUpdatedAt()
+            category.getUpdatedAt(),
+            category.getVersion()
         );
     }
 }
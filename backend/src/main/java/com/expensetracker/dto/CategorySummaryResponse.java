@@ -1,10 +1,12 @@
 package com.expensetracker.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -12,4 +14,11 @@ import java.math.BigDecimal;
 public class CategorySummaryResponse {
     private String category;
     private BigDecimal total;
+    // When the summary views were last refreshed; absent when the total was computed for this request
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime asOf;
+    
+    public CategorySummaryResponse(String category, BigDecimal total) {
+        this(category, total, null);
+    }
 }
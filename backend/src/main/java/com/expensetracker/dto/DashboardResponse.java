@@ -0,0 +1,19 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardResponse {
+    private List<ExpenseResponse> expenses;
+    private List<CategorySummaryResponse> categorySummary;
+    private MonthlySummaryResponse monthlySummary;
+    private BudgetStatusResponse budgetStatus;  // null when no budget has been set
+    private List<CategoryResponse> categories;
+    private List<RecurringExpenseResponse> recurringExpenses;
+}
@@ -0,0 +1,18 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseChangesResponse {
+    private List<ExpenseResponse> upserts;
+    private List<Long> deletedIds;
+    private String watermark;
+    // When true the client must replace its local copy with upserts instead of merging
+    private boolean fullResync;
+}
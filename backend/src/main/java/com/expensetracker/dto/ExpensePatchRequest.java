@@ -0,0 +1,29 @@
+package com.expensetracker.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+// JSON Merge Patch (RFC 7396) body. A member left out of the JSON stays null here and is not written;
+// a member sent as null arrives as Optional.empty() and clears the column, which only nullable fields allow.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpensePatchRequest {
+    
+    private Optional<@NotNull(message = "Amount cannot be removed")
+        @DecimalMin(value = "0.01", message = "Amount must be greater than 0") BigDecimal> amount;
+    
+    private Optional<@NotNull(message = "Category cannot be removed") Long> categoryId;
+    
+    private Optional<@NotNull(message = "Date cannot be removed") LocalDate> date;
+    
+    private Optional<@Size(max = 500, message = "Description must not exceed 500 characters") String> description;
+    
+    private Long version;
+}
@@ -25,4 +25,8 @@ public class ExpenseRequest {
     
     @Size(max = 500, message = "Description must not exceed 500 characters")
     private String description;
+    
+    // The version the client last read; the write is rejected with 409 if the row has changed since.
+    // Required for updates unless app.writes.require-version is off, ignored on create.
+    private Long version;
 }
@@ -20,6 +20,7 @@ public class ExpenseResponse {
     private String description;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
     
     public static ExpenseResponse fromEntity(Expense expense) {
         return new ExpenseResponse(
@@ -29,7 +30,8 @@ public class ExpenseResponse {
             expense.getDate(),
             expense.getDescription(),
             expense.getCreatedAt(),
-            expense.getUpdatedAt()
+            expense.getUpdatedAt(),
+            expense.getVersion()
         );
     }
 }
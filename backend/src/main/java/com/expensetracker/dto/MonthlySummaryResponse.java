@@ -1,10 +1,12 @@
 package com.expensetracker.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -13,4 +15,11 @@ public class MonthlySummaryResponse {
     private BigDecimal total;
     private int month;
     private int year;
+    // When the summary views were last refreshed; absent when the total was computed for this request
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime asOf;
+    
+    public MonthlySummaryResponse(BigDecimal total, int month, int year) {
+        this(total, month, year, null);
+    }
 }
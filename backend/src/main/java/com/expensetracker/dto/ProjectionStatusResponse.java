@@ -0,0 +1,15 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectionStatusResponse {
+    private String projector;
+    private long lastEventId;
+    // Outbox events the projector has not applied yet
+    private long pending;
+}
@@ -0,0 +1,33 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.RecurringExpense.RecurrenceFrequency;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+// JSON Merge Patch body, see ExpensePatchRequest
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringExpensePatchRequest {
+    
+    private Optional<@NotNull(message = "Amount cannot be removed")
+        @DecimalMin(value = "0.01", message = "Amount must be greater than 0") BigDecimal> amount;
+    
+    private Optional<@NotNull(message = "Category cannot be removed") Long> categoryId;
+    
+    private Optional<@Size(max = 500, message = "Description must not exceed 500 characters") String> description;
+    
+    private Optional<@NotNull(message = "Frequency cannot be removed") RecurrenceFrequency> frequency;
+    
+    private Optional<@NotNull(message = "Start date cannot be removed") LocalDate> startDate;
+    
+    private Optional<LocalDate> endDate;
+    
+    private Long version;
+}
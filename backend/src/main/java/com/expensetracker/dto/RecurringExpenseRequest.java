@@ -31,4 +31,6 @@ public class RecurringExpenseRequest {
     private LocalDate startDate;
     
     private LocalDate endDate;
+    
+    private Long version;
 }
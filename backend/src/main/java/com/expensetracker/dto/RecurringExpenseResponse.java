@@ -24,6 +24,7 @@ public class RecurringExpenseResponse {
     private Boolean active;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
     
     public static RecurringExpenseResponse fromEntity(RecurringExpense recurringExpense) {
         return new RecurringExpenseResponse(
@@ -37,7 +38,8 @@ public class RecurringExpenseResponse {
             recurringExpense.getNextOccurrence(),
             recurringExpense.getActive(),
             recurringExpense.getCreatedAt(),
-            recurringExpense.getUpdatedAt()
+            recurringExpense.getUpdatedAt(),
+            recurringExpense.getVersion()
         );
     }
 }
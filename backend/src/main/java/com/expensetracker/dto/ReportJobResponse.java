@@ -0,0 +1,47 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.ReportJob;
+import com.expensetracker.model.ReportJob.ReportFormat;
+import com.expensetracker.model.ReportJob.ReportType;
+import com.expensetracker.model.ReportJob.Status;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReportJobResponse {
+    private Long id;
+    private ReportType type;
+    private ReportFormat format;
+    private Status status;
+    // Progress while running: rows written so far out of the rows the report will have
+    private Long rowsWritten;
+    private Long totalRows;
+    private Long resultBytes;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    
+    public static ReportJobResponse fromEntity(ReportJob job) {
+        return new ReportJobResponse(
+            job.getId(),
+            job.getReportType(),
+            job.getReportFormat(),
+            job.getStatus(),
+            job.getRowsWritten(),
+            job.getTotalRows(),
+            job.getResultBytes(),
+            job.getError(),
+            job.getCreatedAt(),
+            job.getStartedAt(),
+            job.getFinishedAt()
+        );
+    }
+}
@@ -0,0 +1,28 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.ReportJob.ReportFormat;
+import com.expensetracker.model.ReportJob.ReportType;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportRequest {
+    
+    @NotNull(message = "Report type is required")
+    private ReportType type;
+    
+    @NotNull(message = "Report format is required")
+    private ReportFormat format;
+    
+    // Optional filters, as for /api/expenses/filter; both dates are inclusive
+    private List<String> categories;
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
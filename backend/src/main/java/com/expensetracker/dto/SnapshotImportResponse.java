@@ -0,0 +1,16 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotImportResponse {
+    // Rows loaded per table, in load order
+    private Map<String, Long> rows;
+    private long elapsedMillis;
+}
@@ -0,0 +1,24 @@
+package com.expensetracker.event;
+
+import com.expensetracker.model.TableVersion.TrackedTable;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Set;
+
+// Published by service write methods, inside their transaction, whenever rows of a table change.
+// dates lists the expense dates touched by the write; empty means unknown.
+public record DataChangedEvent(TrackedTable table, Set<LocalDate> dates) {
+    
+    public DataChangedEvent {
+        dates = dates == null ? Set.of() : Set.copyOf(dates);
+    }
+    
+    public DataChangedEvent(TrackedTable table) {
+        this(table, Set.of());
+    }
+    
+    public boolean mayAffect(YearMonth month) {
+        return dates.isEmpty() || dates.stream().anyMatch(date -> YearMonth.from(date).equals(month));
+    }
+}
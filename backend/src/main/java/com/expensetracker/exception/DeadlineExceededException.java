@@ -0,0 +1,9 @@
+package com.expensetracker.exception;
+
+// The request's deadline passed before its work was done; whatever was still running has been cancelled
+public class DeadlineExceededException extends RuntimeException {
+    
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
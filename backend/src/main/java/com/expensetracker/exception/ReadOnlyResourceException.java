@@ -0,0 +1,7 @@
+package com.expensetracker.exception;
+
+public class ReadOnlyResourceException extends RuntimeException {
+    public ReadOnlyResourceException(String message) {
+        super(message);
+    }
+}
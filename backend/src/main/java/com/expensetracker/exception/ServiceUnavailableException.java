@@ -0,0 +1,18 @@
+package com.expensetracker.exception;
+
+import java.time.Duration;
+
+// Load shedding: the request was refused before doing any work and can be retried after retryAfter
+public class ServiceUnavailableException extends RuntimeException {
+    
+    private final Duration retryAfter;
+    
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+    
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,8 @@
+package com.expensetracker.exception;
+
+// The uploaded file is not a dataset snapshot this version can read; nothing was changed
+public class SnapshotImportException extends RuntimeException {
+    public SnapshotImportException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.expensetracker.exception;
+
+public class VersionRequiredException extends RuntimeException {
+    public VersionRequiredException(String message) {
+        super(message);
+    }
+}
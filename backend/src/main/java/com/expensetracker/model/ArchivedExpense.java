@@ -0,0 +1,54 @@
+package com.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// An expense moved out of the hot table by the archiver; same id and columns, plus when it was moved.
+// Archived expenses are read-only, so there is no @Version here, only the version they were archived at.
+@Entity
+@Table(name = "expenses_archive", indexes = {
+    @Index(name = "idx_expenses_archive_date", columnList = "date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedExpense {
+    
+    @Id
+    private Long id;
+    
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+    
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "category_id", nullable = false)
+    private Category category;
+    
+    @Column(nullable = false)
+    private LocalDate date;
+    
+    @Column(length = 500)
+    private String description;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(nullable = false)
+    private Long version;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+    
+    public Expense toExpense() {
+        return new Expense(id, amount, category, date, description, createdAt, updatedAt, version);
+    }
+}
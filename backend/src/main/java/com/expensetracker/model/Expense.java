@@ -5,13 +5,17 @@ import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", indexes = {
+    @Index(name = "idx_expenses_updated_at", columnList = "updated_at"),
+    @Index(name = "idx_expenses_category_id", columnList = "category_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -44,6 +48,12 @@ public class Expense {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Bumped by every write; the single-statement updates compare it when the client sends one
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,51 @@
+package com.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Outbox of expense changes, written in the same transaction as the change itself. Each row carries
+// the expense as it was after the change; a deletion carries only the id, and the state it removed is
+// the expense's previous event. Rows are never updated, so the id order is the change order.
+@Entity
+@Table(name = "expense_events", indexes = {
+    @Index(name = "idx_expense_events_expense_id", columnList = "expense_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "expense_id", nullable = false)
+    private Long expenseId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 16)
+    private EventType eventType;
+    
+    @Column(precision = 10, scale = 2)
+    private BigDecimal amount;
+    
+    @Column(name = "category_id")
+    private Long categoryId;
+    
+    private LocalDate date;
+    
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+    
+    public enum EventType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
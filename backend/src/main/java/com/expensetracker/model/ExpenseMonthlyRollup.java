@@ -0,0 +1,42 @@
+package com.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Per month and category totals of the archived expenses, so summaries never have to scan the archive
+@Entity
+@Table(name = "expense_monthly_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseMonthlyRollup {
+    
+    @EmbeddedId
+    private Key key;
+    
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal total;
+    
+    @Column(name = "expense_count", nullable = false)
+    private Long expenseCount;
+    
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        
+        // First day of the month
+        @Column(name = "month_start", nullable = false)
+        private LocalDate monthStart;
+        
+        @Column(name = "category_id", nullable = false)
+        private Long categoryId;
+    }
+}
@@ -0,0 +1,24 @@
+package com.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A point where delta sync history was lost, such as a dataset restore: watermarks issued before it only get a full resync
+@Entity
+@Table(name = "expense_sync_resets")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseSyncReset {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "reset_at", nullable = false)
+    private LocalDateTime resetAt;
+}
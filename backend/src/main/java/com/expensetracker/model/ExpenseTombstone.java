@@ -0,0 +1,26 @@
+package com.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Deletion log for delta sync: the expense row is gone, so clients learn about the delete from here
+@Entity
+@Table(name = "expense_tombstones", indexes = {
+    @Index(name = "idx_expense_tombstones_deleted_at", columnList = "deleted_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseTombstone {
+    
+    @Id
+    @Column(name = "expense_id")
+    private Long expenseId;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,28 @@
+package com.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// How far each projector has read the expense event outbox. The row is locked while a batch is
+// applied, so only one instance feeds a projector at a time.
+@Entity
+@Table(name = "projection_offsets")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectionOffset {
+    
+    @Id
+    @Column(length = 100)
+    private String projector;
+    
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,90 @@
+package com.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A report requested through /api/reports. The definition hash covers the definition and the version of
+// the data it reads, so asking again for the same report over unchanged data finds this job again.
+@Entity
+@Table(name = "report_jobs", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_report_jobs_definition_hash", columnNames = "definition_hash")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "definition_hash", nullable = false, length = 64)
+    private String definitionHash;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "report_type", nullable = false, length = 32)
+    private ReportType reportType;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "report_format", nullable = false, length = 16)
+    private ReportFormat reportFormat;
+    
+    // The request as JSON
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String definition;
+    
+    // Table versions the hash was taken at; the job must not read data older than these
+    @Column(name = "expenses_version")
+    private Long expensesVersion;
+    
+    @Column(name = "categories_version")
+    private Long categoriesVersion;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+    
+    @Column(name = "total_rows")
+    private Long totalRows;
+    
+    @Column(name = "rows_written")
+    private Long rowsWritten;
+    
+    @Column(name = "result_bytes")
+    private Long resultBytes;
+    
+    @Column(length = 500)
+    private String error;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    public enum ReportType {
+        // Totals and counts per month and category
+        CATEGORY_BREAKDOWN,
+        // Every expense, archived ones included
+        EXPENSE_EXPORT
+    }
+    
+    public enum ReportFormat {
+        CSV,
+        JSON
+    }
+    
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        DONE,
+        FAILED
+    }
+}
@@ -0,0 +1,38 @@
+package com.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// A piece of a finished report's gzipped result. Results live in the database, so whichever instance a
+// client polls can serve the job another instance ran.
+@Entity
+@Table(name = "report_result_chunks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportResultChunk {
+    
+    @EmbeddedId
+    private Key key;
+    
+    @Column(nullable = false, columnDefinition = "BYTEA")
+    private byte[] data;
+    
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        
+        @Column(name = "job_id", nullable = false)
+        private Long jobId;
+        
+        // Position of the chunk in the result, from 0
+        @Column(nullable = false)
+        private Integer chunk;
+    }
+}
@@ -0,0 +1,31 @@
+package com.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "table_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableVersion {
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "table_name", length = 50)
+    private TrackedTable tableName;
+    
+    @Column(nullable = false)
+    private Long version;
+    
+    public enum TrackedTable {
+        EXPENSES,
+        CATEGORIES,
+        BUDGETS,
+        RECURRING_EXPENSES,
+        // Not a table: bumped by each refresh of the summary views, whose data moves on without a write
+        SUMMARY_VIEWS
+    }
+}
@@ -0,0 +1,62 @@
+package com.expensetracker.monitoring;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Active connections as a fraction of the pool maximum, one gauge per Hikari pool. Spring Boot already
+// publishes the raw jdbc.connections.* and hikaricp.connections.* values; this is the ratio to alert on.
+@Component
+@RequiredArgsConstructor
+public class ConnectionPoolMetrics implements MeterBinder {
+    
+    static final String SATURATION_GAUGE = "jdbc.connections.saturation";
+    
+    private final Map<String, DataSource> dataSources;
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // With replica routing the primary pool is reachable both directly and through the routing proxy
+        Set<HikariDataSource> bound = Collections.newSetFromMap(new IdentityHashMap<>());
+        dataSources.forEach((name, dataSource) -> {
+            HikariDataSource hikari = unwrap(dataSource);
+            if (hikari != null && bound.add(hikari)) {
+                Gauge.builder(SATURATION_GAUGE, hikari, ConnectionPoolMetrics::saturation)
+                    .tag("name", name)
+                    .description("Active connections divided by the maximum pool size")
+                    .register(registry);
+            }
+        });
+    }
+    
+    static double saturation(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null || dataSource.getMaximumPoolSize() <= 0) {
+            // The pool starts on first use
+            return 0;
+        }
+        return (double) pool.getActiveConnections() / dataSource.getMaximumPoolSize();
+    }
+    
+    private static HikariDataSource unwrap(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            return hikari;
+        }
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+}
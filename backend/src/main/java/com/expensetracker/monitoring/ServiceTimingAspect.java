@@ -0,0 +1,52 @@
+package com.expensetracker.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Times every public method of the core services with a percentile histogram, tagged by class, method
+// and outcome. Calls from within the same service bypass the proxy and are counted in the caller.
+// Repositories are covered by Spring Boot's spring.data.repository.invocations timer.
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceTimingAspect {
+    
+    static final String SERVICE_TIMER = "app.service.calls";
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Around("execution(public * com.expensetracker.service.ExpenseService.*(..))"
+        + " || execution(public * com.expensetracker.service.CategoryService.*(..))"
+        + " || execution(public * com.expensetracker.service.BudgetService.*(..))"
+        + " || execution(public * com.expensetracker.service.RecurringExpenseService.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            outcome = "error";
+            throw ex;
+        } finally {
+            Timer.builder(SERVICE_TIMER)
+                .tag("class", ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName())
+                .tag("method", joinPoint.getSignature().getName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                // Keeps the histogram to the range service calls actually take
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
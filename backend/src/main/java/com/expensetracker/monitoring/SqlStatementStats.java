@@ -0,0 +1,154 @@
+package com.expensetracker.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Per statement-shape call counts and latency distributions for every JDBC statement the application runs.
+// Literals and expanded IN lists are folded so one query with different arguments is one shape. The number
+// of shapes is capped; anything beyond the cap is pooled under OTHER_SHAPE so memory stays bounded.
+@Component
+public class SqlStatementStats {
+    
+    static final String OTHER_SHAPE = "<other statements>";
+    
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    // Most statements come from a handful of Hibernate-generated strings, so normalizing is cached
+    private static final int SHAPE_CACHE_SIZE = 2_000;
+    
+    private final int maxShapes;
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final Map<String, String> shapeCache = new ConcurrentHashMap<>();
+    private volatile Instant since = Instant.now();
+    
+    public SqlStatementStats(@Value("${app.sql-stats.max-shapes:500}") int maxShapes) {
+        this.maxShapes = maxShapes;
+    }
+    
+    public void record(String sql, long elapsedNanos, boolean success) {
+        String shape = shapeOf(sql);
+        ShapeStats stats = shapes.get(shape);
+        if (stats == null) {
+            String key = shapes.size() < maxShapes ? shape : OTHER_SHAPE;
+            stats = shapes.computeIfAbsent(key, k -> new ShapeStats());
+        }
+        stats.record(elapsedNanos, success);
+    }
+    
+    public List<StatementSummary> top(int limit, SortOrder sortOrder) {
+        return shapes.entrySet().stream()
+            .map(entry -> entry.getValue().summarize(entry.getKey()))
+            .sorted(sortOrder.comparator.reversed())
+            .limit(limit)
+            .toList();
+    }
+    
+    public long totalCalls() {
+        return shapes.values().stream().mapToLong(stats -> stats.calls.sum()).sum();
+    }
+    
+    public Instant since() {
+        return since;
+    }
+    
+    public void reset() {
+        shapes.clear();
+        since = Instant.now();
+    }
+    
+    String shapeOf(String sql) {
+        String cached = shapeCache.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String shape = normalize(sql);
+        if (shapeCache.size() >= SHAPE_CACHE_SIZE) {
+            shapeCache.clear();
+        }
+        shapeCache.put(sql, shape);
+        return shape;
+    }
+    
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+    
+    public enum SortOrder {
+        TOTAL(Comparator.comparingDouble(StatementSummary::totalMs)),
+        CALLS(Comparator.comparingLong(StatementSummary::calls)),
+        MEAN(Comparator.comparingDouble(StatementSummary::meanMs)),
+        P99(Comparator.comparingDouble(StatementSummary::p99Ms)),
+        MAX(Comparator.comparingDouble(StatementSummary::maxMs));
+        
+        private final Comparator<StatementSummary> comparator;
+        
+        SortOrder(Comparator<StatementSummary> comparator) {
+            this.comparator = comparator;
+        }
+    }
+    
+    public record StatementSummary(String sql, long calls, long errors, double totalMs, double meanMs,
+                                   double p50Ms, double p99Ms, double maxMs) {
+    }
+    
+    // Latencies go into power-of-two microsecond buckets, so percentiles are upper bounds within 2x
+    private static final class ShapeStats {
+        
+        private static final int BUCKETS = 40;
+        
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+        
+        void record(long elapsedNanos, boolean success) {
+            calls.increment();
+            if (!success) {
+                errors.increment();
+            }
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+            long micros = elapsedNanos / 1_000;
+            int bucket = Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+            histogram.incrementAndGet(bucket);
+        }
+        
+        StatementSummary summarize(String sql) {
+            long count = calls.sum();
+            double totalMs = totalNanos.sum() / 1e6;
+            double maxMs = maxNanos.get() / 1e6;
+            return new StatementSummary(sql, count, errors.sum(), totalMs, count == 0 ? 0 : totalMs / count,
+                Math.min(percentile(count, 0.50), maxMs), Math.min(percentile(count, 0.99), maxMs), maxMs);
+        }
+        
+        private double percentile(long count, double quantile) {
+            long rank = (long) Math.ceil(quantile * count);
+            long seen = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                seen += histogram.get(bucket);
+                if (seen >= rank && seen > 0) {
+                    // Bucket n holds latencies below 2^n microseconds
+                    return (1L << bucket) / 1e3;
+                }
+            }
+            return 0;
+        }
+    }
+}
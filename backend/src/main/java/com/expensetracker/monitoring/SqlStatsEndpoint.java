@@ -0,0 +1,53 @@
+package com.expensetracker.monitoring;
+
+import com.expensetracker.monitoring.SqlStatementStats.SortOrder;
+import com.expensetracker.monitoring.SqlStatementStats.StatementSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+// GET /actuator/sqlstats?limit=20&sort=total|calls|mean|p99|max, DELETE /actuator/sqlstats to reset
+@Component
+@Endpoint(id = "sqlstats")
+@RequiredArgsConstructor
+public class SqlStatsEndpoint {
+    
+    private static final int DEFAULT_LIMIT = 20;
+    
+    private final SqlStatementStats sqlStatementStats;
+    
+    @ReadOperation
+    public SqlStatsReport top(@Nullable Integer limit, @Nullable String sort) {
+        SortOrder sortOrder = parseSort(sort);
+        int size = limit == null || limit < 1 ? DEFAULT_LIMIT : limit;
+        return new SqlStatsReport(sqlStatementStats.since(), sqlStatementStats.totalCalls(), sortOrder,
+            sqlStatementStats.top(size, sortOrder));
+    }
+    
+    @DeleteOperation
+    public void reset() {
+        sqlStatementStats.reset();
+    }
+    
+    private static SortOrder parseSort(String sort) {
+        if (sort == null) {
+            return SortOrder.TOTAL;
+        }
+        try {
+            return SortOrder.valueOf(sort.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidEndpointRequestException("Unknown sort: " + sort, "Unknown sort order");
+        }
+    }
+    
+    public record SqlStatsReport(Instant since, long totalCalls, SortOrder sortedBy, List<StatementSummary> statements) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.expensetracker.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+// Times every statement at the JDBC layer, below Hibernate, so it also sees JdbcTemplate and batch work.
+// Statements slower than the threshold are logged with their bind counts but never their values.
+@Component
+@Slf4j
+public class SqlTimingListener implements QueryExecutionListener {
+    
+    private static final String START_KEY = SqlTimingListener.class.getName() + ".start";
+    
+    private final SqlStatementStats sqlStatementStats;
+    private final long slowThresholdNanos;
+    
+    public SqlTimingListener(SqlStatementStats sqlStatementStats,
+                             @Value("${app.sql-stats.slow-threshold:500ms}") Duration slowThreshold) {
+        this.sqlStatementStats = sqlStatementStats;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // ExecutionInfo only keeps milliseconds, most statements here take less than one
+        execInfo.addCustomValue(START_KEY, System.nanoTime());
+    }
+    
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_KEY, Long.class);
+        long elapsed = start == null ? execInfo.getElapsedTime() * 1_000_000 : System.nanoTime() - start;
+        
+        // A JDBC batch of different statements runs as one call, so its time is attributed to each of them
+        for (QueryInfo queryInfo : queryInfoList) {
+            sqlStatementStats.record(queryInfo.getQuery(), elapsed, execInfo.isSuccess());
+        }
+        
+        if (elapsed >= slowThresholdNanos) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                int parameterSets = queryInfo.getParametersList().size();
+                int binds = parameterSets == 0 ? 0 : queryInfo.getParametersList().get(0).size();
+                log.warn("Slow SQL ({} ms, {} binds{}{}): {}",
+                    elapsed / 1_000_000, binds,
+                    execInfo.isBatch() ? ", batch of " + parameterSets : "",
+                    execInfo.isSuccess() ? "" : ", failed",
+                    SqlStatementStats.normalize(queryInfo.getQuery()));
+            }
+        }
+    }
+}
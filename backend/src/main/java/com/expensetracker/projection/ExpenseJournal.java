@@ -0,0 +1,105 @@
+package com.expensetracker.projection;
+
+import com.expensetracker.model.ExpenseEvent;
+import com.expensetracker.model.ExpenseEvent.EventType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Append-only file of expense events, memory-mapped at a fixed capacity. Records are fixed width and the
+// unused part of the file is zeros, so replay stops at the first record without an event id. The event id
+// is written last, so a record cut short by a crash is never replayed; the events it held are simply
+// fetched from the outbox again. Not thread-safe; LocalExpenseReadModel serialises access.
+class ExpenseJournal implements AutoCloseable {
+    
+    // event id, expense id, type, category id, amount in cents, epoch day
+    static final int RECORD_BYTES = 8 + 8 + 1 + 8 + 8 + 4;
+    
+    private static final EventType[] TYPES = EventType.values();
+    
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    
+    ExpenseJournal(Path file, int capacityRecords) {
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacityRecords * RECORD_BYTES);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot map expense journal " + file, ex);
+        }
+    }
+    
+    // Leaves the write position after the last complete record
+    void replay(Consumer<ExpenseEvent> consumer) {
+        buffer.position(0);
+        while (buffer.remaining() >= RECORD_BYTES) {
+            int start = buffer.position();
+            long eventId = buffer.getLong();
+            if (eventId == 0) {
+                buffer.position(start);
+                return;
+            }
+            ExpenseEvent event = new ExpenseEvent();
+            event.setId(eventId);
+            event.setExpenseId(buffer.getLong());
+            event.setEventType(TYPES[buffer.get()]);
+            long categoryId = buffer.getLong();
+            long amountCents = buffer.getLong();
+            int epochDay = buffer.getInt();
+            if (event.getEventType() != EventType.DELETED) {
+                event.setCategoryId(categoryId);
+                event.setAmount(BigDecimal.valueOf(amountCents, 2));
+                event.setDate(LocalDate.ofEpochDay(epochDay));
+            }
+            consumer.accept(event);
+        }
+    }
+    
+    boolean hasRoomFor(int events) {
+        return buffer.remaining() >= (long) events * RECORD_BYTES;
+    }
+    
+    void append(List<ExpenseEvent> events) {
+        for (ExpenseEvent event : events) {
+            int start = buffer.position();
+            buffer.position(start + 8);
+            buffer.putLong(event.getExpenseId());
+            buffer.put((byte) event.getEventType().ordinal());
+            if (event.getEventType() == EventType.DELETED) {
+                buffer.putLong(0).putLong(0).putInt(0);
+            } else {
+                buffer.putLong(event.getCategoryId());
+                buffer.putLong(event.getAmount().movePointRight(2).longValueExact());
+                buffer.putInt((int) event.getDate().toEpochDay());
+            }
+            buffer.putLong(start, event.getId());
+        }
+    }
+    
+    // Called once a snapshot covers everything in the journal
+    void clear() {
+        int end = buffer.position();
+        for (int i = 0; i < end; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        buffer.position(0);
+    }
+    
+    @Override
+    public void close() {
+        buffer.force();
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.expensetracker.projection;
+
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.ExpenseEvent.EventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Records expense changes in expense_events as part of the writing transaction. Events are collected
+// per transaction and inserted as one JDBC batch right before commit, after the table version bump.
+// That bump holds the EXPENSES version row lock until commit, so writers hand out event ids one at a
+// time in commit order, and a projector reading by id never sees a later id before an earlier one.
+@Component
+@RequiredArgsConstructor
+public class ExpenseOutbox {
+    
+    private static final String INSERT = """
+        INSERT INTO expense_events (expense_id, event_type, amount, category_id, date, occurred_at)
+        VALUES (:expenseId, :eventType, :amount, :categoryId, :date, :occurredAt)
+        """;
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    
+    public void created(Expense expense) {
+        record(expense.getId(), EventType.CREATED, expense);
+    }
+    
+    public void updated(Expense expense) {
+        record(expense.getId(), EventType.UPDATED, expense);
+    }
+    
+    public void deleted(Long expenseId) {
+        record(expenseId, EventType.DELETED, null);
+    }
+    
+    private void record(Long expenseId, EventType type, Expense expense) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Expense events can only be recorded inside a transaction");
+        }
+        PendingEvents pending = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEvents();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(new MapSqlParameterSource()
+            .addValue("expenseId", expenseId)
+            .addValue("eventType", type.name())
+            .addValue("amount", expense != null ? expense.getAmount() : null, Types.NUMERIC)
+            .addValue("categoryId", expense != null ? expense.getCategory().getId() : null, Types.BIGINT)
+            .addValue("date", expense != null ? expense.getDate() : null, Types.DATE)
+            .addValue("occurredAt", LocalDateTime.now()));
+    }
+    
+    private class PendingEvents implements TransactionSynchronization {
+        
+        private final List<MapSqlParameterSource> events = new ArrayList<>();
+        
+        // After the version bump, which runs first
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            jdbcTemplate.batchUpdate(INSERT, events.toArray(MapSqlParameterSource[]::new));
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ExpenseOutbox.this);
+        }
+    }
+}
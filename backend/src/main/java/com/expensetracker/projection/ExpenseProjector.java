@@ -0,0 +1,20 @@
+package com.expensetracker.projection;
+
+import com.expensetracker.model.ExpenseEvent;
+
+import java.util.List;
+
+// Derived data fed from the expense event outbox. Register an implementation as a bean and the
+// dispatcher feeds it every event once, in order, batch by batch.
+public interface ExpenseProjector {
+    
+    // Stable name; it keys the projector's offset, so renaming one replays it from the start
+    String name();
+    
+    // Runs in the transaction that advances the offset, so projections kept in this database are
+    // updated exactly once. Throwing rolls the batch back and it is offered again on the next poll.
+    void apply(List<ExpenseEvent> events);
+    
+    // Drops everything projected so far; the whole outbox is then replayed from the first event
+    void reset();
+}
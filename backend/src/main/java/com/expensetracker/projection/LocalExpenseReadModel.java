@@ -0,0 +1,275 @@
+package com.expensetracker.projection;
+
+import com.expensetracker.model.ExpenseEvent;
+import com.expensetracker.model.ExpenseEvent.EventType;
+import com.expensetracker.repository.ExpenseEventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-instance copy of the expense totals behind the summary endpoints (app.journal.enabled). Every
+// outbox event this instance sees is applied in memory and appended to a memory-mapped journal on local
+// disk; every snapshot-every events the whole model is written to a snapshot file and the journal starts
+// over. On startup the model is the snapshot plus the journal tail, and Postgres is only asked for events
+// after the journal's high-water mark, instead of aggregating the expenses table from scratch.
+@Service
+@Slf4j
+public class LocalExpenseReadModel {
+    
+    private static final int SNAPSHOT_MAGIC = 0x45585053;
+    private static final int SNAPSHOT_HEADER_BYTES = 4 + 8 + 4;
+    // expense id, category id, amount in cents, epoch day
+    private static final int SNAPSHOT_ENTRY_BYTES = 8 + 8 + 8 + 4;
+    
+    private final ExpenseEventRepository expenseEventRepository;
+    private final boolean enabled;
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final int journalCapacity;
+    private final int snapshotEvery;
+    private final int batchSize;
+    
+    private final Map<Long, Entry> expenses = new HashMap<>();
+    private final Map<Long, CategoryTotal> byCategory = new HashMap<>();
+    private final Map<YearMonth, Long> byMonth = new HashMap<>();
+    private long highWaterMark;
+    private int sinceSnapshot;
+    private ExpenseJournal journal;
+    private volatile boolean ready;
+    
+    public LocalExpenseReadModel(ExpenseEventRepository expenseEventRepository,
+                                 @Value("${app.journal.enabled:false}") boolean enabled,
+                                 @Value("${app.journal.directory:${java.io.tmpdir}/expense-journal}") Path directory,
+                                 @Value("${app.journal.capacity:200000}") int journalCapacity,
+                                 @Value("${app.journal.snapshot-every:100000}") int snapshotEvery,
+                                 @Value("${app.projections.batch-size:500}") int batchSize) {
+        if (snapshotEvery > journalCapacity) {
+            throw new IllegalArgumentException("app.journal.snapshot-every cannot exceed app.journal.capacity");
+        }
+        this.expenseEventRepository = expenseEventRepository;
+        this.enabled = enabled;
+        this.snapshotFile = directory.resolve("expenses.snapshot");
+        this.journalFile = directory.resolve("expenses.journal");
+        this.journalCapacity = journalCapacity;
+        this.snapshotEvery = snapshotEvery;
+        this.batchSize = Math.min(batchSize, journalCapacity);
+    }
+    
+    // Summaries fall back to SQL until the model has caught up once
+    public boolean isReady() {
+        return ready;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            Files.createDirectories(snapshotFile.getParent());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        loadSnapshot();
+        long fromSnapshot = highWaterMark;
+        journal = new ExpenseJournal(journalFile, journalCapacity);
+        journal.replay(event -> {
+            // A crash between writing a snapshot and clearing the journal leaves events the snapshot already has
+            if (event.getId() > highWaterMark) {
+                apply(event);
+                sinceSnapshot++;
+            }
+        });
+        long fromJournal = highWaterMark;
+        long latest = expenseEventRepository.findLatestId().orElse(0L);
+        if (highWaterMark > latest) {
+            // The local files are ahead of the database, so they describe some other database
+            log.warn("Local expense journal is at event {} but the outbox ends at {}; rebuilding it", highWaterMark, latest);
+            discard();
+            fromSnapshot = 0;
+            fromJournal = 0;
+        }
+        catchUp();
+        ready = true;
+        log.info("Local expense read model ready in {} ms: snapshot to event {}, journal to {}, outbox to {}",
+            (System.nanoTime() - started) / 1_000_000, fromSnapshot, fromJournal, highWaterMark);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.journal.poll-interval:PT1S}")
+    public void poll() {
+        if (ready) {
+            catchUp();
+        }
+    }
+    
+    // Both reads catch up first, so they see every change committed before the call, like the SQL they replace
+    public synchronized Map<Long, BigDecimal> currentTotalsByCategory() {
+        catchUp();
+        Map<Long, BigDecimal> totals = new HashMap<>();
+        byCategory.forEach((categoryId, total) -> totals.put(categoryId, BigDecimal.valueOf(total.cents, 2)));
+        return totals;
+    }
+    
+    public synchronized BigDecimal currentTotalForMonth(YearMonth month) {
+        catchUp();
+        return BigDecimal.valueOf(byMonth.getOrDefault(month, 0L), 2);
+    }
+    
+    @PreDestroy
+    public synchronized void stop() {
+        if (journal == null) {
+            return;
+        }
+        // The next start then only has the snapshot to map
+        if (sinceSnapshot > 0) {
+            writeSnapshot();
+        }
+        journal.close();
+        journal = null;
+        ready = false;
+    }
+    
+    private synchronized void catchUp() {
+        while (true) {
+            List<ExpenseEvent> events = expenseEventRepository.findByIdGreaterThanOrderByIdAsc(
+                highWaterMark, PageRequest.of(0, batchSize));
+            if (events.isEmpty()) {
+                return;
+            }
+            if (!journal.hasRoomFor(events.size())) {
+                writeSnapshot();
+            }
+            events.forEach(this::apply);
+            journal.append(events);
+            sinceSnapshot += events.size();
+            if (sinceSnapshot >= snapshotEvery) {
+                writeSnapshot();
+            }
+            if (events.size() < batchSize) {
+                return;
+            }
+        }
+    }
+    
+    private void apply(ExpenseEvent event) {
+        Entry previous = expenses.remove(event.getExpenseId());
+        if (previous != null) {
+            add(previous, -1);
+        }
+        if (event.getEventType() != EventType.DELETED) {
+            Entry current = new Entry(event.getCategoryId(), event.getAmount().movePointRight(2).longValueExact(),
+                (int) event.getDate().toEpochDay());
+            expenses.put(event.getExpenseId(), current);
+            add(current, 1);
+        }
+        highWaterMark = event.getId();
+    }
+    
+    private void add(Entry entry, int sign) {
+        CategoryTotal category = byCategory.computeIfAbsent(entry.categoryId(), id -> new CategoryTotal());
+        category.count += sign;
+        category.cents += sign * entry.amountCents();
+        if (category.count == 0) {
+            byCategory.remove(entry.categoryId());
+        }
+        byMonth.merge(YearMonth.from(LocalDate.ofEpochDay(entry.epochDay())), sign * entry.amountCents(), Long::sum);
+    }
+    
+    private void loadSnapshot() {
+        if (!Files.exists(snapshotFile)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < SNAPSHOT_HEADER_BYTES || buffer.getInt() != SNAPSHOT_MAGIC) {
+                log.warn("Ignoring unreadable expense snapshot {}", snapshotFile);
+                return;
+            }
+            long snapshotMark = buffer.getLong();
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                long expenseId = buffer.getLong();
+                Entry entry = new Entry(buffer.getLong(), buffer.getLong(), buffer.getInt());
+                expenses.put(expenseId, entry);
+                add(entry, 1);
+            }
+            highWaterMark = snapshotMark;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read expense snapshot " + snapshotFile, ex);
+        }
+    }
+    
+    // Written next to the old one and renamed over it, so a crash leaves one or the other
+    private void writeSnapshot() {
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES + expenses.size() * SNAPSHOT_ENTRY_BYTES);
+        buffer.putInt(SNAPSHOT_MAGIC).putLong(highWaterMark).putInt(expenses.size());
+        expenses.forEach((expenseId, entry) -> buffer
+            .putLong(expenseId)
+            .putLong(entry.categoryId())
+            .putLong(entry.amountCents())
+            .putInt(entry.epochDay()));
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot write expense snapshot " + temp, ex);
+        }
+        try {
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot replace expense snapshot " + snapshotFile, ex);
+        }
+        journal.clear();
+        sinceSnapshot = 0;
+        log.debug("Expense snapshot written at event {} with {} expenses", highWaterMark, expenses.size());
+    }
+    
+    private void discard() {
+        expenses.clear();
+        byCategory.clear();
+        byMonth.clear();
+        highWaterMark = 0;
+        sinceSnapshot = 0;
+        journal.clear();
+        try {
+            Files.deleteIfExists(snapshotFile);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    private record Entry(long categoryId, long amountCents, int epochDay) {
+    }
+    
+    private static class CategoryTotal {
+        private long count;
+        private long cents;
+    }
+}
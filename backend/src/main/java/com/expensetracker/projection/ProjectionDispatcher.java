@@ -0,0 +1,147 @@
+package com.expensetracker.projection;
+
+import com.expensetracker.dto.ProjectionStatusResponse;
+import com.expensetracker.exception.ResourceNotFoundException;
+import com.expensetracker.model.ExpenseEvent;
+import com.expensetracker.model.ProjectionOffset;
+import com.expensetracker.repository.ExpenseEventRepository;
+import com.expensetracker.repository.ProjectionOffsetRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Feeds the expense event outbox to every ExpenseProjector bean, off the request path. Each batch is
+// applied and the projector's offset advanced in one transaction, under a SKIP LOCKED row lock on the
+// offset, so with several instances each batch is still applied exactly once.
+@Service
+@Slf4j
+public class ProjectionDispatcher {
+    
+    static final String LAG_GAUGE = "app.projections.lag";
+    
+    private final Map<String, ExpenseProjector> projectors = new LinkedHashMap<>();
+    private final ExpenseEventRepository expenseEventRepository;
+    private final ProjectionOffsetRepository projectionOffsetRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Map<String, Long> lastOffsets = new ConcurrentHashMap<>();
+    private volatile long latestEventId;
+    
+    public ProjectionDispatcher(List<ExpenseProjector> projectors,
+                                ExpenseEventRepository expenseEventRepository,
+                                ProjectionOffsetRepository projectionOffsetRepository,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.projections.batch-size:500}") int batchSize) {
+        for (ExpenseProjector projector : projectors) {
+            if (this.projectors.putIfAbsent(projector.name(), projector) != null) {
+                throw new IllegalStateException("Two expense projectors are named " + projector.name());
+            }
+            Gauge.builder(LAG_GAUGE, () -> latestEventId - lastOffsets.getOrDefault(projector.name(), 0L))
+                .description("Outbox events not yet applied by the projector, as of its last poll")
+                .tag("projector", projector.name())
+                .register(meterRegistry);
+        }
+        this.expenseEventRepository = expenseEventRepository;
+        this.projectionOffsetRepository = projectionOffsetRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureOffsetRows() {
+        for (String name : projectors.keySet()) {
+            if (projectionOffsetRepository.existsById(name)) {
+                continue;
+            }
+            try {
+                projectionOffsetRepository.save(new ProjectionOffset(name, 0L, LocalDateTime.now()));
+            } catch (DataIntegrityViolationException ex) {
+                log.debug("Offset row for projector {} was created concurrently", name);
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.projections.poll-interval:PT1S}")
+    public void dispatch() {
+        if (projectors.isEmpty()) {
+            return;
+        }
+        latestEventId = expenseEventRepository.findLatestId().orElse(0L);
+        for (ExpenseProjector projector : projectors.values()) {
+            try {
+                // Keep going while batches come back full, so a backlog drains within one poll
+                boolean more = true;
+                while (more) {
+                    more = Boolean.TRUE.equals(transactionTemplate.execute(status -> applyNextBatch(projector)));
+                }
+            } catch (RuntimeException ex) {
+                log.error("Projector {} failed; its batch will be retried: {}", projector.name(), ex.getMessage(), ex);
+            }
+        }
+    }
+    
+    // Resets the projection and its offset; the next poll starts replaying from the first event
+    public void rebuild(String name) {
+        ExpenseProjector projector = projectors.get(name);
+        if (projector == null) {
+            throw new ResourceNotFoundException("Projector not found: " + name);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            ProjectionOffset offset = projectionOffsetRepository.lock(name)
+                .orElseGet(() -> new ProjectionOffset(name, 0L, LocalDateTime.now()));
+            projector.reset();
+            offset.setLastEventId(0L);
+            offset.setUpdatedAt(LocalDateTime.now());
+            projectionOffsetRepository.save(offset);
+        });
+        lastOffsets.put(name, 0L);
+        log.info("Projector {} reset; replaying from the first event", name);
+    }
+    
+    public List<ProjectionStatusResponse> status() {
+        long latest = expenseEventRepository.findLatestId().orElse(0L);
+        Map<String, Long> offsets = projectionOffsetRepository.findAllById(projectors.keySet()).stream()
+            .collect(Collectors.toMap(ProjectionOffset::getProjector, ProjectionOffset::getLastEventId));
+        return projectors.keySet().stream()
+            .map(name -> {
+                long lastEventId = offsets.getOrDefault(name, 0L);
+                return new ProjectionStatusResponse(name, lastEventId, Math.max(0, latest - lastEventId));
+            })
+            .toList();
+    }
+    
+    private boolean applyNextBatch(ExpenseProjector projector) {
+        Optional<ProjectionOffset> locked = projectionOffsetRepository.lockIfIdle(projector.name());
+        if (locked.isEmpty()) {
+            // Another instance is on it, or the offset row does not exist yet
+            return false;
+        }
+        ProjectionOffset offset = locked.get();
+        List<ExpenseEvent> events = expenseEventRepository.findByIdGreaterThanOrderByIdAsc(
+            offset.getLastEventId(), PageRequest.of(0, batchSize));
+        if (!events.isEmpty()) {
+            projector.apply(events);
+            offset.setLastEventId(events.get(events.size() - 1).getId());
+            offset.setUpdatedAt(LocalDateTime.now());
+        }
+        lastOffsets.put(projector.name(), offset.getLastEventId());
+        return events.size() == batchSize;
+    }
+}
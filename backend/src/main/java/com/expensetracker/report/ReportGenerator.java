@@ -0,0 +1,203 @@
+package com.expensetracker.report;
+
+import com.expensetracker.dto.ReportRequest;
+import com.expensetracker.model.ReportJob.ReportFormat;
+import com.expensetracker.model.ReportJob.ReportType;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs a report definition as one streamed query over live and archived expenses and writes the rows as
+// CSV or JSON, so neither the result set nor the output ever has to fit in memory
+@Component
+class ReportGenerator {
+    
+    private static final String SOURCE = "(SELECT id, amount, category_id, date, description FROM expenses "
+        + "UNION ALL SELECT id, amount, category_id, date, description FROM expenses_archive) e "
+        + "JOIN categories c ON c.id = e.category_id";
+    
+    private static final List<String> EXPORT_COLUMNS = List.of("id", "date", "category", "amount", "description");
+    private static final List<String> BREAKDOWN_COLUMNS = List.of("month", "category", "total", "count");
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonFactory jsonFactory;
+    
+    ReportGenerator(DataSource dataSource, ObjectMapper objectMapper,
+                    @Value("${app.reports.fetch-size:1000}") int fetchSize) {
+        // A template of its own, so the fetch size only applies to report queries
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.jsonFactory = objectMapper.getFactory();
+    }
+    
+    long countRows(ReportRequest request) {
+        Query query = query(request);
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (" + query.sql() + ") q", Long.class,
+            query.arguments().toArray());
+        return rows != null ? rows : 0;
+    }
+    
+    // Counts every row written into progress
+    void write(ReportRequest request, OutputStream target, AtomicLong progress) {
+        Query query = query(request);
+        List<String> columns = request.getType() == ReportType.EXPENSE_EXPORT ? EXPORT_COLUMNS : BREAKDOWN_COLUMNS;
+        try {
+            RowWriter writer = request.getFormat() == ReportFormat.CSV
+                ? new CsvRowWriter(target, columns)
+                : new JsonRowWriter(jsonFactory.createGenerator(target, JsonEncoding.UTF8), columns);
+            jdbcTemplate.query(query.sql(), rs -> {
+                try {
+                    writer.write(row(request.getType(), rs));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                progress.incrementAndGet();
+            }, query.arguments().toArray());
+            writer.finish();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Writing the report failed", ex);
+        }
+    }
+    
+    private static Query query(ReportRequest request) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> arguments = new ArrayList<>();
+        if (request.getCategories() != null && !request.getCategories().isEmpty()) {
+            conditions.add("c.name IN (" + String.join(", ", request.getCategories().stream().map(name -> "?").toList()) + ")");
+            arguments.addAll(request.getCategories());
+        }
+        if (request.getStartDate() != null) {
+            conditions.add("e.date >= ?");
+            arguments.add(request.getStartDate());
+        }
+        if (request.getEndDate() != null) {
+            conditions.add("e.date <= ?");
+            arguments.add(request.getEndDate());
+        }
+        String where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        String sql = switch (request.getType()) {
+            case EXPENSE_EXPORT -> "SELECT e.id, e.date, c.name AS category, e.amount, e.description FROM " + SOURCE
+                + where + " ORDER BY e.date, e.id";
+            case CATEGORY_BREAKDOWN -> "SELECT EXTRACT(YEAR FROM e.date) AS yr, EXTRACT(MONTH FROM e.date) AS mo, "
+                + "c.name AS category, SUM(e.amount) AS total, COUNT(*) AS expense_count FROM " + SOURCE + where
+                + " GROUP BY EXTRACT(YEAR FROM e.date), EXTRACT(MONTH FROM e.date), c.name ORDER BY yr, mo, category";
+        };
+        return new Query(sql, arguments);
+    }
+    
+    private static Object[] row(ReportType type, ResultSet rs) throws SQLException {
+        if (type == ReportType.EXPENSE_EXPORT) {
+            return new Object[] {rs.getLong("id"), rs.getDate("date").toLocalDate().toString(), rs.getString("category"),
+                rs.getBigDecimal("amount"), rs.getString("description")};
+        }
+        String month = String.format("%04d-%02d", rs.getInt("yr"), rs.getInt("mo"));
+        return new Object[] {month, rs.getString("category"), rs.getBigDecimal("total"), rs.getLong("expense_count")};
+    }
+    
+    private record Query(String sql, List<Object> arguments) {
+    }
+    
+    private interface RowWriter {
+        
+        void write(Object[] row) throws IOException;
+        
+        void finish() throws IOException;
+    }
+    
+    private static final class CsvRowWriter implements RowWriter {
+        
+        private final Writer writer;
+        
+        CsvRowWriter(OutputStream target, List<String> columns) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 1 << 16);
+            write(columns.toArray());
+        }
+        
+        // Fields are only quoted when they have to be; a missing value is an empty field
+        @Override
+        public void write(Object[] row) throws IOException {
+            for (int c = 0; c < row.length; c++) {
+                if (c > 0) {
+                    writer.write(',');
+                }
+                Object value = row[c];
+                if (value instanceof String text) {
+                    if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                        writer.write('"');
+                        writer.write(text.replace("\"", "\"\""));
+                        writer.write('"');
+                    } else {
+                        writer.write(text);
+                    }
+                } else if (value instanceof BigDecimal amount) {
+                    writer.write(amount.toPlainString());
+                } else if (value != null) {
+                    writer.write(value.toString());
+                }
+            }
+            writer.write('\n');
+        }
+        
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+    
+    // An array of objects keyed by column name
+    private static final class JsonRowWriter implements RowWriter {
+        
+        private final JsonGenerator generator;
+        private final List<String> columns;
+        
+        JsonRowWriter(JsonGenerator generator, List<String> columns) throws IOException {
+            this.generator = generator;
+            this.columns = columns;
+            generator.writeStartArray();
+        }
+        
+        @Override
+        public void write(Object[] row) throws IOException {
+            generator.writeStartObject();
+            for (int c = 0; c < row.length; c++) {
+                generator.writeFieldName(columns.get(c));
+                Object value = row[c];
+                if (value instanceof BigDecimal amount) {
+                    generator.writeNumber(amount);
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else if (value != null) {
+                    generator.writeString(value.toString());
+                } else {
+                    generator.writeNull();
+                }
+            }
+            generator.writeEndObject();
+        }
+        
+        @Override
+        public void finish() throws IOException {
+            generator.writeEndArray();
+            generator.flush();
+        }
+    }
+}
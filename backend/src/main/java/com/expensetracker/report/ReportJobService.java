@@ -0,0 +1,352 @@
+package com.expensetracker.report;
+
+import com.expensetracker.config.ReadConsistencyContext;
+import com.expensetracker.dto.ReportRequest;
+import com.expensetracker.exception.ResourceNotFoundException;
+import com.expensetracker.exception.ServiceUnavailableException;
+import com.expensetracker.model.ReportJob;
+import com.expensetracker.model.ReportJob.Status;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import com.expensetracker.repository.ReportJobRepository;
+import com.expensetracker.service.TableVersionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+// Report jobs behind /api/reports. A definition is hashed together with the versions of the tables it
+// reads, and a request whose hash already has a job gets that job back, finished or not, so asking again
+// costs nothing until the data changes. Jobs run on a small pool of their own inside read-only
+// transactions, which go to the replica when there is one and it has caught up with the table versions the
+// job was hashed with, and to the primary otherwise. The result is written gzipped to a scratch file
+// in the report directory and then stored in the database, so every instance can serve it. A job an
+// instance abandoned is run again here when asked for.
+@Service
+@Slf4j
+public class ReportJobService {
+    
+    static final String DURATION_TIMER = "app.reports.duration";
+    static final String QUEUE_DEPTH_GAUGE = "app.reports.queue.depth";
+    
+    private static final int MAX_ERROR_LENGTH = 500;
+    
+    private final ReportJobRepository reportJobRepository;
+    private final ReportGenerator reportGenerator;
+    private final ReportResultStore reportResultStore;
+    private final TableVersionService tableVersionService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readTransaction;
+    private final Path directory;
+    private final Duration retention;
+    private final Duration staleAfter;
+    private final Duration retryAfter;
+    private final ThreadPoolExecutor workers;
+    // Rows written so far by the jobs queued or running on this instance
+    private final Map<Long, AtomicLong> progress = new ConcurrentHashMap<>();
+    
+    public ReportJobService(ReportJobRepository reportJobRepository,
+                            ReportGenerator reportGenerator,
+                            ReportResultStore reportResultStore,
+                            TableVersionService tableVersionService,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.reports.directory:${java.io.tmpdir}/expense-reports}") Path directory,
+                            @Value("${app.reports.threads:2}") int threads,
+                            @Value("${app.reports.queue-capacity:20}") int queueCapacity,
+                            @Value("${app.reports.retention:P7D}") Duration retention,
+                            @Value("${app.reports.stale-after:PT1H}") Duration staleAfter,
+                            @Value("${app.reports.retry-after:30s}") Duration retryAfter) {
+        this.reportJobRepository = reportJobRepository;
+        this.reportGenerator = reportGenerator;
+        this.reportResultStore = reportResultStore;
+        this.tableVersionService = tableVersionService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        // The row count and the rows themselves come from the same snapshot
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.directory = directory;
+        this.retention = retention;
+        this.staleAfter = staleAfter;
+        this.retryAfter = retryAfter;
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("report-"),
+            new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder(QUEUE_DEPTH_GAUGE, workers, pool -> pool.getQueue().size())
+            .description("Report jobs waiting for a worker on this instance")
+            .register(meterRegistry);
+    }
+    
+    // Not transactional: a concurrent submit of the same definition is told apart by the unique hash
+    public ReportJob submit(ReportRequest request) {
+        ReportRequest definition = normalize(request);
+        Map<TrackedTable, Long> versions = tableVersionService.readVersions(TrackedTable.EXPENSES, TrackedTable.CATEGORIES);
+        String hash = hash(definition, versions);
+        ReportJob existing = reportJobRepository.findByDefinitionHash(hash).orElse(null);
+        if (existing != null) {
+            if (needsRerun(existing)) {
+                log.info("Running report job {} again (was {})", existing.getId(), existing.getStatus());
+                return requeue(existing);
+            }
+            return existing;
+        }
+        ReportJob job = new ReportJob();
+        job.setDefinitionHash(hash);
+        job.setReportType(definition.getType());
+        job.setReportFormat(definition.getFormat());
+        job.setDefinition(toJson(definition));
+        job.setExpensesVersion(versions.get(TrackedTable.EXPENSES));
+        job.setCategoriesVersion(versions.get(TrackedTable.CATEGORIES));
+        job.setStatus(Status.QUEUED);
+        job.setCreatedAt(LocalDateTime.now());
+        try {
+            job = reportJobRepository.save(job);
+        } catch (DataIntegrityViolationException ex) {
+            return reportJobRepository.findByDefinitionHash(hash).orElseThrow(() -> ex);
+        }
+        enqueue(job);
+        return job;
+    }
+    
+    // The job as stored, with the progress of a local run filled in
+    public ReportJob getJob(Long id) {
+        ReportJob job = reportJobRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Report job not found with id: " + id));
+        if (job.getStatus() == Status.DONE || job.getStatus() == Status.FAILED) {
+            return job;
+        }
+        if (needsRerun(job)) {
+            return requeue(job);
+        }
+        AtomicLong written = progress.get(id);
+        if (written != null && job.getStatus() == Status.RUNNING) {
+            job.setRowsWritten(written.get());
+        }
+        return job;
+    }
+    
+    // Gzipped result of a finished job
+    public InputStream openResult(ReportJob job) {
+        return reportResultStore.open(job.getId());
+    }
+    
+    // Jobs queued on an instance that stopped before running them
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeQueued() {
+        List<ReportJob> queued = reportJobRepository.findByStatusOrderByIdAsc(Status.QUEUED);
+        for (ReportJob job : queued) {
+            try {
+                enqueue(job);
+            } catch (ServiceUnavailableException ex) {
+                log.warn("Report queue is full; {} queued report jobs are left for later", queued.size());
+                return;
+            }
+        }
+    }
+    
+    @Scheduled(cron = "${app.reports.purge-cron:0 30 3 * * *}")
+    public void purge() {
+        List<ReportJob> expired = reportJobRepository.findByFinishedAtBefore(LocalDateTime.now().minus(retention));
+        expired.forEach(job -> reportResultStore.delete(job.getId()));
+        reportJobRepository.deleteAll(expired);
+        if (!expired.isEmpty()) {
+            log.info("Purged {} report jobs finished more than {} ago", expired.size(), retention);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        // Jobs cut short stay RUNNING and are run again once they are older than stale-after
+        workers.shutdownNow();
+    }
+    
+    private boolean needsRerun(ReportJob job) {
+        return switch (job.getStatus()) {
+            case FAILED -> true;
+            case DONE -> false;
+            case QUEUED -> !progress.containsKey(job.getId()) && isOlderThanStaleAfter(job.getCreatedAt());
+            case RUNNING -> !progress.containsKey(job.getId()) && isOlderThanStaleAfter(job.getStartedAt());
+        };
+    }
+    
+    private boolean isOlderThanStaleAfter(LocalDateTime time) {
+        return time == null || time.isBefore(LocalDateTime.now().minus(staleAfter));
+    }
+    
+    private ReportJob requeue(ReportJob job) {
+        job.setStatus(Status.QUEUED);
+        job.setCreatedAt(LocalDateTime.now());
+        job.setStartedAt(null);
+        job.setFinishedAt(null);
+        job.setTotalRows(null);
+        job.setRowsWritten(null);
+        job.setResultBytes(null);
+        job.setError(null);
+        job = reportJobRepository.save(job);
+        enqueue(job);
+        return job;
+    }
+    
+    private void enqueue(ReportJob job) {
+        Long id = job.getId();
+        if (progress.putIfAbsent(id, new AtomicLong()) != null) {
+            return;
+        }
+        try {
+            workers.execute(() -> run(id));
+        } catch (RejectedExecutionException ex) {
+            progress.remove(id);
+            finish(job, Status.FAILED, "Too many reports are queued");
+            throw new ServiceUnavailableException("Too many reports are queued", retryAfter);
+        }
+    }
+    
+    private void run(Long id) {
+        AtomicLong written = progress.get(id);
+        long started = System.nanoTime();
+        ReportJob job = null;
+        Status outcome = Status.FAILED;
+        Path temp = null;
+        try {
+            // Another instance, or an earlier submit, may have picked it up already
+            if (reportJobRepository.claim(id, LocalDateTime.now()) == 0) {
+                return;
+            }
+            job = reportJobRepository.findById(id).orElseThrow();
+            ReportRequest request = objectMapper.readValue(job.getDefinition(), ReportRequest.class);
+            if (!replicaHasReached(job)) {
+                log.info("Replica is behind the versions of report job {}; reading from the primary", id);
+                ReadConsistencyContext.setPrimaryRequired(true);
+            }
+            job.setTotalRows(readTransaction.execute(status -> reportGenerator.countRows(request)));
+            job = reportJobRepository.save(job);
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, job.getDefinitionHash(), ".tmp");
+            try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16), 1 << 16)) {
+                readTransaction.executeWithoutResult(status -> reportGenerator.write(request, out, written));
+            }
+            // Stored before the job is marked done, so a done job always has its whole result
+            reportResultStore.store(id, temp);
+            job.setRowsWritten(written.get());
+            job.setResultBytes(Files.size(temp));
+            finish(job, Status.DONE, null);
+            outcome = Status.DONE;
+            log.info("Report job {} wrote {} rows ({} bytes compressed) in {} ms", id, written.get(),
+                job.getResultBytes(), (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception ex) {
+            log.warn("Report job {} failed: {}", id, ex.toString());
+            if (job != null) {
+                job.setRowsWritten(written.get());
+                finish(job, Status.FAILED, ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName());
+            }
+        } finally {
+            ReadConsistencyContext.clear();
+            progress.remove(id);
+            deleteQuietly(temp);
+            if (job != null) {
+                Timer.builder(DURATION_TIMER)
+                    .description("Time from a report job starting to its result being stored")
+                    .tag("type", job.getReportType().name().toLowerCase())
+                    .tag("result", outcome.name().toLowerCase())
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+    
+    // The submitter may have just written and read the versions from the primary. Versions only grow, so
+    // a replica that has them now still has them for the reads that follow.
+    private boolean replicaHasReached(ReportJob job) {
+        Map<TrackedTable, Long> versions = readTransaction.execute(status ->
+            tableVersionService.readVersions(TrackedTable.EXPENSES, TrackedTable.CATEGORIES));
+        return hasReached(versions, TrackedTable.EXPENSES, job.getExpensesVersion())
+            && hasReached(versions, TrackedTable.CATEGORIES, job.getCategoriesVersion());
+    }
+    
+    private static boolean hasReached(Map<TrackedTable, Long> versions, TrackedTable table, Long required) {
+        return required == null || versions.getOrDefault(table, 0L) >= required;
+    }
+    
+    private void finish(ReportJob job, Status status, String error) {
+        job.setStatus(status);
+        job.setError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        job.setFinishedAt(LocalDateTime.now());
+        reportJobRepository.save(job);
+    }
+    
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.debug("Cannot delete {}: {}", file, ex.getMessage());
+        }
+    }
+    
+    // Filters in a canonical form, so the same report asked for differently hashes the same
+    private static ReportRequest normalize(ReportRequest request) {
+        List<String> categories = request.getCategories() == null ? null
+            : request.getCategories().stream().map(String::trim).filter(name -> !name.isEmpty()).distinct().sorted().toList();
+        return new ReportRequest(request.getType(), request.getFormat(),
+            categories == null || categories.isEmpty() ? null : categories, request.getStartDate(), request.getEndDate());
+    }
+    
+    private String hash(ReportRequest definition, Map<TrackedTable, Long> versions) {
+        String key = toJson(definition) + "|" + versions.get(TrackedTable.EXPENSES) + "-" + versions.get(TrackedTable.CATEGORIES);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+    
+    private String toJson(ReportRequest definition) {
+        try {
+            return objectMapper.writeValueAsString(definition);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
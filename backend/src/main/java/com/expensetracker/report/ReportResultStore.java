@@ -0,0 +1,103 @@
+package com.expensetracker.report;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Keeps finished results in report_result_chunks. Both directions go one chunk at a time, so a result
+// never has to fit in memory on the way in or out.
+@Component
+class ReportResultStore {
+    
+    static final int CHUNK_SIZE = 1 << 20;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate writeTransaction;
+    
+    ReportResultStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+    
+    // Replaces whatever an earlier run of the job stored
+    void store(Long jobId, Path file) {
+        writeTransaction.executeWithoutResult(status -> {
+            delete(jobId);
+            try (InputStream in = Files.newInputStream(file)) {
+                int chunk = 0;
+                for (byte[] data = in.readNBytes(CHUNK_SIZE); data.length > 0; data = in.readNBytes(CHUNK_SIZE)) {
+                    jdbcTemplate.update("INSERT INTO report_result_chunks (job_id, chunk, data) VALUES (?, ?, ?)",
+                        jobId, chunk++, data);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Storing the report result failed", ex);
+            }
+        });
+    }
+    
+    // The gzipped result, read from the database as the caller consumes it
+    InputStream open(Long jobId) {
+        return new ChunkInputStream(jobId);
+    }
+    
+    void delete(Long jobId) {
+        jdbcTemplate.update("DELETE FROM report_result_chunks WHERE job_id = ?", jobId);
+    }
+    
+    private byte[] load(Long jobId, int chunk) {
+        return jdbcTemplate.query("SELECT data FROM report_result_chunks WHERE job_id = ? AND chunk = ?",
+            rs -> rs.next() ? rs.getBytes(1) : null, jobId, chunk);
+    }
+    
+    private final class ChunkInputStream extends InputStream {
+        
+        private final Long jobId;
+        private int next;
+        private byte[] current = new byte[0];
+        private int position;
+        
+        ChunkInputStream(Long jobId) {
+            this.jobId = jobId;
+        }
+        
+        @Override
+        public int read() {
+            return fill() ? current[position++] & 0xff : -1;
+        }
+        
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int count = Math.min(length, current.length - position);
+            System.arraycopy(current, position, target, offset, count);
+            position += count;
+            return count;
+        }
+        
+        // False once the last chunk has been read
+        private boolean fill() {
+            while (position == current.length) {
+                byte[] data = load(jobId, next);
+                if (data == null) {
+                    return false;
+                }
+                next++;
+                current = data;
+                position = 0;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.ArchivedExpense;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+// The same filtered reads as ExpenseRepository, against the archive
+@Repository
+public interface ArchivedExpenseRepository extends JpaRepository<ArchivedExpense, Long>, ArchivedExpenseRepositoryCustom {
+    
+    List<ArchivedExpense> findByDateBetweenOrderByDateDesc(LocalDate startDate, LocalDate endDate);
+    
+    @Query("SELECT a FROM ArchivedExpense a WHERE a.category.name IN :categoryNames ORDER BY a.date DESC")
+    List<ArchivedExpense> findByCategoryNamesOrderByDateDesc(@Param("categoryNames") List<String> categoryNames);
+    
+    @Query("SELECT a FROM ArchivedExpense a WHERE a.category.name IN :categoryNames AND a.date BETWEEN :startDate AND :endDate ORDER BY a.date DESC")
+    List<ArchivedExpense> findByCategoryNamesAndDateBetweenOrderByDateDesc(
+        @Param("categoryNames") List<String> categoryNames,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT MAX(a.date) FROM ArchivedExpense a")
+    Optional<LocalDate> findLatestDate();
+}
@@ -0,0 +1,10 @@
+package com.expensetracker.repository;
+
+import java.time.LocalDate;
+
+public interface ArchivedExpenseRepositoryCustom {
+    
+    // Moves up to limit expenses dated before cutoff into the archive and adds them to the monthly rollups.
+    // Must run in a transaction; rows another transaction holds are skipped. Returns how many were moved.
+    int archiveBefore(LocalDate cutoff, int limit);
+}
@@ -0,0 +1,69 @@
+package com.expensetracker.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+class ArchivedExpenseRepositoryCustomImpl implements ArchivedExpenseRepositoryCustom {
+    
+    // Oldest ids first; on PostgreSQL a second archiver, or a writer holding an old row, is stepped around
+    private static final String LOCK_BATCH = """
+        SELECT id FROM expenses WHERE date < :cutoff ORDER BY id LIMIT :limit FOR UPDATE
+        """;
+    
+    private static final String COPY_TO_ARCHIVE = """
+        INSERT INTO expenses_archive (id, amount, category_id, date, description, created_at, updated_at, version, archived_at)
+        SELECT id, amount, category_id, date, description, created_at, updated_at, version, :archivedAt
+        FROM expenses WHERE id IN (:ids)
+        """;
+    
+    private static final String BATCH_TOTALS = """
+        SELECT CAST(DATE_TRUNC('month', date) AS DATE) AS month_start, category_id, SUM(amount) AS total, COUNT(*) AS expense_count
+        FROM expenses WHERE id IN (:ids)
+        GROUP BY CAST(DATE_TRUNC('month', date) AS DATE), category_id
+        """;
+    
+    private static final String ROLLUP_POSTGRES = """
+        INSERT INTO expense_monthly_rollups (month_start, category_id, total, expense_count)
+        """ + BATCH_TOTALS + """
+        ON CONFLICT (month_start, category_id) DO UPDATE
+        SET total = expense_monthly_rollups.total + EXCLUDED.total,
+            expense_count = expense_monthly_rollups.expense_count + EXCLUDED.expense_count
+        """;
+    
+    private static final String ROLLUP_H2 = """
+        MERGE INTO expense_monthly_rollups r
+        USING (""" + BATCH_TOTALS + """
+        ) batch ON r.month_start = batch.month_start AND r.category_id = batch.category_id
+        WHEN MATCHED THEN UPDATE SET total = r.total + batch.total, expense_count = r.expense_count + batch.expense_count
+        WHEN NOT MATCHED THEN INSERT (month_start, category_id, total, expense_count)
+            VALUES (batch.month_start, batch.category_id, batch.total, batch.expense_count)
+        """;
+    
+    private static final String REMOVE_FROM_EXPENSES = "DELETE FROM expenses WHERE id IN (:ids)";
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SqlDialect dialect;
+    
+    @Override
+    public int archiveBefore(LocalDate cutoff, int limit) {
+        String lockBatch = LOCK_BATCH.strip() + (dialect.isPostgres() ? " SKIP LOCKED" : "");
+        List<Long> ids = jdbcTemplate.queryForList(lockBatch,
+            new MapSqlParameterSource().addValue("cutoff", cutoff).addValue("limit", limit), Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("ids", ids)
+            .addValue("archivedAt", LocalDateTime.now());
+        jdbcTemplate.update(COPY_TO_ARCHIVE, params);
+        jdbcTemplate.update(dialect.isPostgres() ? ROLLUP_POSTGRES : ROLLUP_H2, params);
+        jdbcTemplate.update(REMOVE_FROM_EXPENSES, params);
+        return ids.size();
+    }
+}
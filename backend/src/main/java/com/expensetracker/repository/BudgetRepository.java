@@ -1,7 +1,11 @@
 package com.expensetracker.repository;
 
+import com.expensetracker.config.SecondLevelCacheConfig;
 import com.expensetracker.model.Budget;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,5 +14,9 @@ import java.util.Optional;
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
     
     // Get the most recent budget (there should only be one)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.BUDGET_QUERIES)
+    })
     Optional<Budget> findFirstByOrderByUpdatedAtDesc();
 }
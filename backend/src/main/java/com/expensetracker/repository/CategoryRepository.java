@@ -1,18 +1,34 @@
 package com.expensetracker.repository;
 
+import com.expensetracker.config.SecondLevelCacheConfig;
 import com.expensetracker.model.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Long> {
+public interface CategoryRepository extends JpaRepository<Category, Long>, CategoryRepositoryCustom {
     
     Optional<Category> findByName(String name);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.CATEGORY_QUERIES)
+    })
     List<Category> findAllByOrderByNameAsc();
     
     boolean existsByName(String name);
+    
+    // Zero when the category does not exist or is a default one
+    @Modifying
+    @Query("DELETE FROM Category c WHERE c.id = :id AND c.isDefault = false")
+    int deleteCustomInPlace(@Param("id") Long id);
 }
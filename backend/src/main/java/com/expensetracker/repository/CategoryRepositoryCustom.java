@@ -0,0 +1,12 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.Category;
+
+import java.util.Optional;
+
+public interface CategoryRepositoryCustom {
+    
+    // Renames a custom category in one statement. Empty when the category does not exist, is a
+    // default category, or the expected version is stale.
+    Optional<Category> updateInPlace(Category changes);
+}
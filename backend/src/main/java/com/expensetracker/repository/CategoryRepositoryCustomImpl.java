@@ -0,0 +1,58 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.config.SecondLevelCacheConfig;
+import com.expensetracker.model.Category;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+class CategoryRepositoryCustomImpl implements CategoryRepositoryCustom {
+    
+    private static final String SET_AND_MATCH = """
+        SET name = :name, description = :description, updated_at = :updatedAt, version = version + 1
+        WHERE id = :id AND is_default = FALSE
+          AND (CAST(:version AS BIGINT) IS NULL OR version = :version)
+        """;
+    
+    private static final String UPDATE_POSTGRES =
+        "UPDATE categories " + SET_AND_MATCH + "RETURNING created_at, version";
+    
+    private static final String UPDATE_H2 =
+        "SELECT created_at, version FROM FINAL TABLE (UPDATE categories " + SET_AND_MATCH + ")";
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SqlDialect dialect;
+    private final SecondLevelCache secondLevelCache;
+    
+    @Override
+    public Optional<Category> updateInPlace(Category changes) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("id", changes.getId())
+            .addValue("version", changes.getVersion(), Types.BIGINT)
+            .addValue("name", changes.getName())
+            .addValue("description", changes.getDescription(), Types.VARCHAR)
+            .addValue("updatedAt", changes.getUpdatedAt());
+        List<Category> rows = jdbcTemplate.query(dialect.isPostgres() ? UPDATE_POSTGRES : UPDATE_H2, params,
+            (rs, rowNum) -> {
+                Category category = new Category();
+                category.setId(changes.getId());
+                category.setName(changes.getName());
+                category.setDescription(changes.getDescription());
+                category.setIsDefault(false);
+                category.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+                category.setUpdatedAt(changes.getUpdatedAt());
+                category.setVersion(rs.getLong("version"));
+                return category;
+            });
+        if (!rows.isEmpty()) {
+            secondLevelCache.evictAfterCommit(Category.class, changes.getId(), SecondLevelCacheConfig.CATEGORY_QUERIES);
+        }
+        return rows.stream().findFirst();
+    }
+}
@@ -0,0 +1,33 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.ExpenseEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExpenseEventRepository extends JpaRepository<ExpenseEvent, Long> {
+    
+    List<ExpenseEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    @Query("SELECT MAX(e.id) FROM ExpenseEvent e")
+    Optional<Long> findLatestId();
+    
+    // For bulk loads that insert expenses without going through the services
+    @Transactional
+    @Modifying
+    @Query(value = """
+        INSERT INTO expense_events (expense_id, event_type, amount, category_id, date, occurred_at)
+        SELECT e.id, 'CREATED', e.amount, e.category_id, e.date, e.created_at
+        FROM expenses e
+        WHERE NOT EXISTS (SELECT 1 FROM expense_events ev WHERE ev.expense_id = e.id)
+        ORDER BY e.id
+        """, nativeQuery = true)
+    int recordUnloggedCreations();
+}
@@ -0,0 +1,18 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.ExpenseMonthlyRollup;
+import com.expensetracker.repository.ExpenseRepository.CategorySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ExpenseMonthlyRollupRepository extends JpaRepository<ExpenseMonthlyRollup, ExpenseMonthlyRollup.Key> {
+    
+    @Query("SELECT c.name as category, SUM(r.total) as total " +
+           "FROM ExpenseMonthlyRollup r JOIN Category c ON c.id = r.key.categoryId " +
+           "GROUP BY c.name")
+    List<CategorySummary> findTotalByCategory();
+}
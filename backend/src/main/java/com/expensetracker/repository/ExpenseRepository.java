@@ -8,10 +8,11 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, ExpenseRepositoryCustom {
     
     List<Expense> findByDateBetweenOrderByDateDesc(LocalDate startDate, LocalDate endDate);
     
@@ -24,6 +25,11 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
         @Param("startDate") LocalDate startDate, 
         @Param("endDate") LocalDate endDate);
     
+    List<Expense> findByUpdatedAtAfter(LocalDateTime since);
+    
+    // Renaming a category changes how its expenses are rendered without touching the expense rows
+    List<Expense> findByCategoryUpdatedAtAfter(LocalDateTime since);
+    
     @Query("SELECT e.category.name as category, SUM(e.amount) as total " +
            "FROM Expense e " +
            "GROUP BY e.category.name " +
@@ -0,0 +1,24 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.Expense;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+
+public interface ExpenseRepositoryCustom {
+    
+    // Overwrites the row in one statement. Empty when nothing matched: the expense or its new category
+    // does not exist, or the expected version (changes.getVersion(), if set) is stale.
+    Optional<UpdatedExpense> updateInPlace(Expense changes);
+    
+    // Writes only the named properties (amount, category, date, description) and returns the whole row.
+    // Empty under the same conditions as updateInPlace.
+    Optional<UpdatedExpense> patchInPlace(Expense changes, Set<String> properties);
+    
+    // Deletes the row and records its tombstone in one statement, false when there was no such row
+    boolean deleteWithTombstone(Long id);
+    
+    record UpdatedExpense(Expense expense, LocalDate previousDate) {
+    }
+}
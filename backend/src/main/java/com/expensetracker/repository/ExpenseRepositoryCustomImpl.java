@@ -0,0 +1,185 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+class ExpenseRepositoryCustomImpl implements ExpenseRepositoryCustom {
+    
+    // The locked sub-select hands back the date before the update, so both affected months are known
+    private static final String UPDATE_POSTGRES = """
+        UPDATE expenses e
+        SET amount = :amount, category_id = :categoryId, date = :date, description = :description,
+            updated_at = :updatedAt, version = e.version + 1
+        FROM (SELECT id, date FROM expenses WHERE id = :id FOR UPDATE) previous
+        WHERE e.id = previous.id
+          AND (CAST(:version AS BIGINT) IS NULL OR e.version = :version)
+          AND EXISTS (SELECT 1 FROM categories c WHERE c.id = :categoryId)
+        RETURNING previous.date AS previous_date, e.created_at, e.version,
+            (SELECT c.name FROM categories c WHERE c.id = e.category_id) AS category_name
+        """;
+    
+    private static final String UPDATE_H2 = """
+        SELECT previous.date AS previous_date, previous.created_at, previous.version + 1 AS version,
+            (SELECT c.name FROM categories c WHERE c.id = :categoryId) AS category_name
+        FROM OLD TABLE (
+            UPDATE expenses
+            SET amount = :amount, category_id = :categoryId, date = :date, description = :description,
+                updated_at = :updatedAt, version = version + 1
+            WHERE id = :id
+              AND (CAST(:version AS BIGINT) IS NULL OR version = :version)
+              AND EXISTS (SELECT 1 FROM categories c WHERE c.id = :categoryId)
+        ) previous
+        """;
+    
+    private static final String DELETE_POSTGRES = """
+        WITH deleted AS (DELETE FROM expenses WHERE id = :id RETURNING id)
+        INSERT INTO expense_tombstones (expense_id, deleted_at)
+        SELECT id, :deletedAt FROM deleted
+        ON CONFLICT (expense_id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at
+        """;
+    
+    private static final String DELETE_H2 = """
+        MERGE INTO expense_tombstones (expense_id, deleted_at) KEY (expense_id)
+        SELECT id, :deletedAt FROM OLD TABLE (DELETE FROM expenses WHERE id = :id)
+        """;
+    
+    // Patchable properties in a fixed order, so each combination of fields always yields the same statement
+    private static final List<PatchColumn> PATCH_COLUMNS = List.of(
+        new PatchColumn("amount", "amount", "amount"),
+        new PatchColumn("category", "category_id", "categoryId"),
+        new PatchColumn("date", "date", "date"),
+        new PatchColumn("description", "description", "description"));
+    
+    private static final String MATCH_VERSION = " AND (CAST(:version AS BIGINT) IS NULL OR version = :version)";
+    private static final String MATCH_CATEGORY = " AND EXISTS (SELECT 1 FROM categories c WHERE c.id = :categoryId)";
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SqlDialect dialect;
+    
+    @Override
+    public Optional<UpdatedExpense> updateInPlace(Expense changes) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("id", changes.getId())
+            .addValue("version", changes.getVersion(), Types.BIGINT)
+            .addValue("amount", changes.getAmount())
+            .addValue("categoryId", changes.getCategory().getId())
+            .addValue("date", changes.getDate())
+            .addValue("description", changes.getDescription(), Types.VARCHAR)
+            .addValue("updatedAt", changes.getUpdatedAt());
+        List<UpdatedExpense> rows = jdbcTemplate.query(dialect.isPostgres() ? UPDATE_POSTGRES : UPDATE_H2, params,
+            (rs, rowNum) -> updated(changes, rs));
+        return rows.stream().findFirst();
+    }
+    
+    @Override
+    public Optional<UpdatedExpense> patchInPlace(Expense changes, Set<String> properties) {
+        List<PatchColumn> patched = PATCH_COLUMNS.stream()
+            .filter(column -> properties.contains(column.property()))
+            .toList();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("id", changes.getId())
+            .addValue("version", changes.getVersion(), Types.BIGINT)
+            .addValue("amount", changes.getAmount(), Types.NUMERIC)
+            .addValue("categoryId", changes.getCategory() != null ? changes.getCategory().getId() : null, Types.BIGINT)
+            .addValue("date", changes.getDate(), Types.DATE)
+            .addValue("description", changes.getDescription(), Types.VARCHAR)
+            .addValue("updatedAt", changes.getUpdatedAt());
+        String sql = dialect.isPostgres() ? patchPostgres(patched, properties) : patchH2(patched, properties);
+        List<UpdatedExpense> rows = jdbcTemplate.query(sql, params,
+            (rs, rowNum) -> patched(changes, rs));
+        return rows.stream().findFirst();
+    }
+    
+    @Override
+    public boolean deleteWithTombstone(Long id) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("id", id)
+            .addValue("deletedAt", LocalDateTime.now());
+        return jdbcTemplate.update(dialect.isPostgres() ? DELETE_POSTGRES : DELETE_H2, params) > 0;
+    }
+    
+    // The response is the request's values plus what only the database knows
+    private static UpdatedExpense updated(Expense changes, ResultSet rs) throws SQLException {
+        Category category = new Category();
+        category.setId(changes.getCategory().getId());
+        category.setName(rs.getString("category_name"));
+        
+        Expense expense = new Expense();
+        expense.setId(changes.getId());
+        expense.setAmount(changes.getAmount());
+        expense.setCategory(category);
+        expense.setDate(changes.getDate());
+        expense.setDescription(changes.getDescription());
+        expense.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        expense.setUpdatedAt(changes.getUpdatedAt());
+        expense.setVersion(rs.getLong("version"));
+        return new UpdatedExpense(expense, rs.getObject("previous_date", LocalDate.class));
+    }
+    
+    // Only a date change needs the previous date, and with it the locked sub-select
+    private static String patchPostgres(List<PatchColumn> patched, Set<String> properties) {
+        boolean movesDate = properties.contains("date");
+        return "UPDATE expenses e SET " + assignments(patched)
+            + (movesDate ? " FROM (SELECT id, date FROM expenses WHERE id = :id FOR UPDATE) previous" : "")
+            + " WHERE e.id = :id" + (movesDate ? " AND e.id = previous.id" : "")
+            + MATCH_VERSION + (properties.contains("category") ? MATCH_CATEGORY : "")
+            + " RETURNING " + (movesDate ? "previous.date" : "e.date") + " AS previous_date,"
+            + " e.amount, e.category_id, e.date, e.description, e.created_at, e.version,"
+            + " (SELECT c.name FROM categories c WHERE c.id = e.category_id) AS category_name";
+    }
+    
+    // The old row plus the patched values is the new row
+    private static String patchH2(List<PatchColumn> patched, Set<String> properties) {
+        String columns = PATCH_COLUMNS.stream()
+            .map(column -> (patched.contains(column) ? ":" + column.param() : "previous." + column.column())
+                + " AS " + column.column())
+            .collect(Collectors.joining(", "));
+        String categoryId = properties.contains("category") ? ":categoryId" : "previous.category_id";
+        return "SELECT previous.date AS previous_date, " + columns + ", previous.created_at,"
+            + " previous.version + 1 AS version,"
+            + " (SELECT c.name FROM categories c WHERE c.id = " + categoryId + ") AS category_name"
+            + " FROM OLD TABLE (UPDATE expenses SET " + assignments(patched)
+            + " WHERE id = :id" + MATCH_VERSION + (properties.contains("category") ? MATCH_CATEGORY : "")
+            + ") previous";
+    }
+    
+    private static String assignments(List<PatchColumn> patched) {
+        return patched.stream()
+            .map(column -> column.column() + " = :" + column.param() + ", ")
+            .collect(Collectors.joining()) + "updated_at = :updatedAt, version = version + 1";
+    }
+    
+    private static UpdatedExpense patched(Expense changes, ResultSet rs) throws SQLException {
+        Category category = new Category();
+        category.setId(rs.getLong("category_id"));
+        category.setName(rs.getString("category_name"));
+        
+        Expense expense = new Expense();
+        expense.setId(changes.getId());
+        expense.setAmount(rs.getBigDecimal("amount"));
+        expense.setCategory(category);
+        expense.setDate(rs.getObject("date", LocalDate.class));
+        expense.setDescription(rs.getString("description"));
+        expense.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        expense.setUpdatedAt(changes.getUpdatedAt());
+        expense.setVersion(rs.getLong("version"));
+        return new UpdatedExpense(expense, rs.getObject("previous_date", LocalDate.class));
+    }
+    
+    private record PatchColumn(String property, String column, String param) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.ExpenseSyncReset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ExpenseSyncResetRepository extends JpaRepository<ExpenseSyncReset, Long> {
+    
+    // Null until the first reset
+    @Query("SELECT MAX(r.resetAt) FROM ExpenseSyncReset r")
+    LocalDateTime findLatestResetAt();
+}
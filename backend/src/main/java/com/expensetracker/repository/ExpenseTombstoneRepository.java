@@ -0,0 +1,24 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.ExpenseTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ExpenseTombstoneRepository extends JpaRepository<ExpenseTombstone, Long> {
+    
+    @Query("SELECT t.expenseId FROM ExpenseTombstone t WHERE t.deletedAt > :since")
+    List<Long> findExpenseIdsDeletedAfter(@Param("since") LocalDateTime since);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ExpenseTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
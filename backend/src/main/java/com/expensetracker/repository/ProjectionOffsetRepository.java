@@ -0,0 +1,29 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.ProjectionOffset;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ProjectionOffsetRepository extends JpaRepository<ProjectionOffset, String> {
+    
+    // SKIP LOCKED: empty while another instance is applying a batch for this projector
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT o FROM ProjectionOffset o WHERE o.projector = :projector")
+    Optional<ProjectionOffset> lockIfIdle(@Param("projector") String projector);
+    
+    // Waits for a batch in flight to finish
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM ProjectionOffset o WHERE o.projector = :projector")
+    Optional<ProjectionOffset> lock(@Param("projector") String projector);
+}
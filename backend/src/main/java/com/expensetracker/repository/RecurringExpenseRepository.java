@@ -2,15 +2,29 @@ package com.expensetracker.repository;
 
 import com.expensetracker.model.RecurringExpense;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface RecurringExpenseRepository extends JpaRepository<RecurringExpense, Long> {
+public interface RecurringExpenseRepository extends JpaRepository<RecurringExpense, Long>, RecurringExpenseRepositoryCustom {
     
     List<RecurringExpense> findByActiveTrue();
     
     List<RecurringExpense> findByActiveTrueAndNextOccurrenceLessThanEqual(LocalDate date);
+    
+    @Modifying
+    @Query("UPDATE RecurringExpense r SET r.active = :active, r.updatedAt = :updatedAt, r.version = r.version + 1 "
+        + "WHERE r.id = :id")
+    int updateActiveInPlace(@Param("id") Long id, @Param("active") boolean active,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Modifying
+    @Query("DELETE FROM RecurringExpense r WHERE r.id = :id")
+    int deleteInPlace(@Param("id") Long id);
 }
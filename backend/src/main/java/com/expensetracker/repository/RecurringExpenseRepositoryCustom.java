@@ -0,0 +1,17 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.RecurringExpense;
+
+import java.util.Optional;
+import java.util.Set;
+
+public interface RecurringExpenseRepositoryCustom {
+    
+    // Overwrites the schedule in one statement, leaving next occurrence and active as they are.
+    // Empty when the schedule or its new category does not exist, or the expected version is stale.
+    Optional<RecurringExpense> updateInPlace(RecurringExpense changes);
+    
+    // Writes only the named properties (amount, category, description, frequency, startDate, endDate)
+    // and returns the whole row. Empty under the same conditions as updateInPlace.
+    Optional<RecurringExpense> patchInPlace(RecurringExpense changes, Set<String> properties);
+}
@@ -0,0 +1,149 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.RecurringExpense;
+import com.expensetracker.model.RecurringExpense.RecurrenceFrequency;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+class RecurringExpenseRepositoryCustomImpl implements RecurringExpenseRepositoryCustom {
+    
+    private static final String SET_AND_MATCH = """
+        SET amount = :amount, category_id = :categoryId, description = :description, frequency = :frequency,
+            start_date = :startDate, end_date = :endDate, updated_at = :updatedAt, version = version + 1
+        WHERE id = :id
+          AND (CAST(:version AS BIGINT) IS NULL OR version = :version)
+          AND EXISTS (SELECT 1 FROM categories c WHERE c.id = :categoryId)
+        """;
+    
+    private static final String UPDATE_POSTGRES = "UPDATE recurring_expenses " + SET_AND_MATCH + """
+        RETURNING next_occurrence, active, created_at, version,
+            (SELECT c.name FROM categories c WHERE c.id = :categoryId) AS category_name
+        """;
+    
+    private static final String UPDATE_H2 = """
+        SELECT next_occurrence, active, created_at, version,
+            (SELECT c.name FROM categories c WHERE c.id = :categoryId) AS category_name
+        FROM FINAL TABLE (UPDATE recurring_expenses
+        """ + SET_AND_MATCH + ")";
+    
+    // Patchable properties in a fixed order, so each combination of fields always yields the same statement
+    private static final List<PatchColumn> PATCH_COLUMNS = List.of(
+        new PatchColumn("amount", "amount", "amount"),
+        new PatchColumn("category", "category_id", "categoryId"),
+        new PatchColumn("description", "description", "description"),
+        new PatchColumn("frequency", "frequency", "frequency"),
+        new PatchColumn("startDate", "start_date", "startDate"),
+        new PatchColumn("endDate", "end_date", "endDate"));
+    
+    private static final String PATCH_RESULT_COLUMNS = "amount, category_id, description, frequency, start_date, "
+        + "end_date, next_occurrence, active, created_at, version, "
+        + "(SELECT c.name FROM categories c WHERE c.id = category_id) AS category_name";
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SqlDialect dialect;
+    
+    @Override
+    public Optional<RecurringExpense> updateInPlace(RecurringExpense changes) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("id", changes.getId())
+            .addValue("version", changes.getVersion(), Types.BIGINT)
+            .addValue("amount", changes.getAmount())
+            .addValue("categoryId", changes.getCategory().getId())
+            .addValue("description", changes.getDescription(), Types.VARCHAR)
+            .addValue("frequency", changes.getFrequency().name())
+            .addValue("startDate", changes.getStartDate())
+            .addValue("endDate", changes.getEndDate(), Types.DATE)
+            .addValue("updatedAt", changes.getUpdatedAt());
+        List<RecurringExpense> rows = jdbcTemplate.query(dialect.isPostgres() ? UPDATE_POSTGRES : UPDATE_H2, params,
+            (rs, rowNum) -> updated(changes, rs));
+        return rows.stream().findFirst();
+    }
+    
+    @Override
+    public Optional<RecurringExpense> patchInPlace(RecurringExpense changes, Set<String> properties) {
+        String setAndMatch = "SET " + PATCH_COLUMNS.stream()
+            .filter(column -> properties.contains(column.property()))
+            .map(column -> column.column() + " = :" + column.param() + ", ")
+            .collect(Collectors.joining())
+            + "updated_at = :updatedAt, version = version + 1"
+            + " WHERE id = :id AND (CAST(:version AS BIGINT) IS NULL OR version = :version)"
+            + (properties.contains("category")
+                ? " AND EXISTS (SELECT 1 FROM categories c WHERE c.id = :categoryId)" : "");
+        String sql = dialect.isPostgres()
+            ? "UPDATE recurring_expenses " + setAndMatch + " RETURNING " + PATCH_RESULT_COLUMNS
+            : "SELECT " + PATCH_RESULT_COLUMNS + " FROM FINAL TABLE (UPDATE recurring_expenses " + setAndMatch + ")";
+        
+        RecurrenceFrequency frequency = changes.getFrequency();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("id", changes.getId())
+            .addValue("version", changes.getVersion(), Types.BIGINT)
+            .addValue("amount", changes.getAmount(), Types.NUMERIC)
+            .addValue("categoryId", changes.getCategory() != null ? changes.getCategory().getId() : null, Types.BIGINT)
+            .addValue("description", changes.getDescription(), Types.VARCHAR)
+            .addValue("frequency", frequency != null ? frequency.name() : null, Types.VARCHAR)
+            .addValue("startDate", changes.getStartDate(), Types.DATE)
+            .addValue("endDate", changes.getEndDate(), Types.DATE)
+            .addValue("updatedAt", changes.getUpdatedAt());
+        List<RecurringExpense> rows = jdbcTemplate.query(sql, params,
+            (rs, rowNum) -> patched(changes, rs));
+        return rows.stream().findFirst();
+    }
+    
+    private static RecurringExpense updated(RecurringExpense changes, ResultSet rs) throws SQLException {
+        Category category = new Category();
+        category.setId(changes.getCategory().getId());
+        category.setName(rs.getString("category_name"));
+        
+        RecurringExpense recurringExpense = new RecurringExpense();
+        recurringExpense.setId(changes.getId());
+        recurringExpense.setAmount(changes.getAmount());
+        recurringExpense.setCategory(category);
+        recurringExpense.setDescription(changes.getDescription());
+        recurringExpense.setFrequency(changes.getFrequency());
+        recurringExpense.setStartDate(changes.getStartDate());
+        recurringExpense.setEndDate(changes.getEndDate());
+        recurringExpense.setNextOccurrence(rs.getObject("next_occurrence", LocalDate.class));
+        recurringExpense.setActive(rs.getBoolean("active"));
+        recurringExpense.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        recurringExpense.setUpdatedAt(changes.getUpdatedAt());
+        recurringExpense.setVersion(rs.getLong("version"));
+        return recurringExpense;
+    }
+    
+    private static RecurringExpense patched(RecurringExpense changes, ResultSet rs) throws SQLException {
+        Category category = new Category();
+        category.setId(rs.getLong("category_id"));
+        category.setName(rs.getString("category_name"));
+        
+        RecurringExpense recurringExpense = new RecurringExpense();
+        recurringExpense.setId(changes.getId());
+        recurringExpense.setAmount(rs.getBigDecimal("amount"));
+        recurringExpense.setCategory(category);
+        recurringExpense.setDescription(rs.getString("description"));
+        recurringExpense.setFrequency(RecurrenceFrequency.valueOf(rs.getString("frequency")));
+        recurringExpense.setStartDate(rs.getObject("start_date", LocalDate.class));
+        recurringExpense.setEndDate(rs.getObject("end_date", LocalDate.class));
+        recurringExpense.setNextOccurrence(rs.getObject("next_occurrence", LocalDate.class));
+        recurringExpense.setActive(rs.getBoolean("active"));
+        recurringExpense.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        recurringExpense.setUpdatedAt(changes.getUpdatedAt());
+        recurringExpense.setVersion(rs.getLong("version"));
+        return recurringExpense;
+    }
+    
+    private record PatchColumn(String property, String column, String param) {
+    }
+}
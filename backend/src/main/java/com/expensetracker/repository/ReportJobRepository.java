@@ -0,0 +1,36 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.ReportJob;
+import com.expensetracker.model.ReportJob.Status;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, Long> {
+    
+    Optional<ReportJob> findByDefinitionHash(String definitionHash);
+    
+    List<ReportJob> findByStatusOrderByIdAsc(Status status);
+    
+    List<ReportJob> findByFinishedAtBefore(LocalDateTime cutoff);
+    
+    // Only one worker, on any instance, gets to run a queued job
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportJob j SET j.status = :running, j.startedAt = :now, j.rowsWritten = 0 "
+        + "WHERE j.id = :id AND j.status = :queued")
+    int updateStatus(@Param("id") Long id, @Param("queued") Status queued, @Param("running") Status running,
+                     @Param("now") LocalDateTime now);
+    
+    default int claim(Long id, LocalDateTime now) {
+        return updateStatus(id, Status.QUEUED, Status.RUNNING, now);
+    }
+}
@@ -0,0 +1,80 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.config.SecondLevelCacheConfig;
+import com.expensetracker.model.Budget;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Writes that bypass Hibernate (plain JDBC, bulk loads) are invisible to its second-level and query
+// caches, so whoever makes them evicts here. Evicting after commit keeps a concurrent reader from
+// caching the old row again while the write is still uncommitted. The caches are per instance, so writes
+// made by other instances are caught by the shared table version counters instead: whenever the counter
+// of a cached table is seen to move, its regions are dropped.
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCache {
+    
+    private final EntityManagerFactory entityManagerFactory;
+    // Last counter seen per cached table; none yet means the regions may predate any version we know of
+    private final Map<TrackedTable, Long> seenVersions = new ConcurrentHashMap<>();
+    
+    public void evictAfterCommit(Class<?> entityClass, Object id, String queryRegion) {
+        runAfterCommit(() -> {
+            cache().evictEntityData(entityClass, id);
+            cache().evictQueryRegion(queryRegion);
+        });
+    }
+    
+    public void evictAll() {
+        cache().evictAllRegions();
+    }
+    
+    // Called with table versions just read from the database, before anything is read from the cache
+    public void syncWithVersions(Map<TrackedTable, Long> versions) {
+        versions.forEach((table, version) -> {
+            Long previous = seenVersions.put(table, version);
+            if (version.equals(previous)) {
+                return;
+            }
+            switch (table) {
+                case CATEGORIES -> {
+                    cache().evictEntityData(Category.class);
+                    cache().evictQueryRegion(SecondLevelCacheConfig.CATEGORY_QUERIES);
+                }
+                case BUDGETS -> {
+                    cache().evictEntityData(Budget.class);
+                    cache().evictQueryRegion(SecondLevelCacheConfig.BUDGET_QUERIES);
+                }
+                default -> {
+                }
+            }
+        });
+    }
+    
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+    
+    private static void runAfterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
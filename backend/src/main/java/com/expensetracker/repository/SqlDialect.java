@@ -0,0 +1,30 @@
+package com.expensetracker.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// The write fragments read rows back from an UPDATE or DELETE in the same statement. PostgreSQL does
+// that with RETURNING, H2 (the test database) with data change delta tables. Resolved on first use.
+@Component
+@RequiredArgsConstructor
+public class SqlDialect {
+    
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+    
+    public boolean isPostgres() {
+        Boolean resolved = postgres;
+        if (resolved == null) {
+            String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            if (!"PostgreSQL".equals(product) && !"H2".equals(product)) {
+                throw new IllegalStateException("Unsupported database for single-statement writes: " + product);
+            }
+            resolved = "PostgreSQL".equals(product);
+            postgres = resolved;
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,21 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.TableVersion;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+@Repository
+public interface TableVersionRepository extends JpaRepository<TableVersion, TrackedTable> {
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE TableVersion v SET v.version = v.version + 1 WHERE v.tableName IN :tables")
+    int incrementVersions(@Param("tables") Collection<TrackedTable> tables);
+}
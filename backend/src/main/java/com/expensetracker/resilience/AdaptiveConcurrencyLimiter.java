@@ -0,0 +1,66 @@
+package com.expensetracker.resilience;
+
+// AIMD concurrency limit: each request that finishes within the latency target while the limit is in real
+// use grows it by 1/limit, so about one per limit's worth of requests; a request that runs over the target
+// or fails with a server error cuts it by a tenth. Requests beyond the limit are refused outright.
+public class AdaptiveConcurrencyLimiter {
+    
+    static final double BACKOFF_RATIO = 0.9;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    
+    private double limit;
+    private int inFlight;
+    private long lastDecrease;
+    
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.limit = initialLimit;
+        this.lastDecrease = System.nanoTime();
+    }
+    
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+    
+    // started and finished are System.nanoTime() readings; overloaded marks a server error
+    public synchronized void release(long started, long finished, boolean overloaded) {
+        int concurrency = inFlight;
+        inFlight--;
+        if (overloaded || finished - started > latencyTargetNanos) {
+            // Requests admitted before the last cut ran under the old limit and say nothing about the new one,
+            // so a burst of slow requests lowers the limit once instead of once per request
+            if (started - lastDecrease > 0) {
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                lastDecrease = finished;
+            }
+        } else if (concurrency * 2 >= limit) {
+            // Fast requests at low concurrency prove nothing about the limit
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+    
+    // For requests that went async: how long the response takes is not the thread's time
+    public synchronized void releaseWithoutSample() {
+        inFlight--;
+    }
+    
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+    
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
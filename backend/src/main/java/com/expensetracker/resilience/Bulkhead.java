@@ -0,0 +1,14 @@
+package com.expensetracker.resilience;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Runs the method on the given bulkhead's workers when app.bulkheads.enabled is set; see BulkheadAspect
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+    
+    BulkheadType value();
+}
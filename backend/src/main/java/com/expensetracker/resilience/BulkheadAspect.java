@@ -0,0 +1,133 @@
+package com.expensetracker.resilience;
+
+import com.expensetracker.config.BulkheadProperties;
+import com.expensetracker.config.ReadConsistencyContext;
+import com.expensetracker.exception.DeadlineExceededException;
+import com.expensetracker.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Runs @Bulkhead methods on their bulkhead's fixed set of worker threads, with the caller waiting for the
+// result. Each bulkhead queues a bounded number of calls; past that, calls are refused with 503 instead of
+// waiting, so one kind of traffic can never take all the threads and connections the other one needs.
+// Calls made inside a transaction, or already on a bulkhead worker, run where they are: a transaction
+// cannot move threads, and a worker waiting on a second bulkhead could deadlock the two.
+// Sits inside the single-flight aspect, so coalesced callers share one slot, and wraps the transaction.
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class BulkheadAspect {
+    
+    static final String QUEUE_DEPTH_GAUGE = "app.bulkhead.queue.depth";
+    static final String ACTIVE_GAUGE = "app.bulkhead.active";
+    static final String QUEUE_WAIT_TIMER = "app.bulkhead.queue.wait";
+    static final String REJECTED_COUNTER = "app.bulkhead.rejected";
+    
+    private final Map<BulkheadType, ThreadPoolExecutor> executors = new EnumMap<>(BulkheadType.class);
+    private final Map<BulkheadType, Timer> queueWaits = new EnumMap<>(BulkheadType.class);
+    private final Map<BulkheadType, Counter> rejections = new EnumMap<>(BulkheadType.class);
+    private final Duration retryAfter;
+    
+    public BulkheadAspect(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.retryAfter = properties.retryAfter();
+        for (BulkheadType bulkhead : BulkheadType.values()) {
+            BulkheadProperties.Settings settings = properties.settings(bulkhead);
+            String name = bulkhead.name().toLowerCase();
+            BlockingQueue<Runnable> queue = settings.queueCapacity() > 0
+                ? new ArrayBlockingQueue<>(settings.queueCapacity())
+                : new SynchronousQueue<>();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(settings.threads(), settings.threads(),
+                0, TimeUnit.MILLISECONDS, queue, new CustomizableThreadFactory(name + "-bulkhead-"),
+                new ThreadPoolExecutor.AbortPolicy());
+            executors.put(bulkhead, executor);
+            Gauge.builder(QUEUE_DEPTH_GAUGE, executor, pool -> pool.getQueue().size())
+                .description("Calls waiting for a worker of the bulkhead")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+            Gauge.builder(ACTIVE_GAUGE, executor, ThreadPoolExecutor::getActiveCount)
+                .description("Workers of the bulkhead running a call")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+            queueWaits.put(bulkhead, Timer.builder(QUEUE_WAIT_TIMER)
+                .description("Time calls spent waiting for a worker of the bulkhead")
+                .tag("bulkhead", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+            rejections.put(bulkhead, Counter.builder(REJECTED_COUNTER)
+                .description("Calls refused with 503 because the bulkhead queue was full")
+                .tag("bulkhead", name)
+                .register(meterRegistry));
+        }
+    }
+    
+    @Around("@annotation(bulkhead)")
+    public Object isolate(ProceedingJoinPoint joinPoint, Bulkhead bulkhead) throws Throwable {
+        if (BulkheadContext.current() != null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        BulkheadType type = bulkhead.value();
+        boolean primaryRequired = ReadConsistencyContext.isPrimaryRequired();
+        Long deadline = RequestDeadline.current();
+        long submitted = System.nanoTime();
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        try {
+            executors.get(type).execute(() -> {
+                queueWaits.get(type).record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                BulkheadContext.set(type);
+                ReadConsistencyContext.setPrimaryRequired(primaryRequired);
+                RequestDeadline.set(deadline);
+                try {
+                    // The client is gone if the wait used up its deadline
+                    if (RequestDeadline.isExpired()) {
+                        throw new DeadlineExceededException(
+                            "Request deadline passed while waiting for the " + type.name().toLowerCase() + " bulkhead");
+                    }
+                    result.complete(joinPoint.proceed());
+                } catch (Throwable ex) {
+                    result.completeExceptionally(ex);
+                } finally {
+                    BulkheadContext.clear();
+                    ReadConsistencyContext.clear();
+                    RequestDeadline.clear();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            rejections.get(type).increment();
+            throw new ServiceUnavailableException("The " + type.name().toLowerCase() + " bulkhead is full", retryAfter);
+        }
+        try {
+            return result.get();
+        } catch (ExecutionException ex) {
+            throw ex.getCause();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the " + type.name().toLowerCase() + " bulkhead", ex);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolExecutor::shutdown);
+    }
+}
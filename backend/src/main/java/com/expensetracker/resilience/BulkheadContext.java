@@ -0,0 +1,23 @@
+package com.expensetracker.resilience;
+
+// The bulkhead the current thread is working for, if any. Set by BulkheadAspect on its worker threads and
+// read when picking a connection pool and a statement timeout.
+public final class BulkheadContext {
+    
+    private static final ThreadLocal<BulkheadType> CURRENT = new ThreadLocal<>();
+    
+    private BulkheadContext() {
+    }
+    
+    public static BulkheadType current() {
+        return CURRENT.get();
+    }
+    
+    static void set(BulkheadType bulkhead) {
+        CURRENT.set(bulkhead);
+    }
+    
+    static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,50 @@
+package com.expensetracker.resilience;
+
+import com.expensetracker.config.BulkheadProperties;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+// Gives every statement run on a bulkhead worker that bulkhead's timeout, so a runaway report is cancelled
+// by the driver instead of holding its connection. JDBC timeouts are whole seconds, rounded up here.
+// Statements outside any bulkhead, such as the nightly jobs, are left alone.
+public class BulkheadStatementTimeouts implements QueryExecutionListener {
+    
+    private final BulkheadProperties properties;
+    
+    public BulkheadStatementTimeouts(BulkheadProperties properties) {
+        this.properties = properties;
+    }
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        BulkheadType bulkhead = BulkheadContext.current();
+        if (bulkhead == null) {
+            return;
+        }
+        Duration timeout = properties.settings(bulkhead).statementTimeout();
+        if (timeout == null || timeout.isZero()) {
+            return;
+        }
+        int seconds = (int) Math.max(1, (timeout.toMillis() + 999) / 1000);
+        Statement statement = execInfo.getStatement();
+        try {
+            // Never lengthen a shorter timeout someone else already set
+            int current = statement.getQueryTimeout();
+            if (current == 0 || current > seconds) {
+                statement.setQueryTimeout(seconds);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Cannot set the statement timeout", ex);
+        }
+    }
+    
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.expensetracker.resilience;
+
+// Each bulkhead has its own worker threads, queue and statement timeout; reporting also has its own
+// connection pool, so long reads and bulk work cannot take the connections that CRUD needs
+public enum BulkheadType {
+    INTERACTIVE,
+    REPORTING
+}
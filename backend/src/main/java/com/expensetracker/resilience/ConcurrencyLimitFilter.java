@@ -0,0 +1,90 @@
+package com.expensetracker.resilience;
+
+import com.expensetracker.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Load shedding in front of the controllers. Every /api request counts against the limit of its endpoint
+// group, and once a group is at its limit further requests are refused with 503 and Retry-After before they
+// take a connection or wait for one. Anything outside /api, actuator health included, is never limited, and
+// neither is the summary stream, whose subscribers do not hold a thread.
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    
+    static final String LIMIT_GAUGE = "app.concurrency.limit";
+    static final String IN_FLIGHT_GAUGE = "app.concurrency.in.flight";
+    static final String REJECTED_COUNTER = "app.concurrency.rejected";
+    
+    private final Map<EndpointGroup, AdaptiveConcurrencyLimiter> limiters;
+    private final Map<EndpointGroup, Counter> rejected = new EnumMap<>(EndpointGroup.class);
+    private final Duration retryAfter;
+    private final HandlerExceptionResolver exceptionResolver;
+    
+    // exceptionResolver renders refusals through GlobalExceptionHandler, like a 503 thrown by a controller
+    public ConcurrencyLimitFilter(Map<EndpointGroup, AdaptiveConcurrencyLimiter> limiters, Duration retryAfter,
+                                  HandlerExceptionResolver exceptionResolver, MeterRegistry meterRegistry) {
+        this.limiters = new EnumMap<>(limiters);
+        this.retryAfter = retryAfter;
+        this.exceptionResolver = exceptionResolver;
+        this.limiters.forEach((group, limiter) -> {
+            String tag = group.name().toLowerCase();
+            Gauge.builder(LIMIT_GAUGE, limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current concurrency limit of the endpoint group")
+                .tag("group", tag)
+                .register(meterRegistry);
+            Gauge.builder(IN_FLIGHT_GAUGE, limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests of the endpoint group being served")
+                .tag("group", tag)
+                .register(meterRegistry);
+            rejected.put(group, Counter.builder(REJECTED_COUNTER)
+                .description("Requests refused with 503 because the endpoint group was at its limit")
+                .tag("group", tag)
+                .register(meterRegistry));
+        });
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return EndpointGroup.of(request) == null;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointGroup group = EndpointGroup.of(request);
+        AdaptiveConcurrencyLimiter limiter = limiters.get(group);
+        if (!limiter.tryAcquire()) {
+            rejected.get(group).increment();
+            exceptionResolver.resolveException(request, response, null, new ServiceUnavailableException(
+                "Too many " + group.name().toLowerCase() + " requests in progress", retryAfter));
+            return;
+        }
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (request.isAsyncStarted()) {
+                limiter.releaseWithoutSample();
+            } else {
+                limiter.release(started, System.nanoTime(), failed || response.getStatus() >= 500);
+            }
+        }
+    }
+    
+    AdaptiveConcurrencyLimiter limiter(EndpointGroup group) {
+        return limiters.get(group);
+    }
+}
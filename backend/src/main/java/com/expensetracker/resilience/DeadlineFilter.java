@@ -0,0 +1,79 @@
+package com.expensetracker.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Gives every /api request a deadline: the client's own timeout from X-Request-Timeout (milliseconds, capped
+// at max), or else the default of its endpoint group. Work done for the request, on this thread or on a
+// bulkhead or dashboard worker, only gets the time that is left; see DeadlineStatementTimeouts. Streamed
+// responses carry on without a deadline once the request thread hands them off.
+public class DeadlineFilter extends OncePerRequestFilter {
+    
+    static final String TIMEOUT_HEADER = "X-Request-Timeout";
+    static final String EXCEEDED_COUNTER = "app.request.deadline.exceeded";
+    
+    private final Map<EndpointGroup, Duration> defaults;
+    private final Duration max;
+    private final Map<EndpointGroup, Counter> exceeded = new EnumMap<>(EndpointGroup.class);
+    
+    public DeadlineFilter(Map<EndpointGroup, Duration> defaults, Duration max, MeterRegistry meterRegistry) {
+        this.defaults = new EnumMap<>(defaults);
+        this.max = max;
+        for (EndpointGroup group : EndpointGroup.values()) {
+            if (!this.defaults.containsKey(group)) {
+                throw new IllegalArgumentException("No default deadline for " + group.name().toLowerCase() + " endpoints");
+            }
+            exceeded.put(group, Counter.builder(EXCEEDED_COUNTER)
+                .description("Requests still running when their deadline passed")
+                .tag("group", group.name().toLowerCase())
+                .register(meterRegistry));
+        }
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return EndpointGroup.of(request) == null;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointGroup group = EndpointGroup.of(request);
+        long deadline = System.nanoTime() + timeout(request.getHeader(TIMEOUT_HEADER), group).toNanos();
+        RequestDeadline.set(deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+            if (!request.isAsyncStarted() && System.nanoTime() - deadline >= 0) {
+                exceeded.get(group).increment();
+            }
+        }
+    }
+    
+    Duration timeout(String header, EndpointGroup group) {
+        if (header == null || header.isBlank()) {
+            return defaults.get(group);
+        }
+        try {
+            long millis = Long.parseLong(header.trim());
+            if (millis <= 0) {
+                return defaults.get(group);
+            }
+            Duration requested = Duration.ofMillis(millis);
+            return requested.compareTo(max) > 0 ? max : requested;
+        } catch (NumberFormatException ex) {
+            return defaults.get(group);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.expensetracker.resilience;
+
+import com.expensetracker.exception.DeadlineExceededException;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// Gives every statement run for a request with a deadline the time that is left as its JDBC query timeout,
+// so the driver cancels it once the client has stopped waiting. A statement whose deadline has already
+// passed is not sent at all, and one that failed because the deadline ran out surfaces as
+// DeadlineExceededException instead of the driver's cancellation error.
+public class DeadlineStatementTimeouts implements QueryExecutionListener {
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long deadline = RequestDeadline.current();
+        if (deadline == null) {
+            return;
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new DeadlineExceededException("Request deadline passed before the query started");
+        }
+        // JDBC timeouts are whole seconds; the driver cancels late by less than one
+        int seconds = (int) Math.min(Integer.MAX_VALUE, (remaining + 999_999_999) / 1_000_000_000);
+        Statement statement = execInfo.getStatement();
+        try {
+            int current = statement.getQueryTimeout();
+            if (current == 0 || current > seconds) {
+                statement.setQueryTimeout(seconds);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Cannot set the statement timeout", ex);
+        }
+    }
+    
+    // Thrown from here it replaces the driver's exception on its way out of the statement
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!execInfo.isSuccess() && RequestDeadline.isExpired()) {
+            throw new DeadlineExceededException("Request deadline passed while the query was running");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.expensetracker.resilience;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.List;
+
+// API endpoints that share a concurrency limit and a default deadline, because their requests cost about
+// the same
+public enum EndpointGroup {
+    // Single-row reads and writes, and short lists
+    CRUD,
+    // Aggregations over all expenses: summaries, the dashboard, the budget status
+    SUMMARY,
+    // Admin snapshots, full resyncs, recurring expense runs and projection rebuilds
+    BULK;
+    
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+    private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
+    
+    private static final List<String> UNGROUPED = List.of("/api/stream/**");
+    private static final List<String> SUMMARY_PATHS = List.of(
+        "/api/expenses/summary/**", "/api/dashboard/**", "/api/budget/status");
+    private static final List<String> BULK_PATHS = List.of(
+        "/api/admin/**", "/api/expenses/changes", "/api/recurring-expenses/process", "/api/projections/*/rebuild",
+        "/api/reports/**");
+    
+    // Null outside /api, and for the summary stream, whose subscribers stay connected indefinitely
+    public static EndpointGroup of(HttpServletRequest request) {
+        String path = URL_PATH_HELPER.getPathWithinApplication(request);
+        if (!PATH_MATCHER.match("/api/**", path) || matchesAny(UNGROUPED, path)) {
+            return null;
+        }
+        if (matchesAny(SUMMARY_PATHS, path)) {
+            return SUMMARY;
+        }
+        return matchesAny(BULK_PATHS, path) ? BULK : CRUD;
+    }
+    
+    private static boolean matchesAny(List<String> patterns, String path) {
+        return patterns.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
+}
@@ -0,0 +1,48 @@
+package com.expensetracker.resilience;
+
+// Per-thread point in time (System.nanoTime()) by which the current request's client stops waiting. Set by
+// DeadlineFilter, carried onto bulkhead and dashboard workers, and turned into JDBC query timeouts by
+// DeadlineStatementTimeouts.
+public final class RequestDeadline {
+    
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+    
+    private RequestDeadline() {
+    }
+    
+    // Null when the current work has no deadline
+    public static Long current() {
+        return DEADLINE.get();
+    }
+    
+    public static void set(Long deadline) {
+        if (deadline != null) {
+            DEADLINE.set(deadline);
+        } else {
+            DEADLINE.remove();
+        }
+    }
+    
+    public static void clear() {
+        DEADLINE.remove();
+    }
+    
+    public static boolean isExpired() {
+        Long deadline = DEADLINE.get();
+        return deadline != null && System.nanoTime() - deadline >= 0;
+    }
+    
+    // Usable as a TaskDecorator for executors that run work on behalf of a request
+    public static Runnable propagate(Runnable task) {
+        Long deadline = current();
+        return () -> {
+            Long previous = current();
+            set(deadline);
+            try {
+                task.run();
+            } finally {
+                set(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.expensetracker.resilience;
+
+import com.expensetracker.config.ReadConsistencyContext;
+import com.expensetracker.event.DataChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs @SingleFlight methods once per set of concurrent identical calls: the first caller computes, callers
+// arriving while it runs wait for and get the same result or exception. Nothing is kept once the call
+// returns, so this only collapses bursts and never serves a result older than the call it joined.
+// Wraps the transaction advice, so the shared computation runs in the first caller's own transaction.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SingleFlightAspect {
+    
+    static final String CALLS_COUNTER = "app.single.flight.calls";
+    
+    private final MeterRegistry meterRegistry;
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    // Moves on with every local commit, so a caller never joins a computation that started before a
+    // write it may have just made
+    private final AtomicLong generation = new AtomicLong();
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(DataChangedEvent event) {
+        generation.incrementAndGet();
+    }
+    
+    @Around("@annotation(com.expensetracker.resilience.SingleFlight)")
+    public Object share(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Inside a caller's transaction the result may depend on its uncommitted writes
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Key key = new Key(method, Arrays.asList(joinPoint.getArgs()), generation.get(),
+            ReadConsistencyContext.isPrimaryRequired());
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            count(joinPoint, "shared");
+            try {
+                return leader.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause();
+            }
+        }
+        count(joinPoint, "computed");
+        try {
+            Object result = joinPoint.proceed();
+            flight.complete(result);
+            return result;
+        } catch (Throwable ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+    
+    private void count(ProceedingJoinPoint joinPoint, String result) {
+        Counter.builder(CALLS_COUNTER)
+            .description("Calls to single-flight methods, by whether they ran or shared a concurrent run")
+            .tag("class", ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName())
+            .tag("method", joinPoint.getSignature().getName())
+            .tag("result", result)
+            .register(meterRegistry)
+            .increment();
+    }
+    
+    private record Key(Method method, List<Object> args, long generation, boolean primaryRequired) {
+    }
+}
@@ -3,12 +3,18 @@ package com.expensetracker.service;
 import com.expensetracker.dto.BudgetRequest;
 import com.expensetracker.dto.BudgetResponse;
 import com.expensetracker.dto.BudgetStatusResponse;
+import com.expensetracker.event.DataChangedEvent;
 import com.expensetracker.exception.ResourceNotFoundException;
 import com.expensetracker.model.Budget;
+import com.expensetracker.model.TableVersion.TrackedTable;
 import com.expensetracker.repository.BudgetRepository;
 import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.resilience.Bulkhead;
+import com.expensetracker.resilience.BulkheadType;
+import com.expensetracker.resilience.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +22,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +31,7 @@ public class BudgetService {
     
     private final BudgetRepository budgetRepository;
     private final ExpenseRepository expenseRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional(readOnly = true)
     public BudgetResponse getBudget() {
@@ -44,17 +52,30 @@ public class BudgetService {
         budget.setMonthlyLimit(request.getMonthlyLimit());
         
         Budget savedBudget = budgetRepository.save(budget);
+        eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.BUDGETS));
         log.info("Budget saved with id: {}", savedBudget.getId());
         return BudgetResponse.fromEntity(savedBudget);
     }
     
+    @Bulkhead(BulkheadType.REPORTING)
+    @SingleFlight
     @Transactional(readOnly = true)
     public BudgetStatusResponse getBudgetStatus() {
         log.debug("Fetching budget status");
-        
-        // Get current budget
-        Budget budget = budgetRepository.findFirstByOrderByUpdatedAtDesc()
+        return findBudgetStatus()
             .orElseThrow(() -> new ResourceNotFoundException("No budget has been set"));
+    }
+    
+    // Same as getBudgetStatus but without throwing, so callers composing several
+    // reads in one transaction don't mark it rollback-only when no budget is set
+    @Bulkhead(BulkheadType.REPORTING)
+    @SingleFlight
+    @Transactional(readOnly = true)
+    public Optional<BudgetStatusResponse> findBudgetStatus() {
+        Optional<Budget> currentBudget = budgetRepository.findFirstByOrderByUpdatedAtDesc();
+        if (currentBudget.isEmpty()) {
+            return Optional.empty();
+        }
         
         // Get current month's total spending
         YearMonth currentMonth = YearMonth.now();
@@ -62,12 +83,22 @@ public class BudgetService {
         LocalDate endDate = currentMonth.atEndOfMonth();
         
         BigDecimal totalSpent = expenseRepository.findTotalAmountBetweenDates(startDate, endDate);
+        return Optional.of(calculateStatus(currentBudget.get().getMonthlyLimit(), totalSpent));
+    }
+    
+    // For callers that already hold the current month's total, so the SUM is not run twice
+    @Transactional(readOnly = true)
+    public Optional<BudgetStatusResponse> findBudgetStatus(BigDecimal totalSpent) {
+        return budgetRepository.findFirstByOrderByUpdatedAtDesc()
+            .map(budget -> calculateStatus(budget.getMonthlyLimit(), totalSpent));
+    }
+    
+    static BudgetStatusResponse calculateStatus(BigDecimal monthlyLimit, BigDecimal totalSpent) {
         if (totalSpent == null) {
             totalSpent = BigDecimal.ZERO;
         }
         
         // Calculate remaining and percentage
-        BigDecimal monthlyLimit = budget.getMonthlyLimit();
         BigDecimal remaining = monthlyLimit.subtract(totalSpent);
         
         BigDecimal percentageUsed = BigDecimal.ZERO;
@@ -2,15 +2,22 @@ package com.expensetracker.service;
 
 import com.expensetracker.dto.CategoryRequest;
 import com.expensetracker.dto.CategoryResponse;
+import com.expensetracker.event.DataChangedEvent;
 import com.expensetracker.exception.ResourceNotFoundException;
+import com.expensetracker.exception.VersionConflictException;
 import com.expensetracker.model.Category;
+import com.expensetracker.model.TableVersion.TrackedTable;
 import com.expensetracker.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,6 +26,8 @@ import java.util.stream.Collectors;
 public class CategoryService {
     
     private final CategoryRepository categoryRepository;
+    private final WriteVersionPolicy writeVersionPolicy;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional(readOnly = true)
     public List<CategoryResponse> getAllCategories() {
@@ -50,6 +59,7 @@ public class CategoryService {
         category.setIsDefault(false);
         
         Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.CATEGORIES));
         log.info("Category created successfully with id: {}", savedCategory.getId());
         
         return CategoryResponse.fromEntity(savedCategory);
@@ -58,24 +68,24 @@ public class CategoryService {
     @Transactional
     public CategoryResponse updateCategory(Long id, CategoryRequest request) {
         log.info("Updating category with id: {}", id);
+        writeVersionPolicy.check("Category", id, request.getVersion());
         
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
-        
-        if (category.getIsDefault()) {
-            throw new IllegalArgumentException("Cannot update default categories");
-        }
+        Category changes = new Category();
+        changes.setId(id);
+        changes.setName(request.getName());
+        changes.setDescription(request.getDescription());
+        changes.setUpdatedAt(LocalDateTime.now());
+        changes.setVersion(request.getVersion());
         
-        // Check if new name conflicts with existing category
-        if (!category.getName().equals(request.getName()) && 
-            categoryRepository.existsByName(request.getName())) {
+        // The unique constraint on name replaces the separate existence check
+        Optional<Category> updated;
+        try {
+            updated = categoryRepository.updateInPlace(changes);
+        } catch (DuplicateKeyException ex) {
             throw new IllegalArgumentException("Category with name '" + request.getName() + "' already exists");
         }
-        
-        category.setName(request.getName());
-        category.setDescription(request.getDescription());
-        
-        Category updatedCategory = categoryRepository.save(category);
+        Category updatedCategory = updated.orElseThrow(() -> updateFailure(id, request.getVersion()));
+        eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.CATEGORIES));
         log.info("Category updated successfully");
         
         return CategoryResponse.fromEntity(updatedCategory);
@@ -85,14 +95,26 @@ public class CategoryService {
     public void deleteCategory(Long id) {
         log.info("Deleting category with id: {}", id);
         
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
-        
-        if (category.getIsDefault()) {
+        if (categoryRepository.deleteCustomInPlace(id) == 0) {
+            if (!categoryRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Category not found with id: " + id);
+            }
             throw new IllegalArgumentException("Cannot delete default categories");
         }
         
-        categoryRepository.delete(category);
+        eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.CATEGORIES));
         log.info("Category deleted successfully");
     }
+    
+    // Only reached when the update matched no row
+    private RuntimeException updateFailure(Long id, Long expectedVersion) {
+        Category category = categoryRepository.findById(id).orElse(null);
+        if (category == null) {
+            return new ResourceNotFoundException("Category not found with id: " + id);
+        }
+        if (category.getIsDefault()) {
+            return new IllegalArgumentException("Cannot update default categories");
+        }
+        return new VersionConflictException("Category " + id + " has changed since version " + expectedVersion);
+    }
 }
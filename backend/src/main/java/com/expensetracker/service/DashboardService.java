@@ -0,0 +1,99 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.*;
+import com.expensetracker.resilience.Bulkhead;
+import com.expensetracker.resilience.BulkheadType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class DashboardService {
+    
+    private final ExpenseService expenseService;
+    private final BudgetService budgetService;
+    private final CategoryService categoryService;
+    private final RecurringExpenseService recurringExpenseService;
+    private final Executor dashboardExecutor;
+    
+    public DashboardService(ExpenseService expenseService,
+                            BudgetService budgetService,
+                            CategoryService categoryService,
+                            RecurringExpenseService recurringExpenseService,
+                            @Qualifier("dashboardExecutor") Executor dashboardExecutor) {
+        this.expenseService = expenseService;
+        this.budgetService = budgetService;
+        this.categoryService = categoryService;
+        this.recurringExpenseService = recurringExpenseService;
+        this.dashboardExecutor = dashboardExecutor;
+    }
+    
+    // Runs the independent sub-queries concurrently, each in its own read-only transaction
+    public DashboardResponse getDashboard(List<String> categoryNames, LocalDate startDate, LocalDate endDate) {
+        log.debug("Fetching dashboard - categories: {}, startDate: {}, endDate: {}", categoryNames, startDate, endDate);
+        
+        CompletableFuture<List<ExpenseResponse>> expenses =
+            submit(() -> expenseService.getFilteredExpenses(categoryNames, startDate, endDate));
+        CompletableFuture<List<CategorySummaryResponse>> categorySummary =
+            submit(expenseService::getCategorySummary);
+        CompletableFuture<MonthlySummaryResponse> monthlySummary =
+            submit(expenseService::getMonthlySummary);
+        CompletableFuture<Optional<BudgetStatusResponse>> budgetStatus =
+            submit(budgetService::findBudgetStatus);
+        CompletableFuture<List<CategoryResponse>> categories =
+            submit(categoryService::getAllCategories);
+        CompletableFuture<List<RecurringExpenseResponse>> recurringExpenses =
+            submit(recurringExpenseService::getAllRecurringExpenses);
+        
+        return new DashboardResponse(
+            await(expenses),
+            await(categorySummary),
+            await(monthlySummary),
+            await(budgetStatus).orElse(null),
+            await(categories),
+            await(recurringExpenses)
+        );
+    }
+    
+    // Runs every sub-query sequentially inside one repeatable-read transaction, so all
+    // sections of the response are computed from the same database snapshot
+    @Bulkhead(BulkheadType.REPORTING)
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public DashboardResponse getDashboardSnapshot(List<String> categoryNames, LocalDate startDate, LocalDate endDate) {
+        log.debug("Fetching dashboard snapshot - categories: {}, startDate: {}, endDate: {}", categoryNames, startDate, endDate);
+        return new DashboardResponse(
+            expenseService.getFilteredExpenses(categoryNames, startDate, endDate),
+            expenseService.getCategorySummary(),
+            expenseService.getMonthlySummary(),
+            budgetService.findBudgetStatus().orElse(null),
+            categoryService.getAllCategories(),
+            recurringExpenseService.getAllRecurringExpenses()
+        );
+    }
+    
+    private <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, dashboardExecutor);
+    }
+    
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
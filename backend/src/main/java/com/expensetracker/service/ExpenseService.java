@@ -1,20 +1,41 @@
 package com.expensetracker.service;
 
+import com.expensetracker.archive.ExpenseArchive;
 import com.expensetracker.dto.*;
+import com.expensetracker.event.DataChangedEvent;
+import com.expensetracker.exception.ReadOnlyResourceException;
 import com.expensetracker.exception.ResourceNotFoundException;
+import com.expensetracker.exception.VersionConflictException;
 import com.expensetracker.model.Category;
 import com.expensetracker.model.Expense;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import com.expensetracker.projection.ExpenseOutbox;
+import com.expensetracker.projection.LocalExpenseReadModel;
 import com.expensetracker.repository.CategoryRepository;
 import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.ExpenseRepository.CategorySummary;
+import com.expensetracker.repository.ExpenseRepositoryCustom.UpdatedExpense;
+import com.expensetracker.resilience.Bulkhead;
+import com.expensetracker.resilience.BulkheadType;
+import com.expensetracker.resilience.SingleFlight;
+import com.expensetracker.summary.SummaryViews;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,15 +45,25 @@ public class ExpenseService {
     
     private final ExpenseRepository expenseRepository;
     private final CategoryRepository categoryRepository;
+    private final ExpenseOutbox expenseOutbox;
+    private final LocalExpenseReadModel localReadModel;
+    private final ExpenseArchive expenseArchive;
+    private final SummaryViews summaryViews;
+    private final WriteVersionPolicy writeVersionPolicy;
+    private final ApplicationEventPublisher eventPublisher;
     
+    @Bulkhead(BulkheadType.REPORTING)
     @Transactional(readOnly = true)
     public List<ExpenseResponse> getAllExpenses() {
         log.debug("Fetching all expenses");
-        return expenseRepository.findAll().stream()
+        List<Expense> expenses = new ArrayList<>(expenseRepository.findAll());
+        expenses.addAll(expenseArchive.findAll());
+        return expenses.stream()
             .map(ExpenseResponse::fromEntity)
             .collect(Collectors.toList());
     }
     
+    @Bulkhead(BulkheadType.REPORTING)
     @Transactional(readOnly = true)
     public List<ExpenseResponse> getFilteredExpenses(List<String> categoryNames, LocalDate startDate, LocalDate endDate) {
         log.debug("Fetching filtered expenses - categories: {}, startDate: {}, endDate: {}", categoryNames, startDate, endDate);
@@ -56,19 +87,32 @@ public class ExpenseService {
             expenses = expenseRepository.findAll();
         }
         
+        // Archived expenses only come into it when the range reaches past the archive horizon
+        List<Expense> archived = expenseArchive.findFiltered(categoryNames, startDate, endDate);
+        if (!archived.isEmpty()) {
+            expenses = new ArrayList<>(expenses);
+            expenses.addAll(archived);
+            if (hasCategories || hasDateRange) {
+                expenses.sort(Comparator.comparing(Expense::getDate).reversed());
+            }
+        }
+        
         return expenses.stream()
             .map(ExpenseResponse::fromEntity)
             .collect(Collectors.toList());
     }
     
+    @Bulkhead(BulkheadType.INTERACTIVE)
     @Transactional(readOnly = true)
     public ExpenseResponse getExpenseById(Long id) {
         log.debug("Fetching expense with id: {}", id);
         Expense expense = expenseRepository.findById(id)
+            .or(() -> expenseArchive.findById(id))
             .orElseThrow(() -> new ResourceNotFoundException("Expense not found with id: " + id));
         return ExpenseResponse.fromEntity(expense);
     }
     
+    @Bulkhead(BulkheadType.INTERACTIVE)
     @Transactional
     public ExpenseResponse createExpense(ExpenseRequest request) {
         log.info("Creating new expense: {}", request);
@@ -83,42 +127,147 @@ public class ExpenseService {
         expense.setDescription(request.getDescription());
         
         Expense savedExpense = expenseRepository.save(expense);
+        expenseOutbox.created(savedExpense);
+        eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.EXPENSES, Set.of(savedExpense.getDate())));
         log.info("Created expense with id: {}", savedExpense.getId());
         return ExpenseResponse.fromEntity(savedExpense);
     }
     
+    // A whole batch from the write queue in one transaction: one commit and one version bump for all of it.
+    // All or nothing; a missing category fails the batch, and the queue then retries the items one by one.
+    @Bulkhead(BulkheadType.INTERACTIVE)
+    @Transactional
+    public List<ExpenseResponse> createExpenses(List<ExpenseRequest> requests) {
+        log.debug("Creating {} expenses in one transaction", requests.size());
+        Set<Long> categoryIds = requests.stream().map(ExpenseRequest::getCategoryId).collect(Collectors.toSet());
+        Map<Long, Category> categories = categoryRepository.findAllById(categoryIds).stream()
+            .collect(Collectors.toMap(Category::getId, category -> category));
+        
+        List<Expense> expenses = new ArrayList<>(requests.size());
+        for (ExpenseRequest request : requests) {
+            Category category = categories.get(request.getCategoryId());
+            if (category == null) {
+                throw new ResourceNotFoundException("Category not found with id: " + request.getCategoryId());
+            }
+            Expense expense = new Expense();
+            expense.setAmount(request.getAmount());
+            expense.setCategory(category);
+            expense.setDate(request.getDate());
+            expense.setDescription(request.getDescription());
+            expenses.add(expense);
+        }
+        
+        List<Expense> savedExpenses = expenseRepository.saveAll(expenses);
+        savedExpenses.forEach(expenseOutbox::created);
+        eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.EXPENSES,
+            savedExpenses.stream().map(Expense::getDate).collect(Collectors.toSet())));
+        return savedExpenses.stream()
+            .map(ExpenseResponse::fromEntity)
+            .collect(Collectors.toList());
+    }
+    
+    @Bulkhead(BulkheadType.INTERACTIVE)
     @Transactional
     public ExpenseResponse updateExpense(Long id, ExpenseRequest request) {
         log.info("Updating expense with id: {}", id);
-        Expense expense = expenseRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Expense not found with id: " + id));
+        writeVersionPolicy.check("Expense", id, request.getVersion());
+        Expense changes = new Expense();
+        changes.setId(id);
+        changes.setAmount(request.getAmount());
+        changes.setCategory(categoryRepository.getReferenceById(request.getCategoryId()));
+        changes.setDate(request.getDate());
+        changes.setDescription(request.getDescription());
+        changes.setUpdatedAt(LocalDateTime.now());
+        changes.setVersion(request.getVersion());
         
-        Category category = categoryRepository.findById(request.getCategoryId())
-            .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + request.getCategoryId()));
+        UpdatedExpense updated = expenseRepository.updateInPlace(changes)
+            .orElseThrow(() -> updateFailure(id, request.getCategoryId(), request.getVersion()));
+        expenseOutbox.updated(updated.expense());
         
-        expense.setAmount(request.getAmount());
-        expense.setCategory(category);
-        expense.setDate(request.getDate());
-        expense.setDescription(request.getDescription());
+        // Moving an expense between months changes the totals of both
+        Set<LocalDate> affectedDates = new HashSet<>();
+        affectedDates.add(updated.previousDate());
+        affectedDates.add(request.getDate());
         
-        Expense updatedExpense = expenseRepository.save(expense);
+        eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.EXPENSES, affectedDates));
         log.info("Updated expense with id: {}", id);
-        return ExpenseResponse.fromEntity(updatedExpense);
+        return ExpenseResponse.fromEntity(updated.expense());
+    }
+    
+    @Bulkhead(BulkheadType.INTERACTIVE)
+    @Transactional
+    public ExpenseResponse patchExpense(Long id, ExpensePatchRequest patch) {
+        log.info("Patching expense with id: {}", id);
+        Expense changes = new Expense();
+        Set<String> properties = new HashSet<>();
+        PatchFields.apply(patch.getAmount(), "amount", changes::setAmount, properties);
+        PatchFields.apply(patch.getCategoryId(), "category",
+            categoryId -> changes.setCategory(categoryRepository.getReferenceById(categoryId)), properties);
+        PatchFields.apply(patch.getDate(), "date", changes::setDate, properties);
+        PatchFields.apply(patch.getDescription(), "description", changes::setDescription, properties);
+        if (properties.isEmpty()) {
+            // An empty merge patch changes nothing
+            return getExpenseById(id);
+        }
+        writeVersionPolicy.check("Expense", id, patch.getVersion());
+        changes.setId(id);
+        changes.setUpdatedAt(LocalDateTime.now());
+        changes.setVersion(patch.getVersion());
+        
+        Long categoryId = patch.getCategoryId() != null ? patch.getCategoryId().orElse(null) : null;
+        UpdatedExpense updated = expenseRepository.patchInPlace(changes, properties)
+            .orElseThrow(() -> updateFailure(id, categoryId, patch.getVersion()));
+        expenseOutbox.updated(updated.expense());
+        
+        Set<LocalDate> affectedDates = new HashSet<>();
+        affectedDates.add(updated.previousDate());
+        affectedDates.add(updated.expense().getDate());
+        
+        eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.EXPENSES, affectedDates));
+        log.info("Patched expense with id: {}", id);
+        return ExpenseResponse.fromEntity(updated.expense());
     }
     
+    @Bulkhead(BulkheadType.INTERACTIVE)
     @Transactional
     public void deleteExpense(Long id) {
         log.info("Deleting expense with id: {}", id);
-        if (!expenseRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Expense not found with id: " + id);
+        if (!expenseRepository.deleteWithTombstone(id)) {
+            throw missingExpense(id);
         }
-        expenseRepository.deleteById(id);
+        expenseOutbox.deleted(id);
+        eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.EXPENSES));
         log.info("Deleted expense with id: {}", id);
     }
     
+    @Bulkhead(BulkheadType.REPORTING)
+    @SingleFlight
     @Transactional(readOnly = true)
     public List<CategorySummaryResponse> getCategorySummary() {
         log.debug("Fetching category summary");
+        if (localReadModel.isReady()) {
+            Map<Long, String> names = categoryRepository.findAllByOrderByNameAsc().stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+            return localReadModel.currentTotalsByCategory().entrySet().stream()
+                .map(total -> new CategorySummaryResponse(names.get(total.getKey()), total.getValue()))
+                .sorted(Comparator.comparing(CategorySummaryResponse::getTotal).reversed())
+                .collect(Collectors.toList());
+        }
+        if (summaryViews.isReady()) {
+            return summaryViews.categorySummary();
+        }
+        List<CategorySummary> archived = expenseArchive.findTotalByCategory();
+        if (!archived.isEmpty()) {
+            // The local read model above already counts archived expenses; the SQL here only sees the hot table
+            Map<String, BigDecimal> totals = new LinkedHashMap<>();
+            expenseRepository.findTotalByCategory().forEach(summary -> totals.merge(summary.getCategory(),
+                summary.getTotal() != null ? summary.getTotal() : BigDecimal.ZERO, BigDecimal::add));
+            archived.forEach(summary -> totals.merge(summary.getCategory(), summary.getTotal(), BigDecimal::add));
+            return totals.entrySet().stream()
+                .map(total -> new CategorySummaryResponse(total.getKey(), total.getValue()))
+                .sorted(Comparator.comparing(CategorySummaryResponse::getTotal).reversed())
+                .collect(Collectors.toList());
+        }
         return expenseRepository.findTotalByCategory().stream()
             .map(summary -> new CategorySummaryResponse(
                 summary.getCategory(),
@@ -127,6 +276,8 @@ public class ExpenseService {
             .collect(Collectors.toList());
     }
     
+    @Bulkhead(BulkheadType.REPORTING)
+    @SingleFlight
     @Transactional(readOnly = true)
     public MonthlySummaryResponse getMonthlySummary() {
         log.debug("Fetching monthly summary");
@@ -134,7 +285,14 @@ public class ExpenseService {
         LocalDate startDate = currentMonth.atDay(1);
         LocalDate endDate = currentMonth.atEndOfMonth();
         
-        BigDecimal total = expenseRepository.findTotalAmountBetweenDates(startDate, endDate);
+        if (!localReadModel.isReady() && summaryViews.isReady()) {
+            return summaryViews.monthlySummary(currentMonth);
+        }
+        
+        // The current month is never archived, so the expenses table has all of it
+        BigDecimal total = localReadModel.isReady()
+            ? localReadModel.currentTotalForMonth(currentMonth)
+            : expenseRepository.findTotalAmountBetweenDates(startDate, endDate);
         
         return new MonthlySummaryResponse(
             total != null ? total : BigDecimal.ZERO,
@@ -142,4 +300,24 @@ public class ExpenseService {
             currentMonth.getYear()
         );
     }
+    
+    // Only reached when the update matched no row, so these lookups stay off the normal path
+    // categoryId is null when the write did not touch the category
+    private RuntimeException updateFailure(Long id, Long categoryId, Long version) {
+        if (!expenseRepository.existsById(id)) {
+            return missingExpense(id);
+        }
+        if (categoryId != null && !categoryRepository.existsById(categoryId)) {
+            return new ResourceNotFoundException("Category not found with id: " + categoryId);
+        }
+        return new VersionConflictException("Expense " + id + " has changed since version " + version);
+    }
+    
+    // Archived expenses are still readable by id, so a write to one is refused rather than reported as missing
+    private RuntimeException missingExpense(Long id) {
+        if (expenseArchive.findById(id).isPresent()) {
+            return new ReadOnlyResourceException("Expense " + id + " is archived and read-only");
+        }
+        return new ResourceNotFoundException("Expense not found with id: " + id);
+    }
 }
@@ -0,0 +1,121 @@
+package com.expensetracker.service;
+
+import com.expensetracker.archive.ExpenseArchive;
+import com.expensetracker.dto.ExpenseChangesResponse;
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.model.Expense;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.ExpenseSyncResetRepository;
+import com.expensetracker.repository.ExpenseTombstoneRepository;
+import com.expensetracker.resilience.Bulkhead;
+import com.expensetracker.resilience.BulkheadType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Serves incremental expense changes so clients can keep a local copy instead of refetching the full list.
+// The watermark is an opaque token; clients send back whatever they last received.
+@Service
+@Slf4j
+public class ExpenseSyncService {
+    
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseTombstoneRepository expenseTombstoneRepository;
+    private final ExpenseSyncResetRepository expenseSyncResetRepository;
+    private final ExpenseArchive expenseArchive;
+    private final Duration settleLag;
+    private final Duration tombstoneRetention;
+    
+    public ExpenseSyncService(ExpenseRepository expenseRepository,
+                              ExpenseTombstoneRepository expenseTombstoneRepository,
+                              ExpenseSyncResetRepository expenseSyncResetRepository,
+                              ExpenseArchive expenseArchive,
+                              @Value("${app.sync.settle-lag:5s}") Duration settleLag,
+                              @Value("${app.sync.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.expenseRepository = expenseRepository;
+        this.expenseTombstoneRepository = expenseTombstoneRepository;
+        this.expenseSyncResetRepository = expenseSyncResetRepository;
+        this.expenseArchive = expenseArchive;
+        this.settleLag = settleLag;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+    
+    // Deliberately not read-only: a lagging read replica could hide rows older than the watermark
+    // we hand out, and those would never be re-sent
+    @Bulkhead(BulkheadType.REPORTING)
+    @Transactional
+    public ExpenseChangesResponse getChangesSince(String sinceToken) {
+        LocalDateTime queryStart = LocalDateTime.now();
+        LocalDateTime since = parseWatermark(sinceToken);
+        
+        // A transaction that stamped updated_at just before queryStart may not have committed yet,
+        // so the next watermark trails the clock and the overlap is re-sent (clients upsert by id)
+        LocalDateTime next = queryStart.minus(settleLag);
+        
+        if (since == null || since.isAfter(queryStart) || since.isBefore(queryStart.minus(tombstoneRetention))
+                || issuedBeforeReset(since)) {
+            // Deletions older than the retention window may already be purged, so a merge could resurrect rows.
+            // A restore replaces rows without touching updated_at, so no delta across it is complete either.
+            log.debug("Full resync for watermark: {}", sinceToken);
+            // Archiving is not a change clients need to hear about, but a full copy has to include the archive
+            List<Expense> expenses = new ArrayList<>(expenseRepository.findAll());
+            expenses.addAll(expenseArchive.findAll());
+            List<ExpenseResponse> all = expenses.stream()
+                .map(ExpenseResponse::fromEntity)
+                .collect(Collectors.toList());
+            return new ExpenseChangesResponse(all, List.of(), formatWatermark(next), true);
+        }
+        
+        log.debug("Fetching expense changes since {}", since);
+        Map<Long, Expense> changed = new LinkedHashMap<>();
+        expenseRepository.findByUpdatedAtAfter(since).forEach(expense -> changed.put(expense.getId(), expense));
+        expenseRepository.findByCategoryUpdatedAtAfter(since).forEach(expense -> changed.putIfAbsent(expense.getId(), expense));
+        
+        List<ExpenseResponse> upserts = changed.values().stream()
+            .map(ExpenseResponse::fromEntity)
+            .collect(Collectors.toList());
+        List<Long> deletedIds = expenseTombstoneRepository.findExpenseIdsDeletedAfter(since);
+        
+        return new ExpenseChangesResponse(upserts, deletedIds, formatWatermark(next.isBefore(since) ? since : next), false);
+    }
+    
+    private boolean issuedBeforeReset(LocalDateTime since) {
+        LocalDateTime lastReset = expenseSyncResetRepository.findLatestResetAt();
+        return lastReset != null && !since.isAfter(lastReset);
+    }
+    
+    @Scheduled(cron = "${app.sync.tombstone-purge-cron:0 30 1 * * *}")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = expenseTombstoneRepository.deleteDeletedBefore(LocalDateTime.now().minus(tombstoneRetention));
+        log.info("Purged {} expense tombstones", purged);
+    }
+    
+    static String formatWatermark(LocalDateTime timestamp) {
+        return String.valueOf(timestamp.toInstant(ZoneOffset.UTC).toEpochMilli());
+    }
+    
+    // Unknown or malformed tokens are treated like a first sync rather than rejected
+    static LocalDateTime parseWatermark(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(token.trim())), ZoneOffset.UTC);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseRequest;
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.exception.DeadlineExceededException;
+import com.expensetracker.exception.ServiceUnavailableException;
+import com.expensetracker.resilience.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Group commit for expense creation (app.ingest.group-commit.enabled). Request threads park their
+// expense on a bounded queue; a single writer takes whatever has arrived within flush-interval, up to
+// max-batch, and inserts it in one transaction, so a burst pays for one commit instead of one per
+// request. Each request returns once its batch has committed. A full queue is refused with 503.
+@Service
+@Slf4j
+public class ExpenseWriteQueue {
+    
+    static final String QUEUE_DEPTH_GAUGE = "app.expense.write.queue.depth";
+    static final String BATCH_SIZE_SUMMARY = "app.expense.write.batch.size";
+    static final String REJECTED_COUNTER = "app.expense.write.rejected";
+    
+    private static final long IDLE_POLL_MILLIS = 100;
+    
+    private final ExpenseService expenseService;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long flushIntervalNanos;
+    private final Duration retryAfter;
+    private final BlockingQueue<PendingWrite> queue;
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+    
+    private volatile boolean running;
+    private Thread writer;
+    
+    public ExpenseWriteQueue(ExpenseService expenseService,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.ingest.group-commit.enabled:false}") boolean enabled,
+                             @Value("${app.ingest.group-commit.queue-capacity:10000}") int queueCapacity,
+                             @Value("${app.ingest.group-commit.max-batch:500}") int maxBatch,
+                             @Value("${app.ingest.group-commit.flush-interval:PT0.005S}") Duration flushInterval,
+                             @Value("${app.ingest.group-commit.retry-after:1s}") Duration retryAfter) {
+        this.expenseService = expenseService;
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.retryAfter = retryAfter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder(QUEUE_DEPTH_GAUGE, queue, BlockingQueue::size)
+            .description("Expenses waiting for the next group commit")
+            .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder(BATCH_SIZE_SUMMARY)
+            .description("Expenses written per group commit")
+            .register(meterRegistry);
+        this.rejected = Counter.builder(REJECTED_COUNTER)
+            .description("Expense creations refused because the write queue was full")
+            .register(meterRegistry);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "expense-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Expense group commit enabled: batches of up to {} every {}", maxBatch, Duration.ofNanos(flushIntervalNanos));
+    }
+    
+    // Everything already accepted is still written before the context goes away. A write offered while the
+    // writer was exiting is failed instead, so its caller is not left waiting.
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join();
+        }
+        PendingWrite leftover;
+        while ((leftover = queue.poll()) != null) {
+            leftover.result().completeExceptionally(
+                new ServiceUnavailableException("The expense writer has stopped", retryAfter));
+        }
+    }
+    
+    public ExpenseResponse create(ExpenseRequest request) {
+        PendingWrite write = new PendingWrite(request, new CompletableFuture<>());
+        if (!running || !queue.offer(write)) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many expenses are waiting to be written", retryAfter);
+        }
+        // stop() may have drained the queue between the check and the offer; if nobody took the write, take it back
+        if (!running && queue.remove(write)) {
+            throw new ServiceUnavailableException("The expense writer has stopped", retryAfter);
+        }
+        CompletableFuture<ExpenseResponse> result = write.result();
+        Long deadline = RequestDeadline.current();
+        if (deadline != null) {
+            result = result.orTimeout(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof TimeoutException) {
+                // The batch may still commit; like any request past its deadline, the outcome is unknown
+                throw new DeadlineExceededException("Request deadline passed while waiting for the expense writer");
+            }
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+    
+    private void drain() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // The window opens with the first write, so a lone request waits at most one interval
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < maxBatch) {
+                    PendingWrite next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                batch.forEach(write -> write.result().completeExceptionally(ex));
+                return;
+            } catch (RuntimeException ex) {
+                // Never let one bad batch stop the writer; completing an already completed write is a no-op
+                log.error("Expense writer failed: {}", ex.getMessage(), ex);
+                batch.forEach(write -> write.result().completeExceptionally(ex));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void write(List<PendingWrite> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizes.record(batch.size());
+        try {
+            List<ExpenseResponse> created = expenseService.createExpenses(
+                batch.stream().map(PendingWrite::request).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(created.get(i));
+            }
+        } catch (RuntimeException ex) {
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(ex);
+                return;
+            }
+            // One bad item must not fail its neighbours, so fall back to a transaction each
+            log.warn("Batch of {} expenses failed, writing them one by one: {}", batch.size(), ex.getMessage());
+            for (PendingWrite write : batch) {
+                try {
+                    write.result().complete(expenseService.createExpense(write.request()));
+                } catch (RuntimeException itemFailure) {
+                    write.result().completeExceptionally(itemFailure);
+                }
+            }
+        }
+    }
+    
+    private record PendingWrite(ExpenseRequest request, CompletableFuture<ExpenseResponse> result) {
+    }
+}
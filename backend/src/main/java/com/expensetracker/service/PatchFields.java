@@ -0,0 +1,21 @@
+package com.expensetracker.service;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Applies one member of a merge patch body: null means the member was absent and is skipped,
+// an empty Optional means it was sent as null and clears the property.
+final class PatchFields {
+    
+    private PatchFields() {
+    }
+    
+    static <T> void apply(Optional<T> value, String property, Consumer<T> setter, Set<String> properties) {
+        if (value == null) {
+            return;
+        }
+        setter.accept(value.orElse(null));
+        properties.add(property);
+    }
+}
@@ -1,22 +1,31 @@
 package com.expensetracker.service;
 
+import com.expensetracker.dto.RecurringExpensePatchRequest;
 import com.expensetracker.dto.RecurringExpenseRequest;
 import com.expensetracker.dto.RecurringExpenseResponse;
+import com.expensetracker.event.DataChangedEvent;
 import com.expensetracker.exception.ResourceNotFoundException;
+import com.expensetracker.exception.VersionConflictException;
 import com.expensetracker.model.Category;
 import com.expensetracker.model.Expense;
 import com.expensetracker.model.RecurringExpense;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import com.expensetracker.projection.ExpenseOutbox;
 import com.expensetracker.repository.CategoryRepository;
 import com.expensetracker.repository.ExpenseRepository;
 import com.expensetracker.repository.RecurringExpenseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +36,9 @@ public class RecurringExpenseService {
     private final RecurringExpenseRepository recurringExpenseRepository;
     private final ExpenseRepository expenseRepository;
     private final CategoryRepository categoryRepository;
+    private final ExpenseOutbox expenseOutbox;
+    private final WriteVersionPolicy writeVersionPolicy;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional(readOnly = true)
     public List<RecurringExpenseResponse> getAllRecurringExpenses() {
@@ -70,6 +82,7 @@ public class RecurringExpenseService {
         recurringExpense.setActive(true);
         
         RecurringExpense saved = recurringExpenseRepository.save(recurringExpense);
+        eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.RECURRING_EXPENSES));
         log.info("Created recurring expense with id: {}", saved.getId());
         return RecurringExpenseResponse.fromEntity(saved);
     }
@@ -77,41 +90,70 @@ public class RecurringExpenseService {
     @Transactional
     public RecurringExpenseResponse updateRecurringExpense(Long id, RecurringExpenseRequest request) {
         log.info("Updating recurring expense with id: {}", id);
-        RecurringExpense recurringExpense = recurringExpenseRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Recurring expense not found with id: " + id));
-        
-        Category category = categoryRepository.findById(request.getCategoryId())
-            .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + request.getCategoryId()));
+        writeVersionPolicy.check("Recurring expense", id, request.getVersion());
+        RecurringExpense changes = new RecurringExpense();
+        changes.setId(id);
+        changes.setAmount(request.getAmount());
+        changes.setCategory(categoryRepository.getReferenceById(request.getCategoryId()));
+        changes.setDescription(request.getDescription());
+        changes.setFrequency(request.getFrequency());
+        changes.setStartDate(request.getStartDate());
+        changes.setEndDate(request.getEndDate());
+        changes.setUpdatedAt(LocalDateTime.now());
+        changes.setVersion(request.getVersion());
         
-        recurringExpense.setAmount(request.getAmount());
-        recurringExpense.setCategory(category);
-        recurringExpense.setDescription(request.getDescription());
-        recurringExpense.setFrequency(request.getFrequency());
-        recurringExpense.setStartDate(request.getStartDate());
-        recurringExpense.setEndDate(request.getEndDate());
-        
-        RecurringExpense updated = recurringExpenseRepository.save(recurringExpense);
+        RecurringExpense updated = recurringExpenseRepository.updateInPlace(changes)
+            .orElseThrow(() -> updateFailure(id, request.getCategoryId(), request.getVersion()));
+        eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.RECURRING_EXPENSES));
         log.info("Updated recurring expense with id: {}", id);
         return RecurringExpenseResponse.fromEntity(updated);
     }
     
+    @Transactional
+    public RecurringExpenseResponse patchRecurringExpense(Long id, RecurringExpensePatchRequest patch) {
+        log.info("Patching recurring expense with id: {}", id);
+        RecurringExpense changes = new RecurringExpense();
+        Set<String> properties = new HashSet<>();
+        PatchFields.apply(patch.getAmount(), "amount", changes::setAmount, properties);
+        PatchFields.apply(patch.getCategoryId(), "category",
+            categoryId -> changes.setCategory(categoryRepository.getReferenceById(categoryId)), properties);
+        PatchFields.apply(patch.getDescription(), "description", changes::setDescription, properties);
+        PatchFields.apply(patch.getFrequency(), "frequency", changes::setFrequency, properties);
+        PatchFields.apply(patch.getStartDate(), "startDate", changes::setStartDate, properties);
+        PatchFields.apply(patch.getEndDate(), "endDate", changes::setEndDate, properties);
+        if (properties.isEmpty()) {
+            return getRecurringExpenseById(id);
+        }
+        writeVersionPolicy.check("Recurring expense", id, patch.getVersion());
+        changes.setId(id);
+        changes.setUpdatedAt(LocalDateTime.now());
+        changes.setVersion(patch.getVersion());
+        
+        Long categoryId = patch.getCategoryId() != null ? patch.getCategoryId().orElse(null) : null;
+        RecurringExpense updated = recurringExpenseRepository.patchInPlace(changes, properties)
+            .orElseThrow(() -> updateFailure(id, categoryId, patch.getVersion()));
+        eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.RECURRING_EXPENSES));
+        log.info("Patched recurring expense with id: {}", id);
+        return RecurringExpenseResponse.fromEntity(updated);
+    }
+    
     @Transactional
     public void deleteRecurringExpense(Long id) {
         log.info("Deleting recurring expense with id: {}", id);
-        if (!recurringExpenseRepository.existsById(id)) {
+        if (recurringExpenseRepository.deleteInPlace(id) == 0) {
             throw new ResourceNotFoundException("Recurring expense not found with id: " + id);
         }
-        recurringExpenseRepository.deleteById(id);
+        eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.RECURRING_EXPENSES));
         log.info("Deleted recurring expense with id: {}", id);
     }
     
     @Transactional
     public void toggleRecurringExpense(Long id, boolean active) {
         log.info("Toggling recurring expense {} to active: {}", id, active);
-        RecurringExpense recurringExpense = recurringExpenseRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Recurring expense not found with id: " + id));
-        recurringExpense.setActive(active);
-        recurringExpenseRepository.save(recurringExpense);
+        if (recurringExpenseRepository.updateActiveInPlace(id, active, LocalDateTime.now()) == 0) {
+            throw new ResourceNotFoundException("Recurring expense not found with id: " + id);
+        }
+        eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.RECURRING_EXPENSES));
     }
     
     @Scheduled(cron = "0 0 1 * * *") // Run daily at 1 AM
@@ -138,7 +180,7 @@ public class RecurringExpenseService {
             expense.setCategory(recurring.getCategory());
             expense.setDate(recurring.getNextOccurrence());
             expense.setDescription(recurring.getDescription() + " (Recurring)");
-            expenseRepository.save(expense);
+            expenseOutbox.created(expenseRepository.save(expense));
             
             log.info("Created expense from recurring expense {}", recurring.getId());
             
@@ -148,10 +190,26 @@ public class RecurringExpenseService {
             recurringExpenseRepository.save(recurring);
         }
         
+        if (!dueExpenses.isEmpty()) {
+            eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.EXPENSES));
+            eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.RECURRING_EXPENSES));
+        }
+        
         log.info("Processed {} recurring expenses", dueExpenses.size());
     }
     
-    private LocalDate calculateNextOccurrence(LocalDate current, RecurringExpense.RecurrenceFrequency frequency) {
+    // Only reached when the update matched no row
+    private RuntimeException updateFailure(Long id, Long categoryId, Long version) {
+        if (!recurringExpenseRepository.existsById(id)) {
+            return new ResourceNotFoundException("Recurring expense not found with id: " + id);
+        }
+        if (categoryId != null && !categoryRepository.existsById(categoryId)) {
+            return new ResourceNotFoundException("Category not found with id: " + categoryId);
+        }
+        return new VersionConflictException("Recurring expense " + id + " has changed since version " + version);
+    }
+    
+    public static LocalDate calculateNextOccurrence(LocalDate current, RecurringExpense.RecurrenceFrequency frequency) {
         return switch (frequency) {
             case DAILY -> current.plusDays(1);
             case WEEKLY -> current.plusWeeks(1);
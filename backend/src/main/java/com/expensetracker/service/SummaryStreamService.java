@@ -0,0 +1,170 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.BudgetStatusResponse;
+import com.expensetracker.dto.MonthlySummaryResponse;
+import com.expensetracker.event.DataChangedEvent;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Pushes the current month summary and budget status to SSE subscribers.
+// Subscribers are async requests parked in the servlet container, so idle connections hold no thread.
+// Writes only mark the snapshot dirty; the scheduled flush recomputes it at most once per window
+// and pushes a section only when its value actually changed.
+@Service
+@Slf4j
+public class SummaryStreamService {
+    
+    static final String MONTHLY_SUMMARY_EVENT = "monthly-summary";
+    static final String BUDGET_STATUS_EVENT = "budget-status";
+    
+    private final ExpenseService expenseService;
+    private final BudgetService budgetService;
+    private final TableVersionService tableVersionService;
+    private final long emitterTimeoutMillis;
+    private final long versionPollMillis;
+    
+    private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+    private volatile String lastVersionTag;
+    private volatile long lastVersionPoll;
+    
+    public SummaryStreamService(ExpenseService expenseService,
+                                BudgetService budgetService,
+                                TableVersionService tableVersionService,
+                                @Value("${app.stream.emitter-timeout:30m}") Duration emitterTimeout,
+                                @Value("${app.stream.version-poll-interval:5s}") Duration versionPollInterval) {
+        this.expenseService = expenseService;
+        this.budgetService = budgetService;
+        this.tableVersionService = tableVersionService;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.versionPollMillis = versionPollInterval.toMillis();
+    }
+    
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(error -> emitters.remove(emitter));
+        
+        // New subscribers get the last pushed values, which are at most one window old
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = computeSnapshot();
+            snapshot = current;
+        }
+        try {
+            send(emitter, MONTHLY_SUMMARY_EVENT, current.monthlySummary());
+            if (current.budgetStatus() != null) {
+                send(emitter, BUDGET_STATUS_EVENT, current.budgetStatus());
+            }
+            emitters.add(emitter);
+        } catch (IOException ex) {
+            emitter.completeWithError(ex);
+        }
+        log.debug("Summary stream subscribers: {}", emitters.size());
+        return emitter;
+    }
+    
+    // Runs after commit so a rolled-back write never triggers a push
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(DataChangedEvent event) {
+        boolean relevant = event.table() == TrackedTable.BUDGETS || event.table() == TrackedTable.SUMMARY_VIEWS
+            || (event.table() == TrackedTable.EXPENSES && event.mayAffect(YearMonth.now()));
+        if (relevant) {
+            dirty.set(true);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.stream.coalesce-window:PT0.5S}", scheduler = "summaryStreamScheduler")
+    public void flush() {
+        if (emitters.isEmpty()) {
+            // Nobody is listening, so stop tracking; the next subscriber recomputes
+            snapshot = null;
+            lastVersionTag = null;
+            dirty.set(false);
+            return;
+        }
+        
+        boolean localChange = dirty.getAndSet(false);
+        long now = System.currentTimeMillis();
+        if (!localChange && now - lastVersionPoll < versionPollMillis) {
+            return;
+        }
+        
+        // Writes on other instances never reach our event listener, and the month can roll over,
+        // so the shared table versions are polled as well. The tag is read before recomputing
+        // so a write that commits in between is picked up by the next poll.
+        String versionTag = tableVersionService.etag(YearMonth.now(),
+            TrackedTable.EXPENSES, TrackedTable.BUDGETS, TrackedTable.SUMMARY_VIEWS);
+        lastVersionPoll = now;
+        if (!localChange && versionTag.equals(lastVersionTag)) {
+            return;
+        }
+        lastVersionTag = versionTag;
+        
+        Snapshot previous = snapshot;
+        Snapshot current = computeSnapshot();
+        snapshot = current;
+        if (previous == null || !Objects.equals(previous.monthlySummary(), current.monthlySummary())) {
+            broadcast(MONTHLY_SUMMARY_EVENT, current.monthlySummary());
+        }
+        if (current.budgetStatus() != null
+                && (previous == null || !Objects.equals(previous.budgetStatus(), current.budgetStatus()))) {
+            broadcast(BUDGET_STATUS_EVENT, current.budgetStatus());
+        }
+    }
+    
+    // Lets proxies keep the connection open and drops subscribers whose socket has gone away
+    @Scheduled(fixedDelayString = "${app.stream.heartbeat-interval:PT15S}", scheduler = "summaryStreamScheduler")
+    public void heartbeat() {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException ex) {
+                emitters.remove(emitter);
+            }
+        }
+    }
+    
+    int subscriberCount() {
+        return emitters.size();
+    }
+    
+    private Snapshot computeSnapshot() {
+        MonthlySummaryResponse monthlySummary = expenseService.getMonthlySummary();
+        BudgetStatusResponse budgetStatus = budgetService.findBudgetStatus(monthlySummary.getTotal()).orElse(null);
+        return new Snapshot(monthlySummary, budgetStatus);
+    }
+    
+    private void broadcast(String eventName, Object payload) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                send(emitter, eventName, payload);
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("Dropping summary stream subscriber: {}", ex.getMessage());
+                emitters.remove(emitter);
+            }
+        }
+    }
+    
+    private void send(SseEmitter emitter, String eventName, Object payload) throws IOException {
+        emitter.send(SseEmitter.event().name(eventName).data(payload));
+    }
+    
+    private record Snapshot(MonthlySummaryResponse monthlySummary, BudgetStatusResponse budgetStatus) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.expensetracker.service;
+
+import com.expensetracker.event.DataChangedEvent;
+import com.expensetracker.model.TableVersion;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import com.expensetracker.repository.SecondLevelCache;
+import com.expensetracker.repository.TableVersionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Keeps one change counter per table. The counters live in the database rather than in memory
+// so that every backend replica hands out the same ETag for the same data.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TableVersionService {
+    
+    private final TableVersionRepository tableVersionRepository;
+    private final SecondLevelCache secondLevelCache;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureVersionRows() {
+        for (TrackedTable table : TrackedTable.values()) {
+            if (tableVersionRepository.existsById(table)) {
+                continue;
+            }
+            try {
+                // Seed from the clock so a recreated database never reuses old ETags
+                tableVersionRepository.save(new TableVersion(table, System.currentTimeMillis()));
+            } catch (DataIntegrityViolationException ex) {
+                log.debug("Version row for {} was created concurrently", table);
+            }
+        }
+    }
+    
+    // Bumps are collected per transaction and applied once, right before commit,
+    // so the counter row is locked only for the duration of the commit itself
+    @EventListener
+    public void onDataChanged(DataChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            tableVersionRepository.incrementVersions(EnumSet.of(event.table()));
+            return;
+        }
+        PendingBumps pending = (PendingBumps) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingBumps();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.tables.add(event.table());
+    }
+    
+    public String etag(TrackedTable... tables) {
+        return etag(null, tables);
+    }
+    
+    // Responses that depend on the calendar (current month totals) also change when the month rolls over
+    public String etag(YearMonth month, TrackedTable... tables) {
+        Map<TrackedTable, Long> versions = readVersions(tables);
+        // The body behind this ETag must not come from a cache older than these versions
+        secondLevelCache.syncWithVersions(versions);
+        String tag = Arrays.stream(tables)
+            .map(table -> String.valueOf(versions.getOrDefault(table, 0L)))
+            .collect(Collectors.joining("-"));
+        if (month != null) {
+            tag += "-" + month;
+        }
+        return "\"" + tag + "\"";
+    }
+    
+    // Bounds how long reads without an ETag can see another instance's cached categories and budget
+    @Scheduled(fixedDelayString = "${app.cache.version-check-interval:PT1S}")
+    public void checkCachedTables() {
+        secondLevelCache.syncWithVersions(readVersions(TrackedTable.CATEGORIES, TrackedTable.BUDGETS));
+    }
+    
+    // Read through whatever connection the current transaction routes to
+    public Map<TrackedTable, Long> readVersions(TrackedTable... tables) {
+        return tableVersionRepository.findAllById(Arrays.asList(tables)).stream()
+            .collect(Collectors.toMap(TableVersion::getTableName, TableVersion::getVersion));
+    }
+    
+    private class PendingBumps implements TransactionSynchronization {
+        
+        private final Set<TrackedTable> tables = EnumSet.noneOf(TrackedTable.class);
+        
+        // Ahead of the expense outbox, which relies on this row lock to number its events in commit order
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            tableVersionRepository.incrementVersions(tables);
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TableVersionService.this);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.expensetracker.service;
+
+import com.expensetracker.exception.VersionRequiredException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Updates must name the version they were based on, so two clients editing the same row cannot silently
+// overwrite each other. Turning app.writes.require-version off lets old clients fall back to last writer wins.
+@Component
+public class WriteVersionPolicy {
+    
+    private final boolean versionRequired;
+    
+    public WriteVersionPolicy(@Value("${app.writes.require-version:true}") boolean versionRequired) {
+        this.versionRequired = versionRequired;
+    }
+    
+    public void check(String resource, Long id, Long version) {
+        if (versionRequired && version == null) {
+            throw new VersionRequiredException(resource + " " + id + " can only be updated with the version it was read at");
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.expensetracker.snapshot;
+
+import com.expensetracker.archive.ExpenseArchive;
+import com.expensetracker.dto.SnapshotImportResponse;
+import com.expensetracker.exception.SnapshotImportException;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import com.expensetracker.repository.SecondLevelCache;
+import com.expensetracker.repository.SqlDialect;
+import com.expensetracker.repository.TableVersionRepository;
+import com.expensetracker.resilience.Bulkhead;
+import com.expensetracker.resilience.BulkheadType;
+import com.expensetracker.snapshot.SnapshotFormat.Column;
+import com.expensetracker.snapshot.SnapshotFormat.Table;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Copies the whole dataset (categories, expenses, recurring expenses, budgets, archive) to and from the compact
+// SnapshotFormat file, for cloning production into staging or restoring without pg_dump. Export reads all
+// tables in one repeatable-read transaction, so the file is consistent. Import replaces the dataset in one
+// transaction, keeping the ids from the file; on PostgreSQL the rows are streamed through COPY.
+@Service
+@Slf4j
+public class DatasetSnapshotService {
+    
+    private static final int FETCH_SIZE = 10_000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final SqlDialect sqlDialect;
+    private final TableVersionRepository tableVersionRepository;
+    private final SecondLevelCache secondLevelCache;
+    private final ExpenseArchive expenseArchive;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    
+    public DatasetSnapshotService(JdbcTemplate jdbcTemplate,
+                                  SqlDialect sqlDialect,
+                                  TableVersionRepository tableVersionRepository,
+                                  SecondLevelCache secondLevelCache,
+                                  ExpenseArchive expenseArchive,
+                                  PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlDialect = sqlDialect;
+        this.tableVersionRepository = tableVersionRepository;
+        this.secondLevelCache = secondLevelCache;
+        this.expenseArchive = expenseArchive;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+    
+    @Bulkhead(BulkheadType.REPORTING)
+    public void export(OutputStream target) {
+        long started = System.currentTimeMillis();
+        Map<String, Long> counts = readTransaction.execute(status -> {
+            try {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target, 1 << 16));
+                out.writeInt(SnapshotFormat.MAGIC);
+                out.writeByte(SnapshotFormat.VERSION);
+                Map<Long, Integer> categoryIndex = new HashMap<>();
+                Map<String, Long> written = new LinkedHashMap<>();
+                for (Table table : SnapshotFormat.TABLES) {
+                    out.writeUTF(table.name());
+                    written.put(table.name(), exportTable(out, table, categoryIndex));
+                    out.writeInt(0);
+                }
+                out.flush();
+                return written;
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Writing the dataset snapshot failed", ex);
+            }
+        });
+        log.info("Exported dataset snapshot {} in {} ms", counts, System.currentTimeMillis() - started);
+    }
+    
+    @Bulkhead(BulkheadType.REPORTING)
+    public SnapshotImportResponse importSnapshot(InputStream source) {
+        long started = System.currentTimeMillis();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(source, 1 << 16));
+        Map<String, Long> counts = writeTransaction.execute(status -> {
+            try {
+                if (in.readInt() != SnapshotFormat.MAGIC) {
+                    throw new SnapshotImportException("Not a dataset snapshot");
+                }
+                byte version = in.readByte();
+                if (version < 1 || version > SnapshotFormat.VERSION) {
+                    throw new SnapshotImportException("Unsupported dataset snapshot version " + version);
+                }
+                // Taking the version row locks first keeps the outbox numbered in commit order, see ExpenseOutbox
+                tableVersionRepository.incrementVersions(EnumSet.allOf(TrackedTable.class));
+                removeExistingData();
+                List<Long> categoryIds = new ArrayList<>();
+                Map<String, Long> loaded = new LinkedHashMap<>();
+                for (Table table : SnapshotFormat.tables(version)) {
+                    String name = in.readUTF();
+                    if (!table.name().equals(name)) {
+                        throw new SnapshotImportException("Expected table " + table.name() + " but found " + name);
+                    }
+                    loaded.put(name, jdbcTemplate.execute(
+                        (ConnectionCallback<Long>) connection -> importTable(connection, in, table, categoryIds)));
+                }
+                if (sqlDialect.isPostgres()) {
+                    SnapshotFormat.TABLES.forEach(this::restartIdentity);
+                }
+                rebuildRollups();
+                recordCreations();
+                resetSync();
+                return loaded;
+            } catch (EOFException ex) {
+                throw new SnapshotImportException("Snapshot ends early");
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Reading the dataset snapshot failed", ex);
+            }
+        });
+        if (!sqlDialect.isPostgres()) {
+            // ALTER TABLE commits in H2, so there it has to wait until the import is in
+            SnapshotFormat.TABLES.forEach(this::restartIdentity);
+        }
+        // The import bypassed Hibernate, so nothing it cached is current any more
+        secondLevelCache.evictAll();
+        expenseArchive.loadBoundary();
+        long elapsed = System.currentTimeMillis() - started;
+        log.info("Imported dataset snapshot {} in {} ms", counts, elapsed);
+        return new SnapshotImportResponse(counts, elapsed);
+    }
+    
+    private long exportTable(DataOutputStream out, Table table, Map<Long, Integer> categoryIndex) {
+        List<Object[]> group = new ArrayList<>(SnapshotFormat.ROW_GROUP);
+        long[] count = {0};
+        String sql = "SELECT " + table.columnList() + " FROM " + table.name() + " ORDER BY id";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            // Lets the PostgreSQL driver stream the rows inside the transaction instead of loading them all
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (ResultSet rs) -> {
+            Object[] row = readRow(rs, table);
+            if (table.name().equals("categories")) {
+                categoryIndex.put((Long) row[0], categoryIndex.size());
+            }
+            group.add(row);
+            count[0]++;
+            if (group.size() == SnapshotFormat.ROW_GROUP) {
+                writeGroup(out, table, group, categoryIndex);
+            }
+        });
+        if (!group.isEmpty()) {
+            writeGroup(out, table, group, categoryIndex);
+        }
+        return count[0];
+    }
+    
+    private static void writeGroup(DataOutputStream out, Table table, List<Object[]> group, Map<Long, Integer> categoryIndex) {
+        try {
+            SnapshotFormat.writeRowGroup(out, table, group, categoryIndex);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Writing the dataset snapshot failed", ex);
+        }
+        group.clear();
+    }
+    
+    private static Object[] readRow(ResultSet rs, Table table) throws SQLException {
+        Object[] row = new Object[table.columns().size()];
+        for (int c = 0; c < row.length; c++) {
+            Column column = table.columns().get(c);
+            int index = c + 1;
+            row[c] = switch (column.type()) {
+                case ID, LONG, CATEGORY -> rs.getLong(index);
+                case CENTS -> rs.getBigDecimal(index);
+                case DAY -> rs.getObject(index, LocalDate.class);
+                case TIMESTAMP -> rs.getObject(index, LocalDateTime.class);
+                case TEXT -> rs.getString(index);
+                case BOOL -> rs.getBoolean(index);
+            };
+        }
+        return row;
+    }
+    
+    // Expenses leave through the outbox like any other deletion, so projections drop them before the new ones
+    // arrive. Projections count archived expenses too, so those go the same way.
+    private void removeExistingData() {
+        jdbcTemplate.update("INSERT INTO expense_events (expense_id, event_type, occurred_at) SELECT id, 'DELETED', ? "
+            + "FROM (SELECT id FROM expenses UNION ALL SELECT id FROM expenses_archive) existing ORDER BY id",
+            LocalDateTime.now());
+        jdbcTemplate.update("DELETE FROM expense_monthly_rollups");
+        jdbcTemplate.update("DELETE FROM expenses_archive");
+        jdbcTemplate.update("DELETE FROM expenses");
+        jdbcTemplate.update("DELETE FROM recurring_expenses");
+        jdbcTemplate.update("DELETE FROM budgets");
+        jdbcTemplate.update("DELETE FROM categories");
+    }
+    
+    private void rebuildRollups() {
+        jdbcTemplate.update("INSERT INTO expense_monthly_rollups (month_start, category_id, total, expense_count) "
+            + "SELECT CAST(DATE_TRUNC('month', date) AS DATE), category_id, SUM(amount), COUNT(*) FROM expenses_archive "
+            + "GROUP BY CAST(DATE_TRUNC('month', date) AS DATE), category_id");
+    }
+    
+    private void recordCreations() {
+        jdbcTemplate.update("INSERT INTO expense_events (expense_id, event_type, amount, category_id, date, occurred_at) "
+            + "SELECT id, 'CREATED', amount, category_id, date, created_at FROM "
+            + "(SELECT id, amount, category_id, date, created_at FROM expenses UNION ALL "
+            + "SELECT id, amount, category_id, date, created_at FROM expenses_archive) imported ORDER BY id");
+    }
+    
+    // Restored rows keep the updated_at from the file, so a delta from an earlier watermark would miss them
+    // and the rows they replaced. Stamped last, so it follows every watermark handed out before the commit.
+    private void resetSync() {
+        jdbcTemplate.update("DELETE FROM expense_tombstones WHERE expense_id IN "
+            + "(SELECT id FROM expenses UNION ALL SELECT id FROM expenses_archive)");
+        jdbcTemplate.update("INSERT INTO expense_sync_resets (reset_at) VALUES (?)", LocalDateTime.now());
+    }
+    
+    private long importTable(Connection connection, DataInputStream in, Table table, List<Long> categoryIds)
+            throws SQLException {
+        boolean categories = table.name().equals("categories");
+        long count = 0;
+        try {
+            if (sqlDialect.isPostgres()) {
+                String sql = "COPY " + table.name() + " (" + table.columnList() + ") FROM STDIN WITH (FORMAT csv)";
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                        new PGCopyOutputStream(connection.unwrap(PGConnection.class), sql, 1 << 16),
+                        StandardCharsets.UTF_8), 1 << 16)) {
+                    for (List<Object[]> rows = readGroup(in, table, categoryIds); !rows.isEmpty();
+                            rows = readGroup(in, table, categoryIds)) {
+                        for (Object[] row : rows) {
+                            writeCsv(writer, row);
+                        }
+                        count += rows.size();
+                        if (categories) {
+                            rows.forEach(row -> categoryIds.add((Long) row[0]));
+                        }
+                    }
+                }
+                return count;
+            }
+            String placeholders = String.join(", ", table.columns().stream().map(column -> "?").toList());
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO " + table.name() + " (" + table.columnList() + ") VALUES (" + placeholders + ")")) {
+                for (List<Object[]> rows = readGroup(in, table, categoryIds); !rows.isEmpty();
+                        rows = readGroup(in, table, categoryIds)) {
+                    for (Object[] row : rows) {
+                        for (int c = 0; c < row.length; c++) {
+                            statement.setObject(c + 1, row[c]);
+                        }
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    count += rows.size();
+                    if (categories) {
+                        rows.forEach(row -> categoryIds.add((Long) row[0]));
+                    }
+                }
+            }
+            return count;
+        } catch (EOFException ex) {
+            throw new SnapshotImportException("Snapshot ends early in " + table.name());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Loading " + table.name() + " failed", ex);
+        }
+    }
+    
+    private static List<Object[]> readGroup(DataInputStream in, Table table, List<Long> categoryIds) throws IOException {
+        return SnapshotFormat.readRowGroup(in, table, categoryIds);
+    }
+    
+    // Unquoted empty fields are NULL in COPY's CSV format, so every string is quoted
+    private static void writeCsv(Writer writer, Object[] row) throws IOException {
+        for (int c = 0; c < row.length; c++) {
+            if (c > 0) {
+                writer.write(',');
+            }
+            Object value = row[c];
+            if (value instanceof String text) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else if (value instanceof BigDecimal amount) {
+                writer.write(amount.toPlainString());
+            } else if (value != null) {
+                writer.write(value.toString());
+            }
+        }
+        writer.write('\n');
+    }
+    
+    // Rows came with their ids, so new rows must not be handed ids the import already used. Expense ids
+    // continue after the archived ones as well, so an id never names both a live and an archived expense.
+    private void restartIdentity(Table table) {
+        if (!table.generatedIds()) {
+            return;
+        }
+        String ids = table.name().equals("expenses")
+            ? "(SELECT id FROM expenses UNION ALL SELECT id FROM expenses_archive) ids"
+            : table.name();
+        if (sqlDialect.isPostgres()) {
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence('" + table.name() + "', 'id'), "
+                + "COALESCE(MAX(id), 0) + 1, false) FROM " + ids, Long.class);
+            return;
+        }
+        Long next = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + ids, Long.class);
+        jdbcTemplate.execute("ALTER TABLE " + table.name() + " ALTER COLUMN id RESTART WITH " + next);
+    }
+}
@@ -0,0 +1,289 @@
+package com.expensetracker.snapshot;
+
+import com.expensetracker.exception.SnapshotImportException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Layout of a dataset snapshot. After a magic number and format version come the tables in a fixed order,
+// each as its name followed by row groups. A row group is its row count and then every column of those rows,
+// one after the other, each prefixed with its length in bytes; a row count of zero ends the table. Inside a
+// column, integers are zig-zag varints, ids, dates (epoch days) and timestamps (epoch microseconds) are
+// stored as the difference to the previous row, amounts as cents, and categories as their position in the
+// categories table, which always comes first. Version 2 added the expense archive; version 1 files still load.
+final class SnapshotFormat {
+    
+    static final int MAGIC = 0x45585053;
+    static final byte VERSION = 2;
+    static final int ROW_GROUP = 65_536;
+    
+    static final List<Table> TABLES = List.of(
+        new Table("categories", List.of(
+            new Column("id", Type.ID, false),
+            new Column("name", Type.TEXT, false),
+            new Column("description", Type.TEXT, true),
+            new Column("is_default", Type.BOOL, false),
+            new Column("created_at", Type.TIMESTAMP, false),
+            new Column("updated_at", Type.TIMESTAMP, true),
+            new Column("version", Type.LONG, false)), 1, true),
+        new Table("expenses", List.of(
+            new Column("id", Type.ID, false),
+            new Column("amount", Type.CENTS, false),
+            new Column("category_id", Type.CATEGORY, false),
+            new Column("date", Type.DAY, false),
+            new Column("description", Type.TEXT, true),
+            new Column("created_at", Type.TIMESTAMP, false),
+            new Column("updated_at", Type.TIMESTAMP, true),
+            new Column("version", Type.LONG, false)), 1, true),
+        new Table("recurring_expenses", List.of(
+            new Column("id", Type.ID, false),
+            new Column("amount", Type.CENTS, false),
+            new Column("category_id", Type.CATEGORY, false),
+            new Column("description", Type.TEXT, true),
+            new Column("frequency", Type.TEXT, false),
+            new Column("start_date", Type.DAY, false),
+            new Column("end_date", Type.DAY, true),
+            new Column("next_occurrence", Type.DAY, false),
+            new Column("active", Type.BOOL, false),
+            new Column("created_at", Type.TIMESTAMP, false),
+            new Column("updated_at", Type.TIMESTAMP, true),
+            new Column("version", Type.LONG, false)), 1, true),
+        new Table("budgets", List.of(
+            new Column("id", Type.ID, false),
+            new Column("monthly_limit", Type.CENTS, false),
+            new Column("created_at", Type.TIMESTAMP, false),
+            new Column("updated_at", Type.TIMESTAMP, true)), 1, true),
+        // Archived expenses keep the ids they had; the monthly rollups are derived from them on import
+        new Table("expenses_archive", List.of(
+            new Column("id", Type.ID, false),
+            new Column("amount", Type.CENTS, false),
+            new Column("category_id", Type.CATEGORY, false),
+            new Column("date", Type.DAY, false),
+            new Column("description", Type.TEXT, true),
+            new Column("created_at", Type.TIMESTAMP, false),
+            new Column("updated_at", Type.TIMESTAMP, true),
+            new Column("version", Type.LONG, false),
+            new Column("archived_at", Type.TIMESTAMP, false)), 2, false)
+    );
+    
+    private SnapshotFormat() {
+    }
+    
+    static List<Table> tables(int version) {
+        return TABLES.stream().filter(table -> table.since() <= version).toList();
+    }
+    
+    enum Type {
+        ID, LONG, CENTS, CATEGORY, DAY, TIMESTAMP, TEXT, BOOL
+    }
+    
+    record Column(String name, Type type, boolean nullable) {
+    }
+    
+    // since: the format version that added the table; generatedIds: whether the database hands out its ids
+    record Table(String name, List<Column> columns, int since, boolean generatedIds) {
+        
+        String columnList() {
+            return String.join(", ", columns.stream().map(Column::name).toList());
+        }
+    }
+    
+    // Row values are Long, BigDecimal, LocalDate, LocalDateTime, String or Boolean by column type, with
+    // categories as their id; categoryIndex maps those ids to dictionary positions
+    static void writeRowGroup(DataOutputStream out, Table table, List<Object[]> rows,
+                              Map<Long, Integer> categoryIndex) throws IOException {
+        out.writeInt(rows.size());
+        ColumnBuffer buffer = new ColumnBuffer();
+        for (int c = 0; c < table.columns().size(); c++) {
+            Column column = table.columns().get(c);
+            buffer.reset();
+            long previous = 0;
+            for (Object[] row : rows) {
+                Object value = row[c];
+                if (column.type() == Type.TEXT) {
+                    buffer.putText((String) value);
+                    continue;
+                }
+                if (column.nullable()) {
+                    buffer.write(value == null ? 0 : 1);
+                    if (value == null) {
+                        continue;
+                    }
+                }
+                switch (column.type()) {
+                    case ID, DAY, TIMESTAMP -> {
+                        long current = toLong(column.type(), value);
+                        buffer.putVarLong(current - previous);
+                        previous = current;
+                    }
+                    case LONG -> buffer.putVarLong((Long) value);
+                    case CENTS -> buffer.putVarLong(((BigDecimal) value).movePointRight(2).longValueExact());
+                    case CATEGORY -> {
+                        Integer index = categoryIndex.get((Long) value);
+                        if (index == null) {
+                            throw new IllegalStateException("Row in " + table.name() + " refers to unknown category " + value);
+                        }
+                        buffer.putVarLong(index);
+                    }
+                    case BOOL -> buffer.write(Boolean.TRUE.equals(value) ? 1 : 0);
+                    default -> throw new IllegalStateException("Unhandled column type " + column.type());
+                }
+            }
+            out.writeInt(buffer.size());
+            buffer.writeTo(out);
+        }
+    }
+    
+    // Empty once the table's terminating row group has been read
+    static List<Object[]> readRowGroup(DataInputStream in, Table table, List<Long> categoryIds) throws IOException {
+        int rowCount = in.readInt();
+        if (rowCount < 0 || rowCount > ROW_GROUP) {
+            throw new SnapshotImportException("Corrupt row group in " + table.name());
+        }
+        if (rowCount == 0) {
+            return List.of();
+        }
+        List<Object[]> rows = new ArrayList<>(rowCount);
+        for (int r = 0; r < rowCount; r++) {
+            rows.add(new Object[table.columns().size()]);
+        }
+        for (int c = 0; c < table.columns().size(); c++) {
+            Column column = table.columns().get(c);
+            int length = in.readInt();
+            if (length < 0) {
+                throw new SnapshotImportException("Corrupt column " + column.name() + " in " + table.name());
+            }
+            ColumnReader reader = new ColumnReader(in.readNBytes(length));
+            if (reader.bytes.length != length) {
+                throw new EOFException("Snapshot ends inside " + table.name() + "." + column.name());
+            }
+            long previous = 0;
+            for (Object[] row : rows) {
+                if (column.type() == Type.TEXT) {
+                    row[c] = reader.getText();
+                    continue;
+                }
+                if (column.nullable() && reader.get() == 0) {
+                    continue;
+                }
+                row[c] = switch (column.type()) {
+                    case ID, DAY, TIMESTAMP -> {
+                        previous += reader.getVarLong();
+                        yield fromLong(column.type(), previous);
+                    }
+                    case LONG -> reader.getVarLong();
+                    case CENTS -> BigDecimal.valueOf(reader.getVarLong(), 2);
+                    case CATEGORY -> {
+                        long index = reader.getVarLong();
+                        if (index < 0 || index >= categoryIds.size()) {
+                            throw new SnapshotImportException("Row in " + table.name() + " refers to unknown category " + index);
+                        }
+                        yield categoryIds.get((int) index);
+                    }
+                    case BOOL -> reader.get() != 0;
+                    default -> throw new IllegalStateException("Unhandled column type " + column.type());
+                };
+            }
+            if (reader.position != length) {
+                throw new SnapshotImportException("Column " + column.name() + " in " + table.name() + " has trailing bytes");
+            }
+        }
+        return rows;
+    }
+    
+    private static long toLong(Type type, Object value) {
+        return switch (type) {
+            case DAY -> ((LocalDate) value).toEpochDay();
+            case TIMESTAMP -> {
+                LocalDateTime timestamp = (LocalDateTime) value;
+                yield timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+            }
+            default -> (Long) value;
+        };
+    }
+    
+    private static Object fromLong(Type type, long value) {
+        return switch (type) {
+            case DAY -> LocalDate.ofEpochDay(value);
+            case TIMESTAMP -> LocalDateTime.ofEpochSecond(Math.floorDiv(value, 1_000_000),
+                (int) Math.floorMod(value, 1_000_000) * 1_000, ZoneOffset.UTC);
+            default -> value;
+        };
+    }
+    
+    private static final class ColumnBuffer extends ByteArrayOutputStream {
+        
+        void putVarLong(long value) {
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                write((int) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            write((int) zigzag);
+        }
+        
+        // Length plus one, so zero can stand for null
+        void putText(String value) {
+            if (value == null) {
+                putVarLong(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            putVarLong(utf8.length + 1L);
+            write(utf8, 0, utf8.length);
+        }
+    }
+    
+    private static final class ColumnReader {
+        
+        private final byte[] bytes;
+        private int position;
+        
+        ColumnReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+        
+        int get() {
+            if (position >= bytes.length) {
+                throw new SnapshotImportException("Snapshot column ends early");
+            }
+            return bytes[position++] & 0xFF;
+        }
+        
+        long getVarLong() {
+            long zigzag = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = get();
+                zigzag |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (zigzag >>> 1) ^ -(zigzag & 1);
+                }
+            }
+            throw new SnapshotImportException("Malformed number in snapshot");
+        }
+        
+        String getText() {
+            long length = getVarLong() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (length > bytes.length - position) {
+                throw new SnapshotImportException("Snapshot column ends early");
+            }
+            String value = new String(bytes, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+    }
+}
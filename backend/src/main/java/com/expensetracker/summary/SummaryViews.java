@@ -0,0 +1,242 @@
+package com.expensetracker.summary;
+
+import com.expensetracker.dto.CategorySummaryResponse;
+import com.expensetracker.dto.MonthlySummaryResponse;
+import com.expensetracker.event.DataChangedEvent;
+import com.expensetracker.model.TableVersion;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import com.expensetracker.repository.SqlDialect;
+import com.expensetracker.repository.TableVersionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Category and month totals precomputed in materialized views (app.summary-views.enabled), so the summary
+// endpoints read a few rows instead of aggregating every expense. The views are refreshed concurrently,
+// which keeps them readable during a refresh, a few seconds after local writes go quiet, and on a schedule
+// whenever the expenses table version moved past the one the views were built from, which also covers
+// writes made on other instances. Reads report the time of the refresh they come from. On H2, which has
+// no materialized views, the views are plain tables rebuilt in the refresh transaction.
+@Service
+@Slf4j
+public class SummaryViews {
+    
+    static final String CATEGORY_TOTALS = "expense_category_totals";
+    static final String MONTHLY_TOTALS = "expense_monthly_totals";
+    static final String REFRESH_TIMER = "app.summary.views.refresh";
+    
+    // Both views count archived expenses too, so the archive does not change what they report
+    private static final String EXPENSES_AND_ARCHIVE =
+        "(SELECT category_id, amount, date FROM expenses UNION ALL SELECT category_id, amount, date FROM expenses_archive) e";
+    
+    private static final Map<String, String> QUERIES = Map.of(
+        CATEGORY_TOTALS,
+        "SELECT category_id, SUM(amount) AS total, COUNT(*) AS expense_count FROM " + EXPENSES_AND_ARCHIVE
+            + " GROUP BY category_id",
+        MONTHLY_TOTALS,
+        "SELECT CAST(DATE_TRUNC('month', date) AS DATE) AS month_start, SUM(amount) AS total, COUNT(*) AS expense_count FROM "
+            + EXPENSES_AND_ARCHIVE + " GROUP BY CAST(DATE_TRUNC('month', date) AS DATE)");
+    
+    // REFRESH ... CONCURRENTLY needs a unique index covering every row
+    private static final Map<String, String> UNIQUE_KEYS = Map.of(
+        CATEGORY_TOTALS, "category_id",
+        MONTHLY_TOTALS, "month_start");
+    
+    // Keeps two instances from refreshing at the same time; the loser skips its turn
+    private static final long REFRESH_LOCK_KEY = 0x53554D56L;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final SqlDialect sqlDialect;
+    private final TableVersionRepository tableVersionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Timer refreshTimer;
+    private final boolean enabled;
+    private final Duration maxDelay;
+    
+    private final AtomicLong changes = new AtomicLong();
+    private long changesAtLastTick;
+    private long pendingSince;
+    private volatile boolean started;
+    private volatile boolean ready;
+    
+    public SummaryViews(JdbcTemplate jdbcTemplate,
+                        SqlDialect sqlDialect,
+                        TableVersionRepository tableVersionRepository,
+                        TransactionTemplate transactionTemplate,
+                        ApplicationEventPublisher eventPublisher,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.summary-views.enabled:false}") boolean enabled,
+                        @Value("${app.summary-views.max-delay:PT30S}") Duration maxDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlDialect = sqlDialect;
+        this.tableVersionRepository = tableVersionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.refreshTimer = Timer.builder(REFRESH_TIMER)
+            .description("Time taken to refresh the summary views")
+            .register(meterRegistry);
+        this.enabled = enabled;
+        this.maxDelay = maxDelay;
+    }
+    
+    // Summaries are aggregated live until the views exist and have been filled once
+    public boolean isReady() {
+        return ready;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        createIfMissing();
+        started = true;
+        refreshIfStale();
+        ready = filled();
+    }
+    
+    // Only counts the change; the refresh waits until writes go quiet
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(DataChangedEvent event) {
+        if (enabled && event.table() == TrackedTable.EXPENSES) {
+            changes.incrementAndGet();
+        }
+    }
+    
+    // Refreshes once a tick passes without new changes, or once changes have been waiting for max-delay
+    @Scheduled(fixedDelayString = "${app.summary-views.debounce:PT2S}")
+    public synchronized void refreshAfterChanges() {
+        long seen = changes.get();
+        if (!ready || seen == 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (pendingSince == 0) {
+            pendingSince = now;
+        }
+        if (seen != changesAtLastTick && now - pendingSince < maxDelay.toMillis()) {
+            changesAtLastTick = seen;
+            return;
+        }
+        changes.addAndGet(-seen);
+        changesAtLastTick = 0;
+        pendingSince = 0;
+        refreshIfStale();
+    }
+    
+    // Also retries the first fill when the one at startup failed or lost the lock to another instance
+    @Scheduled(fixedDelayString = "${app.summary-views.check-interval:PT1M}")
+    public void refreshOnSchedule() {
+        if (!started) {
+            return;
+        }
+        refreshIfStale();
+        if (!ready) {
+            ready = filled();
+        }
+    }
+    
+    // False when the views were current already or another instance is refreshing them
+    public boolean refreshIfStale() {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> refreshInTransaction()));
+        } catch (RuntimeException ex) {
+            log.error("Refreshing the summary views failed: {}", ex.getMessage(), ex);
+            return false;
+        }
+    }
+    
+    public List<CategorySummaryResponse> categorySummary() {
+        return jdbcTemplate.query("SELECT c.name, t.total, r.refreshed_at FROM " + CATEGORY_TOTALS + " t "
+                + "JOIN categories c ON c.id = t.category_id "
+                + "JOIN summary_view_refreshes r ON r.view_name = ? "
+                + "ORDER BY t.total DESC",
+            (rs, rowNum) -> new CategorySummaryResponse(rs.getString(1), rs.getBigDecimal(2),
+                rs.getObject(3, LocalDateTime.class)),
+            CATEGORY_TOTALS);
+    }
+    
+    public MonthlySummaryResponse monthlySummary(YearMonth month) {
+        return jdbcTemplate.queryForObject("SELECT t.total, r.refreshed_at FROM summary_view_refreshes r "
+                + "LEFT JOIN " + MONTHLY_TOTALS + " t ON t.month_start = ? "
+                + "WHERE r.view_name = ?",
+            (rs, rowNum) -> {
+                BigDecimal total = rs.getBigDecimal(1);
+                return new MonthlySummaryResponse(total != null ? total : BigDecimal.ZERO,
+                    month.getMonthValue(), month.getYear(), rs.getObject(2, LocalDateTime.class));
+            },
+            Date.valueOf(month.atDay(1)), MONTHLY_TOTALS);
+    }
+    
+    private boolean refreshInTransaction() {
+        boolean postgres = sqlDialect.isPostgres();
+        if (postgres && !Boolean.TRUE.equals(
+                jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, REFRESH_LOCK_KEY))) {
+            return false;
+        }
+        long source = tableVersionRepository.findById(TrackedTable.EXPENSES).map(TableVersion::getVersion).orElse(0L);
+        Long current = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM summary_view_refreshes WHERE source_version = ?",
+            Long.class, source);
+        if (current != null && current == QUERIES.size()) {
+            return false;
+        }
+        // The views hold what was committed when the refresh began
+        LocalDateTime refreshedAt = LocalDateTime.now();
+        long started = System.nanoTime();
+        for (Map.Entry<String, String> view : QUERIES.entrySet()) {
+            if (postgres) {
+                jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY " + view.getKey());
+            } else {
+                jdbcTemplate.update("DELETE FROM " + view.getKey());
+                jdbcTemplate.update("INSERT INTO " + view.getKey() + " " + view.getValue());
+            }
+            if (jdbcTemplate.update("UPDATE summary_view_refreshes SET refreshed_at = ?, source_version = ? WHERE view_name = ?",
+                    refreshedAt, source, view.getKey()) == 0) {
+                jdbcTemplate.update("INSERT INTO summary_view_refreshes (view_name, refreshed_at, source_version) VALUES (?, ?, ?)",
+                    view.getKey(), refreshedAt, source);
+            }
+        }
+        refreshTimer.record(Duration.ofNanos(System.nanoTime() - started));
+        // Moves the summary ETags on, so clients holding the previous refresh fetch again
+        eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.SUMMARY_VIEWS));
+        log.debug("Summary views refreshed from expenses version {}", source);
+        return true;
+    }
+    
+    private boolean filled() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM summary_view_refreshes", Long.class) == QUERIES.size();
+    }
+    
+    // The migration creates them on PostgreSQL; this covers databases Hibernate builds, such as dev and test
+    private void createIfMissing() {
+        boolean postgres = sqlDialect.isPostgres();
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS summary_view_refreshes (view_name VARCHAR(100) PRIMARY KEY, "
+            + "refreshed_at TIMESTAMP NOT NULL, source_version BIGINT NOT NULL)");
+        for (Map.Entry<String, String> view : QUERIES.entrySet()) {
+            jdbcTemplate.execute(postgres
+                ? "CREATE MATERIALIZED VIEW IF NOT EXISTS " + view.getKey() + " AS " + view.getValue()
+                : "CREATE TABLE IF NOT EXISTS " + view.getKey() + " AS " + view.getValue() + " WITH NO DATA");
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS ux_" + view.getKey() + " ON " + view.getKey()
+                + " (" + UNIQUE_KEYS.get(view.getKey()) + ")");
+        }
+    }
+}
@@ -0,0 +1,6 @@
+-- Points where delta sync history was lost (dataset restores); older watermarks get a full resync
+
+CREATE TABLE IF NOT EXISTS expense_sync_resets (
+    id BIGSERIAL PRIMARY KEY,
+    reset_at TIMESTAMP NOT NULL
+);
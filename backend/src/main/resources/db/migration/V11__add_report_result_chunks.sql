@@ -0,0 +1,8 @@
+-- Finished report results, gzipped and split into chunks, so any instance can serve a job another one ran
+
+CREATE TABLE IF NOT EXISTS report_result_chunks (
+    job_id BIGINT NOT NULL REFERENCES report_jobs (id),
+    chunk INTEGER NOT NULL,
+    data BYTEA NOT NULL,
+    PRIMARY KEY (job_id, chunk)
+);
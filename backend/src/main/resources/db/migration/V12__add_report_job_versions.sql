@@ -0,0 +1,4 @@
+-- Table versions a report job was hashed at, so its reads never come from a replica older than that
+
+ALTER TABLE report_jobs ADD COLUMN IF NOT EXISTS expenses_version BIGINT;
+ALTER TABLE report_jobs ADD COLUMN IF NOT EXISTS categories_version BIGINT;
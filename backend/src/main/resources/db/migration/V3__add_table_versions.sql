@@ -0,0 +1,15 @@
+-- Per-table change counters used to build ETags for conditional GETs
+
+CREATE TABLE IF NOT EXISTS table_versions (
+    table_name VARCHAR(50) PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+-- Seed from the clock so a recreated database never reuses old ETags
+INSERT INTO table_versions (table_name, version)
+VALUES
+    ('EXPENSES', (EXTRACT(EPOCH FROM NOW()) * 1000)::BIGINT),
+    ('CATEGORIES', (EXTRACT(EPOCH FROM NOW()) * 1000)::BIGINT),
+    ('BUDGETS', (EXTRACT(EPOCH FROM NOW()) * 1000)::BIGINT),
+    ('RECURRING_EXPENSES', (EXTRACT(EPOCH FROM NOW()) * 1000)::BIGINT)
+ON CONFLICT (table_name) DO NOTHING;
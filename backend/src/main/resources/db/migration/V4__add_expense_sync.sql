@@ -0,0 +1,15 @@
+-- Support for delta sync (GET /api/expenses/changes)
+
+-- Changed-since lookups scan expenses by update time
+CREATE INDEX IF NOT EXISTS idx_expenses_updated_at ON expenses (updated_at);
+
+-- Category renames are resolved to their expenses through the foreign key
+CREATE INDEX IF NOT EXISTS idx_expenses_category_id ON expenses (category_id);
+
+-- Deletion log so clients can drop rows that no longer exist
+CREATE TABLE IF NOT EXISTS expense_tombstones (
+    expense_id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_expense_tombstones_deleted_at ON expense_tombstones (deleted_at);
@@ -0,0 +1,7 @@
+-- Optimistic locking for single-statement updates
+
+-- Existing rows start at version 0; every write bumps the version and a client that sends the
+-- version it last read gets a conflict instead of overwriting a newer change
+ALTER TABLE expenses ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE recurring_expenses ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
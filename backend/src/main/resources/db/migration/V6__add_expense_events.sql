@@ -0,0 +1,27 @@
+-- Transactional outbox of expense changes and the read position of each projector
+
+CREATE TABLE IF NOT EXISTS expense_events (
+    id BIGSERIAL PRIMARY KEY,
+    expense_id BIGINT NOT NULL,
+    event_type VARCHAR(16) NOT NULL,
+    amount NUMERIC(10, 2),
+    category_id BIGINT,
+    date DATE,
+    occurred_at TIMESTAMP NOT NULL
+);
+
+-- A projector finds the state a deletion removed through the expense's previous event
+CREATE INDEX IF NOT EXISTS idx_expense_events_expense_id ON expense_events (expense_id);
+
+CREATE TABLE IF NOT EXISTS projection_offsets (
+    projector VARCHAR(100) PRIMARY KEY,
+    last_event_id BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- Existing expenses enter the log as creations, so a projection rebuilt from zero sees them too
+INSERT INTO expense_events (expense_id, event_type, amount, category_id, date, occurred_at)
+SELECT id, 'CREATED', amount, category_id, date, created_at
+FROM expenses
+WHERE NOT EXISTS (SELECT 1 FROM expense_events)
+ORDER BY id;
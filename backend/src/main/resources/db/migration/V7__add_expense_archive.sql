@@ -0,0 +1,24 @@
+-- Archive tier: expenses past the archive horizon move here, and their totals into monthly rollups
+
+CREATE TABLE IF NOT EXISTS expenses_archive (
+    id BIGINT PRIMARY KEY,
+    amount NUMERIC(10, 2) NOT NULL,
+    category_id BIGINT NOT NULL REFERENCES categories (id),
+    date DATE NOT NULL,
+    description VARCHAR(500),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    version BIGINT NOT NULL,
+    archived_at TIMESTAMP NOT NULL
+);
+
+-- Reads only reach the archive for date ranges that start before the horizon
+CREATE INDEX IF NOT EXISTS idx_expenses_archive_date ON expenses_archive (date);
+
+CREATE TABLE IF NOT EXISTS expense_monthly_rollups (
+    month_start DATE NOT NULL,
+    category_id BIGINT NOT NULL REFERENCES categories (id),
+    total NUMERIC(14, 2) NOT NULL,
+    expense_count BIGINT NOT NULL,
+    PRIMARY KEY (month_start, category_id)
+);
@@ -0,0 +1,22 @@
+-- Materialized totals behind the summary endpoints, refreshed concurrently by the application
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS expense_category_totals AS
+SELECT category_id, SUM(amount) AS total, COUNT(*) AS expense_count
+FROM (SELECT category_id, amount, date FROM expenses UNION ALL SELECT category_id, amount, date FROM expenses_archive) e
+GROUP BY category_id;
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS expense_monthly_totals AS
+SELECT CAST(DATE_TRUNC('month', date) AS DATE) AS month_start, SUM(amount) AS total, COUNT(*) AS expense_count
+FROM (SELECT category_id, amount, date FROM expenses UNION ALL SELECT category_id, amount, date FROM expenses_archive) e
+GROUP BY CAST(DATE_TRUNC('month', date) AS DATE);
+
+-- REFRESH MATERIALIZED VIEW CONCURRENTLY requires a unique index on each view
+CREATE UNIQUE INDEX IF NOT EXISTS ux_expense_category_totals ON expense_category_totals (category_id);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_expense_monthly_totals ON expense_monthly_totals (month_start);
+
+-- When each view was last refreshed, and from which expenses table version
+CREATE TABLE IF NOT EXISTS summary_view_refreshes (
+    view_name VARCHAR(100) PRIMARY KEY,
+    refreshed_at TIMESTAMP NOT NULL,
+    source_version BIGINT NOT NULL
+);
@@ -0,0 +1,20 @@
+-- Asynchronous report jobs; finished results are stored in report_result_chunks (V11)
+
+CREATE TABLE IF NOT EXISTS report_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    definition_hash VARCHAR(64) NOT NULL,
+    report_type VARCHAR(32) NOT NULL,
+    report_format VARCHAR(16) NOT NULL,
+    definition TEXT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    total_rows BIGINT,
+    rows_written BIGINT,
+    result_bytes BIGINT,
+    error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+-- One job per definition and data version, so a repeated request finds the earlier job
+CREATE UNIQUE INDEX IF NOT EXISTS uk_report_jobs_definition_hash ON report_jobs (definition_hash);
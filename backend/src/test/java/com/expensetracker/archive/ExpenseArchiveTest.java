@@ -0,0 +1,187 @@
+package com.expensetracker.archive;
+
+import com.expensetracker.dto.CategorySummaryResponse;
+import com.expensetracker.dto.ExpensePatchRequest;
+import com.expensetracker.dto.ExpenseRequest;
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.exception.ReadOnlyResourceException;
+import com.expensetracker.exception.ResourceNotFoundException;
+import com.expensetracker.service.ExpenseService;
+import com.expensetracker.snapshot.DatasetSnapshotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.datasource.url=jdbc:h2:mem:archive",
+    "app.projections.poll-interval=PT1H",
+    "app.archive.enabled=true",
+    "app.archive.horizon=P2Y",
+    "app.archive.batch-size=7",
+    "app.archive.cron=-"
+})
+@ActiveProfiles("test")
+@DisplayName("ExpenseArchive Tests")
+class ExpenseArchiveTest {
+    
+    private static final LocalDate OLD_MONTH = YearMonth.now().minusYears(3).atDay(1);
+    
+    @Autowired
+    private ExpenseArchive expenseArchive;
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private DatasetSnapshotService datasetSnapshotService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long oldExpenseId;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO categories (name, is_default, created_at, version) VALUES "
+            + "('Groceries', true, CURRENT_TIMESTAMP, 0), ('Travel', false, CURRENT_TIMESTAMP, 0)");
+        Long groceries = jdbcTemplate.queryForObject("SELECT id FROM categories WHERE name = 'Groceries'", Long.class);
+        Long travel = jdbcTemplate.queryForObject("SELECT id FROM categories WHERE name = 'Travel'", Long.class);
+        // 20 expenses spread over two old months, enough for several batches, and 3 recent ones
+        List<Object[]> expenses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            expenses.add(new Object[] {new BigDecimal("1.25"), i % 2 == 0 ? groceries : travel,
+                Date.valueOf(OLD_MONTH.plusDays(i * 2L))});
+        }
+        for (int i = 0; i < 3; i++) {
+            expenses.add(new Object[] {new BigDecimal("10.00"), groceries, Date.valueOf(LocalDate.now().minusDays(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO expenses (amount, category_id, date, created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0)", expenses);
+        oldExpenseId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM expenses", Long.class);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM expense_events");
+        jdbcTemplate.update("DELETE FROM expense_monthly_rollups");
+        jdbcTemplate.update("DELETE FROM expenses_archive");
+        jdbcTemplate.update("DELETE FROM expenses");
+        jdbcTemplate.update("DELETE FROM categories");
+        expenseArchive.loadBoundary();
+    }
+    
+    @Test
+    @DisplayName("Should move old months into the archive and roll up their totals")
+    void archive_ShouldMoveExpensesPastTheHorizon() {
+        // Act
+        expenseArchive.archive();
+        
+        // Assert
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Long.class)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses_archive", Long.class)).isEqualTo(20);
+        assertThat(jdbcTemplate.queryForList("SELECT c.name, r.month_start, r.total, r.expense_count "
+            + "FROM expense_monthly_rollups r JOIN categories c ON c.id = r.category_id ORDER BY r.month_start, c.name"))
+            .extracting(row -> row.get("NAME") + " " + row.get("MONTH_START") + " " + row.get("TOTAL") + " " + row.get("EXPENSE_COUNT"))
+            .containsExactly(
+                "Groceries " + OLD_MONTH + " 10.00 8",
+                "Travel " + OLD_MONTH + " 10.00 8",
+                "Groceries " + OLD_MONTH.plusMonths(1) + " 2.50 2",
+                "Travel " + OLD_MONTH.plusMonths(1) + " 2.50 2");
+    }
+    
+    @Test
+    @DisplayName("Should answer reads the same before and after archiving")
+    void reads_AfterArchiving_ShouldIncludeArchivedExpenses() {
+        // Arrange
+        LocalDate start = OLD_MONTH.minusDays(1);
+        LocalDate end = LocalDate.now();
+        List<ExpenseResponse> all = sortedById(expenseService.getAllExpenses());
+        List<ExpenseResponse> range = expenseService.getFilteredExpenses(List.of("Travel"), start, end);
+        List<CategorySummaryResponse> summary = expenseService.getCategorySummary();
+        
+        // Act
+        expenseArchive.archive();
+        
+        // Assert
+        assertThat(sortedById(expenseService.getAllExpenses())).isEqualTo(all);
+        assertThat(expenseService.getFilteredExpenses(List.of("Travel"), start, end))
+            .extracting(ExpenseResponse::getDate)
+            .containsExactlyElementsOf(range.stream().map(ExpenseResponse::getDate).toList());
+        assertThat(expenseService.getCategorySummary()).isEqualTo(summary);
+        assertThat(expenseService.getExpenseById(oldExpenseId).getDate()).isEqualTo(OLD_MONTH);
+        assertThat(expenseArchive.mayHoldExpensesFrom(LocalDate.now().minusMonths(1))).isFalse();
+    }
+    
+    @Test
+    @DisplayName("Should refuse writes to archived expenses as read-only")
+    void writes_ToArchivedExpense_ShouldBeRejectedAsReadOnly() {
+        // Arrange
+        ExpenseResponse old = expenseService.getExpenseById(oldExpenseId);
+        expenseArchive.archive();
+        ExpenseRequest update = new ExpenseRequest();
+        update.setAmount(new BigDecimal("5.00"));
+        update.setCategoryId(jdbcTemplate.queryForObject(
+            "SELECT id FROM categories WHERE name = ?", Long.class, old.getCategory()));
+        update.setDate(old.getDate());
+        update.setVersion(old.getVersion());
+        ExpensePatchRequest patch = new ExpensePatchRequest();
+        patch.setAmount(Optional.of(new BigDecimal("5.00")));
+        patch.setVersion(old.getVersion());
+        
+        // Act & Assert
+        assertThatThrownBy(() -> expenseService.updateExpense(oldExpenseId, update))
+            .isInstanceOf(ReadOnlyResourceException.class)
+            .hasMessage("Expense " + oldExpenseId + " is archived and read-only");
+        assertThatThrownBy(() -> expenseService.patchExpense(oldExpenseId, patch))
+            .isInstanceOf(ReadOnlyResourceException.class);
+        assertThatThrownBy(() -> expenseService.deleteExpense(oldExpenseId))
+            .isInstanceOf(ReadOnlyResourceException.class);
+        assertThatThrownBy(() -> expenseService.deleteExpense(-1L))
+            .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(expenseService.getExpenseById(oldExpenseId).getAmount()).isEqualByComparingTo(old.getAmount());
+    }
+    
+    @Test
+    @DisplayName("Should carry the archive through a dataset snapshot")
+    void snapshot_ShouldRestoreArchiveAndRollups() {
+        // Arrange
+        expenseArchive.archive();
+        List<ExpenseResponse> all = sortedById(expenseService.getAllExpenses());
+        List<CategorySummaryResponse> summary = expenseService.getCategorySummary();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        datasetSnapshotService.export(out);
+        jdbcTemplate.update("DELETE FROM expense_monthly_rollups");
+        
+        // Act
+        datasetSnapshotService.importSnapshot(new ByteArrayInputStream(out.toByteArray()));
+        
+        // Assert
+        assertThat(sortedById(expenseService.getAllExpenses())).isEqualTo(all);
+        assertThat(expenseService.getCategorySummary()).isEqualTo(summary);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expense_events WHERE event_type = 'CREATED'", Long.class))
+            .isEqualTo(23);
+    }
+    
+    private static List<ExpenseResponse> sortedById(List<ExpenseResponse> expenses) {
+        return expenses.stream().sorted((a, b) -> a.getId().compareTo(b.getId())).toList();
+    }
+}
@@ -0,0 +1,123 @@
+package com.expensetracker.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+// Closed-loop load: each virtual user sends its next request only after the previous response arrived,
+// so throughput is whatever the server sustains at the given concurrency and latencies are not inflated
+// by a client-side queue. Requests issued during warmup are sent but not recorded.
+class ClosedLoopLoadGenerator {
+    
+    private final HttpClient client;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final SplittableRandom random;
+    
+    ClosedLoopLoadGenerator(int concurrency, Duration warmup, Duration duration, long seed) {
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.random = new SplittableRandom(seed);
+    }
+    
+    LatencyReport run(String endpoint, Function<SplittableRandom, URI> nextRequest) throws Exception {
+        long measureStart = System.nanoTime() + warmup.toNanos();
+        long measureEnd = measureStart + duration.toNanos();
+        
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<Worker>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                // Split on this thread so every run with the same seed issues the same request mix
+                Worker worker = new Worker(random.split(), nextRequest, measureStart, measureEnd);
+                futures.add(executor.submit(worker::call));
+            }
+            
+            long[] latencies = new long[0];
+            long errors = 0;
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get();
+                latencies = concat(latencies, worker.latencies, worker.count);
+                errors += worker.errors;
+            }
+            return LatencyReport.of(endpoint, latencies, errors, duration);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private static long[] concat(long[] left, long[] right, int rightCount) {
+        long[] merged = Arrays.copyOf(left, left.length + rightCount);
+        System.arraycopy(right, 0, merged, left.length, rightCount);
+        return merged;
+    }
+    
+    private class Worker {
+        
+        private final SplittableRandom random;
+        private final Function<SplittableRandom, URI> nextRequest;
+        private final long measureStart;
+        private final long measureEnd;
+        
+        private long[] latencies = new long[4096];
+        private int count;
+        private long errors;
+        
+        Worker(SplittableRandom random, Function<SplittableRandom, URI> nextRequest, long measureStart, long measureEnd) {
+            this.random = random;
+            this.nextRequest = nextRequest;
+            this.measureStart = measureStart;
+            this.measureEnd = measureEnd;
+        }
+        
+        Worker call() {
+            long now = System.nanoTime();
+            while (now < measureEnd) {
+                HttpRequest request = HttpRequest.newBuilder(nextRequest.apply(random))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+                long start = now;
+                boolean failed;
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    failed = response.statusCode() >= 400;
+                } catch (Exception ex) {
+                    failed = true;
+                }
+                now = System.nanoTime();
+                if (start >= measureStart && now <= measureEnd) {
+                    if (failed) {
+                        errors++;
+                    } else {
+                        record(now - start);
+                    }
+                }
+            }
+            return this;
+        }
+        
+        private void record(long latencyNanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.config.SyntheticDataset;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Opt-in end-to-end latency benchmark: mvn -Pbenchmark test
+// Runs the real application against Postgres (a Testcontainers instance, or an existing local one
+// via -Dbenchmark.jdbc-url) seeded with a synthetic dataset, then drives each endpoint with a
+// closed-loop load generator. Dataset size and load shape are system properties, see README.
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.jpa.hibernate.ddl-auto=update",
+    // One INFO line per request would make the console the bottleneck
+    "logging.level.com.expensetracker=WARN"
+})
+@ActiveProfiles("synthetic")
+class EndpointLatencyBenchmarkTest {
+    
+    private static final int CATEGORIES = Integer.getInteger("benchmark.categories", 20);
+    private static final long EXPENSES = Long.getLong("benchmark.expenses", 1_000_000L);
+    private static final int YEARS = Integer.getInteger("benchmark.years", 3);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 16);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("benchmark.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("benchmark.duration", "PT30S"));
+    private static final long SEED = Long.getLong("benchmark.seed", 42L);
+    
+    private static PostgreSQLContainer<?> postgres;
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        String jdbcUrl = System.getProperty("benchmark.jdbc-url");
+        if (jdbcUrl != null) {
+            registry.add("spring.datasource.url", () -> jdbcUrl);
+            registry.add("spring.datasource.username", () -> System.getProperty("benchmark.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("benchmark.password", "postgres"));
+            return;
+        }
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+    
+    // The synthetic profile seeds the dataset at startup, the same generator capacity tests use
+    @DynamicPropertySource
+    static void dataset(DynamicPropertyRegistry registry) {
+        registry.add("app.synthetic.categories", () -> CATEGORIES);
+        registry.add("app.synthetic.expenses", () -> EXPENSES);
+        registry.add("app.synthetic.years", () -> YEARS);
+        registry.add("app.synthetic.seed", () -> SEED);
+    }
+    
+    @AfterAll
+    static void stopDatabase() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+    
+    @Test
+    @DisplayName("Report latency percentiles and throughput per endpoint")
+    void reportEndpointLatency() throws Exception {
+        List<String> categoryNames = jdbcTemplate.queryForList("SELECT name FROM categories ORDER BY id", String.class);
+        int months = YEARS * 12;
+        SyntheticDataset dataset = new SyntheticDataset(SEED, CATEGORIES, YEARS, LocalDate.now());
+        YearMonth firstMonth = YearMonth.from(dataset.startDate());
+        
+        ClosedLoopLoadGenerator generator = new ClosedLoopLoadGenerator(CONCURRENCY, WARMUP, DURATION, SEED);
+        List<LatencyReport> reports = new ArrayList<>();
+        
+        // A random category and month per request, so the database cache sees the whole dataset
+        reports.add(generator.run("GET /api/expenses/filter", random -> {
+            YearMonth month = firstMonth.plusMonths(random.nextInt(months));
+            return uri("/api/expenses/filter?categories=%s&startDate=%s&endDate=%s",
+                categoryNames.get(random.nextInt(categoryNames.size())).replace(" ", "%20"),
+                month.atDay(1), month.atEndOfMonth());
+        }));
+        reports.add(generator.run("GET /api/budget/status", fixed("/api/budget/status")));
+        reports.add(generator.run("GET /api/expenses/summary/monthly", fixed("/api/expenses/summary/monthly")));
+        reports.add(generator.run("GET /api/expenses/summary/by-category", fixed("/api/expenses/summary/by-category")));
+        
+        printReport(reports);
+        
+        for (LatencyReport report : reports) {
+            assertThat(report.requests()).as("successful requests for %s", report.endpoint()).isPositive();
+            assertThat(report.errors()).as("failed requests for %s", report.endpoint()).isZero();
+        }
+    }
+    
+    private Function<SplittableRandom, URI> fixed(String path) {
+        URI uri = uri(path);
+        return random -> uri;
+    }
+    
+    private URI uri(String pathTemplate, Object... args) {
+        return URI.create("http://localhost:" + port + pathTemplate.formatted(args));
+    }
+    
+    private void printReport(List<LatencyReport> reports) throws IOException {
+        StringBuilder table = new StringBuilder()
+            .append(String.format("%nEndpoint latency: %d expenses, %d categories, concurrency %d, %s measured after %s warmup%n",
+                EXPENSES, CATEGORIES, CONCURRENCY, DURATION, WARMUP))
+            .append(LatencyReport.HEADER).append(System.lineSeparator());
+        List<String> csv = new ArrayList<>(List.of(LatencyReport.CSV_HEADER));
+        for (LatencyReport report : reports) {
+            table.append(report.toRow()).append(System.lineSeparator());
+            csv.add(report.toCsv());
+        }
+        System.out.println(table);
+        
+        Path output = Path.of("target", "benchmark", "endpoint-latency-" + LocalDate.now() + ".csv");
+        Files.createDirectories(output.getParent());
+        Files.write(output, csv);
+    }
+}
@@ -0,0 +1,47 @@
+package com.expensetracker.benchmark;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+
+// Latencies are in milliseconds; throughput counts successful requests only
+record LatencyReport(String endpoint, long requests, long errors, double throughput,
+                     double p50, double p99, double p999, double max) {
+    
+    static final String HEADER = String.format(Locale.ROOT, "%-36s %10s %8s %10s %10s %10s %10s %10s",
+        "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+    
+    static final String CSV_HEADER = "endpoint,requests,errors,throughput,p50_ms,p99_ms,p999_ms,max_ms";
+    
+    static LatencyReport of(String endpoint, long[] latencyNanos, long errors, Duration duration) {
+        long[] sorted = latencyNanos.clone();
+        Arrays.sort(sorted);
+        return new LatencyReport(endpoint, sorted.length, errors,
+            sorted.length / (duration.toNanos() / 1e9),
+            percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+            sorted.length == 0 ? 0 : toMillis(sorted[sorted.length - 1]));
+    }
+    
+    // Nearest-rank percentile, so p99.9 of fewer than 1000 samples is simply the maximum
+    static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return toMillis(sorted[Math.max(rank, 1) - 1]);
+    }
+    
+    String toRow() {
+        return String.format(Locale.ROOT, "%-36s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f",
+            endpoint, requests, errors, throughput, p50, p99, p999, max);
+    }
+    
+    String toCsv() {
+        return String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f",
+            endpoint, requests, errors, throughput, p50, p99, p999, max);
+    }
+    
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,126 @@
+package com.expensetracker.config;
+
+import com.expensetracker.repository.SecondLevelCache;
+import com.expensetracker.service.ExpenseService;
+import com.zaxxer.hikari.HikariDataSource;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.datasource.url=jdbc:h2:mem:bulkheadreplica",
+    "app.projections.poll-interval=PT1H",
+    "app.bulkheads.enabled=true",
+    "app.bulkheads.reporting.hikari.maximum-pool-size=2",
+    "app.datasource.replica.enabled=true",
+    "app.datasource.replica.url=jdbc:h2:mem:bulkheadreplica",
+    "app.datasource.replica.username=sa",
+    "app.datasource.replica.password="
+})
+@ActiveProfiles("test")
+@Import(BulkheadReplicaRoutingTest.DataSourceRecorder.class)
+@DisplayName("Reporting Bulkhead Replica Routing Tests")
+class BulkheadReplicaRoutingTest {
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+    
+    @Autowired
+    private DataSourceRecorder dataSourceRecorder;
+    
+    @BeforeEach
+    void setUp() {
+        secondLevelCache.evictAll();
+        dataSourceRecorder.names.clear();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        ReadConsistencyContext.clear();
+    }
+    
+    @Test
+    @DisplayName("Should give the reporting bulkhead a pool on the replica as well as on the primary")
+    void reportingPools_ShouldCoverPrimaryAndReplica() throws SQLException {
+        BulkheadRoutingDataSource routing = dataSource.unwrap(BulkheadRoutingDataSource.class);
+        
+        assertThat(routing.getReportingPools())
+            .extracting(HikariDataSource::getPoolName)
+            .containsExactly("reporting", "reporting-replica");
+        assertThat(routing.getReportingPools())
+            .allSatisfy(pool -> assertThat(pool.getMaximumPoolSize()).isEqualTo(2));
+    }
+    
+    @Test
+    @DisplayName("Should run read-only reports on the replica's reporting pool")
+    void report_ShouldReadTheReplica() {
+        // Act
+        expenseService.getCategorySummary();
+        
+        // Assert
+        assertThat(dataSourceRecorder.names).contains("reportingReplicaDataSource")
+            .doesNotContain("reportingDataSource", "replicaDataSource");
+    }
+    
+    @Test
+    @DisplayName("Should run reports on the primary's reporting pool when the request must see its own writes")
+    void report_WhenPrimaryRequired_ShouldReadThePrimary() {
+        // Arrange
+        ReadConsistencyContext.setPrimaryRequired(true);
+        
+        // Act
+        expenseService.getCategorySummary();
+        
+        // Assert
+        assertThat(dataSourceRecorder.names).contains("reportingDataSource")
+            .doesNotContain("reportingReplicaDataSource");
+    }
+    
+    @TestConfiguration
+    static class DataSourceRecorder {
+        
+        final Set<String> names = ConcurrentHashMap.newKeySet();
+        
+        @Bean
+        QueryExecutionListener dataSourceRecordingListener() {
+            return new QueryExecutionListener() {
+                @Override
+                public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                }
+                
+                @Override
+                public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                    // Only the report's own statements, not background jobs on other threads
+                    if (Thread.currentThread().getName().startsWith("reporting-bulkhead-")) {
+                        names.add(execInfo.getDataSourceName());
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.expensetracker.config;
+
+import com.expensetracker.exception.ResourceNotFoundException;
+import com.expensetracker.service.ExpenseService;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.datasource.url=jdbc:h2:mem:bulkheads",
+    "app.projections.poll-interval=PT1H",
+    "app.bulkheads.enabled=true",
+    "app.bulkheads.interactive.statement-timeout=3s",
+    "app.bulkheads.reporting.statement-timeout=7s",
+    "app.bulkheads.reporting.hikari.maximum-pool-size=2"
+})
+@ActiveProfiles("test")
+@Import(BulkheadRoutingDataSourceTest.TimeoutRecorder.class)
+@DisplayName("BulkheadRoutingDataSource Tests")
+class BulkheadRoutingDataSourceTest {
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private TimeoutRecorder timeoutRecorder;
+    
+    @Test
+    @DisplayName("Should run reports on the reporting pool and CRUD on the application pool, each with its timeout")
+    void bulkheadMethods_ShouldUseTheirOwnPoolAndTimeout() throws SQLException {
+        // Act
+        expenseService.getCategorySummary();
+        assertThatThrownBy(() -> expenseService.getExpenseById(-1L)).isInstanceOf(ResourceNotFoundException.class);
+        
+        // Assert
+        BulkheadRoutingDataSource routing = dataSource.unwrap(BulkheadRoutingDataSource.class);
+        assertThat(routing.getReportingPool().getMaximumPoolSize()).isEqualTo(2);
+        assertThat(routing.getReportingPool().getHikariPoolMXBean()).isNotNull();
+        assertThat(timeoutRecorder.lastTimeouts).containsEntry("reportingDataSource", 7).containsEntry("dataSource", 3);
+    }
+    
+    @TestConfiguration
+    static class TimeoutRecorder {
+        
+        final Map<String, Integer> lastTimeouts = new ConcurrentHashMap<>();
+        
+        @Bean
+        QueryExecutionListener timeoutRecordingListener() {
+            return new QueryExecutionListener() {
+                @Override
+                public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                }
+                
+                @Override
+                public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                    // Background jobs run outside any bulkhead, without a timeout
+                    try {
+                        int timeout = execInfo.getStatement().getQueryTimeout();
+                        if (timeout > 0) {
+                            lastTimeouts.put(execInfo.getDataSourceName(), timeout);
+                        }
+                    } catch (SQLException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+            };
+        }
+    }
+}
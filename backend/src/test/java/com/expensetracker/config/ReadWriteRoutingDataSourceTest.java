@@ -0,0 +1,100 @@
+package com.expensetracker.config;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ReadWriteRoutingDataSource Tests")
+class ReadWriteRoutingDataSourceTest {
+    
+    private final ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource();
+    
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadConsistencyContext.clear();
+    }
+    
+    @Test
+    @DisplayName("Should route read-only transactions to the replica")
+    void determineCurrentLookupKey_WhenReadOnly_ShouldRouteToReplica() {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        // Act & Assert
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.Route.REPLICA);
+    }
+    
+    @Test
+    @DisplayName("Should route writes and non-transactional work to the primary")
+    void determineCurrentLookupKey_WhenNotReadOnly_ShouldRouteToPrimary() {
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.Route.PRIMARY);
+    }
+    
+    @Test
+    @DisplayName("Should route read-only transactions to the primary when read-your-writes is required")
+    void determineCurrentLookupKey_WhenPrimaryRequired_ShouldRouteToPrimary() {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReadConsistencyContext.setPrimaryRequired(true);
+        
+        // Act & Assert
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.Route.PRIMARY);
+    }
+    
+    @Test
+    @DisplayName("Should require the primary only for requests inside the read-your-writes window")
+    void readConsistencyFilter_ShouldApplyWindowToLastWriteAge() throws Exception {
+        ReadConsistencyFilter filter = new ReadConsistencyFilter(Duration.ofSeconds(5));
+        
+        assertThat(primaryRequiredDuring(filter, "1200")).isTrue();
+        assertThat(primaryRequiredDuring(filter, "60000")).isFalse();
+        assertThat(primaryRequiredDuring(filter, null)).isFalse();
+        assertThat(primaryRequiredDuring(filter, "garbled")).isTrue();
+        assertThat(ReadConsistencyContext.isPrimaryRequired()).isFalse();
+    }
+    
+    @Test
+    @DisplayName("Should carry the read-your-writes hint onto worker threads")
+    void propagate_ShouldCopyHintToWorkerThread() throws Exception {
+        // Arrange
+        ReadConsistencyContext.setPrimaryRequired(true);
+        AtomicBoolean seenOnWorker = new AtomicBoolean();
+        Runnable task = ReadConsistencyContext.propagate(() -> seenOnWorker.set(ReadConsistencyContext.isPrimaryRequired()));
+        
+        // Act
+        Thread worker = new Thread(task);
+        worker.start();
+        worker.join();
+        
+        // Assert
+        assertThat(seenOnWorker).isTrue();
+    }
+    
+    private boolean primaryRequiredDuring(ReadConsistencyFilter filter, String lastWriteAge) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/expenses");
+        if (lastWriteAge != null) {
+            request.addHeader(ReadConsistencyFilter.LAST_WRITE_AGE_HEADER, lastWriteAge);
+        }
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                primaryRequired.set(ReadConsistencyContext.isPrimaryRequired());
+            }
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return primaryRequired.get();
+    }
+}
@@ -0,0 +1,154 @@
+package com.expensetracker.config;
+
+import com.expensetracker.dto.ExpenseRequest;
+import com.expensetracker.service.DashboardService;
+import com.expensetracker.service.ExpenseService;
+import com.expensetracker.snapshot.DatasetSnapshotService;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Primary and replica point at the same in-memory database; the statements show which pool ran them
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.datasource.url=jdbc:h2:mem:replicas",
+    "app.projections.poll-interval=PT1H",
+    "app.datasource.replica.enabled=true",
+    "app.datasource.replica.url=jdbc:h2:mem:replicas",
+    "app.datasource.replica.username=sa",
+    "app.datasource.replica.password="
+})
+@ActiveProfiles("test")
+@Import(ReplicaRoutingConfigTest.StatementRecorder.class)
+@DisplayName("ReplicaRoutingConfig Tests")
+class ReplicaRoutingConfigTest {
+    
+    private static final String PRIMARY = "primaryDataSource";
+    private static final String REPLICA = "replicaDataSource";
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @Autowired
+    private DatasetSnapshotService datasetSnapshotService;
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private StatementRecorder statementRecorder;
+    
+    private Long categoryId;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO categories (name, is_default, created_at, version) "
+            + "VALUES ('Groceries', true, CURRENT_TIMESTAMP, 0)");
+        categoryId = jdbcTemplate.queryForObject("SELECT id FROM categories", Long.class);
+        jdbcTemplate.update("INSERT INTO expenses (amount, category_id, date, created_at, version) "
+            + "VALUES (12.50, ?, CURRENT_DATE, CURRENT_TIMESTAMP, 0)", categoryId);
+        statementRecorder.statements.clear();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM expense_events");
+        jdbcTemplate.update("DELETE FROM expenses");
+        jdbcTemplate.update("DELETE FROM categories");
+    }
+    
+    @Test
+    @DisplayName("Should run the consistent dashboard snapshot on the replica under repeatable read")
+    void getDashboardSnapshot_ShouldReadTheReplicaUnderRepeatableRead() {
+        // Act
+        int expenses = dashboardService.getDashboardSnapshot(null, null, null).getExpenses().size();
+        
+        // Assert
+        assertThat(expenses).isEqualTo(1);
+        assertThat(statementRecorder.onThisThread()).isNotEmpty()
+            .allMatch(statement -> statement.equals(REPLICA + "/" + Connection.TRANSACTION_REPEATABLE_READ));
+    }
+    
+    @Test
+    @DisplayName("Should export a snapshot from the replica under repeatable read")
+    void export_ShouldReadTheReplicaUnderRepeatableRead() {
+        // Act
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        datasetSnapshotService.export(out);
+        
+        // Assert
+        assertThat(out.size()).isPositive();
+        assertThat(statementRecorder.onThisThread()).isNotEmpty()
+            .allMatch(statement -> statement.equals(REPLICA + "/" + Connection.TRANSACTION_REPEATABLE_READ));
+    }
+    
+    @Test
+    @DisplayName("Should send a write that follows a read to the primary")
+    void createExpense_AfterARead_ShouldWriteToThePrimary() {
+        // Arrange
+        dashboardService.getDashboardSnapshot(null, null, null);
+        statementRecorder.statements.clear();
+        
+        // Act
+        expenseService.createExpense(new ExpenseRequest(new BigDecimal("3.00"), categoryId, LocalDate.now(), null, null));
+        
+        // Assert
+        assertThat(statementRecorder.onThisThread()).isNotEmpty().allMatch(statement -> statement.startsWith(PRIMARY + "/"));
+    }
+    
+    @TestConfiguration
+    static class StatementRecorder {
+        
+        // Pool and isolation level of every statement, with the thread that ran it
+        final Queue<String[]> statements = new ConcurrentLinkedQueue<>();
+        
+        List<String> onThisThread() {
+            String thread = Thread.currentThread().getName();
+            return statements.stream().filter(statement -> statement[0].equals(thread)).map(statement -> statement[1]).toList();
+        }
+        
+        @Bean
+        QueryExecutionListener routeRecordingListener() {
+            return new QueryExecutionListener() {
+                @Override
+                public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                    try {
+                        int isolation = execInfo.getStatement().getConnection().getTransactionIsolation();
+                        statements.add(new String[] {Thread.currentThread().getName(), execInfo.getDataSourceName() + "/" + isolation});
+                    } catch (SQLException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+                
+                @Override
+                public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                }
+            };
+        }
+    }
+}
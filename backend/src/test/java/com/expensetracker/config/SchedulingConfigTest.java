@@ -0,0 +1,67 @@
+package com.expensetracker.config;
+
+import com.expensetracker.model.TableVersion.TrackedTable;
+import com.expensetracker.service.SummaryStreamService;
+import com.expensetracker.service.TableVersionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.datasource.url=jdbc:h2:mem:scheduling",
+    "app.projections.poll-interval=PT1H",
+    "app.stream.coalesce-window=PT0.05S"
+})
+@ActiveProfiles("test")
+@DisplayName("Scheduling Config Tests")
+class SchedulingConfigTest {
+    
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+    
+    @Autowired
+    private SummaryStreamService summaryStreamService;
+    
+    @SpyBean
+    private TableVersionService tableVersionService;
+    
+    @Test
+    @DisplayName("Should size the shared scheduler from spring.task.scheduling")
+    void taskScheduler_ShouldUseConfiguredPoolSize() {
+        assertThat(taskScheduler.getPoolSize()).isEqualTo(4);
+        assertThat(taskScheduler.getThreadNamePrefix()).isEqualTo("scheduling-");
+    }
+    
+    @Test
+    @DisplayName("Should flush the summary stream on its own scheduler")
+    void flush_ShouldRunOnSummaryStreamScheduler() {
+        // Arrange
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return invocation.callRealMethod();
+        }).when(tableVersionService).etag(any(YearMonth.class), any(TrackedTable[].class));
+        
+        // Act
+        SseEmitter emitter = summaryStreamService.subscribe();
+        
+        // Assert
+        verify(tableVersionService, timeout(5000).atLeastOnce()).etag(any(YearMonth.class), any(TrackedTable[].class));
+        emitter.complete();
+        assertThat(threads).isNotEmpty().allSatisfy(name -> assertThat(name).startsWith("summary-stream-"));
+    }
+}
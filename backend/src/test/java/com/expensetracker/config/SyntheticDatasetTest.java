@@ -0,0 +1,103 @@
+package com.expensetracker.config;
+
+import com.expensetracker.config.SyntheticDataset.ExpenseRow;
+import com.expensetracker.config.SyntheticDataset.RecurringRow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SyntheticDataset Tests")
+class SyntheticDatasetTest {
+    
+    private static final LocalDate END = LocalDate.of(2025, 6, 30);
+    
+    @Test
+    @DisplayName("Should generate identical rows for the same seed")
+    void nextExpense_SameSeed_ShouldBeDeterministic() {
+        // Arrange
+        SyntheticDataset first = new SyntheticDataset(7, 20, 2, END);
+        SyntheticDataset second = new SyntheticDataset(7, 20, 2, END);
+        
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            assertThat(first.nextExpense()).isEqualTo(second.nextExpense());
+        }
+        assertThat(first.nextRecurring()).isEqualTo(second.nextRecurring());
+    }
+    
+    @Test
+    @DisplayName("Should generate different rows for different seeds")
+    void nextExpense_DifferentSeed_ShouldDiffer() {
+        // Arrange
+        SyntheticDataset first = new SyntheticDataset(1, 20, 2, END);
+        SyntheticDataset second = new SyntheticDataset(2, 20, 2, END);
+        
+        // Act & Assert
+        assertThat(first.nextExpense()).isNotEqualTo(second.nextExpense());
+    }
+    
+    @Test
+    @DisplayName("Should keep amounts and dates valid and favour the first categories")
+    void nextExpense_ShouldRespectRangesAndSkew() {
+        // Arrange
+        SyntheticDataset dataset = new SyntheticDataset(42, 10, 3, END);
+        int[] perCategory = new int[10];
+        
+        // Act
+        for (int i = 0; i < 20_000; i++) {
+            ExpenseRow row = dataset.nextExpense();
+            perCategory[row.categoryIndex()]++;
+            
+            // Assert
+            assertThat(row.amount()).isGreaterThanOrEqualTo(new BigDecimal("0.01"));
+            assertThat(row.amount().scale()).isEqualTo(2);
+            assertThat(row.date()).isBetween(dataset.startDate(), END);
+            assertThat(row.createdAt().toLocalDate()).isEqualTo(row.date());
+        }
+        assertThat(perCategory[0]).isGreaterThan(perCategory[4] * 3);
+        assertThat(perCategory[9]).isPositive();
+    }
+    
+    @Test
+    @DisplayName("Should schedule recurring expenses after the end date unless they have finished")
+    void nextRecurring_ShouldScheduleNextOccurrenceAfterEndDate() {
+        // Arrange
+        SyntheticDataset dataset = new SyntheticDataset(42, 10, 3, END);
+        
+        // Act & Assert
+        for (int i = 0; i < 500; i++) {
+            RecurringRow row = dataset.nextRecurring();
+            assertThat(row.nextOccurrence()).isAfter(END);
+            assertThat(row.startDate()).isBetween(dataset.startDate(), END);
+            if (row.endDate() == null) {
+                assertThat(row.active()).isTrue();
+            } else {
+                assertThat(row.active()).isEqualTo(!row.endDate().isBefore(row.nextOccurrence()));
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Should start with the default categories and number the rest")
+    void categoryNames_ShouldStartWithDefaults() {
+        // Act
+        SyntheticDataset dataset = new SyntheticDataset(42, 25, 1, END);
+        
+        // Assert
+        assertThat(dataset.categoryNames()).hasSize(25).doesNotHaveDuplicates();
+        assertThat(dataset.categoryNames()).startsWith("Groceries", "Transportation", "Entertainment", "Utilities", "Other");
+        assertThat(dataset.categoryNames().get(24)).isEqualTo("Category 25");
+    }
+    
+    @Test
+    @DisplayName("Should reject a dataset without categories")
+    void constructor_WithoutCategories_ShouldThrow() {
+        assertThatThrownBy(() -> new SyntheticDataset(42, 0, 1, END))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
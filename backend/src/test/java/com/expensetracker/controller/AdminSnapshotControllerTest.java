@@ -0,0 +1,84 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.dto.SnapshotImportResponse;
+import com.expensetracker.exception.SnapshotImportException;
+import com.expensetracker.snapshot.DatasetSnapshotService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = AdminSnapshotController.class, properties = "app.admin.enabled=true")
+@DisplayName("AdminSnapshotController Tests")
+class AdminSnapshotControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private DatasetSnapshotService datasetSnapshotService;
+    
+    @Test
+    @DisplayName("GET /api/admin/snapshot - Should stream the snapshot as a download")
+    void exportSnapshot_ShouldStreamFile() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write(new byte[] {1, 2, 3});
+            return null;
+        }).when(datasetSnapshotService).export(any(OutputStream.class));
+        
+        MvcResult result = mockMvc.perform(get("/api/admin/snapshot"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Disposition", containsString("attachment; filename=\"expenses-")))
+            .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+            .andExpect(content().bytes(new byte[] {1, 2, 3}));
+    }
+    
+    @Test
+    @DisplayName("PUT /api/admin/snapshot - Should report the rows loaded per table")
+    void importSnapshot_ShouldReturnCounts() throws Exception {
+        Map<String, Long> rows = new LinkedHashMap<>();
+        rows.put("categories", 2L);
+        rows.put("expenses", 1000L);
+        when(datasetSnapshotService.importSnapshot(any(InputStream.class)))
+            .thenReturn(new SnapshotImportResponse(rows, 42L));
+        
+        mockMvc.perform(put("/api/admin/snapshot")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(new byte[] {1, 2, 3}))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows.expenses").value(1000))
+            .andExpect(jsonPath("$.elapsedMillis").value(42));
+    }
+    
+    @Test
+    @DisplayName("PUT /api/admin/snapshot - Should return 400 for a file that is not a snapshot")
+    void importSnapshot_WhenNotASnapshot_ShouldReturnBadRequest() throws Exception {
+        when(datasetSnapshotService.importSnapshot(any(InputStream.class)))
+            .thenThrow(new SnapshotImportException("Not a dataset snapshot, or one from an unsupported version"));
+        
+        mockMvc.perform(put("/api/admin/snapshot")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content("id,amount\n".getBytes()))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Not a dataset snapshot, or one from an unsupported version"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.support.StatementBudgetTest;
+import com.expensetracker.support.StatementCounter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@StatementBudgetTest
+@DisplayName("BudgetController SQL Statement Budget Tests")
+class BudgetControllerStatementBudgetTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private StatementCounter statementCounter;
+    
+    @Test
+    @DisplayName("GET /api/budget - Should stay within budget")
+    void getBudget_ShouldStayWithinBudget() throws Exception {
+        // ETag version and the latest budget
+        statementCounter.assertStatementBudget(2, () ->
+            mockMvc.perform(get("/api/budget"))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("GET /api/budget - Should be served from the query cache once warm")
+    void getBudget_WhenCached_ShouldOnlyReadETag() throws Exception {
+        mockMvc.perform(get("/api/budget")).andExpect(status().isOk());
+        
+        // ETag version only
+        statementCounter.assertStatementBudget(1, () ->
+            mockMvc.perform(get("/api/budget"))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("POST /api/budget - Should stay within budget")
+    void setBudget_ShouldStayWithinBudget() throws Exception {
+        // Latest budget, version bump, update
+        statementCounter.assertStatementBudget(3, () ->
+            mockMvc.perform(post("/api/budget")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"monthlyLimit\": 750.00}"))
+                .andExpect(status().isCreated()));
+    }
+    
+    @Test
+    @DisplayName("GET /api/budget/status - Should stay within budget")
+    void getBudgetStatus_ShouldStayWithinBudget() throws Exception {
+        // ETag versions, the budget and the month sum
+        statementCounter.assertStatementBudget(3, () ->
+            mockMvc.perform(get("/api/budget/status"))
+                .andExpect(status().isOk()));
+    }
+}
@@ -3,7 +3,9 @@ package com.expensetracker.controller;
 import com.expensetracker.dto.BudgetRequest;
 import com.expensetracker.dto.BudgetResponse;
 import com.expensetracker.dto.BudgetStatusResponse;
+import com.expensetracker.model.TableVersion.TrackedTable;
 import com.expensetracker.service.BudgetService;
+import com.expensetracker.service.TableVersionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -34,6 +36,9 @@ class BudgetControllerTest {
     @MockBean
     private BudgetService budgetService;
     
+    @MockBean
+    private TableVersionService tableVersionService;
+    
     private BudgetResponse testBudgetResponse;
     private BudgetRequest testBudgetRequest;
     
@@ -99,4 +104,15 @@ class BudgetControllerTest {
         
         verify(budgetService, times(1)).getBudgetStatus();
     }
+    
+    @Test
+    @DisplayName("GET /api/budget - Should return 304 without querying when ETag matches")
+    void getBudget_WhenETagMatches_ShouldReturnNotModified() throws Exception {
+        when(tableVersionService.etag(TrackedTable.BUDGETS)).thenReturn("\"4\"");
+        
+        mockMvc.perform(get("/api/budget").header("If-None-Match", "\"4\""))
+                .andExpect(status().isNotModified());
+        
+        verify(budgetService, never()).getBudget();
+    }
 }
@@ -0,0 +1,122 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.config.SecondLevelCacheConfig;
+import com.expensetracker.support.StatementBudgetTest;
+import com.expensetracker.support.StatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@StatementBudgetTest
+@DisplayName("CategoryController SQL Statement Budget Tests")
+class CategoryControllerStatementBudgetTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private StatementCounter statementCounter;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Long categoryId;
+    private Long unusedCategoryId;
+    private Long unusedCategoryVersion;
+    
+    @BeforeEach
+    void setUp() {
+        categoryId = jdbcTemplate.queryForObject("SELECT id FROM categories WHERE name = 'Groceries'", Long.class);
+        unusedCategoryId = jdbcTemplate.queryForObject("SELECT id FROM categories WHERE name = 'Hobbies'", Long.class);
+        unusedCategoryVersion = jdbcTemplate.queryForObject("SELECT version FROM categories WHERE id = ?", Long.class, unusedCategoryId);
+    }
+    
+    @Test
+    @DisplayName("GET /api/categories - Should stay within budget")
+    void getAllCategories_ShouldStayWithinBudget() throws Exception {
+        // ETag version and the categories
+        statementCounter.assertStatementBudget(2, () ->
+            mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("GET /api/categories - Should be served from the query cache once warm")
+    void getAllCategories_WhenCached_ShouldOnlyReadETag() throws Exception {
+        mockMvc.perform(get("/api/categories")).andExpect(status().isOk());
+        
+        // ETag version only
+        statementCounter.assertStatementBudget(1, () ->
+            mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk()));
+        assertThat(meterRegistry.get("cache.gets")
+            .tags("cache", SecondLevelCacheConfig.CATEGORY_QUERIES, "result", "hit").functionCounter().count()).isPositive();
+    }
+    
+    @Test
+    @DisplayName("PUT /api/categories/{id} - Should evict the cached category list")
+    void updateCategory_ShouldEvictCachedCategories() throws Exception {
+        mockMvc.perform(get("/api/categories")).andExpect(status().isOk());
+        mockMvc.perform(put("/api/categories/{id}", unusedCategoryId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Crafts\", \"description\": \"Weekend projects\", \"version\": %d}".formatted(unusedCategoryVersion)))
+            .andExpect(status().isOk());
+        
+        mockMvc.perform(get("/api/categories"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@.name == 'Crafts')].description").value("Weekend projects"))
+            .andExpect(jsonPath("$[?(@.name == 'Hobbies')]").isEmpty());
+    }
+    
+    @Test
+    @DisplayName("GET /api/categories/{id} - Should stay within budget")
+    void getCategoryById_ShouldStayWithinBudget() throws Exception {
+        // ETag version and the category
+        statementCounter.assertStatementBudget(2, () ->
+            mockMvc.perform(get("/api/categories/{id}", categoryId))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("POST /api/categories - Should stay within budget")
+    void createCategory_ShouldStayWithinBudget() throws Exception {
+        // Duplicate name check, insert, version bump
+        statementCounter.assertStatementBudget(3, () ->
+            mockMvc.perform(post("/api/categories")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\": \"Travel\", \"description\": \"Trips\"}"))
+                .andExpect(status().isCreated()));
+    }
+    
+    @Test
+    @DisplayName("PUT /api/categories/{id} - Should stay within budget")
+    void updateCategory_ShouldStayWithinBudget() throws Exception {
+        // One guarded update returning the row, then the version bump
+        statementCounter.assertStatementBudget(2, () ->
+            mockMvc.perform(put("/api/categories/{id}", unusedCategoryId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\": \"Hobbies\", \"description\": \"Weekend projects\", \"version\": %d}".formatted(unusedCategoryVersion)))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("DELETE /api/categories/{id} - Should stay within budget")
+    void deleteCategory_ShouldStayWithinBudget() throws Exception {
+        // One guarded delete, then the version bump
+        statementCounter.assertStatementBudget(2, () ->
+            mockMvc.perform(delete("/api/categories/{id}", unusedCategoryId))
+                .andExpect(status().isNoContent()));
+    }
+}
@@ -2,7 +2,9 @@ package com.expensetracker.controller;
 
 import com.expensetracker.dto.CategoryRequest;
 import com.expensetracker.dto.CategoryResponse;
+import com.expensetracker.model.TableVersion.TrackedTable;
 import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.TableVersionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -34,6 +36,9 @@ class CategoryControllerTest {
     @MockBean
     private CategoryService categoryService;
     
+    @MockBean
+    private TableVersionService tableVersionService;
+    
     private CategoryResponse testCategoryResponse;
     private CategoryRequest testCategoryRequest;
     
@@ -117,4 +122,15 @@ class CategoryControllerTest {
         
         verify(categoryService, times(1)).deleteCategory(1L);
     }
+    
+    @Test
+    @DisplayName("GET /api/categories - Should return 304 without querying when ETag matches")
+    void getAllCategories_WhenETagMatches_ShouldReturnNotModified() throws Exception {
+        when(tableVersionService.etag(TrackedTable.CATEGORIES)).thenReturn("\"7\"");
+        
+        mockMvc.perform(get("/api/categories").header("If-None-Match", "\"7\""))
+                .andExpect(status().isNotModified());
+        
+        verify(categoryService, never()).getAllCategories();
+    }
 }
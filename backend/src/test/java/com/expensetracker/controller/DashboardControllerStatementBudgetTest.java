@@ -0,0 +1,42 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.support.StatementBudgetTest;
+import com.expensetracker.support.StatementCounter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@StatementBudgetTest
+@DisplayName("DashboardController SQL Statement Budget Tests")
+class DashboardControllerStatementBudgetTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private StatementCounter statementCounter;
+    
+    @Test
+    @DisplayName("GET /api/dashboard - Should stay within budget")
+    void getDashboard_ShouldStayWithinBudget() throws Exception {
+        // ETag versions plus every section; filtered expenses and recurring expenses load categories lazily
+        statementCounter.assertStatementBudget(13, () ->
+            mockMvc.perform(get("/api/dashboard")
+                    .param("categories", "Groceries", "Utilities"))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("GET /api/dashboard?consistent=true - Should stay within budget")
+    void getConsistentDashboard_ShouldStayWithinBudget() throws Exception {
+        // ETag versions plus every section read in one transaction
+        statementCounter.assertStatementBudget(11, () ->
+            mockMvc.perform(get("/api/dashboard")
+                    .param("consistent", "true"))
+                .andExpect(status().isOk()));
+    }
+}
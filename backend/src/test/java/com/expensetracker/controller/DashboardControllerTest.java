@@ -0,0 +1,91 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.dto.*;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import com.expensetracker.service.DashboardService;
+import com.expensetracker.service.TableVersionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DashboardController.class)
+@DisplayName("DashboardController Tests")
+class DashboardControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private DashboardService dashboardService;
+    
+    @MockBean
+    private TableVersionService tableVersionService;
+    
+    private DashboardResponse testDashboard;
+    
+    @BeforeEach
+    void setUp() {
+        ExpenseResponse expense = new ExpenseResponse();
+        expense.setId(1L);
+        expense.setAmount(new BigDecimal("50.00"));
+        expense.setCategory("Groceries");
+        expense.setDate(LocalDate.now());
+        
+        testDashboard = new DashboardResponse(
+            Arrays.asList(expense),
+            Arrays.asList(new CategorySummaryResponse("Groceries", new BigDecimal("50.00"))),
+            new MonthlySummaryResponse(new BigDecimal("50.00"), 10, 2025),
+            null,
+            Collections.emptyList(),
+            Collections.emptyList()
+        );
+    }
+    
+    @Test
+    @DisplayName("GET /api/dashboard - Should return composed dashboard")
+    void getDashboard_ShouldReturnDashboard() throws Exception {
+        when(dashboardService.getDashboard(any(), any(), any())).thenReturn(testDashboard);
+        
+        mockMvc.perform(get("/api/dashboard")
+                        .param("categories", "Groceries")
+                        .param("startDate", "2025-01-01")
+                        .param("endDate", "2025-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.expenses[0].id").value(1))
+                .andExpect(jsonPath("$.categorySummary[0].category").value("Groceries"))
+                .andExpect(jsonPath("$.monthlySummary.total").value(50.00))
+                .andExpect(jsonPath("$.budgetStatus").doesNotExist());
+        
+        verify(dashboardService, times(1)).getDashboard(
+            eq(Arrays.asList("Groceries")), eq(LocalDate.of(2025, 1, 1)), eq(LocalDate.of(2025, 12, 31)));
+        verify(dashboardService, never()).getDashboardSnapshot(any(), any(), any());
+    }
+    
+    @Test
+    @DisplayName("GET /api/dashboard?consistent=true - Should use a single snapshot")
+    void getDashboard_WhenConsistent_ShouldUseSnapshot() throws Exception {
+        when(dashboardService.getDashboardSnapshot(any(), any(), any())).thenReturn(testDashboard);
+        
+        mockMvc.perform(get("/api/dashboard").param("consistent", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.expenses[0].id").value(1));
+        
+        verify(dashboardService, times(1)).getDashboardSnapshot(null, null, null);
+        verify(dashboardService, never()).getDashboard(any(), any(), any());
+    }
+}
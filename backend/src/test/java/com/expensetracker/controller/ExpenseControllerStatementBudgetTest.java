@@ -0,0 +1,152 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.support.StatementBudgetTest;
+import com.expensetracker.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@StatementBudgetTest
+@DisplayName("ExpenseController SQL Statement Budget Tests")
+class ExpenseControllerStatementBudgetTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private StatementCounter statementCounter;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long expenseId;
+    private Long expenseVersion;
+    private Long categoryId;
+    
+    @BeforeEach
+    void setUp() {
+        expenseId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM expenses", Long.class);
+        expenseVersion = jdbcTemplate.queryForObject("SELECT version FROM expenses WHERE id = ?", Long.class, expenseId);
+        categoryId = jdbcTemplate.queryForObject("SELECT id FROM categories WHERE name = 'Groceries'", Long.class);
+    }
+    
+    @Test
+    @DisplayName("GET /api/expenses - Should stay within budget")
+    void getAllExpenses_ShouldStayWithinBudget() throws Exception {
+        // ETag versions, the expenses, then one lazy category load per distinct category (three here)
+        statementCounter.assertStatementBudget(5, () ->
+            mockMvc.perform(get("/api/expenses"))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("GET /api/expenses/filter - Should stay within budget")
+    void filterExpenses_ShouldStayWithinBudget() throws Exception {
+        // ETag versions, the filtered expenses, one lazy load per matching category
+        statementCounter.assertStatementBudget(4, () ->
+            mockMvc.perform(get("/api/expenses/filter")
+                    .param("categories", "Groceries", "Utilities")
+                    .param("startDate", LocalDate.now().minusDays(30).toString())
+                    .param("endDate", LocalDate.now().toString()))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("GET /api/expenses/changes - Should stay within budget")
+    void getChanges_ShouldStayWithinBudget() throws Exception {
+        // Full sync: the expenses plus one lazy load per distinct category
+        statementCounter.assertStatementBudget(4, () ->
+            mockMvc.perform(get("/api/expenses/changes"))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("GET /api/expenses/{id} - Should stay within budget")
+    void getExpenseById_ShouldStayWithinBudget() throws Exception {
+        // ETag versions and the expense fetched with its category
+        statementCounter.assertStatementBudget(2, () ->
+            mockMvc.perform(get("/api/expenses/{id}", expenseId))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("POST /api/expenses - Should stay within budget")
+    void createExpense_ShouldStayWithinBudget() throws Exception {
+        // Category lookup, insert, version bump, outbox event
+        statementCounter.assertStatementBudget(4, () ->
+            mockMvc.perform(post("/api/expenses")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(expenseJson("42.50")))
+                .andExpect(status().isCreated()));
+    }
+    
+    @Test
+    @DisplayName("PUT /api/expenses/{id} - Should stay within budget")
+    void updateExpense_ShouldStayWithinBudget() throws Exception {
+        // One update that also returns the previous date, then the version bump and the outbox event
+        statementCounter.assertStatementBudget(3, () ->
+            mockMvc.perform(put("/api/expenses/{id}", expenseId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(expenseJson("17.25", expenseVersion)))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("PATCH /api/expenses/{id} - Should stay within budget")
+    void patchExpense_ShouldStayWithinBudget() throws Exception {
+        // Same shape as the full update, just fewer columns
+        statementCounter.assertStatementBudget(3, () ->
+            mockMvc.perform(patch("/api/expenses/{id}", expenseId)
+                    .contentType("application/merge-patch+json")
+                    .content("{\"amount\": 17.25, \"description\": null, \"version\": %d}".formatted(expenseVersion)))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("DELETE /api/expenses/{id} - Should stay within budget")
+    void deleteExpense_ShouldStayWithinBudget() throws Exception {
+        // One delete that also writes the tombstone, then the version bump and the outbox event
+        statementCounter.assertStatementBudget(3, () ->
+            mockMvc.perform(delete("/api/expenses/{id}", expenseId))
+                .andExpect(status().isNoContent()));
+    }
+    
+    @Test
+    @DisplayName("GET /api/expenses/summary/by-category - Should stay within budget")
+    void getSummaryByCategory_ShouldStayWithinBudget() throws Exception {
+        // ETag versions and one grouped aggregate
+        statementCounter.assertStatementBudget(2, () ->
+            mockMvc.perform(get("/api/expenses/summary/by-category"))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("GET /api/expenses/summary/monthly - Should stay within budget")
+    void getMonthlySummary_ShouldStayWithinBudget() throws Exception {
+        // ETag version and one sum for the month
+        statementCounter.assertStatementBudget(2, () ->
+            mockMvc.perform(get("/api/expenses/summary/monthly"))
+                .andExpect(status().isOk()));
+    }
+    
+    private String expenseJson(String amount) {
+        return """
+            {"amount": %s, "categoryId": %d, "date": "%s", "description": "Budget test"}
+            """.formatted(amount, categoryId, LocalDate.now());
+    }
+    
+    private String expenseJson(String amount, Long version) {
+        return """
+            {"amount": %s, "categoryId": %d, "date": "%s", "description": "Budget test", "version": %d}
+            """.formatted(amount, categoryId, LocalDate.now(), version);
+    }
+}
@@ -1,7 +1,12 @@
 package com.expensetracker.controller;
 
 import com.expensetracker.dto.*;
+import com.expensetracker.exception.ServiceUnavailableException;
+import com.expensetracker.model.TableVersion.TrackedTable;
 import com.expensetracker.service.ExpenseService;
+import com.expensetracker.service.ExpenseSyncService;
+import com.expensetracker.service.ExpenseWriteQueue;
+import com.expensetracker.service.TableVersionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,10 +18,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -35,6 +43,15 @@ class ExpenseControllerTest {
     @MockBean
     private ExpenseService expenseService;
     
+    @MockBean
+    private ExpenseSyncService expenseSyncService;
+    
+    @MockBean
+    private TableVersionService tableVersionService;
+    
+    @MockBean
+    private ExpenseWriteQueue expenseWriteQueue;
+    
     private ExpenseResponse testExpenseResponse;
     private ExpenseRequest testExpenseRequest;
     
@@ -112,6 +129,35 @@ class ExpenseControllerTest {
         verify(expenseService, times(1)).createExpense(any(ExpenseRequest.class));
     }
     
+    @Test
+    @DisplayName("POST /api/expenses - Should go through the write queue when group commit is enabled")
+    void createExpense_WhenGroupCommitEnabled_ShouldUseWriteQueue() throws Exception {
+        when(expenseWriteQueue.isEnabled()).thenReturn(true);
+        when(expenseWriteQueue.create(any(ExpenseRequest.class))).thenReturn(testExpenseResponse);
+        
+        mockMvc.perform(post("/api/expenses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testExpenseRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1));
+        
+        verify(expenseService, never()).createExpense(any());
+    }
+    
+    @Test
+    @DisplayName("POST /api/expenses - Should return 503 with Retry-After when the write queue is full")
+    void createExpense_WhenWriteQueueFull_ShouldReturnServiceUnavailable() throws Exception {
+        when(expenseWriteQueue.isEnabled()).thenReturn(true);
+        when(expenseWriteQueue.create(any(ExpenseRequest.class)))
+                .thenThrow(new ServiceUnavailableException("Too many expenses are waiting to be written", Duration.ofMillis(200)));
+        
+        mockMvc.perform(post("/api/expenses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testExpenseRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+    
     @Test
     @DisplayName("PUT /api/expenses/{id} - Should update expense")
     void updateExpense_ShouldUpdateExpense() throws Exception {
@@ -127,6 +173,38 @@ class ExpenseControllerTest {
         verify(expenseService, times(1)).updateExpense(eq(1L), any(ExpenseRequest.class));
     }
     
+    @Test
+    @DisplayName("PATCH /api/expenses/{id} - Should tell absent members from explicit nulls")
+    void patchExpense_ShouldPassOnlyPresentMembers() throws Exception {
+        when(expenseService.patchExpense(eq(1L), any(ExpensePatchRequest.class)))
+                .thenReturn(testExpenseResponse);
+        
+        mockMvc.perform(patch("/api/expenses/1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"amount\": 12.5, \"description\": null, \"version\": 3}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+        
+        verify(expenseService).patchExpense(eq(1L), argThat(patch ->
+                patch.getAmount().orElseThrow().compareTo(new BigDecimal("12.5")) == 0
+                        && patch.getDescription().isEmpty()
+                        && patch.getCategoryId() == null
+                        && patch.getDate() == null
+                        && patch.getVersion() == 3L));
+    }
+    
+    @Test
+    @DisplayName("PATCH /api/expenses/{id} - Should reject removing a required field")
+    void patchExpense_WhenRequiredFieldIsNull_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/expenses/1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"amount\": null}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.amount").value("Amount cannot be removed"));
+        
+        verify(expenseService, never()).patchExpense(any(), any());
+    }
+    
     @Test
     @DisplayName("DELETE /api/expenses/{id} - Should delete expense")
     void deleteExpense_ShouldDeleteExpense() throws Exception {
@@ -166,4 +244,59 @@ class ExpenseControllerTest {
         
         verify(expenseService, times(1)).getMonthlySummary();
     }
+    
+    @Test
+    @DisplayName("GET /api/expenses - Should return ETag from table versions")
+    void getAllExpenses_ShouldReturnETag() throws Exception {
+        when(tableVersionService.etag(TrackedTable.EXPENSES, TrackedTable.CATEGORIES)).thenReturn("\"12-3\"");
+        when(expenseService.getAllExpenses()).thenReturn(Arrays.asList(testExpenseResponse));
+        
+        mockMvc.perform(get("/api/expenses"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"12-3\""));
+    }
+    
+    @Test
+    @DisplayName("GET /api/expenses - Should return 304 without querying when ETag matches")
+    void getAllExpenses_WhenETagMatches_ShouldReturnNotModified() throws Exception {
+        when(tableVersionService.etag(TrackedTable.EXPENSES, TrackedTable.CATEGORIES)).thenReturn("\"12-3\"");
+        
+        mockMvc.perform(get("/api/expenses").header("If-None-Match", "\"12-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        
+        verify(expenseService, never()).getAllExpenses();
+    }
+    
+    @Test
+    @DisplayName("GET /api/expenses/summary/by-category - Should run query when ETag is stale")
+    void getCategorySummary_WhenETagStale_ShouldReturnSummary() throws Exception {
+        when(tableVersionService.etag(TrackedTable.EXPENSES, TrackedTable.CATEGORIES, TrackedTable.SUMMARY_VIEWS))
+                .thenReturn("\"13-3-1\"");
+        when(expenseService.getCategorySummary()).thenReturn(Arrays.asList(
+                new CategorySummaryResponse("Groceries", new BigDecimal("100.00"))));
+        
+        mockMvc.perform(get("/api/expenses/summary/by-category").header("If-None-Match", "\"12-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"13-3-1\""))
+                .andExpect(jsonPath("$[0].category").value("Groceries"))
+                .andExpect(jsonPath("$[0].asOf").doesNotExist());
+    }
+    
+    @Test
+    @DisplayName("GET /api/expenses/changes - Should return delta since watermark")
+    void getChanges_ShouldReturnDelta() throws Exception {
+        ExpenseChangesResponse changes = new ExpenseChangesResponse(
+            Arrays.asList(testExpenseResponse), List.of(4L), "1700000000000", false);
+        when(expenseSyncService.getChangesSince("1690000000000")).thenReturn(changes);
+        
+        mockMvc.perform(get("/api/expenses/changes").param("since", "1690000000000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.upserts[0].id").value(1))
+                .andExpect(jsonPath("$.deletedIds[0]").value(4))
+                .andExpect(jsonPath("$.watermark").value("1700000000000"))
+                .andExpect(jsonPath("$.fullResync").value(false));
+        
+        verify(expenseService, never()).getExpenseById(any());
+    }
 }
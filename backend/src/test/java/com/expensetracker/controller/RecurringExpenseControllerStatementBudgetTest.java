@@ -0,0 +1,143 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.support.StatementBudgetTest;
+import com.expensetracker.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@StatementBudgetTest
+@DisplayName("RecurringExpenseController SQL Statement Budget Tests")
+class RecurringExpenseControllerStatementBudgetTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private StatementCounter statementCounter;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long recurringExpenseId;
+    private Long recurringExpenseVersion;
+    private Long categoryId;
+    
+    @BeforeEach
+    void setUp() {
+        recurringExpenseId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM recurring_expenses", Long.class);
+        recurringExpenseVersion = jdbcTemplate.queryForObject(
+            "SELECT version FROM recurring_expenses WHERE id = ?", Long.class, recurringExpenseId);
+        categoryId = jdbcTemplate.queryForObject("SELECT id FROM categories WHERE name = 'Utilities'", Long.class);
+    }
+    
+    @Test
+    @DisplayName("GET /api/recurring-expenses - Should stay within budget")
+    void getAllRecurringExpenses_ShouldStayWithinBudget() throws Exception {
+        // ETag versions, the schedules, one lazy load per distinct category
+        statementCounter.assertStatementBudget(5, () ->
+            mockMvc.perform(get("/api/recurring-expenses"))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("GET /api/recurring-expenses/active - Should stay within budget")
+    void getActiveRecurringExpenses_ShouldStayWithinBudget() throws Exception {
+        // ETag versions, the active schedules, one lazy load per distinct category
+        statementCounter.assertStatementBudget(5, () ->
+            mockMvc.perform(get("/api/recurring-expenses/active"))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("GET /api/recurring-expenses/{id} - Should stay within budget")
+    void getRecurringExpenseById_ShouldStayWithinBudget() throws Exception {
+        // ETag versions and the schedule fetched with its category
+        statementCounter.assertStatementBudget(2, () ->
+            mockMvc.perform(get("/api/recurring-expenses/{id}", recurringExpenseId))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("POST /api/recurring-expenses - Should stay within budget")
+    void createRecurringExpense_ShouldStayWithinBudget() throws Exception {
+        // Category lookup, insert, version bump
+        statementCounter.assertStatementBudget(3, () ->
+            mockMvc.perform(post("/api/recurring-expenses")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(recurringExpenseJson("55.00")))
+                .andExpect(status().isCreated()));
+    }
+    
+    @Test
+    @DisplayName("PUT /api/recurring-expenses/{id} - Should stay within budget")
+    void updateRecurringExpense_ShouldStayWithinBudget() throws Exception {
+        // One update returning the row, then the version bump
+        statementCounter.assertStatementBudget(2, () ->
+            mockMvc.perform(put("/api/recurring-expenses/{id}", recurringExpenseId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(recurringExpenseJson("65.00", recurringExpenseVersion)))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("PATCH /api/recurring-expenses/{id} - Should stay within budget")
+    void patchRecurringExpense_ShouldStayWithinBudget() throws Exception {
+        // One update writing only the sent columns, then the version bump
+        statementCounter.assertStatementBudget(2, () ->
+            mockMvc.perform(patch("/api/recurring-expenses/{id}", recurringExpenseId)
+                    .contentType("application/merge-patch+json")
+                    .content("{\"endDate\": null, \"version\": %d}".formatted(recurringExpenseVersion)))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("DELETE /api/recurring-expenses/{id} - Should stay within budget")
+    void deleteRecurringExpense_ShouldStayWithinBudget() throws Exception {
+        // One delete, then the version bump
+        statementCounter.assertStatementBudget(2, () ->
+            mockMvc.perform(delete("/api/recurring-expenses/{id}", recurringExpenseId))
+                .andExpect(status().isNoContent()));
+    }
+    
+    @Test
+    @DisplayName("PATCH /api/recurring-expenses/{id}/toggle - Should stay within budget")
+    void toggleRecurringExpense_ShouldStayWithinBudget() throws Exception {
+        // One update of the flag, then the version bump
+        statementCounter.assertStatementBudget(2, () ->
+            mockMvc.perform(patch("/api/recurring-expenses/{id}/toggle", recurringExpenseId)
+                    .param("active", "false"))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @DisplayName("POST /api/recurring-expenses/process - Should stay within budget for four due schedules")
+    void processRecurringExpenses_ShouldStayWithinBudget() throws Exception {
+        // Due schedules, their categories, then per schedule one expense insert and one update, plus a single version bump
+        // and one batch of outbox events
+        statementCounter.assertStatementBudget(14, () ->
+            mockMvc.perform(post("/api/recurring-expenses/process"))
+                .andExpect(status().isOk()));
+    }
+    
+    private String recurringExpenseJson(String amount) {
+        return """
+            {"amount": %s, "categoryId": %d, "description": "Budget test", "frequency": "MONTHLY", "startDate": "%s"}
+            """.formatted(amount, categoryId, LocalDate.now());
+    }
+    
+    private String recurringExpenseJson(String amount, Long version) {
+        return """
+            {"amount": %s, "categoryId": %d, "description": "Budget test", "frequency": "MONTHLY", "startDate": "%s", "version": %d}
+            """.formatted(amount, categoryId, LocalDate.now(), version);
+    }
+}
@@ -1,9 +1,12 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.dto.RecurringExpensePatchRequest;
 import com.expensetracker.dto.RecurringExpenseRequest;
 import com.expensetracker.dto.RecurringExpenseResponse;
 import com.expensetracker.model.RecurringExpense;
+import com.expensetracker.model.TableVersion.TrackedTable;
 import com.expensetracker.service.RecurringExpenseService;
+import com.expensetracker.service.TableVersionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -19,6 +22,7 @@ import java.time.LocalDate;
 import java.util.Arrays;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -37,6 +41,9 @@ class RecurringExpenseControllerTest {
     @MockBean
     private RecurringExpenseService recurringExpenseService;
     
+    @MockBean
+    private TableVersionService tableVersionService;
+    
     private RecurringExpenseResponse testRecurringExpenseResponse;
     private RecurringExpenseRequest testRecurringExpenseRequest;
     
@@ -132,6 +139,24 @@ class RecurringExpenseControllerTest {
                 .updateRecurringExpense(eq(1L), any(RecurringExpenseRequest.class));
     }
     
+    @Test
+    @DisplayName("PATCH /api/recurring-expenses/{id} - Should patch recurring expense")
+    void patchRecurringExpense_ShouldPatchExpense() throws Exception {
+        when(recurringExpenseService.patchRecurringExpense(eq(1L), any(RecurringExpensePatchRequest.class)))
+                .thenReturn(testRecurringExpenseResponse);
+        
+        mockMvc.perform(patch("/api/recurring-expenses/1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"endDate\": null, \"frequency\": \"WEEKLY\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+        
+        verify(recurringExpenseService).patchRecurringExpense(eq(1L), argThat(patch ->
+                patch.getEndDate().isEmpty()
+                        && patch.getFrequency().orElseThrow() == RecurringExpense.RecurrenceFrequency.WEEKLY
+                        && patch.getAmount() == null));
+    }
+    
     @Test
     @DisplayName("DELETE /api/recurring-expenses/{id} - Should delete recurring expense")
     void deleteRecurringExpense_ShouldDeleteExpense() throws Exception {
@@ -165,4 +190,15 @@ class RecurringExpenseControllerTest {
         
         verify(recurringExpenseService, times(1)).processRecurringExpenses();
     }
+    
+    @Test
+    @DisplayName("GET /api/recurring-expenses - Should return 304 without querying when ETag matches")
+    void getAllRecurringExpenses_WhenETagMatches_ShouldReturnNotModified() throws Exception {
+        when(tableVersionService.etag(TrackedTable.RECURRING_EXPENSES, TrackedTable.CATEGORIES)).thenReturn("\"5-7\"");
+        
+        mockMvc.perform(get("/api/recurring-expenses").header("If-None-Match", "\"5-7\""))
+                .andExpect(status().isNotModified());
+        
+        verify(recurringExpenseService, never()).getAllRecurringExpenses();
+    }
 }
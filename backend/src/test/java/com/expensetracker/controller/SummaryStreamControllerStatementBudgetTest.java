@@ -0,0 +1,31 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.support.StatementBudgetTest;
+import com.expensetracker.support.StatementCounter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@StatementBudgetTest
+@DisplayName("SummaryStreamController SQL Statement Budget Tests")
+class SummaryStreamControllerStatementBudgetTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private StatementCounter statementCounter;
+    
+    @Test
+    @DisplayName("GET /api/stream/summary - Should stay within budget")
+    void streamSummary_ShouldStayWithinBudget() throws Exception {
+        // The first subscriber computes the month sum and budget; later ones reuse the pushed snapshot
+        statementCounter.assertStatementBudget(2, () ->
+            mockMvc.perform(get("/api/stream/summary"))
+                .andExpect(request().asyncStarted()));
+    }
+}
@@ -0,0 +1,37 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.service.SummaryStreamService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SummaryStreamController.class)
+@DisplayName("SummaryStreamController Tests")
+class SummaryStreamControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private SummaryStreamService summaryStreamService;
+    
+    @Test
+    @DisplayName("GET /api/stream/summary - Should open an event stream")
+    void streamSummary_ShouldStartAsyncEventStream() throws Exception {
+        when(summaryStreamService.subscribe()).thenReturn(new SseEmitter());
+        
+        mockMvc.perform(get("/api/stream/summary"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+        
+        verify(summaryStreamService, times(1)).subscribe();
+    }
+}
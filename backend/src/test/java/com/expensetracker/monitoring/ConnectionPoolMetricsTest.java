@@ -0,0 +1,73 @@
+package com.expensetracker.monitoring;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ConnectionPoolMetrics Tests")
+class ConnectionPoolMetricsTest {
+    
+    private HikariDataSource hikari;
+    private SimpleMeterRegistry meterRegistry;
+    
+    @BeforeEach
+    void setUp() {
+        hikari = new HikariDataSource();
+        hikari.setJdbcUrl("jdbc:h2:mem:pool-metrics");
+        hikari.setMaximumPoolSize(4);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        hikari.close();
+    }
+    
+    @Test
+    @DisplayName("Should report active connections as a fraction of the pool maximum")
+    void bindTo_ShouldTrackActiveConnections() throws Exception {
+        // Arrange
+        new ConnectionPoolMetrics(Map.of("dataSource", hikari)).bindTo(meterRegistry);
+        
+        // Act & Assert
+        assertThat(gauge("dataSource")).isZero();
+        try (Connection first = hikari.getConnection(); Connection second = hikari.getConnection()) {
+            assertThat(gauge("dataSource")).isEqualTo(0.5);
+        }
+        assertThat(gauge("dataSource")).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should register each pool once and ignore non-Hikari data sources")
+    void bindTo_WithWrappedPool_ShouldRegisterOncePerPool() {
+        // Arrange
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        dataSources.put("primaryDataSource", hikari);
+        dataSources.put("dataSource", new LazyConnectionDataSourceProxy(hikari));
+        dataSources.put("plainDataSource", new DriverManagerDataSource("jdbc:h2:mem:plain"));
+        
+        // Act
+        new ConnectionPoolMetrics(dataSources).bindTo(meterRegistry);
+        
+        // Assert
+        assertThat(meterRegistry.find(ConnectionPoolMetrics.SATURATION_GAUGE).gauges())
+            .singleElement()
+            .satisfies(gauge -> assertThat(gauge.getId().getTag("name")).isEqualTo("primaryDataSource"));
+    }
+    
+    private double gauge(String name) {
+        return meterRegistry.get(ConnectionPoolMetrics.SATURATION_GAUGE).tag("name", name).gauge().value();
+    }
+}
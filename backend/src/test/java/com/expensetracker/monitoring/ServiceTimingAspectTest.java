@@ -0,0 +1,79 @@
+package com.expensetracker.monitoring;
+
+import com.expensetracker.exception.ResourceNotFoundException;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.WriteVersionPolicy;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ServiceTimingAspect Tests")
+class ServiceTimingAspectTest {
+    
+    @Mock
+    private CategoryRepository categoryRepository;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private CategoryService categoryService;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new CategoryService(categoryRepository, new WriteVersionPolicy(true), eventPublisher));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceTimingAspect(meterRegistry));
+        categoryService = factory.getProxy();
+    }
+    
+    @Test
+    @DisplayName("Should time successful calls tagged by class, method and outcome")
+    void timeService_WhenCallSucceeds_ShouldRecordSuccess() {
+        // Arrange
+        when(categoryRepository.findAllByOrderByNameAsc()).thenReturn(Collections.emptyList());
+        
+        // Act
+        categoryService.getAllCategories();
+        categoryService.getAllCategories();
+        
+        // Assert
+        Timer timer = meterRegistry.get(ServiceTimingAspect.SERVICE_TIMER)
+            .tags("class", "CategoryService", "method", "getAllCategories", "outcome", "success")
+            .timer();
+        assertThat(timer.count()).isEqualTo(2);
+    }
+    
+    @Test
+    @DisplayName("Should record failed calls as errors and rethrow the exception")
+    void timeService_WhenCallFails_ShouldRecordErrorAndRethrow() {
+        // Arrange
+        when(categoryRepository.findById(99L)).thenReturn(Optional.empty());
+        
+        // Act & Assert
+        assertThatThrownBy(() -> categoryService.getCategoryById(99L))
+            .isInstanceOf(ResourceNotFoundException.class);
+        Timer timer = meterRegistry.get(ServiceTimingAspect.SERVICE_TIMER)
+            .tags("method", "getCategoryById", "outcome", "error")
+            .timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(meterRegistry.find(ServiceTimingAspect.SERVICE_TIMER).tag("outcome", "success").timer()).isNull();
+    }
+}
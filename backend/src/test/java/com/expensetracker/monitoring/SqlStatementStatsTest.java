@@ -0,0 +1,97 @@
+package com.expensetracker.monitoring;
+
+import com.expensetracker.monitoring.SqlStatementStats.SortOrder;
+import com.expensetracker.monitoring.SqlStatementStats.StatementSummary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SqlStatementStats Tests")
+class SqlStatementStatsTest {
+    
+    private static final long MILLIS = 1_000_000;
+    
+    private final SqlStatementStats stats = new SqlStatementStats(3);
+    
+    @Test
+    @DisplayName("Should fold literals, IN lists and whitespace into one shape")
+    void normalize_ShouldFoldLiteralsAndInLists() {
+        assertThat(SqlStatementStats.normalize("select * from expenses e1_0 where e1_0.id = 42 and e1_0.description = 'it''s'"))
+            .isEqualTo("select * from expenses e1_0 where e1_0.id = ? and e1_0.description = ?");
+        assertThat(SqlStatementStats.normalize("select x from t where name IN (?, ?,?)\n  order by 1"))
+            .isEqualTo(SqlStatementStats.normalize("select x from t where name in (?) order by 1"));
+        assertThat(SqlStatementStats.normalize("insert into t (a,b) values (?, ?)"))
+            .isEqualTo("insert into t (a,b) values (?, ?)");
+    }
+    
+    @Test
+    @DisplayName("Should aggregate calls, errors and latency per shape")
+    void record_ShouldAggregatePerShape() {
+        // Act
+        stats.record("select * from expenses where id = 1", 2 * MILLIS, true);
+        stats.record("select * from expenses where id = 2", 4 * MILLIS, true);
+        stats.record("select * from expenses where id = 3", 6 * MILLIS, false);
+        
+        // Assert
+        List<StatementSummary> top = stats.top(10, SortOrder.TOTAL);
+        assertThat(top).hasSize(1);
+        StatementSummary summary = top.get(0);
+        assertThat(summary.sql()).isEqualTo("select * from expenses where id = ?");
+        assertThat(summary.calls()).isEqualTo(3);
+        assertThat(summary.errors()).isEqualTo(1);
+        assertThat(summary.totalMs()).isEqualTo(12.0);
+        assertThat(summary.meanMs()).isEqualTo(4.0);
+        assertThat(summary.maxMs()).isEqualTo(6.0);
+        // Bucketed, so the median is the upper bound of the 4ms bucket
+        assertThat(summary.p50Ms()).isBetween(4.0, 8.2);
+        assertThat(summary.p99Ms()).isEqualTo(6.0);
+    }
+    
+    @Test
+    @DisplayName("Should sort and limit the top statements")
+    void top_ShouldSortByRequestedOrder() {
+        // Arrange
+        stats.record("select a from t", 10 * MILLIS, true);
+        stats.record("select b from t", MILLIS, true);
+        stats.record("select b from t", MILLIS, true);
+        
+        // Act & Assert
+        assertThat(stats.top(1, SortOrder.TOTAL)).extracting(StatementSummary::sql).containsExactly("select a from t");
+        assertThat(stats.top(1, SortOrder.CALLS)).extracting(StatementSummary::sql).containsExactly("select b from t");
+        assertThat(stats.top(5, SortOrder.MAX)).extracting(StatementSummary::sql)
+            .containsExactly("select a from t", "select b from t");
+        assertThat(stats.totalCalls()).isEqualTo(3);
+    }
+    
+    @Test
+    @DisplayName("Should pool shapes beyond the cap")
+    void record_BeyondMaxShapes_ShouldPoolIntoOther() {
+        // Act
+        stats.record("select a from t", MILLIS, true);
+        stats.record("select b from t", MILLIS, true);
+        stats.record("select c from t", MILLIS, true);
+        stats.record("select d from t", MILLIS, true);
+        stats.record("select a from t", MILLIS, true);
+        
+        // Assert
+        assertThat(stats.top(10, SortOrder.CALLS)).extracting(StatementSummary::sql)
+            .containsExactlyInAnyOrder("select a from t", "select b from t", "select c from t", SqlStatementStats.OTHER_SHAPE);
+    }
+    
+    @Test
+    @DisplayName("Should clear statistics on reset")
+    void reset_ShouldClearStatistics() {
+        // Arrange
+        stats.record("select a from t", MILLIS, true);
+        
+        // Act
+        stats.reset();
+        
+        // Assert
+        assertThat(stats.top(10, SortOrder.TOTAL)).isEmpty();
+        assertThat(stats.totalCalls()).isZero();
+    }
+}
@@ -0,0 +1,70 @@
+package com.expensetracker.monitoring;
+
+import com.expensetracker.monitoring.SqlStatementStats.SortOrder;
+import com.expensetracker.monitoring.SqlStatsEndpoint.SqlStatsReport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SqlStatsEndpoint Tests")
+class SqlStatsEndpointTest {
+    
+    private final SqlStatementStats stats = new SqlStatementStats(100);
+    private final SqlStatsEndpoint endpoint = new SqlStatsEndpoint(stats);
+    
+    @Test
+    @DisplayName("Should return the top statements by total time by default")
+    void top_WithDefaults_ShouldSortByTotal() {
+        // Arrange
+        stats.record("select a from t", 5_000_000, true);
+        stats.record("select b from t", 1_000_000, true);
+        
+        // Act
+        SqlStatsReport report = endpoint.top(null, null);
+        
+        // Assert
+        assertThat(report.sortedBy()).isEqualTo(SortOrder.TOTAL);
+        assertThat(report.totalCalls()).isEqualTo(2);
+        assertThat(report.statements()).hasSize(2);
+        assertThat(report.statements().get(0).sql()).isEqualTo("select a from t");
+    }
+    
+    @Test
+    @DisplayName("Should honour limit and case-insensitive sort")
+    void top_WithLimitAndSort_ShouldApplyBoth() {
+        // Arrange
+        stats.record("select a from t", 5_000_000, true);
+        stats.record("select b from t", 1_000_000, true);
+        stats.record("select b from t", 1_000_000, true);
+        
+        // Act
+        SqlStatsReport report = endpoint.top(1, "calls");
+        
+        // Assert
+        assertThat(report.statements()).singleElement()
+            .satisfies(summary -> assertThat(summary.sql()).isEqualTo("select b from t"));
+    }
+    
+    @Test
+    @DisplayName("Should reject unknown sort orders")
+    void top_WithUnknownSort_ShouldThrow() {
+        assertThatThrownBy(() -> endpoint.top(null, "bogus"))
+            .isInstanceOf(InvalidEndpointRequestException.class);
+    }
+    
+    @Test
+    @DisplayName("Should reset statistics")
+    void reset_ShouldClearStatistics() {
+        // Arrange
+        stats.record("select a from t", 1_000_000, true);
+        
+        // Act
+        endpoint.reset();
+        
+        // Assert
+        assertThat(endpoint.top(null, null).statements()).isEmpty();
+    }
+}
@@ -0,0 +1,56 @@
+package com.expensetracker.monitoring;
+
+import com.expensetracker.monitoring.SqlStatementStats.SortOrder;
+import com.expensetracker.monitoring.SqlStatementStats.StatementSummary;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SqlTimingListener Tests")
+class SqlTimingListenerTest {
+    
+    private final SqlStatementStats stats = new SqlStatementStats(100);
+    
+    @Test
+    @DisplayName("Should record each executed statement with its outcome")
+    void afterQuery_ShouldRecordStatements() {
+        // Arrange
+        SqlTimingListener listener = new SqlTimingListener(stats, Duration.ofSeconds(1));
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setSuccess(false);
+        List<QueryInfo> queries = List.of(new QueryInfo("select * from expenses where id = ?"));
+        
+        // Act
+        listener.beforeQuery(execInfo, queries);
+        listener.afterQuery(execInfo, queries);
+        
+        // Assert
+        StatementSummary summary = stats.top(1, SortOrder.TOTAL).get(0);
+        assertThat(summary.sql()).isEqualTo("select * from expenses where id = ?");
+        assertThat(summary.calls()).isEqualTo(1);
+        assertThat(summary.errors()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should fall back to the proxy's elapsed time and still record slow batches")
+    void afterQuery_WithoutStartTime_ShouldUseElapsedTime() {
+        // Arrange
+        SqlTimingListener listener = new SqlTimingListener(stats, Duration.ZERO);
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setSuccess(true);
+        execInfo.setBatch(true);
+        execInfo.setElapsedTime(7);
+        
+        // Act
+        listener.afterQuery(execInfo, List.of(new QueryInfo("insert into expenses (amount) values (?)")));
+        
+        // Assert
+        assertThat(stats.top(1, SortOrder.TOTAL).get(0).totalMs()).isEqualTo(7.0);
+    }
+}
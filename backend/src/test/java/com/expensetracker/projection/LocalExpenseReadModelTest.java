@@ -0,0 +1,148 @@
+package com.expensetracker.projection;
+
+import com.expensetracker.model.ExpenseEvent;
+import com.expensetracker.model.ExpenseEvent.EventType;
+import com.expensetracker.repository.ExpenseEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LocalExpenseReadModel Tests")
+class LocalExpenseReadModelTest {
+    
+    private static final LocalDate JANUARY = LocalDate.of(2025, 1, 15);
+    private static final LocalDate FEBRUARY = LocalDate.of(2025, 2, 3);
+    
+    @Mock
+    private ExpenseEventRepository expenseEventRepository;
+    
+    @TempDir
+    private Path directory;
+    
+    private final List<ExpenseEvent> outbox = new ArrayList<>();
+    private final List<LocalExpenseReadModel> started = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        lenient().when(expenseEventRepository.findLatestId()).thenAnswer(invocation ->
+            outbox.isEmpty() ? Optional.empty() : Optional.of(outbox.get(outbox.size() - 1).getId()));
+        lenient().when(expenseEventRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+            .thenAnswer(invocation -> {
+                long after = invocation.getArgument(0);
+                Pageable page = invocation.getArgument(1);
+                return outbox.stream().filter(event -> event.getId() > after).limit(page.getPageSize()).toList();
+            });
+    }
+    
+    @AfterEach
+    void tearDown() {
+        started.forEach(LocalExpenseReadModel::stop);
+    }
+    
+    @Test
+    @DisplayName("Should keep category and month totals through creates, updates and deletes")
+    void currentTotals_ShouldFollowTheOutbox() {
+        // Arrange
+        record(1L, EventType.CREATED, 1L, "10.00", JANUARY);
+        record(2L, EventType.CREATED, 2L, "5.00", FEBRUARY);
+        LocalExpenseReadModel model = start(true);
+        
+        // Act
+        record(1L, EventType.UPDATED, 2L, "12.00", FEBRUARY);
+        record(2L, EventType.DELETED, null, null, null);
+        
+        // Assert
+        assertThat(model.isReady()).isTrue();
+        assertThat(model.currentTotalsByCategory()).isEqualTo(Map.of(2L, new BigDecimal("12.00")));
+        assertThat(model.currentTotalForMonth(YearMonth.from(JANUARY))).isEqualByComparingTo("0");
+        assertThat(model.currentTotalForMonth(YearMonth.from(FEBRUARY))).isEqualByComparingTo("12.00");
+    }
+    
+    @Test
+    @DisplayName("Should restart from the snapshot and journal and only ask for events after them")
+    void start_WithLocalFiles_ShouldOnlyFetchTheTail() {
+        // Arrange: four events end up in the snapshot, the fifth only in the journal
+        record(1L, EventType.CREATED, 1L, "10.00", JANUARY);
+        record(2L, EventType.CREATED, 2L, "5.00", FEBRUARY);
+        record(3L, EventType.CREATED, 1L, "2.50", FEBRUARY);
+        record(1L, EventType.UPDATED, 1L, "11.00", JANUARY);
+        LocalExpenseReadModel first = start(true);
+        record(2L, EventType.DELETED, null, null, null);
+        first.currentTotalsByCategory();
+        record(4L, EventType.CREATED, 2L, "1.00", JANUARY);
+        clearInvocations(expenseEventRepository);
+        
+        // Act: no orderly shutdown in between, as after a crash
+        LocalExpenseReadModel second = start(true);
+        
+        // Assert
+        verify(expenseEventRepository).findByIdGreaterThanOrderByIdAsc(eq(5L), any(Pageable.class));
+        verify(expenseEventRepository, never()).findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class));
+        assertThat(second.currentTotalsByCategory())
+            .isEqualTo(Map.of(1L, new BigDecimal("13.50"), 2L, new BigDecimal("1.00")));
+        assertThat(second.currentTotalForMonth(YearMonth.from(JANUARY))).isEqualByComparingTo("12.00");
+    }
+    
+    @Test
+    @DisplayName("Should discard local files that are ahead of the outbox")
+    void start_WithFilesFromAnotherDatabase_ShouldRebuild() {
+        // Arrange
+        record(1L, EventType.CREATED, 1L, "10.00", JANUARY);
+        record(2L, EventType.CREATED, 1L, "5.00", JANUARY);
+        start(true).stop();
+        outbox.clear();
+        record(7L, EventType.CREATED, 3L, "8.00", FEBRUARY);
+        
+        // Act
+        LocalExpenseReadModel model = start(true);
+        
+        // Assert
+        assertThat(model.currentTotalsByCategory()).isEqualTo(Map.of(3L, new BigDecimal("8.00")));
+    }
+    
+    @Test
+    @DisplayName("Should stay out of the way when disabled")
+    void start_WhenDisabled_ShouldNotBecomeReady() {
+        // Act
+        LocalExpenseReadModel model = start(false);
+        
+        // Assert
+        assertThat(model.isReady()).isFalse();
+        verifyNoInteractions(expenseEventRepository);
+    }
+    
+    private LocalExpenseReadModel start(boolean enabled) {
+        LocalExpenseReadModel model = new LocalExpenseReadModel(expenseEventRepository, enabled, directory, 10, 3, 500);
+        model.start();
+        started.add(model);
+        return model;
+    }
+    
+    private void record(Long expenseId, EventType type, Long categoryId, String amount, LocalDate date) {
+        outbox.add(new ExpenseEvent((long) outbox.size() + 1, expenseId, type,
+            amount != null ? new BigDecimal(amount) : null, categoryId, date, LocalDateTime.now()));
+    }
+}
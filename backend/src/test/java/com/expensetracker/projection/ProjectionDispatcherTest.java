@@ -0,0 +1,168 @@
+package com.expensetracker.projection;
+
+import com.expensetracker.dto.ExpenseRequest;
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.dto.ProjectionStatusResponse;
+import com.expensetracker.exception.ResourceNotFoundException;
+import com.expensetracker.model.ExpenseEvent;
+import com.expensetracker.model.ExpenseEvent.EventType;
+import com.expensetracker.service.ExpenseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+// The poll is pushed out of the way so each test drives the dispatcher itself
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.datasource.url=jdbc:h2:mem:projections",
+    "app.projections.poll-interval=PT1H",
+    "app.projections.batch-size=2"
+})
+@ActiveProfiles("test")
+@DisplayName("ProjectionDispatcher Tests")
+class ProjectionDispatcherTest {
+    
+    @Autowired
+    private ProjectionDispatcher projectionDispatcher;
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private RecordingProjector recordingProjector;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long categoryId;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO categories (name, description, is_default, created_at, updated_at) "
+            + "VALUES ('Groceries', 'Food', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        categoryId = jdbcTemplate.queryForObject("SELECT id FROM categories WHERE name = 'Groceries'", Long.class);
+        jdbcTemplate.update("UPDATE projection_offsets SET last_event_id = 0");
+        recordingProjector.reset();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM expense_events");
+        jdbcTemplate.update("DELETE FROM expense_tombstones");
+        jdbcTemplate.update("DELETE FROM expenses");
+        jdbcTemplate.update("DELETE FROM categories");
+    }
+    
+    @Test
+    @DisplayName("Should apply creates, updates and deletes in commit order across batches")
+    void dispatch_ShouldApplyEventsInOrder() {
+        // Arrange
+        ExpenseResponse kept = expenseService.createExpense(request("12.50"));
+        ExpenseResponse removed = expenseService.createExpense(request("3.00"));
+        ExpenseRequest update = request("15.00");
+        update.setVersion(kept.getVersion());
+        expenseService.updateExpense(kept.getId(), update);
+        expenseService.deleteExpense(removed.getId());
+        
+        // Act
+        projectionDispatcher.dispatch();
+        
+        // Assert
+        assertThat(recordingProjector.events)
+            .extracting(ExpenseEvent::getExpenseId, ExpenseEvent::getEventType, ExpenseEvent::getAmount)
+            .containsExactly(
+                tuple(kept.getId(), EventType.CREATED, new BigDecimal("12.50")),
+                tuple(removed.getId(), EventType.CREATED, new BigDecimal("3.00")),
+                tuple(kept.getId(), EventType.UPDATED, new BigDecimal("15.00")),
+                tuple(removed.getId(), EventType.DELETED, null));
+        assertThat(projectionDispatcher.status())
+            .extracting(ProjectionStatusResponse::getProjector, ProjectionStatusResponse::getPending)
+            .containsExactly(tuple(RecordingProjector.NAME, 0L));
+    }
+    
+    @Test
+    @DisplayName("Should apply each event once and replay everything after a rebuild")
+    void rebuild_ShouldReplayFromTheFirstEvent() {
+        // Arrange
+        expenseService.createExpense(request("1.00"));
+        expenseService.createExpense(request("2.00"));
+        projectionDispatcher.dispatch();
+        expenseService.createExpense(request("3.00"));
+        projectionDispatcher.dispatch();
+        assertThat(recordingProjector.events).hasSize(3);
+        
+        // Act
+        projectionDispatcher.rebuild(RecordingProjector.NAME);
+        assertThat(recordingProjector.events).isEmpty();
+        projectionDispatcher.dispatch();
+        
+        // Assert
+        assertThat(recordingProjector.events)
+            .extracting(ExpenseEvent::getAmount)
+            .containsExactly(new BigDecimal("1.00"), new BigDecimal("2.00"), new BigDecimal("3.00"));
+    }
+    
+    @Test
+    @DisplayName("Should reject a rebuild of an unknown projector")
+    void rebuild_UnknownProjector_ShouldThrow() {
+        // Act & Assert
+        assertThatThrownBy(() -> projectionDispatcher.rebuild("missing"))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+    
+    private ExpenseRequest request(String amount) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setAmount(new BigDecimal(amount));
+        request.setCategoryId(categoryId);
+        request.setDate(LocalDate.now());
+        request.setDescription("Projected");
+        return request;
+    }
+    
+    @TestConfiguration
+    static class Config {
+        
+        @Bean
+        RecordingProjector recordingProjector() {
+            return new RecordingProjector();
+        }
+    }
+    
+    static class RecordingProjector implements ExpenseProjector {
+        
+        static final String NAME = "recording";
+        
+        private final List<ExpenseEvent> events = new ArrayList<>();
+        
+        @Override
+        public String name() {
+            return NAME;
+        }
+        
+        @Override
+        public void apply(List<ExpenseEvent> batch) {
+            events.addAll(batch);
+        }
+        
+        @Override
+        public void reset() {
+            events.clear();
+        }
+    }
+}
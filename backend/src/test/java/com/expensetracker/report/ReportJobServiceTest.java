@@ -0,0 +1,282 @@
+package com.expensetracker.report;
+
+import com.expensetracker.dto.ReportRequest;
+import com.expensetracker.event.DataChangedEvent;
+import com.expensetracker.model.ReportJob;
+import com.expensetracker.model.ReportJob.ReportFormat;
+import com.expensetracker.model.ReportJob.ReportType;
+import com.expensetracker.model.ReportJob.Status;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import com.expensetracker.repository.ReportJobRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Replica routing is on, with both pools on the same database, so the jobs' read-only repeatable-read
+// transactions go through the routing data source as they do in production
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.datasource.url=jdbc:h2:mem:reports",
+    "app.projections.poll-interval=PT1H",
+    "app.reports.directory=${java.io.tmpdir}/expense-reports-test",
+    "app.datasource.replica.enabled=true",
+    "app.datasource.replica.url=jdbc:h2:mem:reports",
+    "app.datasource.replica.username=sa",
+    "app.datasource.replica.password="
+})
+@ActiveProfiles("test")
+@Import(ReportJobServiceTest.StatementRecorder.class)
+@DisplayName("ReportJobService Tests")
+class ReportJobServiceTest {
+    
+    @Autowired
+    private ReportJobService reportJobService;
+    
+    @Autowired
+    private ReportJobRepository reportJobRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private StatementRecorder statementRecorder;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO categories (name, description, is_default, created_at, version) VALUES "
+            + "('Groceries', NULL, true, CURRENT_TIMESTAMP, 0), ('Travel', NULL, false, CURRENT_TIMESTAMP, 0)");
+        jdbcTemplate.update("INSERT INTO expenses (amount, category_id, date, description, created_at, version) "
+            + "SELECT 12.50, id, DATE '2025-01-10', 'Market, \"organic\"', CURRENT_TIMESTAMP, 0 FROM categories WHERE name = 'Groceries'");
+        jdbcTemplate.update("INSERT INTO expenses (amount, category_id, date, description, created_at, version) "
+            + "SELECT 7.50, id, DATE '2025-01-20', NULL, CURRENT_TIMESTAMP, 0 FROM categories WHERE name = 'Groceries'");
+        jdbcTemplate.update("INSERT INTO expenses (amount, category_id, date, description, created_at, version) "
+            + "SELECT 300.00, id, DATE '2025-02-02', 'Flight', CURRENT_TIMESTAMP, 0 FROM categories WHERE name = 'Travel'");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM report_result_chunks");
+        reportJobRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM expense_events");
+        jdbcTemplate.update("DELETE FROM expenses");
+        jdbcTemplate.update("DELETE FROM categories");
+    }
+    
+    @Test
+    @DisplayName("Should export matching expenses as CSV and hand the same job to a repeated request")
+    void submit_SameDefinition_ShouldRunOnce() throws Exception {
+        // Arrange
+        ReportRequest request = new ReportRequest(ReportType.EXPENSE_EXPORT, ReportFormat.CSV,
+            List.of("Travel", "Groceries"), LocalDate.of(2025, 1, 1), null);
+        
+        // Act
+        ReportJob job = awaitFinished(reportJobService.submit(request).getId());
+        ReportJob again = reportJobService.submit(new ReportRequest(ReportType.EXPENSE_EXPORT, ReportFormat.CSV,
+            List.of("Groceries", "Travel", "Groceries"), LocalDate.of(2025, 1, 1), null));
+        
+        // Assert
+        assertThat(job.getStatus()).isEqualTo(Status.DONE);
+        assertThat(job.getTotalRows()).isEqualTo(3);
+        assertThat(job.getRowsWritten()).isEqualTo(3);
+        assertThat(again.getId()).isEqualTo(job.getId());
+        assertThat(again.getStatus()).isEqualTo(Status.DONE);
+        assertThat(again.getStartedAt()).isEqualTo(job.getStartedAt());
+        assertThat(read(job).lines().toList()).containsExactly(
+            "id,date,category,amount,description",
+            idOf("12.50") + ",2025-01-10,Groceries,12.50,\"Market, \"\"organic\"\"\"",
+            idOf("7.50") + ",2025-01-20,Groceries,7.50,",
+            idOf("300.00") + ",2025-02-02,Travel,300.00,Flight");
+        assertThat(reportJobRepository.count()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should break totals down by month and category as JSON")
+    void submit_CategoryBreakdown_ShouldWriteJson() throws Exception {
+        // Act
+        ReportJob job = awaitFinished(reportJobService.submit(
+            new ReportRequest(ReportType.CATEGORY_BREAKDOWN, ReportFormat.JSON, null, null, null)).getId());
+        
+        // Assert
+        assertThat(job.getStatus()).isEqualTo(Status.DONE);
+        JsonNode rows = objectMapper.readTree(read(job));
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).get("month").asText()).isEqualTo("2025-01");
+        assertThat(rows.get(0).get("category").asText()).isEqualTo("Groceries");
+        assertThat(rows.get(0).get("total").decimalValue()).isEqualByComparingTo("20.00");
+        assertThat(rows.get(0).get("count").asLong()).isEqualTo(2);
+        assertThat(rows.get(1).get("month").asText()).isEqualTo("2025-02");
+        assertThat(rows.get(1).get("category").asText()).isEqualTo("Travel");
+    }
+    
+    @Test
+    @DisplayName("Should run the report again once the expenses have changed")
+    void submit_AfterDataChanged_ShouldStartANewJob() throws Exception {
+        // Arrange
+        ReportRequest request = new ReportRequest(ReportType.CATEGORY_BREAKDOWN, ReportFormat.CSV, null, null, null);
+        ReportJob first = awaitFinished(reportJobService.submit(request).getId());
+        jdbcTemplate.update("INSERT INTO expenses (amount, category_id, date, created_at, version) "
+            + "SELECT 5.00, id, DATE '2025-02-14', CURRENT_TIMESTAMP, 0 FROM categories WHERE name = 'Groceries'");
+        eventPublisher.publishEvent(new DataChangedEvent(TrackedTable.EXPENSES));
+        
+        // Act
+        ReportJob second = awaitFinished(reportJobService.submit(request).getId());
+        
+        // Assert
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+        assertThat(read(second).lines().toList()).containsExactly(
+            "month,category,total,count",
+            "2025-01,Groceries,20.00,2",
+            "2025-02,Groceries,5.00,1",
+            "2025-02,Travel,300.00,1");
+    }
+    
+    @Test
+    @DisplayName("Should serve a finished result from the database without running the job again")
+    void getJob_Done_ShouldServeTheStoredResult() throws Exception {
+        // Arrange: an empty report directory, as on an instance that did not run the job
+        ReportJob job = awaitFinished(reportJobService.submit(
+            new ReportRequest(ReportType.EXPENSE_EXPORT, ReportFormat.JSON, null, null, null)).getId());
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir"), "expense-reports-test"))) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        
+        // Act
+        ReportJob polled = reportJobService.getJob(job.getId());
+        
+        // Assert
+        assertThat(polled.getStatus()).isEqualTo(Status.DONE);
+        assertThat(polled.getFinishedAt()).isEqualTo(job.getFinishedAt());
+        assertThat(objectMapper.readTree(read(polled))).hasSize(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(OCTET_LENGTH(data)) FROM report_result_chunks WHERE job_id = ?",
+            Long.class, job.getId())).isEqualTo(job.getResultBytes());
+    }
+    
+    @Test
+    @DisplayName("Should read the report from the replica once it has the versions the job was hashed at")
+    void submit_ReplicaCaughtUp_ShouldReadTheReplica() throws Exception {
+        // Arrange
+        statementRecorder.statements.clear();
+        
+        // Act
+        ReportJob job = awaitFinished(reportJobService.submit(
+            new ReportRequest(ReportType.CATEGORY_BREAKDOWN, ReportFormat.CSV, null, null, null)).getId());
+        
+        // Assert
+        assertThat(job.getStatus()).isEqualTo(Status.DONE);
+        assertThat(statementRecorder.reportQueries()).isNotEmpty().allMatch(pool -> pool.equals("replicaDataSource"));
+    }
+    
+    @Test
+    @DisplayName("Should read the report from the primary while the replica is behind the job's versions")
+    void run_ReplicaBehind_ShouldReadThePrimary() throws Exception {
+        // Arrange: hashed at an expenses version the replica has not reached
+        ReportJob queued = new ReportJob();
+        queued.setDefinitionHash("behind-the-replica");
+        queued.setReportType(ReportType.CATEGORY_BREAKDOWN);
+        queued.setReportFormat(ReportFormat.CSV);
+        queued.setDefinition(objectMapper.writeValueAsString(
+            new ReportRequest(ReportType.CATEGORY_BREAKDOWN, ReportFormat.CSV, null, null, null)));
+        queued.setExpensesVersion(jdbcTemplate.queryForObject(
+            "SELECT version FROM table_versions WHERE table_name = 'EXPENSES'", Long.class) + 1);
+        queued.setStatus(Status.QUEUED);
+        queued.setCreatedAt(LocalDateTime.now());
+        Long id = reportJobRepository.save(queued).getId();
+        statementRecorder.statements.clear();
+        
+        // Act
+        reportJobService.resumeQueued();
+        ReportJob job = awaitFinished(id);
+        
+        // Assert
+        assertThat(job.getStatus()).isEqualTo(Status.DONE);
+        assertThat(read(job).lines().toList()).hasSize(3);
+        assertThat(statementRecorder.reportQueries()).isNotEmpty().allMatch(pool -> pool.equals("primaryDataSource"));
+    }
+    
+    private ReportJob awaitFinished(Long id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ReportJob job = reportJobService.getJob(id);
+        while ((job.getStatus() == Status.QUEUED || job.getStatus() == Status.RUNNING)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            job = reportJobService.getJob(id);
+        }
+        return job;
+    }
+    
+    private String read(ReportJob job) throws IOException {
+        try (InputStream in = new GZIPInputStream(reportJobService.openResult(job))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+    
+    private Long idOf(String amount) {
+        return jdbcTemplate.queryForObject("SELECT id FROM expenses WHERE amount = " + amount, Long.class);
+    }
+    
+    @TestConfiguration
+    static class StatementRecorder {
+        
+        // Pool and SQL of every statement run on a report worker
+        final Queue<String[]> statements = new ConcurrentLinkedQueue<>();
+        
+        // Pools that ran the report queries themselves
+        List<String> reportQueries() {
+            return statements.stream().filter(statement -> statement[1].contains("expenses_archive"))
+                .map(statement -> statement[0]).toList();
+        }
+        
+        @Bean
+        QueryExecutionListener reportRecordingListener() {
+            return new QueryExecutionListener() {
+                @Override
+                public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                    if (Thread.currentThread().getName().startsWith("report-")) {
+                        queryInfoList.forEach(query -> statements.add(new String[] {execInfo.getDataSourceName(), query.getQuery()}));
+                    }
+                }
+                
+                @Override
+                public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@DataJpaTest
+@Import({SqlDialect.class, SecondLevelCache.class})
+@DisplayName("CategoryRepository In-Place Write Tests")
+class CategoryRepositoryTest {
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private Category defaultCategory;
+    private Category customCategory;
+    
+    @BeforeEach
+    void setUp() {
+        defaultCategory = entityManager.persist(category("Groceries", true));
+        customCategory = entityManager.persistAndFlush(category("Hobbies", false));
+        entityManager.clear();
+    }
+    
+    @Test
+    @DisplayName("Should rename a custom category and bump its version")
+    void updateInPlace_WhenCustom_ShouldReturnUpdatedCategory() {
+        Optional<Category> updated = categoryRepository.updateInPlace(changes(customCategory, "Crafts", 0L));
+        
+        assertThat(updated).isPresent();
+        assertThat(updated.get().getVersion()).isEqualTo(1L);
+        assertThat(updated.get().getCreatedAt()).isCloseTo(customCategory.getCreatedAt(), within(1, ChronoUnit.MICROS));
+        assertThat(categoryRepository.findByName("Crafts")).isPresent();
+    }
+    
+    @Test
+    @DisplayName("Should match nothing for default categories and stale versions")
+    void updateInPlace_WhenDefaultOrStale_ShouldMatchNothing() {
+        assertThat(categoryRepository.updateInPlace(changes(defaultCategory, "Food", null))).isEmpty();
+        assertThat(categoryRepository.updateInPlace(changes(customCategory, "Crafts", 3L))).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("Should surface a duplicate name as DuplicateKeyException")
+    void updateInPlace_WhenNameTaken_ShouldThrowDuplicateKey() {
+        assertThatThrownBy(() -> categoryRepository.updateInPlace(changes(customCategory, "Groceries", null)))
+            .isInstanceOf(DuplicateKeyException.class);
+    }
+    
+    @Test
+    @DisplayName("Should delete custom categories only")
+    void deleteCustomInPlace_ShouldSkipDefaultCategories() {
+        assertThat(categoryRepository.deleteCustomInPlace(defaultCategory.getId())).isZero();
+        assertThat(categoryRepository.deleteCustomInPlace(customCategory.getId())).isEqualTo(1);
+        assertThat(categoryRepository.existsById(customCategory.getId())).isFalse();
+    }
+    
+    private static Category changes(Category category, String name, Long expectedVersion) {
+        Category changes = new Category();
+        changes.setId(category.getId());
+        changes.setName(name);
+        changes.setDescription("Changed");
+        changes.setUpdatedAt(LocalDateTime.now());
+        changes.setVersion(expectedVersion);
+        return changes;
+    }
+    
+    private static Category category(String name, boolean isDefault) {
+        Category category = new Category();
+        category.setName(name);
+        category.setIsDefault(isDefault);
+        return category;
+    }
+}
@@ -0,0 +1,157 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.repository.ExpenseRepositoryCustom.UpdatedExpense;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DataJpaTest
+@Import({SqlDialect.class, SecondLevelCache.class})
+@DisplayName("ExpenseRepository In-Place Write Tests")
+class ExpenseRepositoryTest {
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private ExpenseTombstoneRepository expenseTombstoneRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private Category groceries;
+    private Category transport;
+    private Expense expense;
+    
+    @BeforeEach
+    void setUp() {
+        groceries = entityManager.persist(category("Groceries"));
+        transport = entityManager.persist(category("Transportation"));
+        
+        expense = new Expense();
+        expense.setAmount(new BigDecimal("12.50"));
+        expense.setCategory(groceries);
+        expense.setDate(LocalDate.of(2025, 1, 31));
+        expense.setDescription("Weekly shop");
+        expense = entityManager.persistAndFlush(expense);
+        entityManager.clear();
+    }
+    
+    @Test
+    @DisplayName("Should update the row and return the previous date and new version")
+    void updateInPlace_ShouldReturnPreviousDateAndBumpVersion() {
+        Optional<UpdatedExpense> updated = expenseRepository.updateInPlace(
+            changes(transport, LocalDate.of(2025, 2, 1), 0L));
+        
+        assertThat(updated).isPresent();
+        assertThat(updated.get().previousDate()).isEqualTo(LocalDate.of(2025, 1, 31));
+        assertThat(updated.get().expense().getVersion()).isEqualTo(1L);
+        assertThat(updated.get().expense().getCategory().getName()).isEqualTo("Transportation");
+        assertThat(updated.get().expense().getCreatedAt()).isCloseTo(expense.getCreatedAt(), within(1, ChronoUnit.MICROS));
+        
+        Expense stored = expenseRepository.findById(expense.getId()).orElseThrow();
+        assertThat(stored.getAmount()).isEqualByComparingTo("99.00");
+        assertThat(stored.getCategory().getId()).isEqualTo(transport.getId());
+        assertThat(stored.getVersion()).isEqualTo(1L);
+    }
+    
+    @Test
+    @DisplayName("Should leave the row alone when the expected version is stale")
+    void updateInPlace_WhenVersionIsStale_ShouldMatchNothing() {
+        assertThat(expenseRepository.updateInPlace(changes(transport, LocalDate.of(2025, 2, 1), 5L))).isEmpty();
+        assertThat(expenseRepository.findById(expense.getId()).orElseThrow().getAmount()).isEqualByComparingTo("12.50");
+    }
+    
+    @Test
+    @DisplayName("Should match nothing instead of failing when the new category does not exist")
+    void updateInPlace_WhenCategoryMissing_ShouldMatchNothing() {
+        Category missing = new Category();
+        missing.setId(-1L);
+        
+        assertThat(expenseRepository.updateInPlace(changes(missing, LocalDate.of(2025, 2, 1), null))).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("Should write only the patched columns and return the whole row")
+    void patchInPlace_ShouldKeepColumnsThatWereNotSent() {
+        Expense changes = new Expense();
+        changes.setId(expense.getId());
+        changes.setDescription(null);
+        changes.setUpdatedAt(LocalDateTime.now());
+        
+        Optional<UpdatedExpense> patched = expenseRepository.patchInPlace(changes, Set.of("description"));
+        
+        assertThat(patched).isPresent();
+        assertThat(patched.get().previousDate()).isEqualTo(LocalDate.of(2025, 1, 31));
+        assertThat(patched.get().expense().getAmount()).isEqualByComparingTo("12.50");
+        assertThat(patched.get().expense().getCategory().getName()).isEqualTo("Groceries");
+        assertThat(patched.get().expense().getDescription()).isNull();
+        assertThat(patched.get().expense().getVersion()).isEqualTo(1L);
+    }
+    
+    @Test
+    @DisplayName("Should return the previous date when a patch moves the expense")
+    void patchInPlace_WhenDateAndCategoryChange_ShouldReturnPreviousDate() {
+        Expense changes = new Expense();
+        changes.setId(expense.getId());
+        changes.setCategory(transport);
+        changes.setDate(LocalDate.of(2025, 2, 1));
+        changes.setUpdatedAt(LocalDateTime.now());
+        changes.setVersion(0L);
+        
+        UpdatedExpense patched = expenseRepository.patchInPlace(changes, Set.of("category", "date")).orElseThrow();
+        
+        assertThat(patched.previousDate()).isEqualTo(LocalDate.of(2025, 1, 31));
+        assertThat(patched.expense().getDate()).isEqualTo(LocalDate.of(2025, 2, 1));
+        assertThat(patched.expense().getCategory().getName()).isEqualTo("Transportation");
+        assertThat(patched.expense().getDescription()).isEqualTo("Weekly shop");
+        
+        // The expected version is now stale
+        assertThat(expenseRepository.patchInPlace(changes, Set.of("category", "date"))).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("Should delete the row and record its tombstone in one statement")
+    void deleteWithTombstone_ShouldDeleteAndRecordTombstone() {
+        assertThat(expenseRepository.deleteWithTombstone(expense.getId())).isTrue();
+        
+        assertThat(expenseRepository.existsById(expense.getId())).isFalse();
+        assertThat(expenseTombstoneRepository.existsById(expense.getId())).isTrue();
+        assertThat(expenseRepository.deleteWithTombstone(expense.getId())).isFalse();
+    }
+    
+    private Expense changes(Category category, LocalDate date, Long expectedVersion) {
+        Expense changes = new Expense();
+        changes.setId(expense.getId());
+        changes.setAmount(new BigDecimal("99.00"));
+        changes.setCategory(category);
+        changes.setDate(date);
+        changes.setDescription("Moved");
+        changes.setUpdatedAt(LocalDateTime.now());
+        changes.setVersion(expectedVersion);
+        return changes;
+    }
+    
+    private static Category category(String name) {
+        Category category = new Category();
+        category.setName(name);
+        category.setIsDefault(true);
+        return category;
+    }
+}
@@ -0,0 +1,353 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.dto.CategoryRequest;
+import com.expensetracker.dto.CategoryResponse;
+import com.expensetracker.dto.ExpensePatchRequest;
+import com.expensetracker.dto.ExpenseRequest;
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.dto.RecurringExpensePatchRequest;
+import com.expensetracker.dto.RecurringExpenseRequest;
+import com.expensetracker.dto.RecurringExpenseResponse;
+import com.expensetracker.exception.ResourceNotFoundException;
+import com.expensetracker.exception.VersionConflictException;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.RecurringExpense.RecurrenceFrequency;
+import com.expensetracker.repository.ExpenseRepositoryCustom.UpdatedExpense;
+import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.ExpenseService;
+import com.expensetracker.service.RecurringExpenseService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Opt-in: mvn -Ppostgres test
+// The in-place updates, patches and deletes have a PostgreSQL form (RETURNING, a data-modifying CTE) next to
+// the H2 form the regular suite runs. Uses a Testcontainers instance, or an existing database via
+// -Dpostgres.jdbc-url.
+@Tag("postgres")
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@DisplayName("In-Place Writes on PostgreSQL Tests")
+class PostgresInPlaceWriteTest {
+    
+    private static final long MISSING_ID = 999_999L;
+    
+    private static PostgreSQLContainer<?> postgres;
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private RecurringExpenseService recurringExpenseService;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private CategoryResponse groceries;
+    private CategoryResponse transport;
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        String jdbcUrl = System.getProperty("postgres.jdbc-url");
+        if (jdbcUrl != null) {
+            registry.add("spring.datasource.url", () -> jdbcUrl);
+            registry.add("spring.datasource.username", () -> System.getProperty("postgres.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("postgres.password", "postgres"));
+            return;
+        }
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+    
+    @AfterAll
+    static void stopDatabase() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+    
+    @BeforeEach
+    void setUp() {
+        groceries = categoryService.createCategory(new CategoryRequest("Groceries", null, null));
+        transport = categoryService.createCategory(new CategoryRequest("Transportation", null, null));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM expense_tombstones");
+        jdbcTemplate.update("DELETE FROM expense_events");
+        jdbcTemplate.update("DELETE FROM expenses");
+        jdbcTemplate.update("DELETE FROM recurring_expenses");
+        jdbcTemplate.update("DELETE FROM categories");
+    }
+    
+    @Test
+    @DisplayName("Should update an expense and return its previous date, new version and category")
+    void updateExpense_ShouldReturnPreviousDateAndBumpVersion() {
+        ExpenseResponse created = createExpense(LocalDate.of(2025, 1, 31));
+        
+        Optional<UpdatedExpense> updated = expenseRepository.updateInPlace(
+            expenseChanges(created.getId(), transport.getId(), created.getVersion()));
+        
+        assertThat(updated).isPresent();
+        assertThat(updated.get().previousDate()).isEqualTo(LocalDate.of(2025, 1, 31));
+        assertThat(updated.get().expense().getVersion()).isEqualTo(created.getVersion() + 1);
+        assertThat(updated.get().expense().getCategory().getName()).isEqualTo("Transportation");
+        assertThat(updated.get().expense().getCreatedAt()).isNotNull();
+        Expense stored = expenseRepository.findById(created.getId()).orElseThrow();
+        assertThat(stored.getAmount()).isEqualByComparingTo("99.00");
+        assertThat(stored.getDate()).isEqualTo(LocalDate.of(2025, 2, 1));
+    }
+    
+    @Test
+    @DisplayName("Should tell a stale expense version from a missing expense or category")
+    void updateExpense_WhenNothingMatched_ShouldDiagnoseFailure() {
+        ExpenseResponse created = createExpense(LocalDate.of(2025, 1, 31));
+        
+        assertThatThrownBy(() -> expenseService.updateExpense(created.getId(),
+                expenseRequest(groceries.getId(), created.getVersion() + 1)))
+            .isInstanceOf(VersionConflictException.class);
+        assertThatThrownBy(() -> expenseService.updateExpense(MISSING_ID,
+                expenseRequest(groceries.getId(), 0L)))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Expense not found");
+        assertThatThrownBy(() -> expenseService.updateExpense(created.getId(),
+                expenseRequest(MISSING_ID, created.getVersion())))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Category not found");
+        assertThat(expenseRepository.findById(created.getId()).orElseThrow().getVersion()).isEqualTo(created.getVersion());
+    }
+    
+    @Test
+    @DisplayName("Should delete an expense and record its tombstone in one statement")
+    void deleteExpense_ShouldRemoveRowAndWriteTombstone() {
+        ExpenseResponse created = createExpense(LocalDate.of(2025, 1, 31));
+        
+        expenseService.deleteExpense(created.getId());
+        
+        assertThat(expenseRepository.existsById(created.getId())).isFalse();
+        assertThat(tombstoneCount(created.getId())).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should move an existing tombstone forward instead of failing on its key")
+    void deleteExpense_WhenTombstoneExists_ShouldUpdateIt() {
+        ExpenseResponse created = createExpense(LocalDate.of(2025, 1, 31));
+        LocalDateTime earlier = LocalDateTime.of(2020, 1, 1, 0, 0);
+        jdbcTemplate.update("INSERT INTO expense_tombstones (expense_id, deleted_at) VALUES (?, ?)",
+            created.getId(), earlier);
+        
+        expenseService.deleteExpense(created.getId());
+        
+        LocalDateTime deletedAt = jdbcTemplate.queryForObject(
+            "SELECT deleted_at FROM expense_tombstones WHERE expense_id = ?", LocalDateTime.class, created.getId());
+        assertThat(deletedAt).isAfter(earlier);
+    }
+    
+    @Test
+    @DisplayName("Should report a missing expense on delete without writing a tombstone")
+    void deleteExpense_WhenMissing_ShouldWriteNothing() {
+        assertThatThrownBy(() -> expenseService.deleteExpense(MISSING_ID))
+            .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(tombstoneCount(MISSING_ID)).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should patch a moved expense, clearing null fields and keeping absent ones")
+    void patchExpense_WhenDateMoves_ShouldReturnPreviousDate() {
+        ExpenseResponse created = createExpense(LocalDate.of(2025, 1, 31));
+        Expense changes = new Expense();
+        changes.setId(created.getId());
+        changes.setDate(LocalDate.of(2025, 2, 1));
+        changes.setDescription(null);
+        changes.setUpdatedAt(LocalDateTime.now());
+        changes.setVersion(created.getVersion());
+        
+        Optional<UpdatedExpense> patched = expenseRepository.patchInPlace(changes, Set.of("date", "description"));
+        
+        assertThat(patched).isPresent();
+        assertThat(patched.get().previousDate()).isEqualTo(LocalDate.of(2025, 1, 31));
+        assertThat(patched.get().expense().getDate()).isEqualTo(LocalDate.of(2025, 2, 1));
+        assertThat(patched.get().expense().getDescription()).isNull();
+        assertThat(patched.get().expense().getAmount()).isEqualByComparingTo("12.50");
+        assertThat(patched.get().expense().getCategory().getName()).isEqualTo("Groceries");
+        assertThat(patched.get().expense().getVersion()).isEqualTo(created.getVersion() + 1);
+    }
+    
+    @Test
+    @DisplayName("Should patch an expense in place without touching the fields left out")
+    void patchExpense_ShouldWriteOnlyPresentFields() {
+        ExpenseResponse created = createExpense(LocalDate.of(2025, 1, 31));
+        ExpensePatchRequest patch = new ExpensePatchRequest();
+        patch.setAmount(Optional.of(new BigDecimal("20.00")));
+        patch.setCategoryId(Optional.of(transport.getId()));
+        patch.setVersion(created.getVersion());
+        
+        ExpenseResponse patched = expenseService.patchExpense(created.getId(), patch);
+        
+        assertThat(patched.getAmount()).isEqualByComparingTo("20.00");
+        assertThat(patched.getCategory()).isEqualTo("Transportation");
+        assertThat(patched.getDate()).isEqualTo(LocalDate.of(2025, 1, 31));
+        assertThat(patched.getDescription()).isEqualTo("Weekly shop");
+        Expense stored = expenseRepository.findById(created.getId()).orElseThrow();
+        assertThat(stored.getDescription()).isEqualTo("Weekly shop");
+        assertThat(stored.getVersion()).isEqualTo(created.getVersion() + 1);
+    }
+    
+    @Test
+    @DisplayName("Should tell a stale version from a missing category when an expense patch matches nothing")
+    void patchExpense_WhenNothingMatched_ShouldDiagnoseFailure() {
+        ExpenseResponse created = createExpense(LocalDate.of(2025, 1, 31));
+        ExpensePatchRequest stale = new ExpensePatchRequest();
+        stale.setDescription(Optional.empty());
+        stale.setVersion(created.getVersion() + 1);
+        ExpensePatchRequest missingCategory = new ExpensePatchRequest();
+        missingCategory.setCategoryId(Optional.of(MISSING_ID));
+        missingCategory.setVersion(created.getVersion());
+        
+        assertThatThrownBy(() -> expenseService.patchExpense(created.getId(), stale))
+            .isInstanceOf(VersionConflictException.class);
+        assertThatThrownBy(() -> expenseService.patchExpense(created.getId(), missingCategory))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Category not found");
+        assertThat(expenseRepository.findById(created.getId()).orElseThrow().getDescription()).isEqualTo("Weekly shop");
+    }
+    
+    @Test
+    @DisplayName("Should update a recurring expense and tell a stale version from a missing row or category")
+    void updateRecurringExpense_ShouldUpdateOrDiagnoseFailure() {
+        RecurringExpenseResponse created = recurringExpenseService.createRecurringExpense(
+            recurringExpenseRequest(groceries.getId(), null));
+        
+        RecurringExpenseResponse updated = recurringExpenseService.updateRecurringExpense(created.getId(),
+            recurringExpenseRequest(transport.getId(), created.getVersion()));
+        
+        assertThat(updated.getVersion()).isEqualTo(created.getVersion() + 1);
+        assertThat(updated.getCategory()).isEqualTo("Transportation");
+        assertThat(updated.getNextOccurrence()).isEqualTo(created.getNextOccurrence());
+        assertThat(updated.getAmount()).isEqualByComparingTo("65.00");
+        assertThatThrownBy(() -> recurringExpenseService.updateRecurringExpense(created.getId(),
+                recurringExpenseRequest(groceries.getId(), created.getVersion())))
+            .isInstanceOf(VersionConflictException.class);
+        assertThatThrownBy(() -> recurringExpenseService.updateRecurringExpense(MISSING_ID,
+                recurringExpenseRequest(groceries.getId(), 0L)))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Recurring expense not found");
+        assertThatThrownBy(() -> recurringExpenseService.updateRecurringExpense(created.getId(),
+                recurringExpenseRequest(MISSING_ID, updated.getVersion())))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Category not found");
+    }
+    
+    @Test
+    @DisplayName("Should patch a recurring expense, clearing null fields and keeping absent ones")
+    void patchRecurringExpense_ShouldWriteOnlyPresentFields() {
+        RecurringExpenseRequest request = recurringExpenseRequest(groceries.getId(), null);
+        request.setEndDate(LocalDate.of(2025, 12, 31));
+        RecurringExpenseResponse created = recurringExpenseService.createRecurringExpense(request);
+        RecurringExpensePatchRequest patch = new RecurringExpensePatchRequest();
+        patch.setEndDate(Optional.empty());
+        patch.setCategoryId(Optional.of(transport.getId()));
+        patch.setVersion(created.getVersion());
+        
+        RecurringExpenseResponse patched = recurringExpenseService.patchRecurringExpense(created.getId(), patch);
+        
+        assertThat(patched.getEndDate()).isNull();
+        assertThat(patched.getCategory()).isEqualTo("Transportation");
+        assertThat(patched.getDescription()).isEqualTo("Rent");
+        assertThat(patched.getAmount()).isEqualByComparingTo("55.00");
+        assertThat(patched.getFrequency()).isEqualTo(RecurrenceFrequency.MONTHLY);
+        assertThat(patched.getNextOccurrence()).isEqualTo(created.getNextOccurrence());
+        assertThat(patched.getVersion()).isEqualTo(created.getVersion() + 1);
+        assertThatThrownBy(() -> recurringExpenseService.patchRecurringExpense(created.getId(), patch))
+            .isInstanceOf(VersionConflictException.class);
+    }
+    
+    @Test
+    @DisplayName("Should update a custom category and tell a stale version from a missing or default one")
+    void updateCategory_ShouldUpdateOrDiagnoseFailure() {
+        Category defaultCategory = new Category();
+        defaultCategory.setName("Utilities");
+        defaultCategory.setIsDefault(true);
+        Long defaultId = categoryRepository.save(defaultCategory).getId();
+        
+        CategoryResponse updated = categoryService.updateCategory(groceries.getId(),
+            new CategoryRequest("Food", "Weekly shop", groceries.getVersion()));
+        
+        assertThat(updated.getVersion()).isEqualTo(groceries.getVersion() + 1);
+        assertThat(updated.getCreatedAt()).isNotNull();
+        assertThat(categoryRepository.findById(groceries.getId()).orElseThrow().getName()).isEqualTo("Food");
+        assertThatThrownBy(() -> categoryService.updateCategory(groceries.getId(),
+                new CategoryRequest("Produce", null, groceries.getVersion())))
+            .isInstanceOf(VersionConflictException.class);
+        assertThatThrownBy(() -> categoryService.updateCategory(MISSING_ID, new CategoryRequest("Produce", null, 0L)))
+            .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> categoryService.updateCategory(defaultId, new CategoryRequest("Bills", null, 0L)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("default");
+    }
+    
+    private ExpenseResponse createExpense(LocalDate date) {
+        return expenseService.createExpense(
+            new ExpenseRequest(new BigDecimal("12.50"), groceries.getId(), date, "Weekly shop", null));
+    }
+    
+    private ExpenseRequest expenseRequest(Long categoryId, Long version) {
+        return new ExpenseRequest(new BigDecimal("99.00"), categoryId, LocalDate.of(2025, 2, 1), "Moved", version);
+    }
+    
+    private Expense expenseChanges(Long id, Long categoryId, Long version) {
+        Category category = new Category();
+        category.setId(categoryId);
+        Expense changes = new Expense();
+        changes.setId(id);
+        changes.setAmount(new BigDecimal("99.00"));
+        changes.setCategory(category);
+        changes.setDate(LocalDate.of(2025, 2, 1));
+        changes.setDescription("Moved");
+        changes.setUpdatedAt(LocalDateTime.now());
+        changes.setVersion(version);
+        return changes;
+    }
+    
+    private RecurringExpenseRequest recurringExpenseRequest(Long categoryId, Long version) {
+        BigDecimal amount = version == null ? new BigDecimal("55.00") : new BigDecimal("65.00");
+        return new RecurringExpenseRequest(amount, categoryId, "Rent", RecurrenceFrequency.MONTHLY,
+            LocalDate.of(2025, 1, 1), null, version);
+    }
+    
+    private int tombstoneCount(Long expenseId) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM expense_tombstones WHERE expense_id = ?", Integer.class, expenseId);
+    }
+}
@@ -0,0 +1,113 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.RecurringExpense;
+import com.expensetracker.model.RecurringExpense.RecurrenceFrequency;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({SqlDialect.class, SecondLevelCache.class})
+@DisplayName("RecurringExpenseRepository In-Place Write Tests")
+class RecurringExpenseRepositoryTest {
+    
+    @Autowired
+    private RecurringExpenseRepository recurringExpenseRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private Category utilities;
+    private RecurringExpense rent;
+    
+    @BeforeEach
+    void setUp() {
+        utilities = new Category();
+        utilities.setName("Utilities");
+        utilities.setIsDefault(true);
+        utilities = entityManager.persist(utilities);
+        
+        rent = new RecurringExpense();
+        rent.setAmount(new BigDecimal("800.00"));
+        rent.setCategory(utilities);
+        rent.setDescription("Rent");
+        rent.setFrequency(RecurrenceFrequency.MONTHLY);
+        rent.setStartDate(LocalDate.of(2025, 1, 1));
+        rent.setNextOccurrence(LocalDate.of(2025, 3, 1));
+        rent = entityManager.persistAndFlush(rent);
+        entityManager.clear();
+    }
+    
+    @Test
+    @DisplayName("Should update the schedule and keep its next occurrence and active flag")
+    void updateInPlace_ShouldKeepScheduleState() {
+        RecurringExpense changes = new RecurringExpense();
+        changes.setId(rent.getId());
+        changes.setAmount(new BigDecimal("850.00"));
+        changes.setCategory(utilities);
+        changes.setDescription("Rent");
+        changes.setFrequency(RecurrenceFrequency.MONTHLY);
+        changes.setStartDate(LocalDate.of(2025, 1, 1));
+        changes.setUpdatedAt(LocalDateTime.now());
+        changes.setVersion(0L);
+        
+        Optional<RecurringExpense> updated = recurringExpenseRepository.updateInPlace(changes);
+        
+        assertThat(updated).isPresent();
+        assertThat(updated.get().getNextOccurrence()).isEqualTo(LocalDate.of(2025, 3, 1));
+        assertThat(updated.get().getActive()).isTrue();
+        assertThat(updated.get().getVersion()).isEqualTo(1L);
+        assertThat(updated.get().getCategory().getName()).isEqualTo("Utilities");
+        
+        // The same expected version a second time is now stale
+        assertThat(recurringExpenseRepository.updateInPlace(changes)).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("Should write only the patched columns and return the whole row")
+    void patchInPlace_ShouldKeepColumnsThatWereNotSent() {
+        RecurringExpense changes = new RecurringExpense();
+        changes.setId(rent.getId());
+        changes.setFrequency(RecurrenceFrequency.WEEKLY);
+        changes.setEndDate(LocalDate.of(2025, 12, 31));
+        changes.setUpdatedAt(LocalDateTime.now());
+        
+        RecurringExpense patched = recurringExpenseRepository
+            .patchInPlace(changes, Set.of("frequency", "endDate")).orElseThrow();
+        
+        assertThat(patched.getFrequency()).isEqualTo(RecurrenceFrequency.WEEKLY);
+        assertThat(patched.getEndDate()).isEqualTo(LocalDate.of(2025, 12, 31));
+        assertThat(patched.getAmount()).isEqualByComparingTo("800.00");
+        assertThat(patched.getDescription()).isEqualTo("Rent");
+        assertThat(patched.getCategory().getName()).isEqualTo("Utilities");
+        assertThat(patched.getNextOccurrence()).isEqualTo(LocalDate.of(2025, 3, 1));
+        assertThat(patched.getVersion()).isEqualTo(1L);
+    }
+    
+    @Test
+    @DisplayName("Should toggle and delete by row count")
+    void updateActiveAndDeleteInPlace_ShouldReportMatchedRows() {
+        assertThat(recurringExpenseRepository.updateActiveInPlace(rent.getId(), false, LocalDateTime.now())).isEqualTo(1);
+        entityManager.clear();
+        RecurringExpense stored = recurringExpenseRepository.findById(rent.getId()).orElseThrow();
+        assertThat(stored.getActive()).isFalse();
+        assertThat(stored.getVersion()).isEqualTo(1L);
+        
+        assertThat(recurringExpenseRepository.deleteInPlace(rent.getId())).isEqualTo(1);
+        assertThat(recurringExpenseRepository.deleteInPlace(rent.getId())).isZero();
+        assertThat(recurringExpenseRepository.updateActiveInPlace(rent.getId(), true, LocalDateTime.now())).isZero();
+    }
+}
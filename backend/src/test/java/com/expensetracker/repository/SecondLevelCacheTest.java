@@ -0,0 +1,95 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.ExpenseTrackerApplication;
+import com.expensetracker.dto.BudgetRequest;
+import com.expensetracker.dto.CategoryRequest;
+import com.expensetracker.dto.CategoryResponse;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import com.expensetracker.service.BudgetService;
+import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.TableVersionService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two application contexts on one database, standing in for two pods behind the load balancer
+@DisplayName("SecondLevelCache Tests")
+class SecondLevelCacheTest {
+    
+    private static ConfigurableApplicationContext podA;
+    private static ConfigurableApplicationContext podB;
+    
+    @BeforeAll
+    static void startPods() {
+        podA = start("create-drop");
+        podB = start("none");
+    }
+    
+    @AfterAll
+    static void stopPods() {
+        podB.close();
+        podA.close();
+    }
+    
+    @Test
+    @DisplayName("Should serve another pod's category and budget changes under the ETag that announces them")
+    void etag_AfterWriteOnAnotherPod_ShouldDropStaleEntries() {
+        // Arrange: pod B has both cached
+        CategoryResponse created = podA.getBean(CategoryService.class).createCategory(new CategoryRequest("Groceries", null, null));
+        Long id = created.getId();
+        podA.getBean(BudgetService.class).setBudget(new BudgetRequest(new BigDecimal("500.00")));
+        podB.getBean(TableVersionService.class).etag(TrackedTable.CATEGORIES, TrackedTable.BUDGETS);
+        assertThat(podB.getBean(CategoryService.class).getCategoryById(id).getName()).isEqualTo("Groceries");
+        assertThat(podB.getBean(BudgetService.class).getBudget().getMonthlyLimit()).isEqualByComparingTo("500.00");
+        
+        // Act
+        podA.getBean(CategoryService.class).updateCategory(id, new CategoryRequest("Food", null, created.getVersion()));
+        podA.getBean(BudgetService.class).setBudget(new BudgetRequest(new BigDecimal("750.00")));
+        String staleName = podB.getBean(CategoryService.class).getCategoryById(id).getName();
+        podB.getBean(TableVersionService.class).etag(TrackedTable.CATEGORIES, TrackedTable.BUDGETS);
+        
+        // Assert: the cache really was serving pod B until the versions moved
+        assertThat(staleName).isEqualTo("Groceries");
+        assertThat(podB.getBean(CategoryService.class).getCategoryById(id).getName()).isEqualTo("Food");
+        assertThat(podB.getBean(BudgetService.class).getBudget().getMonthlyLimit()).isEqualByComparingTo("750.00");
+    }
+    
+    @Test
+    @DisplayName("Should drop another pod's changes on the periodic version check as well")
+    void checkCachedTables_AfterWriteOnAnotherPod_ShouldDropStaleEntries() {
+        // Arrange
+        CategoryResponse created = podA.getBean(CategoryService.class).createCategory(new CategoryRequest("Travel", null, null));
+        Long id = created.getId();
+        podB.getBean(TableVersionService.class).checkCachedTables();
+        podB.getBean(CategoryService.class).getCategoryById(id);
+        podA.getBean(CategoryService.class).updateCategory(id, new CategoryRequest("Trips", null, created.getVersion()));
+        
+        // Act
+        podB.getBean(TableVersionService.class).checkCachedTables();
+        
+        // Assert
+        assertThat(podB.getBean(CategoryService.class).getCategoryById(id).getName()).isEqualTo("Trips");
+    }
+    
+    private static ConfigurableApplicationContext start(String ddlAuto) {
+        return new SpringApplicationBuilder(ExpenseTrackerApplication.class)
+            .web(WebApplicationType.NONE)
+            .profiles("test")
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:pods;DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                "spring.jpa.show-sql=false",
+                "app.projections.poll-interval=PT1H",
+                // Only the explicit checks above may evict
+                "app.cache.version-check-interval=PT1H")
+            .run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.expensetracker.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AdaptiveConcurrencyLimiter Tests")
+class AdaptiveConcurrencyLimiterTest {
+    
+    private static final long TARGET = 100;
+    
+    @Test
+    @DisplayName("Should refuse requests beyond the limit until one finishes")
+    void tryAcquire_AtLimit_ShouldRefuse() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, TARGET);
+        long now = System.nanoTime();
+        
+        // Act & Assert
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        limiter.release(now, now + 1, false);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+    
+    @Test
+    @DisplayName("Should grow while busy requests are fast, up to the maximum")
+    void release_FastAtFullConcurrency_ShouldGrowTheLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 6, TARGET);
+        
+        // Act: keep the limit full, each request finishing well within the target
+        for (int i = 0; i < 100; i++) {
+            while (limiter.tryAcquire()) {
+                // fill every slot
+            }
+            long now = System.nanoTime();
+            limiter.release(now, now + TARGET / 2, false);
+        }
+        
+        // Assert
+        assertThat(limiter.getLimit()).isEqualTo(6);
+    }
+    
+    @Test
+    @DisplayName("Should cut the limit once per burst of slow requests and never below the minimum")
+    void release_Slow_ShouldCutOncePerBurst() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 20, TARGET);
+        long started = System.nanoTime() + 1;
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire();
+        }
+        
+        // Act: three requests admitted together all run over the target
+        limiter.release(started, started + TARGET * 2, false);
+        limiter.release(started, started + TARGET * 3, false);
+        limiter.release(started, started + TARGET * 4, true);
+        
+        // Assert
+        assertThat(limiter.getLimit()).isEqualTo(18);
+        
+        // Act: later requests keep failing
+        long later = started + TARGET * 5;
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(later + i * TARGET * 2, later + i * TARGET * 2 + 1, true);
+        }
+        
+        // Assert
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
@@ -0,0 +1,139 @@
+package com.expensetracker.resilience;
+
+import com.expensetracker.config.BulkheadProperties;
+import com.expensetracker.config.ReadConsistencyContext;
+import com.expensetracker.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BulkheadAspect Tests")
+class BulkheadAspectTest {
+    
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private SimpleMeterRegistry meterRegistry;
+    private BulkheadAspect aspect;
+    private Reports target;
+    private Reports reports;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        BulkheadProperties.Settings settings = new BulkheadProperties.Settings(1, 1, Duration.ofSeconds(5));
+        aspect = new BulkheadAspect(new BulkheadProperties(Duration.ofSeconds(3), settings, settings), meterRegistry);
+        target = new Reports();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        reports = factory.getProxy();
+        target.self = reports;
+    }
+    
+    @AfterEach
+    void tearDown() {
+        target.release.countDown();
+        callers.shutdownNow();
+        aspect.shutdown();
+        ReadConsistencyContext.clear();
+    }
+    
+    @Test
+    @DisplayName("Should run the call on a worker of its bulkhead and keep nested calls there")
+    void isolate_ShouldRunOnTheBulkheadWorker() {
+        // Arrange
+        ReadConsistencyContext.setPrimaryRequired(true);
+        
+        // Act
+        String where = reports.nested();
+        
+        // Assert: the interactive call made from the reporting worker did not move again
+        assertThat(where).startsWith("reporting-bulkhead-").endsWith(" REPORTING true");
+        assertThat(BulkheadContext.current()).isNull();
+        assertThat(meterRegistry.get(BulkheadAspect.QUEUE_WAIT_TIMER).tag("bulkhead", "reporting").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get(BulkheadAspect.QUEUE_WAIT_TIMER).tag("bulkhead", "interactive").timer().count())
+            .isZero();
+    }
+    
+    @Test
+    @DisplayName("Should refuse calls with 503 once the bulkhead's queue is full")
+    void isolate_QueueFull_ShouldRefuse() throws Exception {
+        // Arrange: one call holds the only worker and a second one waits in the queue
+        Future<String> running = callers.submit(reports::blocking);
+        assertThat(target.started.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> queued = callers.submit(reports::blocking);
+        waitForQueueDepth(1);
+        
+        // Act & Assert
+        assertThatThrownBy(reports::blocking)
+            .isInstanceOf(ServiceUnavailableException.class)
+            .satisfies(ex -> assertThat(((ServiceUnavailableException) ex).getRetryAfter()).isEqualTo(Duration.ofSeconds(3)));
+        assertThat(meterRegistry.get(BulkheadAspect.REJECTED_COUNTER).tag("bulkhead", "reporting").counter().count())
+            .isEqualTo(1);
+        // The interactive bulkhead is unaffected
+        assertThat(reports.interactive()).startsWith("interactive-bulkhead-");
+        target.release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+    }
+    
+    @Test
+    @DisplayName("Should hand the caller the exception the call threw")
+    void isolate_Failure_ShouldRethrow() {
+        // Act & Assert
+        assertThatThrownBy(reports::failing)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("bad filter");
+    }
+    
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get(BulkheadAspect.QUEUE_DEPTH_GAUGE).tag("bulkhead", "reporting").gauge().value() < depth) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+    
+    static class Reports {
+        
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Reports self;
+        
+        @Bulkhead(BulkheadType.REPORTING)
+        public String nested() {
+            return self.interactive();
+        }
+        
+        @Bulkhead(BulkheadType.INTERACTIVE)
+        public String interactive() {
+            return Thread.currentThread().getName() + " " + BulkheadContext.current() + " "
+                + ReadConsistencyContext.isPrimaryRequired();
+        }
+        
+        @Bulkhead(BulkheadType.REPORTING)
+        public String blocking() throws InterruptedException {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "done";
+        }
+        
+        @Bulkhead(BulkheadType.REPORTING)
+        public String failing() {
+            throw new IllegalArgumentException("bad filter");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.expensetracker.resilience;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.datasource.url=jdbc:h2:mem:concurrency",
+    "app.projections.poll-interval=PT1H",
+    "app.concurrency.enabled=true",
+    "app.concurrency.retry-after=2s"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("ConcurrencyLimitFilter Tests")
+class ConcurrencyLimitFilterTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter;
+    
+    private int held;
+    
+    @AfterEach
+    void tearDown() {
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimitFilter.getFilter().limiter(EndpointGroup.SUMMARY);
+        for (; held > 0; held--) {
+            limiter.releaseWithoutSample();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should shed only the endpoint group that is at its limit and never the health check")
+    void doFilter_GroupAtLimit_ShouldRespond503() throws Exception {
+        // Arrange: every summary slot is taken
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimitFilter.getFilter().limiter(EndpointGroup.SUMMARY);
+        while (limiter.tryAcquire()) {
+            held++;
+        }
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/expenses/summary/by-category"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string("Retry-After", "2"))
+            .andExpect(jsonPath("$.status").value(503));
+        mockMvc.perform(get("/api/categories"))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health"))
+            .andExpect(status().isOk());
+        assertThat(concurrencyLimitFilter.getFilter().limiter(EndpointGroup.CRUD).getInFlight()).isZero();
+    }
+}
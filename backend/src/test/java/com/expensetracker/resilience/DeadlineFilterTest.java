@@ -0,0 +1,84 @@
+package com.expensetracker.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DeadlineFilter Tests")
+class DeadlineFilterTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DeadlineFilter filter = new DeadlineFilter(Map.of(
+        EndpointGroup.CRUD, Duration.ofSeconds(5),
+        EndpointGroup.SUMMARY, Duration.ofSeconds(15),
+        EndpointGroup.BULK, Duration.ofMinutes(2)), Duration.ofSeconds(30), meterRegistry);
+    
+    @Test
+    @DisplayName("Should use the client's timeout up to the maximum, and the group default otherwise")
+    void timeout_ShouldPreferTheHeaderWithinTheMaximum() {
+        // Act & Assert
+        assertThat(filter.timeout("1500", EndpointGroup.SUMMARY)).isEqualTo(Duration.ofMillis(1500));
+        assertThat(filter.timeout("600000", EndpointGroup.SUMMARY)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(filter.timeout(null, EndpointGroup.SUMMARY)).isEqualTo(Duration.ofSeconds(15));
+        assertThat(filter.timeout("soon", EndpointGroup.CRUD)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(filter.timeout("-1", EndpointGroup.BULK)).isEqualTo(Duration.ofMinutes(2));
+    }
+    
+    @Test
+    @DisplayName("Should set the deadline for the request only, and count requests that outlive it")
+    void doFilter_ShouldScopeTheDeadlineToTheRequest() throws Exception {
+        // Arrange
+        AtomicReference<Long> seen = new AtomicReference<>();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/expenses/summary/monthly");
+        request.addHeader(DeadlineFilter.TIMEOUT_HEADER, "1");
+        long before = System.nanoTime();
+        
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse) {
+                seen.set(RequestDeadline.current());
+                while (!RequestDeadline.isExpired()) {
+                    Thread.onSpinWait();
+                }
+            }
+        });
+        
+        // Assert
+        assertThat(seen.get()).isBetween(before, before + Duration.ofMillis(50).toNanos());
+        assertThat(RequestDeadline.current()).isNull();
+        assertThat(meterRegistry.get(DeadlineFilter.EXCEEDED_COUNTER).tag("group", "summary").counter().count())
+            .isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should leave actuator and the summary stream without a deadline")
+    void doFilter_OutsideTheApi_ShouldNotSetADeadline() throws Exception {
+        // Arrange
+        AtomicReference<Long> seen = new AtomicReference<>(0L);
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse) {
+                seen.set(RequestDeadline.current());
+            }
+        };
+        
+        // Act & Assert
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(), chain);
+        assertThat(seen.get()).isNull();
+        seen.set(0L);
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/stream/summary"), new MockHttpServletResponse(), chain);
+        assertThat(seen.get()).isNull();
+    }
+}
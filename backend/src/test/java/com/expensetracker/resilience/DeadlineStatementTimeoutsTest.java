@@ -0,0 +1,64 @@
+package com.expensetracker.resilience;
+
+import com.expensetracker.exception.DeadlineExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.datasource.url=jdbc:h2:mem:deadlines",
+    "app.projections.poll-interval=PT1H",
+    "app.deadlines.enabled=true"
+})
+@ActiveProfiles("test")
+@DisplayName("DeadlineStatementTimeouts Tests")
+class DeadlineStatementTimeoutsTest {
+    
+    // Far more rows than H2 can sum in the time allowed
+    private static final String ENDLESS_QUERY = "SELECT SUM(X * X) FROM SYSTEM_RANGE(1, 100000000000)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+    
+    @Test
+    @DisplayName("Should cancel a running query once the request's deadline passes")
+    void runningQuery_ShouldBeCancelledAtTheDeadline() {
+        // Arrange
+        long started = System.nanoTime();
+        RequestDeadline.set(started + TimeUnit.MILLISECONDS.toNanos(500));
+        
+        // Act & Assert
+        assertThatThrownBy(() -> jdbcTemplate.queryForObject(ENDLESS_QUERY, Long.class))
+            .isInstanceOf(DeadlineExceededException.class);
+        assertThat(System.nanoTime() - started).isLessThan(TimeUnit.SECONDS.toNanos(10));
+    }
+    
+    @Test
+    @DisplayName("Should not start a query after the deadline, and leave work without one alone")
+    void query_AfterTheDeadline_ShouldNotRun() {
+        // Arrange
+        RequestDeadline.set(System.nanoTime() - 1);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> jdbcTemplate.queryForObject("SELECT 1", Integer.class))
+            .isInstanceOf(DeadlineExceededException.class)
+            .hasMessageContaining("before the query started");
+        RequestDeadline.clear();
+        assertThat(jdbcTemplate.queryForObject("SELECT 1", Integer.class)).isEqualTo(1);
+    }
+}
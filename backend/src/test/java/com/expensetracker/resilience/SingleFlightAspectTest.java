@@ -0,0 +1,148 @@
+package com.expensetracker.resilience;
+
+import com.expensetracker.event.DataChangedEvent;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SingleFlightAspect Tests")
+class SingleFlightAspectTest {
+    
+    private final ExecutorService callers = Executors.newFixedThreadPool(4);
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlightAspect aspect;
+    private SlowSummary target;
+    private SlowSummary summary;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new SingleFlightAspect(meterRegistry);
+        target = new SlowSummary();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        summary = factory.getProxy();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        target.release.countDown();
+        callers.shutdownNow();
+    }
+    
+    @Test
+    @DisplayName("Should run concurrent identical calls once and hand every caller the same result")
+    void share_ConcurrentIdenticalCalls_ShouldComputeOnce() throws Exception {
+        // Act
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(callers.submit(() -> summary.total("2025-01")));
+        }
+        waitForCallers(3);
+        target.release.countDown();
+        
+        // Assert
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("2025-01#1");
+        }
+        assertThat(target.runs.get()).isEqualTo(1);
+        assertThat(meterRegistry.get(SingleFlightAspect.CALLS_COUNTER).tag("result", "shared").counter().count())
+            .isEqualTo(3);
+    }
+    
+    @Test
+    @DisplayName("Should not share between different arguments or across a committed change")
+    void share_DifferentArgumentsOrNewerData_ShouldComputeAgain() throws Exception {
+        // Act
+        Future<String> january = callers.submit(() -> summary.total("2025-01"));
+        waitForRuns(1);
+        Future<String> february = callers.submit(() -> summary.total("2025-02"));
+        waitForRuns(2);
+        aspect.onDataChanged(new DataChangedEvent(TrackedTable.EXPENSES));
+        Future<String> januaryAfterWrite = callers.submit(() -> summary.total("2025-01"));
+        waitForRuns(3);
+        target.release.countDown();
+        
+        // Assert
+        assertThat(january.get(5, TimeUnit.SECONDS)).isNotEqualTo(januaryAfterWrite.get(5, TimeUnit.SECONDS));
+        assertThat(february.get(5, TimeUnit.SECONDS)).startsWith("2025-02");
+        assertThat(target.runs.get()).isEqualTo(3);
+    }
+    
+    @Test
+    @DisplayName("Should hand the failure to every waiting caller and start over on the next call")
+    void share_WhenComputationFails_ShouldFailEveryCaller() throws Exception {
+        // Arrange
+        target.fail = true;
+        Future<String> first = callers.submit(() -> summary.total("2025-01"));
+        waitForRuns(1);
+        Future<String> second = callers.submit(() -> summary.total("2025-01"));
+        waitForCallers(1);
+        
+        // Act
+        target.release.countDown();
+        
+        // Assert
+        for (Future<String> result : List.of(first, second)) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        }
+        target.fail = false;
+        assertThat(summary.total("2025-01")).isEqualTo("2025-01#2");
+    }
+    
+    private void waitForRuns(int runs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (target.runs.get() < runs && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(target.runs.get()).isEqualTo(runs);
+    }
+    
+    private void waitForCallers(int shared) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (sharedCount() < shared && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(sharedCount()).isEqualTo(shared);
+    }
+    
+    private double sharedCount() {
+        Counter counter = meterRegistry.find(SingleFlightAspect.CALLS_COUNTER).tag("result", "shared").counter();
+        return counter == null ? 0 : counter.count();
+    }
+    
+    static class SlowSummary {
+        
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger runs = new AtomicInteger();
+        volatile boolean fail;
+        
+        @SingleFlight
+        public String total(String month) throws InterruptedException {
+            int run = runs.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            if (fail) {
+                throw new IllegalStateException("Query failed");
+            }
+            return month + "#" + run;
+        }
+    }
+}
@@ -3,8 +3,10 @@ package com.expensetracker.service;
 import com.expensetracker.dto.BudgetRequest;
 import com.expensetracker.dto.BudgetResponse;
 import com.expensetracker.dto.BudgetStatusResponse;
+import com.expensetracker.event.DataChangedEvent;
 import com.expensetracker.exception.ResourceNotFoundException;
 import com.expensetracker.model.Budget;
+import com.expensetracker.model.TableVersion.TrackedTable;
 import com.expensetracker.repository.BudgetRepository;
 import com.expensetracker.repository.ExpenseRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -35,6 +38,9 @@ class BudgetServiceTest {
     @Mock
     private ExpenseRepository expenseRepository;
     
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
     @InjectMocks
     private BudgetService budgetService;
     
@@ -96,6 +102,7 @@ class BudgetServiceTest {
         assertThat(response.getMonthlyLimit()).isEqualTo(testRequest.getMonthlyLimit());
         verify(budgetRepository, times(1)).findFirstByOrderByUpdatedAtDesc();
         verify(budgetRepository, times(1)).save(any(Budget.class));
+        verify(eventPublisher, times(1)).publishEvent(new DataChangedEvent(TrackedTable.BUDGETS));
     }
     
     @Test
@@ -223,4 +230,36 @@ class BudgetServiceTest {
             .isInstanceOf(ResourceNotFoundException.class)
             .hasMessageContaining("No budget has been set");
     }
+    
+    @Test
+    @DisplayName("Should return empty status instead of throwing when no budget set")
+    void findBudgetStatus_WhenNoBudget_ShouldReturnEmpty() {
+        // Arrange
+        when(budgetRepository.findFirstByOrderByUpdatedAtDesc())
+            .thenReturn(Optional.empty());
+        
+        // Act
+        Optional<BudgetStatusResponse> response = budgetService.findBudgetStatus();
+        
+        // Assert
+        assertThat(response).isEmpty();
+        verify(expenseRepository, never()).findTotalAmountBetweenDates(any(), any());
+    }
+    
+    @Test
+    @DisplayName("Should compute status from a provided total without querying expenses")
+    void findBudgetStatus_WithTotal_ShouldNotQueryExpenses() {
+        // Arrange
+        when(budgetRepository.findFirstByOrderByUpdatedAtDesc())
+            .thenReturn(Optional.of(testBudget));
+        
+        // Act
+        Optional<BudgetStatusResponse> response = budgetService.findBudgetStatus(new BigDecimal("1700.00"));
+        
+        // Assert
+        assertThat(response).isPresent();
+        assertThat(response.get().getStatus()).isEqualTo(BudgetStatusResponse.BudgetStatus.WARNING);
+        assertThat(response.get().getRemaining()).isEqualByComparingTo(new BigDecimal("300.00"));
+        verify(expenseRepository, never()).findTotalAmountBetweenDates(any(), any());
+    }
 }
@@ -2,8 +2,12 @@ package com.expensetracker.service;
 
 import com.expensetracker.dto.CategoryRequest;
 import com.expensetracker.dto.CategoryResponse;
+import com.expensetracker.event.DataChangedEvent;
 import com.expensetracker.exception.ResourceNotFoundException;
+import com.expensetracker.exception.VersionConflictException;
+import com.expensetracker.exception.VersionRequiredException;
 import com.expensetracker.model.Category;
+import com.expensetracker.model.TableVersion.TrackedTable;
 import com.expensetracker.repository.CategoryRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,7 +15,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.util.Arrays;
 import java.util.List;
@@ -29,6 +36,12 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
     
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Spy
+    private WriteVersionPolicy writeVersionPolicy = new WriteVersionPolicy(true);
+    
     @InjectMocks
     private CategoryService categoryService;
     
@@ -53,6 +66,7 @@ class CategoryServiceTest {
         testRequest = new CategoryRequest();
         testRequest.setName("Custom Category");
         testRequest.setDescription("A custom category");
+        testRequest.setVersion(1L);
     }
     
     @Test
@@ -132,25 +146,30 @@ class CategoryServiceTest {
     }
     
     @Test
-    @DisplayName("Should update custom category successfully")
+    @DisplayName("Should update custom category in a single statement")
     void updateCategory_WhenCustomCategory_ShouldReturnUpdatedCategory() {
         // Arrange
         CategoryRequest updateRequest = new CategoryRequest();
         updateRequest.setName("Updated Category");
         updateRequest.setDescription("Updated description");
+        updateRequest.setVersion(1L);
         
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
-        when(categoryRepository.existsByName("Updated Category")).thenReturn(false);
-        when(categoryRepository.save(any(Category.class))).thenReturn(testCategory);
+        Category updated = new Category();
+        updated.setId(1L);
+        updated.setName("Updated Category");
+        updated.setIsDefault(false);
+        updated.setVersion(3L);
+        when(categoryRepository.updateInPlace(any(Category.class))).thenReturn(Optional.of(updated));
         
         // Act
         CategoryResponse response = categoryService.updateCategory(1L, updateRequest);
         
         // Assert
-        assertThat(response).isNotNull();
-        verify(categoryRepository, times(1)).findById(1L);
-        verify(categoryRepository, times(1)).existsByName("Updated Category");
-        verify(categoryRepository, times(1)).save(any(Category.class));
+        assertThat(response.getName()).isEqualTo("Updated Category");
+        assertThat(response.getVersion()).isEqualTo(3L);
+        verify(categoryRepository, never()).findById(any());
+        verify(categoryRepository, never()).existsByName(anyString());
+        verify(eventPublisher, times(1)).publishEvent(new DataChangedEvent(TrackedTable.CATEGORIES));
     }
     
     @Test
@@ -160,7 +179,9 @@ class CategoryServiceTest {
         CategoryRequest updateRequest = new CategoryRequest();
         updateRequest.setName("Updated Groceries");
         updateRequest.setDescription("Updated description");
+        updateRequest.setVersion(1L);
         
+        when(categoryRepository.updateInPlace(any(Category.class))).thenReturn(Optional.empty());
         when(categoryRepository.findById(2L)).thenReturn(Optional.of(defaultCategory));
         
         // Act & Assert
@@ -168,8 +189,7 @@ class CategoryServiceTest {
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("Cannot update default categories");
         
-        verify(categoryRepository, times(1)).findById(2L);
-        verify(categoryRepository, never()).save(any(Category.class));
+        verify(eventPublisher, never()).publishEvent(any());
     }
     
     @Test
@@ -179,79 +199,97 @@ class CategoryServiceTest {
         CategoryRequest updateRequest = new CategoryRequest();
         updateRequest.setName("Groceries");
         updateRequest.setDescription("Updated description");
+        updateRequest.setVersion(1L);
         
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
-        when(categoryRepository.existsByName("Groceries")).thenReturn(true);
+        when(categoryRepository.updateInPlace(any(Category.class)))
+            .thenThrow(new DuplicateKeyException("categories.name"));
         
         // Act & Assert
         assertThatThrownBy(() -> categoryService.updateCategory(1L, updateRequest))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("Category with name 'Groceries' already exists");
         
-        verify(categoryRepository, never()).save(any(Category.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @Test
+    @DisplayName("Should throw conflict when category changed since the expected version")
+    void updateCategory_WhenVersionIsStale_ShouldThrowVersionConflict() {
+        // Arrange
+        testRequest.setVersion(1L);
+        when(categoryRepository.updateInPlace(any(Category.class))).thenReturn(Optional.empty());
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
+        
+        // Act & Assert
+        assertThatThrownBy(() -> categoryService.updateCategory(1L, testRequest))
+            .isInstanceOf(VersionConflictException.class)
+            .hasMessageContaining("since version 1");
+    }
+    
+    @Test
+    @DisplayName("Should refuse an update that does not say which version it read")
+    void updateCategory_WithoutVersion_ShouldThrowVersionRequired() {
+        // Arrange
+        testRequest.setVersion(null);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> categoryService.updateCategory(1L, testRequest))
+            .isInstanceOf(VersionRequiredException.class);
+        verify(categoryRepository, never()).updateInPlace(any());
+    }
+    
+    @Test
+    @DisplayName("Should throw exception when updating non-existent category")
+    void updateCategory_WhenNotExists_ShouldThrowException() {
+        // Arrange
+        when(categoryRepository.updateInPlace(any(Category.class))).thenReturn(Optional.empty());
+        when(categoryRepository.findById(999L)).thenReturn(Optional.empty());
+        
+        // Act & Assert
+        assertThatThrownBy(() -> categoryService.updateCategory(999L, testRequest))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Category not found with id: 999");
     }
     
     @Test
     @DisplayName("Should delete custom category successfully")
     void deleteCategory_WhenCustomCategory_ShouldDeleteCategory() {
         // Arrange
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
+        when(categoryRepository.deleteCustomInPlace(1L)).thenReturn(1);
         
         // Act
         categoryService.deleteCategory(1L);
         
         // Assert
-        verify(categoryRepository, times(1)).findById(1L);
-        verify(categoryRepository, times(1)).delete(testCategory);
+        verify(categoryRepository, never()).findById(any());
+        verify(eventPublisher, times(1)).publishEvent(new DataChangedEvent(TrackedTable.CATEGORIES));
     }
     
     @Test
     @DisplayName("Should throw exception when deleting default category")
     void deleteCategory_WhenDefaultCategory_ShouldThrowException() {
         // Arrange
-        when(categoryRepository.findById(2L)).thenReturn(Optional.of(defaultCategory));
+        when(categoryRepository.deleteCustomInPlace(2L)).thenReturn(0);
+        when(categoryRepository.existsById(2L)).thenReturn(true);
         
         // Act & Assert
         assertThatThrownBy(() -> categoryService.deleteCategory(2L))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("Cannot delete default categories");
         
-        verify(categoryRepository, times(1)).findById(2L);
-        verify(categoryRepository, never()).delete(any(Category.class));
+        verify(eventPublisher, never()).publishEvent(any());
     }
     
     @Test
     @DisplayName("Should throw exception when deleting non-existent category")
     void deleteCategory_WhenNotExists_ShouldThrowException() {
         // Arrange
-        when(categoryRepository.findById(999L)).thenReturn(Optional.empty());
+        when(categoryRepository.deleteCustomInPlace(999L)).thenReturn(0);
+        when(categoryRepository.existsById(999L)).thenReturn(false);
         
         // Act & Assert
         assertThatThrownBy(() -> categoryService.deleteCategory(999L))
             .isInstanceOf(ResourceNotFoundException.class)
             .hasMessageContaining("Category not found with id: 999");
-        
-        verify(categoryRepository, never()).delete(any(Category.class));
-    }
-    
-    @Test
-    @DisplayName("Should allow updating category with same name")
-    void updateCategory_WhenSameName_ShouldNotCheckForDuplicate() {
-        // Arrange
-        CategoryRequest updateRequest = new CategoryRequest();
-        updateRequest.setName("Custom Category"); // Same name
-        updateRequest.setDescription("Updated description");
-        
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
-        when(categoryRepository.save(any(Category.class))).thenReturn(testCategory);
-        
-        // Act
-        CategoryResponse response = categoryService.updateCategory(1L, updateRequest);
-        
-        // Assert
-        assertThat(response).isNotNull();
-        verify(categoryRepository, times(1)).findById(1L);
-        verify(categoryRepository, never()).existsByName(anyString());
-        verify(categoryRepository, times(1)).save(any(Category.class));
     }
 }
@@ -0,0 +1,157 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.*;
+import com.expensetracker.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardService Tests")
+class DashboardServiceTest {
+    
+    @Mock
+    private ExpenseService expenseService;
+    
+    @Mock
+    private BudgetService budgetService;
+    
+    @Mock
+    private CategoryService categoryService;
+    
+    @Mock
+    private RecurringExpenseService recurringExpenseService;
+    
+    private ExecutorService executor;
+    private DashboardService dashboardService;
+    
+    private ExpenseResponse testExpense;
+    private BudgetStatusResponse testStatus;
+    
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        dashboardService = new DashboardService(
+            expenseService, budgetService, categoryService, recurringExpenseService, executor);
+        
+        testExpense = new ExpenseResponse();
+        testExpense.setId(1L);
+        testExpense.setAmount(new BigDecimal("50.00"));
+        testExpense.setCategory("Groceries");
+        
+        testStatus = new BudgetStatusResponse(
+            new BigDecimal("2000.00"),
+            new BigDecimal("50.00"),
+            new BigDecimal("1950.00"),
+            new BigDecimal("2.50"),
+            BudgetStatusResponse.BudgetStatus.HEALTHY
+        );
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    private void stubAllSections(List<String> categories, LocalDate startDate, LocalDate endDate) {
+        when(expenseService.getFilteredExpenses(categories, startDate, endDate))
+            .thenReturn(Arrays.asList(testExpense));
+        when(expenseService.getCategorySummary())
+            .thenReturn(Arrays.asList(new CategorySummaryResponse("Groceries", new BigDecimal("50.00"))));
+        when(expenseService.getMonthlySummary())
+            .thenReturn(new MonthlySummaryResponse(new BigDecimal("50.00"), 10, 2025));
+        when(categoryService.getAllCategories()).thenReturn(Collections.emptyList());
+        when(recurringExpenseService.getAllRecurringExpenses()).thenReturn(Collections.emptyList());
+    }
+    
+    @Test
+    @DisplayName("Should compose every section of the dashboard")
+    void getDashboard_ShouldComposeAllSections() {
+        // Arrange
+        List<String> categories = Arrays.asList("Groceries");
+        LocalDate startDate = LocalDate.of(2025, 1, 1);
+        LocalDate endDate = LocalDate.of(2025, 12, 31);
+        stubAllSections(categories, startDate, endDate);
+        when(budgetService.findBudgetStatus()).thenReturn(Optional.of(testStatus));
+        
+        // Act
+        DashboardResponse response = dashboardService.getDashboard(categories, startDate, endDate);
+        
+        // Assert
+        assertThat(response.getExpenses()).hasSize(1);
+        assertThat(response.getCategorySummary()).hasSize(1);
+        assertThat(response.getMonthlySummary().getTotal()).isEqualByComparingTo("50.00");
+        assertThat(response.getBudgetStatus()).isEqualTo(testStatus);
+        assertThat(response.getCategories()).isEmpty();
+        assertThat(response.getRecurringExpenses()).isEmpty();
+        verify(expenseService, times(1)).getFilteredExpenses(categories, startDate, endDate);
+    }
+    
+    @Test
+    @DisplayName("Should leave budget status empty when no budget is set")
+    void getDashboard_WhenNoBudget_ShouldReturnNullBudgetStatus() {
+        // Arrange
+        stubAllSections(null, null, null);
+        when(budgetService.findBudgetStatus()).thenReturn(Optional.empty());
+        
+        // Act
+        DashboardResponse response = dashboardService.getDashboard(null, null, null);
+        
+        // Assert
+        assertThat(response.getBudgetStatus()).isNull();
+        assertThat(response.getExpenses()).hasSize(1);
+    }
+    
+    @Test
+    @DisplayName("Should propagate the original exception from a failed sub-query")
+    void getDashboard_WhenSubQueryFails_ShouldRethrowCause() {
+        // Arrange - the other sections may not have started when the failure surfaces, so their stubs are lenient
+        lenient().when(expenseService.getFilteredExpenses(null, null, null)).thenReturn(Arrays.asList(testExpense));
+        lenient().when(expenseService.getCategorySummary()).thenReturn(Collections.emptyList());
+        lenient().when(expenseService.getMonthlySummary())
+            .thenReturn(new MonthlySummaryResponse(new BigDecimal("50.00"), 10, 2025));
+        lenient().when(recurringExpenseService.getAllRecurringExpenses()).thenReturn(Collections.emptyList());
+        lenient().when(budgetService.findBudgetStatus()).thenReturn(Optional.empty());
+        when(categoryService.getAllCategories())
+            .thenThrow(new ResourceNotFoundException("Category not found"));
+        
+        // Act & Assert
+        assertThatThrownBy(() -> dashboardService.getDashboard(null, null, null))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Category not found");
+    }
+    
+    @Test
+    @DisplayName("Should compose snapshot dashboard sequentially")
+    void getDashboardSnapshot_ShouldComposeAllSections() {
+        // Arrange
+        stubAllSections(null, null, null);
+        when(budgetService.findBudgetStatus()).thenReturn(Optional.of(testStatus));
+        
+        // Act
+        DashboardResponse response = dashboardService.getDashboardSnapshot(null, null, null);
+        
+        // Assert
+        assertThat(response.getExpenses()).hasSize(1);
+        assertThat(response.getBudgetStatus()).isEqualTo(testStatus);
+        verify(categoryService, times(1)).getAllCategories();
+        verify(recurringExpenseService, times(1)).getAllRecurringExpenses();
+    }
+}
@@ -1,29 +1,47 @@
 package com.expensetracker.service;
 
+import com.expensetracker.archive.ExpenseArchive;
+import com.expensetracker.dto.CategorySummaryResponse;
+import com.expensetracker.dto.ExpensePatchRequest;
 import com.expensetracker.dto.ExpenseRequest;
 import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.event.DataChangedEvent;
 import com.expensetracker.exception.ResourceNotFoundException;
+import com.expensetracker.exception.VersionConflictException;
+import com.expensetracker.exception.VersionRequiredException;
 import com.expensetracker.model.Category;
 import com.expensetracker.model.Expense;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import com.expensetracker.projection.ExpenseOutbox;
+import com.expensetracker.projection.LocalExpenseReadModel;
 import com.expensetracker.repository.CategoryRepository;
 import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.ExpenseRepositoryCustom.UpdatedExpense;
+import com.expensetracker.summary.SummaryViews;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +54,24 @@ class ExpenseServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
     
+    @Mock
+    private ExpenseOutbox expenseOutbox;
+    
+    @Mock
+    private LocalExpenseReadModel localReadModel;
+    
+    @Mock
+    private ExpenseArchive expenseArchive;
+    
+    @Mock
+    private SummaryViews summaryViews;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Spy
+    private WriteVersionPolicy writeVersionPolicy = new WriteVersionPolicy(true);
+    
     @InjectMocks
     private ExpenseService expenseService;
     
@@ -63,6 +99,7 @@ class ExpenseServiceTest {
         testRequest.setCategoryId(1L);
         testRequest.setDate(LocalDate.now());
         testRequest.setDescription("Test expense");
+        testRequest.setVersion(1L);
     }
     
     @Test
@@ -81,6 +118,7 @@ class ExpenseServiceTest {
         assertThat(response.getCategory()).isEqualTo("Groceries");
         verify(categoryRepository, times(1)).findById(1L);
         verify(expenseRepository, times(1)).save(any(Expense.class));
+        verify(expenseOutbox, times(1)).created(testExpense);
     }
     
     @Test
@@ -95,6 +133,40 @@ class ExpenseServiceTest {
             .hasMessageContaining("Category not found");
     }
     
+    @Test
+    @DisplayName("Should save a batch together and publish one change event for all its dates")
+    void createExpenses_ShouldSaveBatchWithOneEvent() {
+        // Arrange
+        ExpenseRequest second = new ExpenseRequest();
+        second.setAmount(new BigDecimal("7.25"));
+        second.setCategoryId(1L);
+        second.setDate(LocalDate.of(2025, 1, 15));
+        when(categoryRepository.findAllById(Set.of(1L))).thenReturn(List.of(testCategory));
+        when(expenseRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        List<ExpenseResponse> responses = expenseService.createExpenses(List.of(testRequest, second));
+        
+        // Assert
+        assertThat(responses).extracting(ExpenseResponse::getAmount)
+            .containsExactly(new BigDecimal("50.00"), new BigDecimal("7.25"));
+        verify(expenseRepository, times(1)).saveAll(anyList());
+        verify(eventPublisher, times(1)).publishEvent(
+            new DataChangedEvent(TrackedTable.EXPENSES, Set.of(testRequest.getDate(), LocalDate.of(2025, 1, 15))));
+    }
+    
+    @Test
+    @DisplayName("Should fail the whole batch when a category is missing")
+    void createExpenses_WhenCategoryNotFound_ShouldThrowException() {
+        // Arrange
+        when(categoryRepository.findAllById(Set.of(1L))).thenReturn(List.of());
+        
+        // Act & Assert
+        assertThatThrownBy(() -> expenseService.createExpenses(List.of(testRequest)))
+            .isInstanceOf(ResourceNotFoundException.class);
+        verify(expenseRepository, never()).saveAll(anyList());
+    }
+    
     @Test
     @DisplayName("Should get expense by id when exists")
     void getExpenseById_WhenExists_ShouldReturnExpense() {
@@ -155,56 +227,174 @@ class ExpenseServiceTest {
         updateRequest.setCategoryId(1L);
         updateRequest.setDate(LocalDate.now());
         updateRequest.setDescription("Updated expense");
+        updateRequest.setVersion(1L);
         
-        when(expenseRepository.findById(1L)).thenReturn(Optional.of(testExpense));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
-        when(expenseRepository.save(any(Expense.class))).thenReturn(testExpense);
+        LocalDate previousDate = LocalDate.now().minusMonths(1);
+        testExpense.setAmount(new BigDecimal("100.00"));
+        testExpense.setVersion(2L);
+        when(categoryRepository.getReferenceById(1L)).thenReturn(testCategory);
+        when(expenseRepository.updateInPlace(any(Expense.class)))
+            .thenReturn(Optional.of(new UpdatedExpense(testExpense, previousDate)));
         
         // Act
         ExpenseResponse response = expenseService.updateExpense(1L, updateRequest);
         
         // Assert
-        assertThat(response).isNotNull();
-        verify(expenseRepository, times(1)).findById(1L);
-        verify(categoryRepository, times(1)).findById(1L);
-        verify(expenseRepository, times(1)).save(any(Expense.class));
+        assertThat(response.getAmount()).isEqualByComparingTo("100.00");
+        assertThat(response.getVersion()).isEqualTo(2L);
+        verify(expenseRepository, never()).findById(any());
+        verify(categoryRepository, never()).findById(any());
+        // Both the old and the new month change
+        verify(eventPublisher).publishEvent(
+            new DataChangedEvent(TrackedTable.EXPENSES, Set.of(previousDate, updateRequest.getDate())));
     }
     
     @Test
     @DisplayName("Should throw exception when updating non-existent expense")
     void updateExpense_WhenNotExists_ShouldThrowException() {
         // Arrange
-        when(expenseRepository.findById(999L)).thenReturn(Optional.empty());
+        when(expenseRepository.updateInPlace(any(Expense.class))).thenReturn(Optional.empty());
+        when(expenseRepository.existsById(999L)).thenReturn(false);
         
         // Act & Assert
         assertThatThrownBy(() -> expenseService.updateExpense(999L, testRequest))
-            .isInstanceOf(ResourceNotFoundException.class);
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Expense not found");
+    }
+    
+    @Test
+    @DisplayName("Should throw exception when updating to a non-existent category")
+    void updateExpense_WhenCategoryNotExists_ShouldThrowException() {
+        // Arrange
+        when(expenseRepository.updateInPlace(any(Expense.class))).thenReturn(Optional.empty());
+        when(expenseRepository.existsById(1L)).thenReturn(true);
+        when(categoryRepository.existsById(1L)).thenReturn(false);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> expenseService.updateExpense(1L, testRequest))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Category not found");
+    }
+    
+    @Test
+    @DisplayName("Should throw conflict when expense changed since the expected version")
+    void updateExpense_WhenVersionIsStale_ShouldThrowVersionConflict() {
+        // Arrange
+        testRequest.setVersion(7L);
+        when(expenseRepository.updateInPlace(any(Expense.class))).thenReturn(Optional.empty());
+        when(expenseRepository.existsById(1L)).thenReturn(true);
+        when(categoryRepository.existsById(1L)).thenReturn(true);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> expenseService.updateExpense(1L, testRequest))
+            .isInstanceOf(VersionConflictException.class)
+            .hasMessageContaining("since version 7");
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @Test
+    @DisplayName("Should refuse an update that does not say which version it read")
+    void updateExpense_WithoutVersion_ShouldThrowVersionRequired() {
+        // Arrange
+        testRequest.setVersion(null);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> expenseService.updateExpense(1L, testRequest))
+            .isInstanceOf(VersionRequiredException.class);
+        verify(expenseRepository, never()).updateInPlace(any());
+    }
+    
+    @Test
+    @DisplayName("Should write only the fields present in a merge patch")
+    void patchExpense_ShouldWriteOnlyPresentFields() {
+        // Arrange: amount changes, description is cleared, category and date are absent
+        ExpensePatchRequest patch = new ExpensePatchRequest();
+        patch.setAmount(Optional.of(new BigDecimal("75.00")));
+        patch.setDescription(Optional.empty());
+        patch.setVersion(3L);
+        
+        testExpense.setAmount(new BigDecimal("75.00"));
+        testExpense.setDescription(null);
+        testExpense.setVersion(4L);
+        when(expenseRepository.patchInPlace(any(Expense.class), eq(Set.of("amount", "description"))))
+            .thenReturn(Optional.of(new UpdatedExpense(testExpense, testExpense.getDate())));
+        
+        // Act
+        ExpenseResponse response = expenseService.patchExpense(1L, patch);
+        
+        // Assert
+        assertThat(response.getAmount()).isEqualByComparingTo("75.00");
+        assertThat(response.getDescription()).isNull();
+        assertThat(response.getVersion()).isEqualTo(4L);
+        verify(expenseRepository).patchInPlace(argThat(changes -> changes.getVersion() == 3L
+            && changes.getDescription() == null && changes.getCategory() == null), any());
+        verify(categoryRepository, never()).getReferenceById(any());
+        verify(eventPublisher).publishEvent(new DataChangedEvent(TrackedTable.EXPENSES, Set.of(testExpense.getDate())));
+    }
+    
+    @Test
+    @DisplayName("Should treat an empty merge patch as a read")
+    void patchExpense_WhenEmpty_ShouldNotWrite() {
+        // Arrange
+        when(expenseRepository.findById(1L)).thenReturn(Optional.of(testExpense));
+        
+        // Act
+        ExpenseResponse response = expenseService.patchExpense(1L, new ExpensePatchRequest());
+        
+        // Assert
+        assertThat(response.getId()).isEqualTo(1L);
+        verify(expenseRepository, never()).patchInPlace(any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @Test
+    @DisplayName("Should only check the category when the patch moves the expense to one")
+    void patchExpense_WhenNothingMatched_ShouldDiagnoseFailure() {
+        // Arrange
+        ExpensePatchRequest patch = new ExpensePatchRequest();
+        patch.setVersion(1L);
+        patch.setDate(Optional.of(LocalDate.now()));
+        when(expenseRepository.patchInPlace(any(Expense.class), any())).thenReturn(Optional.empty());
+        when(expenseRepository.existsById(999L)).thenReturn(false);
+        when(expenseRepository.existsById(1L)).thenReturn(true);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> expenseService.patchExpense(999L, patch))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Expense not found");
+        assertThatThrownBy(() -> expenseService.patchExpense(1L, patch))
+            .isInstanceOf(VersionConflictException.class);
+        verify(categoryRepository, never()).existsById(any());
     }
     
     @Test
     @DisplayName("Should delete expense when exists")
     void deleteExpense_WhenExists_ShouldDeleteExpense() {
         // Arrange
-        when(expenseRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.deleteWithTombstone(1L)).thenReturn(true);
         
         // Act
         expenseService.deleteExpense(1L);
         
         // Assert
-        verify(expenseRepository, times(1)).existsById(1L);
-        verify(expenseRepository, times(1)).deleteById(1L);
+        verify(expenseRepository, never()).existsById(any());
+        verify(expenseOutbox, times(1)).deleted(1L);
+        verify(eventPublisher, times(1)).publishEvent(new DataChangedEvent(TrackedTable.EXPENSES));
     }
     
     @Test
     @DisplayName("Should throw exception when deleting non-existent expense")
     void deleteExpense_WhenNotExists_ShouldThrowException() {
         // Arrange
-        when(expenseRepository.existsById(999L)).thenReturn(false);
+        when(expenseRepository.deleteWithTombstone(999L)).thenReturn(false);
         
         // Act & Assert
         assertThatThrownBy(() -> expenseService.deleteExpense(999L))
             .isInstanceOf(ResourceNotFoundException.class)
             .hasMessageContaining("Expense not found");
+        
+        verify(expenseOutbox, never()).deleted(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
     
     @Test
@@ -225,6 +415,26 @@ class ExpenseServiceTest {
         verify(expenseRepository, times(1)).findByDateBetweenOrderByDateDesc(startDate, endDate);
     }
     
+    @Test
+    @DisplayName("Should merge archived expenses into a date range that reaches past the horizon")
+    void getFilteredExpenses_AcrossArchiveHorizon_ShouldMergeByDate() {
+        // Arrange
+        LocalDate startDate = LocalDate.now().minusYears(3);
+        LocalDate endDate = LocalDate.now();
+        Expense archived = new Expense(2L, new BigDecimal("9.00"), testCategory, startDate.plusDays(1),
+            "Old", null, null, 0L);
+        Expense older = new Expense(3L, new BigDecimal("4.00"), testCategory, startDate, "Older", null, null, 0L);
+        when(expenseRepository.findByDateBetweenOrderByDateDesc(startDate, endDate))
+            .thenReturn(Arrays.asList(testExpense));
+        when(expenseArchive.findFiltered(null, startDate, endDate)).thenReturn(List.of(archived, older));
+        
+        // Act
+        List<ExpenseResponse> responses = expenseService.getFilteredExpenses(null, startDate, endDate);
+        
+        // Assert
+        assertThat(responses).extracting(ExpenseResponse::getId).containsExactly(1L, 2L, 3L);
+    }
+    
     @Test
     @DisplayName("Should get expenses filtered by category names only")
     void getFilteredExpenses_WithCategoriesOnly_ShouldReturnFilteredExpenses() {
@@ -274,4 +484,26 @@ class ExpenseServiceTest {
         assertThat(responses).hasSize(1);
         verify(expenseRepository, times(1)).findAll();
     }
+    
+    @Test
+    @DisplayName("Should build the category summary from the local read model once it is ready")
+    void getCategorySummary_WhenLocalModelReady_ShouldNotAggregateInSql() {
+        // Arrange
+        Category transport = new Category();
+        transport.setId(2L);
+        transport.setName("Transportation");
+        when(localReadModel.isReady()).thenReturn(true);
+        when(localReadModel.currentTotalsByCategory())
+            .thenReturn(Map.of(1L, new BigDecimal("12.50"), 2L, new BigDecimal("40.00")));
+        when(categoryRepository.findAllByOrderByNameAsc()).thenReturn(List.of(testCategory, transport));
+        
+        // Act
+        List<CategorySummaryResponse> summary = expenseService.getCategorySummary();
+        
+        // Assert
+        assertThat(summary).containsExactly(
+            new CategorySummaryResponse("Transportation", new BigDecimal("40.00")),
+            new CategorySummaryResponse("Groceries", new BigDecimal("12.50")));
+        verify(expenseRepository, never()).findTotalByCategory();
+    }
 }
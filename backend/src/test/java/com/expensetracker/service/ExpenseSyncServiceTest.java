@@ -0,0 +1,165 @@
+package com.expensetracker.service;
+
+import com.expensetracker.archive.ExpenseArchive;
+import com.expensetracker.dto.ExpenseChangesResponse;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.ExpenseSyncResetRepository;
+import com.expensetracker.repository.ExpenseTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpenseSyncService Tests")
+class ExpenseSyncServiceTest {
+    
+    @Mock
+    private ExpenseRepository expenseRepository;
+    
+    @Mock
+    private ExpenseTombstoneRepository expenseTombstoneRepository;
+    
+    @Mock
+    private ExpenseSyncResetRepository expenseSyncResetRepository;
+    
+    @Mock
+    private ExpenseArchive expenseArchive;
+    
+    private ExpenseSyncService expenseSyncService;
+    
+    private Expense testExpense;
+    
+    @BeforeEach
+    void setUp() {
+        expenseSyncService = new ExpenseSyncService(
+            expenseRepository, expenseTombstoneRepository, expenseSyncResetRepository, expenseArchive, Duration.ofSeconds(5), Duration.ofDays(30));
+        
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Groceries");
+        
+        testExpense = new Expense();
+        testExpense.setId(1L);
+        testExpense.setAmount(new BigDecimal("50.00"));
+        testExpense.setCategory(category);
+        testExpense.setDate(LocalDate.now());
+    }
+    
+    @Test
+    @DisplayName("Should return full resync when no watermark is given")
+    void getChangesSince_WithoutWatermark_ShouldReturnFullResync() {
+        // Arrange
+        when(expenseRepository.findAll()).thenReturn(Arrays.asList(testExpense));
+        
+        // Act
+        ExpenseChangesResponse response = expenseSyncService.getChangesSince(null);
+        
+        // Assert
+        assertThat(response.isFullResync()).isTrue();
+        assertThat(response.getUpserts()).hasSize(1);
+        assertThat(response.getDeletedIds()).isEmpty();
+        assertThat(ExpenseSyncService.parseWatermark(response.getWatermark()))
+            .isBefore(LocalDateTime.now().minusSeconds(4));
+        verify(expenseTombstoneRepository, never()).findExpenseIdsDeletedAfter(any());
+    }
+    
+    @Test
+    @DisplayName("Should return full resync when watermark is malformed or older than tombstone retention")
+    void getChangesSince_WithUnusableWatermark_ShouldReturnFullResync() {
+        // Arrange
+        when(expenseRepository.findAll()).thenReturn(List.of());
+        String expired = ExpenseSyncService.formatWatermark(LocalDateTime.now().minusDays(31));
+        
+        // Act
+        ExpenseChangesResponse malformed = expenseSyncService.getChangesSince("not-a-token");
+        ExpenseChangesResponse old = expenseSyncService.getChangesSince(expired);
+        
+        // Assert
+        assertThat(malformed.isFullResync()).isTrue();
+        assertThat(old.isFullResync()).isTrue();
+        verify(expenseRepository, never()).findByUpdatedAtAfter(any());
+    }
+    
+    @Test
+    @DisplayName("Should return full resync when the watermark was issued before the last reset")
+    void getChangesSince_WithWatermarkBeforeReset_ShouldReturnFullResync() {
+        // Arrange
+        LocalDateTime since = LocalDateTime.now().minusMinutes(10);
+        when(expenseSyncResetRepository.findLatestResetAt()).thenReturn(since.plusMinutes(5));
+        when(expenseRepository.findAll()).thenReturn(List.of(testExpense));
+        
+        // Act
+        ExpenseChangesResponse response = expenseSyncService.getChangesSince(ExpenseSyncService.formatWatermark(since));
+        
+        // Assert
+        assertThat(response.isFullResync()).isTrue();
+        assertThat(response.getUpserts()).hasSize(1);
+        verify(expenseRepository, never()).findByUpdatedAtAfter(any());
+    }
+    
+    @Test
+    @DisplayName("Should return changed expenses, tombstones and an advanced watermark")
+    void getChangesSince_WithValidWatermark_ShouldReturnDelta() {
+        // Arrange
+        LocalDateTime since = LocalDateTime.now().minusMinutes(10);
+        String token = ExpenseSyncService.formatWatermark(since);
+        LocalDateTime parsed = ExpenseSyncService.parseWatermark(token);
+        when(expenseRepository.findByUpdatedAtAfter(parsed)).thenReturn(Arrays.asList(testExpense));
+        when(expenseRepository.findByCategoryUpdatedAtAfter(parsed)).thenReturn(Arrays.asList(testExpense));
+        when(expenseTombstoneRepository.findExpenseIdsDeletedAfter(parsed)).thenReturn(Arrays.asList(7L));
+        
+        // Act
+        ExpenseChangesResponse response = expenseSyncService.getChangesSince(token);
+        
+        // Assert
+        assertThat(response.isFullResync()).isFalse();
+        assertThat(response.getUpserts()).hasSize(1);
+        assertThat(response.getUpserts().get(0).getCategory()).isEqualTo("Groceries");
+        assertThat(response.getDeletedIds()).containsExactly(7L);
+        assertThat(ExpenseSyncService.parseWatermark(response.getWatermark())).isAfter(parsed);
+        verify(expenseRepository, never()).findAll();
+    }
+    
+    @Test
+    @DisplayName("Should not move the watermark backwards for very recent tokens")
+    void getChangesSince_WithRecentWatermark_ShouldKeepWatermark() {
+        // Arrange
+        String token = ExpenseSyncService.formatWatermark(LocalDateTime.now().minusSeconds(1));
+        
+        // Act
+        ExpenseChangesResponse response = expenseSyncService.getChangesSince(token);
+        
+        // Assert
+        assertThat(response.isFullResync()).isFalse();
+        assertThat(response.getWatermark()).isEqualTo(token);
+    }
+    
+    @Test
+    @DisplayName("Should purge tombstones older than the retention window")
+    void purgeTombstones_ShouldDeleteExpiredTombstones() {
+        // Arrange
+        when(expenseTombstoneRepository.deleteDeletedBefore(any())).thenReturn(3);
+        
+        // Act
+        expenseSyncService.purgeTombstones();
+        
+        // Assert
+        verify(expenseTombstoneRepository, times(1)).deleteDeletedBefore(any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,206 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseRequest;
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.exception.DeadlineExceededException;
+import com.expensetracker.exception.ResourceNotFoundException;
+import com.expensetracker.exception.ServiceUnavailableException;
+import com.expensetracker.resilience.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpenseWriteQueue Tests")
+class ExpenseWriteQueueTest {
+    
+    @Mock
+    private ExpenseService expenseService;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private ExpenseWriteQueue writeQueue;
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writeQueue.stop();
+    }
+    
+    @Test
+    @DisplayName("Should write concurrent creations in one batch and hand each caller its own row")
+    void create_ShouldGroupConcurrentWrites() throws Exception {
+        // Arrange
+        when(expenseService.createExpenses(anyList())).thenAnswer(invocation -> {
+            List<ExpenseRequest> requests = invocation.getArgument(0);
+            return requests.stream().map(ExpenseWriteQueueTest::response).toList();
+        });
+        // A long window that only a full batch cuts short
+        start(100, 3, Duration.ofSeconds(10));
+        
+        // Act
+        List<CompletableFuture<ExpenseResponse>> results = List.of("1.00", "2.00", "3.00").stream()
+            .map(amount -> CompletableFuture.supplyAsync(() -> writeQueue.create(request(amount))))
+            .toList();
+        
+        // Assert
+        assertThat(results).extracting(result -> result.get(5, TimeUnit.SECONDS).getAmount())
+            .containsExactlyInAnyOrder(new BigDecimal("1.00"), new BigDecimal("2.00"), new BigDecimal("3.00"));
+        verify(expenseService, times(1)).createExpenses(anyList());
+        assertThat(meterRegistry.get(ExpenseWriteQueue.BATCH_SIZE_SUMMARY).summary().max()).isEqualTo(3.0);
+    }
+    
+    @Test
+    @DisplayName("Should retry a failed batch one by one so only the bad item fails")
+    void create_WhenBatchFails_ShouldIsolateTheBadItem() throws Exception {
+        // Arrange
+        ExpenseRequest good = request("1.00");
+        ExpenseRequest bad = request("2.00");
+        when(expenseService.createExpenses(anyList())).thenThrow(new ResourceNotFoundException("Category not found"));
+        when(expenseService.createExpense(good)).thenReturn(response(good));
+        when(expenseService.createExpense(bad)).thenThrow(new ResourceNotFoundException("Category not found"));
+        start(100, 2, Duration.ofSeconds(10));
+        
+        // Act
+        CompletableFuture<ExpenseResponse> goodResult = CompletableFuture.supplyAsync(() -> writeQueue.create(good));
+        CompletableFuture<ExpenseResponse> badResult = CompletableFuture.supplyAsync(() -> writeQueue.create(bad));
+        
+        // Assert
+        assertThat(goodResult.get(5, TimeUnit.SECONDS).getAmount()).isEqualByComparingTo("1.00");
+        assertThatThrownBy(() -> badResult.get(5, TimeUnit.SECONDS))
+            .hasCauseInstanceOf(ResourceNotFoundException.class);
+    }
+    
+    @Test
+    @DisplayName("Should refuse new writes while the queue is full")
+    void create_WhenQueueFull_ShouldThrowServiceUnavailable() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(expenseService.createExpenses(anyList())).thenAnswer(invocation -> {
+            release.await();
+            List<ExpenseRequest> requests = invocation.getArgument(0);
+            return requests.stream().map(ExpenseWriteQueueTest::response).toList();
+        });
+        start(1, 1, Duration.ofMillis(1));
+        
+        // The writer holds the first item, the second fills the queue
+        CompletableFuture<ExpenseResponse> first = CompletableFuture.supplyAsync(() -> writeQueue.create(request("1.00")));
+        verify(expenseService, timeout(5000)).createExpenses(anyList());
+        CompletableFuture<ExpenseResponse> second = CompletableFuture.supplyAsync(() -> writeQueue.create(request("2.00")));
+        while (meterRegistry.get(ExpenseWriteQueue.QUEUE_DEPTH_GAUGE).gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+        
+        // Act & Assert
+        assertThatThrownBy(() -> writeQueue.create(request("3.00")))
+            .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(meterRegistry.get(ExpenseWriteQueue.REJECTED_COUNTER).counter().count()).isEqualTo(1.0);
+        
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getAmount()).isEqualByComparingTo("1.00");
+        assertThat(second.get(5, TimeUnit.SECONDS).getAmount()).isEqualByComparingTo("2.00");
+    }
+    
+    @Test
+    @DisplayName("Should fail the writes the writer left behind when it stops")
+    void stop_WithWritesLeftInQueue_ShouldFailThem() throws Exception {
+        // Arrange: the writer dies on an interrupt while a second write is still queued
+        AtomicReference<Thread> writer = new AtomicReference<>();
+        CountDownLatch release = new CountDownLatch(1);
+        when(expenseService.createExpenses(anyList())).thenAnswer(invocation -> {
+            writer.set(Thread.currentThread());
+            release.await();
+            return List.of();
+        });
+        start(100, 1, Duration.ofMillis(1));
+        CompletableFuture<ExpenseResponse> first = CompletableFuture.supplyAsync(() -> writeQueue.create(request("1.00")));
+        verify(expenseService, timeout(5000)).createExpenses(anyList());
+        CompletableFuture<ExpenseResponse> second = CompletableFuture.supplyAsync(() -> writeQueue.create(request("2.00")));
+        while (meterRegistry.get(ExpenseWriteQueue.QUEUE_DEPTH_GAUGE).gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+        writer.get().interrupt();
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        
+        // Act
+        writeQueue.stop();
+        
+        // Assert
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS))
+            .hasCauseInstanceOf(ServiceUnavailableException.class);
+    }
+    
+    @Test
+    @DisplayName("Should stop waiting for the writer once the request deadline passes")
+    void create_WhenDeadlinePasses_ShouldThrowDeadlineExceeded() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(expenseService.createExpenses(anyList())).thenAnswer(invocation -> {
+            release.await();
+            List<ExpenseRequest> requests = invocation.getArgument(0);
+            return requests.stream().map(ExpenseWriteQueueTest::response).toList();
+        });
+        start(100, 1, Duration.ofMillis(1));
+        RequestDeadline.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100));
+        
+        // Act & Assert
+        try {
+            assertThatThrownBy(() -> writeQueue.create(request("1.00")))
+                .isInstanceOf(DeadlineExceededException.class);
+        } finally {
+            RequestDeadline.clear();
+            release.countDown();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should refuse writes when group commit is disabled")
+    void create_WhenDisabled_ShouldThrowServiceUnavailable() {
+        // Arrange
+        writeQueue = new ExpenseWriteQueue(expenseService, meterRegistry, false, 100, 10,
+            Duration.ofMillis(5), Duration.ofSeconds(1));
+        writeQueue.start();
+        
+        // Act & Assert
+        assertThat(writeQueue.isEnabled()).isFalse();
+        assertThatThrownBy(() -> writeQueue.create(request("1.00")))
+            .isInstanceOf(ServiceUnavailableException.class);
+        verifyNoInteractions(expenseService);
+    }
+    
+    private void start(int capacity, int maxBatch, Duration flushInterval) {
+        writeQueue = new ExpenseWriteQueue(expenseService, meterRegistry, true, capacity, maxBatch,
+            flushInterval, Duration.ofSeconds(1));
+        writeQueue.start();
+    }
+    
+    private static ExpenseRequest request(String amount) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setAmount(new BigDecimal(amount));
+        request.setCategoryId(1L);
+        return request;
+    }
+    
+    private static ExpenseResponse response(ExpenseRequest request) {
+        ExpenseResponse response = new ExpenseResponse();
+        response.setAmount(request.getAmount());
+        return response;
+    }
+}
@@ -1,11 +1,17 @@
 package com.expensetracker.service;
 
+import com.expensetracker.dto.RecurringExpensePatchRequest;
 import com.expensetracker.dto.RecurringExpenseRequest;
 import com.expensetracker.dto.RecurringExpenseResponse;
+import com.expensetracker.event.DataChangedEvent;
 import com.expensetracker.exception.ResourceNotFoundException;
+import com.expensetracker.exception.VersionConflictException;
+import com.expensetracker.exception.VersionRequiredException;
 import com.expensetracker.model.Category;
 import com.expensetracker.model.Expense;
 import com.expensetracker.model.RecurringExpense;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import com.expensetracker.projection.ExpenseOutbox;
 import com.expensetracker.repository.CategoryRepository;
 import com.expensetracker.repository.ExpenseRepository;
 import com.expensetracker.repository.RecurringExpenseRepository;
@@ -16,17 +22,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +52,15 @@ class RecurringExpenseServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
     
+    @Mock
+    private ExpenseOutbox expenseOutbox;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Spy
+    private WriteVersionPolicy writeVersionPolicy = new WriteVersionPolicy(true);
+    
     @InjectMocks
     private RecurringExpenseService recurringExpenseService;
     
@@ -71,6 +90,7 @@ class RecurringExpenseServiceTest {
         testRequest.setAmount(new BigDecimal("100.00"));
         testRequest.setCategoryId(1L);
         testRequest.setDescription("Monthly rent");
+        testRequest.setVersion(1L);
         testRequest.setFrequency(RecurringExpense.RecurrenceFrequency.MONTHLY);
         testRequest.setStartDate(LocalDate.now());
     }
@@ -175,44 +195,138 @@ class RecurringExpenseServiceTest {
         updateRequest.setAmount(new BigDecimal("150.00"));
         updateRequest.setCategoryId(1L);
         updateRequest.setDescription("Updated rent");
+        updateRequest.setVersion(1L);
         updateRequest.setFrequency(RecurringExpense.RecurrenceFrequency.MONTHLY);
         updateRequest.setStartDate(LocalDate.now());
         
-        when(recurringExpenseRepository.findById(1L))
+        testRecurringExpense.setAmount(new BigDecimal("150.00"));
+        testRecurringExpense.setVersion(1L);
+        when(categoryRepository.getReferenceById(1L)).thenReturn(testCategory);
+        when(recurringExpenseRepository.updateInPlace(any(RecurringExpense.class)))
             .thenReturn(Optional.of(testRecurringExpense));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
-        when(recurringExpenseRepository.save(any(RecurringExpense.class)))
-            .thenReturn(testRecurringExpense);
         
         // Act
         RecurringExpenseResponse response = recurringExpenseService.updateRecurringExpense(1L, updateRequest);
         
         // Assert
-        assertThat(response).isNotNull();
-        verify(recurringExpenseRepository, times(1)).findById(1L);
-        verify(categoryRepository, times(1)).findById(1L);
-        verify(recurringExpenseRepository, times(1)).save(any(RecurringExpense.class));
+        assertThat(response.getAmount()).isEqualByComparingTo("150.00");
+        assertThat(response.getVersion()).isEqualTo(1L);
+        verify(recurringExpenseRepository, never()).findById(any());
+        verify(categoryRepository, never()).findById(any());
+        verify(eventPublisher, times(1)).publishEvent(new DataChangedEvent(TrackedTable.RECURRING_EXPENSES));
+    }
+    
+    @Test
+    @DisplayName("Should throw exception when updating non-existent recurring expense")
+    void updateRecurringExpense_WhenNotExists_ShouldThrowException() {
+        // Arrange
+        when(recurringExpenseRepository.updateInPlace(any(RecurringExpense.class))).thenReturn(Optional.empty());
+        when(recurringExpenseRepository.existsById(999L)).thenReturn(false);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> recurringExpenseService.updateRecurringExpense(999L, testRequest))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Recurring expense not found");
+    }
+    
+    @Test
+    @DisplayName("Should throw exception when updating to a non-existent category")
+    void updateRecurringExpense_WhenCategoryNotExists_ShouldThrowException() {
+        // Arrange
+        when(recurringExpenseRepository.updateInPlace(any(RecurringExpense.class))).thenReturn(Optional.empty());
+        when(recurringExpenseRepository.existsById(1L)).thenReturn(true);
+        when(categoryRepository.existsById(1L)).thenReturn(false);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> recurringExpenseService.updateRecurringExpense(1L, testRequest))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Category not found");
+    }
+    
+    @Test
+    @DisplayName("Should throw conflict when recurring expense changed since the expected version")
+    void updateRecurringExpense_WhenVersionIsStale_ShouldThrowVersionConflict() {
+        // Arrange
+        testRequest.setVersion(4L);
+        when(recurringExpenseRepository.updateInPlace(any(RecurringExpense.class))).thenReturn(Optional.empty());
+        when(recurringExpenseRepository.existsById(1L)).thenReturn(true);
+        when(categoryRepository.existsById(1L)).thenReturn(true);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> recurringExpenseService.updateRecurringExpense(1L, testRequest))
+            .isInstanceOf(VersionConflictException.class)
+            .hasMessageContaining("since version 4");
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @Test
+    @DisplayName("Should refuse an update that does not say which version it read")
+    void updateRecurringExpense_WithoutVersion_ShouldThrowVersionRequired() {
+        // Arrange
+        testRequest.setVersion(null);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> recurringExpenseService.updateRecurringExpense(1L, testRequest))
+            .isInstanceOf(VersionRequiredException.class);
+        verify(recurringExpenseRepository, never()).updateInPlace(any());
+    }
+    
+    @Test
+    @DisplayName("Should write only the fields present in a merge patch")
+    void patchRecurringExpense_ShouldWriteOnlyPresentFields() {
+        // Arrange: the end date is removed, everything else is absent
+        RecurringExpensePatchRequest patch = new RecurringExpensePatchRequest();
+        patch.setVersion(1L);
+        patch.setEndDate(Optional.empty());
+        
+        testRecurringExpense.setEndDate(null);
+        when(recurringExpenseRepository.patchInPlace(any(RecurringExpense.class), eq(Set.of("endDate"))))
+            .thenReturn(Optional.of(testRecurringExpense));
+        
+        // Act
+        RecurringExpenseResponse response = recurringExpenseService.patchRecurringExpense(1L, patch);
+        
+        // Assert
+        assertThat(response.getEndDate()).isNull();
+        verify(recurringExpenseRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(new DataChangedEvent(TrackedTable.RECURRING_EXPENSES));
+    }
+    
+    @Test
+    @DisplayName("Should throw exception when patching a non-existent recurring expense")
+    void patchRecurringExpense_WhenNotExists_ShouldThrowException() {
+        // Arrange
+        RecurringExpensePatchRequest patch = new RecurringExpensePatchRequest();
+        patch.setVersion(1L);
+        patch.setCategoryId(Optional.of(2L));
+        when(recurringExpenseRepository.patchInPlace(any(RecurringExpense.class), any())).thenReturn(Optional.empty());
+        when(recurringExpenseRepository.existsById(999L)).thenReturn(false);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> recurringExpenseService.patchRecurringExpense(999L, patch))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Recurring expense not found");
     }
     
     @Test
     @DisplayName("Should delete recurring expense when exists")
     void deleteRecurringExpense_WhenExists_ShouldDeleteRecurringExpense() {
         // Arrange
-        when(recurringExpenseRepository.existsById(1L)).thenReturn(true);
+        when(recurringExpenseRepository.deleteInPlace(1L)).thenReturn(1);
         
         // Act
         recurringExpenseService.deleteRecurringExpense(1L);
         
         // Assert
-        verify(recurringExpenseRepository, times(1)).existsById(1L);
-        verify(recurringExpenseRepository, times(1)).deleteById(1L);
+        verify(recurringExpenseRepository, never()).existsById(any());
+        verify(eventPublisher, times(1)).publishEvent(new DataChangedEvent(TrackedTable.RECURRING_EXPENSES));
     }
     
     @Test
     @DisplayName("Should throw exception when deleting non-existent recurring expense")
     void deleteRecurringExpense_WhenNotExists_ShouldThrowException() {
         // Arrange
-        when(recurringExpenseRepository.existsById(999L)).thenReturn(false);
+        when(recurringExpenseRepository.deleteInPlace(999L)).thenReturn(0);
         
         // Act & Assert
         assertThatThrownBy(() -> recurringExpenseService.deleteRecurringExpense(999L))
@@ -224,18 +338,26 @@ class RecurringExpenseServiceTest {
     @DisplayName("Should toggle recurring expense to active")
     void toggleRecurringExpense_ShouldUpdateActiveStatus() {
         // Arrange
-        testRecurringExpense.setActive(false);
-        when(recurringExpenseRepository.findById(1L))
-            .thenReturn(Optional.of(testRecurringExpense));
-        when(recurringExpenseRepository.save(any(RecurringExpense.class)))
-            .thenReturn(testRecurringExpense);
+        when(recurringExpenseRepository.updateActiveInPlace(eq(1L), eq(true), any())).thenReturn(1);
         
         // Act
         recurringExpenseService.toggleRecurringExpense(1L, true);
         
         // Assert
-        verify(recurringExpenseRepository, times(1)).findById(1L);
-        verify(recurringExpenseRepository, times(1)).save(testRecurringExpense);
+        verify(recurringExpenseRepository, never()).findById(any());
+        verify(eventPublisher, times(1)).publishEvent(new DataChangedEvent(TrackedTable.RECURRING_EXPENSES));
+    }
+    
+    @Test
+    @DisplayName("Should throw exception when toggling non-existent recurring expense")
+    void toggleRecurringExpense_WhenNotExists_ShouldThrowException() {
+        // Arrange
+        when(recurringExpenseRepository.updateActiveInPlace(eq(999L), eq(false), any())).thenReturn(0);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> recurringExpenseService.toggleRecurringExpense(999L, false))
+            .isInstanceOf(ResourceNotFoundException.class)
+            .hasMessageContaining("Recurring expense not found");
     }
     
     @Test
@@ -247,7 +369,8 @@ class RecurringExpenseServiceTest {
         
         when(recurringExpenseRepository.findByActiveTrueAndNextOccurrenceLessThanEqual(today))
             .thenReturn(Arrays.asList(testRecurringExpense));
-        when(expenseRepository.save(any(Expense.class))).thenReturn(new Expense());
+        Expense savedExpense = new Expense();
+        when(expenseRepository.save(any(Expense.class))).thenReturn(savedExpense);
         when(recurringExpenseRepository.save(any(RecurringExpense.class)))
             .thenReturn(testRecurringExpense);
         
@@ -257,6 +380,7 @@ class RecurringExpenseServiceTest {
         // Assert
         ArgumentCaptor<Expense> expenseCaptor = ArgumentCaptor.forClass(Expense.class);
         verify(expenseRepository, times(1)).save(expenseCaptor.capture());
+        verify(expenseOutbox, times(1)).created(savedExpense);
         
         Expense createdExpense = expenseCaptor.getValue();
         assertThat(createdExpense.getAmount()).isEqualTo(testRecurringExpense.getAmount());
@@ -264,6 +388,8 @@ class RecurringExpenseServiceTest {
         assertThat(createdExpense.getDescription()).contains("(Recurring)");
         
         verify(recurringExpenseRepository, times(1)).save(testRecurringExpense);
+        verify(eventPublisher, times(1)).publishEvent(new DataChangedEvent(TrackedTable.EXPENSES));
+        verify(eventPublisher, times(1)).publishEvent(new DataChangedEvent(TrackedTable.RECURRING_EXPENSES));
     }
     
     @Test
@@ -0,0 +1,168 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.BudgetStatusResponse;
+import com.expensetracker.dto.MonthlySummaryResponse;
+import com.expensetracker.event.DataChangedEvent;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SummaryStreamService Tests")
+class SummaryStreamServiceTest {
+    
+    @Mock
+    private ExpenseService expenseService;
+    
+    @Mock
+    private BudgetService budgetService;
+    
+    @Mock
+    private TableVersionService tableVersionService;
+    
+    private SummaryStreamService summaryStreamService;
+    
+    private MonthlySummaryResponse monthlySummary;
+    
+    @BeforeEach
+    void setUp() {
+        // A long poll interval so only local change events trigger a recompute
+        summaryStreamService = new SummaryStreamService(
+            expenseService, budgetService, tableVersionService, Duration.ofMinutes(1), Duration.ofHours(1));
+        
+        YearMonth now = YearMonth.now();
+        monthlySummary = new MonthlySummaryResponse(new BigDecimal("150.00"), now.getMonthValue(), now.getYear());
+    }
+    
+    private void stubSnapshot() {
+        when(expenseService.getMonthlySummary()).thenReturn(monthlySummary);
+        when(budgetService.findBudgetStatus(new BigDecimal("150.00"))).thenReturn(Optional.of(new BudgetStatusResponse(
+            new BigDecimal("1000.00"),
+            new BigDecimal("150.00"),
+            new BigDecimal("850.00"),
+            new BigDecimal("15.00"),
+            BudgetStatusResponse.BudgetStatus.HEALTHY
+        )));
+    }
+    
+    @Test
+    @DisplayName("Should send current snapshot to a new subscriber")
+    void subscribe_ShouldComputeSnapshotOnce() {
+        // Arrange
+        stubSnapshot();
+        
+        // Act
+        summaryStreamService.subscribe();
+        summaryStreamService.subscribe();
+        
+        // Assert
+        assertThat(summaryStreamService.subscriberCount()).isEqualTo(2);
+        verify(expenseService, times(1)).getMonthlySummary();
+        verify(budgetService, times(1)).findBudgetStatus(any());
+    }
+    
+    @Test
+    @DisplayName("Should recompute once per window however many writes arrive")
+    void flush_AfterManyWrites_ShouldRecomputeOnce() {
+        // Arrange
+        stubSnapshot();
+        when(tableVersionService.etag(any(YearMonth.class), any(TrackedTable[].class))).thenReturn("\"1-2\"");
+        summaryStreamService.subscribe();
+        summaryStreamService.flush();
+        
+        // Act
+        for (int i = 0; i < 50; i++) {
+            summaryStreamService.onDataChanged(new DataChangedEvent(TrackedTable.EXPENSES, Set.of(LocalDate.now())));
+        }
+        summaryStreamService.flush();
+        summaryStreamService.flush();
+        
+        // Assert
+        verify(expenseService, times(3)).getMonthlySummary();
+    }
+    
+    @Test
+    @DisplayName("Should ignore writes that cannot affect the current month")
+    void onDataChanged_WhenOtherMonthOrTable_ShouldNotRecompute() {
+        // Arrange
+        stubSnapshot();
+        when(tableVersionService.etag(any(YearMonth.class), any(TrackedTable[].class))).thenReturn("\"1-2\"");
+        summaryStreamService.subscribe();
+        summaryStreamService.flush();
+        
+        // Act
+        summaryStreamService.onDataChanged(
+            new DataChangedEvent(TrackedTable.EXPENSES, Set.of(LocalDate.now().minusYears(1))));
+        summaryStreamService.onDataChanged(new DataChangedEvent(TrackedTable.CATEGORIES));
+        summaryStreamService.flush();
+        
+        // Assert
+        verify(expenseService, times(2)).getMonthlySummary();
+    }
+    
+    @Test
+    @DisplayName("Should treat writes with unknown dates and budget changes as relevant")
+    void onDataChanged_WhenDatesUnknownOrBudget_ShouldRecompute() {
+        // Arrange
+        stubSnapshot();
+        when(tableVersionService.etag(any(YearMonth.class), any(TrackedTable[].class))).thenReturn("\"1-2\"");
+        summaryStreamService.subscribe();
+        
+        // Act
+        summaryStreamService.onDataChanged(new DataChangedEvent(TrackedTable.EXPENSES));
+        summaryStreamService.flush();
+        summaryStreamService.onDataChanged(new DataChangedEvent(TrackedTable.BUDGETS));
+        summaryStreamService.flush();
+        
+        // Assert
+        verify(expenseService, times(3)).getMonthlySummary();
+    }
+    
+    @Test
+    @DisplayName("Should stop tracking when there are no subscribers")
+    void flush_WithoutSubscribers_ShouldDoNothing() {
+        // Arrange
+        summaryStreamService.onDataChanged(new DataChangedEvent(TrackedTable.EXPENSES));
+        
+        // Act
+        summaryStreamService.flush();
+        
+        // Assert
+        verifyNoInteractions(expenseService, budgetService, tableVersionService);
+    }
+    
+    @Test
+    @DisplayName("Should recompute when another instance changed the shared table versions")
+    void flush_WhenVersionTagChanges_ShouldRecompute() {
+        // Arrange
+        summaryStreamService = new SummaryStreamService(
+            expenseService, budgetService, tableVersionService, Duration.ofMinutes(1), Duration.ZERO);
+        stubSnapshot();
+        when(tableVersionService.etag(any(YearMonth.class), any(TrackedTable[].class)))
+            .thenReturn("\"1-2\"", "\"1-2\"", "\"3-2\"");
+        summaryStreamService.subscribe();
+        
+        // Act
+        summaryStreamService.flush();
+        summaryStreamService.flush();
+        summaryStreamService.flush();
+        
+        // Assert
+        verify(expenseService, times(3)).getMonthlySummary();
+    }
+}
@@ -0,0 +1,127 @@
+package com.expensetracker.service;
+
+import com.expensetracker.event.DataChangedEvent;
+import com.expensetracker.model.TableVersion;
+import com.expensetracker.model.TableVersion.TrackedTable;
+import com.expensetracker.repository.SecondLevelCache;
+import com.expensetracker.repository.TableVersionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TableVersionService Tests")
+class TableVersionServiceTest {
+    
+    @Mock
+    private TableVersionRepository tableVersionRepository;
+    
+    @Mock
+    private SecondLevelCache secondLevelCache;
+    
+    @InjectMocks
+    private TableVersionService tableVersionService;
+    
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(tableVersionService);
+    }
+    
+    @Test
+    @DisplayName("Should build a quoted ETag from the requested table versions")
+    void etag_ShouldJoinVersionsInRequestedOrder() {
+        // Arrange
+        when(tableVersionRepository.findAllById(any())).thenReturn(Arrays.asList(
+            new TableVersion(TrackedTable.CATEGORIES, 3L),
+            new TableVersion(TrackedTable.EXPENSES, 12L)
+        ));
+        
+        // Act
+        String etag = tableVersionService.etag(TrackedTable.EXPENSES, TrackedTable.CATEGORIES);
+        
+        // Assert
+        assertThat(etag).isEqualTo("\"12-3\"");
+        verify(secondLevelCache).syncWithVersions(Map.of(TrackedTable.CATEGORIES, 3L, TrackedTable.EXPENSES, 12L));
+    }
+    
+    @Test
+    @DisplayName("Should treat missing version rows as zero and append the month")
+    void etag_WithMonthAndMissingRow_ShouldDefaultToZero() {
+        // Arrange
+        when(tableVersionRepository.findAllById(any())).thenReturn(Arrays.asList(
+            new TableVersion(TrackedTable.BUDGETS, 4L)
+        ));
+        
+        // Act
+        String etag = tableVersionService.etag(YearMonth.of(2025, 10), TrackedTable.BUDGETS, TrackedTable.EXPENSES);
+        
+        // Assert
+        assertThat(etag).isEqualTo("\"4-0-2025-10\"");
+    }
+    
+    @Test
+    @DisplayName("Should bump immediately when no transaction is active")
+    void onDataChanged_WithoutTransaction_ShouldIncrementImmediately() {
+        // Act
+        tableVersionService.onDataChanged(new DataChangedEvent(TrackedTable.BUDGETS));
+        
+        // Assert
+        verify(tableVersionRepository, times(1)).incrementVersions(EnumSet.of(TrackedTable.BUDGETS));
+    }
+    
+    @Test
+    @DisplayName("Should bump each table once per transaction, right before commit")
+    void onDataChanged_WithinTransaction_ShouldBumpOnceBeforeCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        
+        // Act
+        tableVersionService.onDataChanged(new DataChangedEvent(TrackedTable.EXPENSES));
+        tableVersionService.onDataChanged(new DataChangedEvent(TrackedTable.EXPENSES));
+        tableVersionService.onDataChanged(new DataChangedEvent(TrackedTable.RECURRING_EXPENSES));
+        
+        // Assert
+        verify(tableVersionRepository, never()).incrementVersions(any());
+        
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        
+        verify(tableVersionRepository, times(1))
+            .incrementVersions(EnumSet.of(TrackedTable.EXPENSES, TrackedTable.RECURRING_EXPENSES));
+        assertThat(TransactionSynchronizationManager.hasResource(tableVersionService)).isFalse();
+    }
+    
+    @Test
+    @DisplayName("Should create version rows only for tables without one")
+    void ensureVersionRows_ShouldSeedMissingRows() {
+        // Arrange
+        when(tableVersionRepository.existsById(any())).thenReturn(true);
+        when(tableVersionRepository.existsById(TrackedTable.BUDGETS)).thenReturn(false);
+        
+        // Act
+        tableVersionService.ensureVersionRows();
+        
+        // Assert
+        verify(tableVersionRepository, times(1)).save(argThat(row -> row.getTableName() == TrackedTable.BUDGETS));
+    }
+}
@@ -0,0 +1,184 @@
+package com.expensetracker.snapshot;
+
+import com.expensetracker.dto.ExpenseChangesResponse;
+import com.expensetracker.dto.SnapshotImportResponse;
+import com.expensetracker.exception.SnapshotImportException;
+import com.expensetracker.service.ExpenseSyncService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.datasource.url=jdbc:h2:mem:snapshots",
+    "app.projections.poll-interval=PT1H"
+})
+@ActiveProfiles("test")
+@DisplayName("DatasetSnapshotService Tests")
+class DatasetSnapshotServiceTest {
+    
+    private static final List<String> TABLES = List.of("categories", "expenses", "recurring_expenses", "budgets");
+    
+    @Autowired
+    private DatasetSnapshotService datasetSnapshotService;
+    
+    @Autowired
+    private ExpenseSyncService expenseSyncService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO categories (name, description, is_default, created_at, updated_at, version) VALUES "
+            + "('Groceries', 'Food', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0), "
+            + "('Travel', NULL, false, CURRENT_TIMESTAMP, NULL, 3)");
+        Long groceries = jdbcTemplate.queryForObject("SELECT id FROM categories WHERE name = 'Groceries'", Long.class);
+        Long travel = jdbcTemplate.queryForObject("SELECT id FROM categories WHERE name = 'Travel'", Long.class);
+        List<Object[]> expenses = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            // Descriptions that CSV would have to quote, plus empty and missing ones
+            String description = switch (i % 4) {
+                case 0 -> "Lunch, \"the usual\"";
+                case 1 -> "Café\nsecond line";
+                case 2 -> "";
+                default -> null;
+            };
+            expenses.add(new Object[] {BigDecimal.valueOf(100 + i * 7L, 2), i % 3 == 0 ? travel : groceries,
+                Date.valueOf(LocalDate.of(2024, 1, 1).plusDays(i % 400)), description, (long) i % 5});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO expenses (amount, category_id, date, description, created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, ?)", expenses);
+        jdbcTemplate.update("INSERT INTO recurring_expenses (amount, category_id, description, frequency, start_date, "
+            + "end_date, next_occurrence, active, created_at, updated_at, version) VALUES "
+            + "(15.99, ?, 'Streaming', 'MONTHLY', DATE '2024-01-05', NULL, DATE '2025-01-05', true, CURRENT_TIMESTAMP, NULL, 0), "
+            + "(120.00, ?, NULL, 'YEARLY', DATE '2023-03-01', DATE '2024-03-01', DATE '2024-03-01', false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 2)",
+            groceries, travel);
+        jdbcTemplate.update("INSERT INTO budgets (monthly_limit, created_at, updated_at) VALUES (2500.00, CURRENT_TIMESTAMP, NULL)");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM expense_sync_resets");
+        jdbcTemplate.update("DELETE FROM expense_tombstones");
+        jdbcTemplate.update("DELETE FROM expense_events");
+        jdbcTemplate.update("DELETE FROM expenses");
+        jdbcTemplate.update("DELETE FROM recurring_expenses");
+        jdbcTemplate.update("DELETE FROM budgets");
+        jdbcTemplate.update("DELETE FROM categories");
+    }
+    
+    @Test
+    @DisplayName("Should restore every table exactly as it was exported")
+    void importSnapshot_ShouldRoundTripTheDataset() {
+        // Arrange
+        Map<String, List<Map<String, Object>>> before = dump();
+        byte[] snapshot = export();
+        jdbcTemplate.update("UPDATE expenses SET amount = 1.00");
+        jdbcTemplate.update("DELETE FROM budgets");
+        
+        // Act
+        SnapshotImportResponse response = datasetSnapshotService.importSnapshot(new ByteArrayInputStream(snapshot));
+        
+        // Assert
+        assertThat(dump()).isEqualTo(before);
+        assertThat(response.getRows()).containsExactly(
+            entry("categories", 2L), entry("expenses", 1_000L), entry("recurring_expenses", 2L), entry("budgets", 1L),
+            entry("expenses_archive", 0L));
+        assertThat(snapshot.length).isLessThan(1_000 * 24);
+    }
+    
+    @Test
+    @DisplayName("Should replace expenses through the outbox and keep handing out fresh ids")
+    void importSnapshot_ShouldRecordEventsAndRestartIds() {
+        // Arrange
+        byte[] snapshot = export();
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM expenses", Long.class);
+        
+        // Act
+        datasetSnapshotService.importSnapshot(new ByteArrayInputStream(snapshot));
+        jdbcTemplate.update("INSERT INTO expenses (amount, category_id, date, created_at, version) "
+            + "SELECT 1.00, MIN(id), CURRENT_DATE, CURRENT_TIMESTAMP, 0 FROM categories");
+        
+        // Assert
+        assertThat(jdbcTemplate.queryForObject("SELECT MAX(id) FROM expenses", Long.class)).isGreaterThan(maxId);
+        assertThat(jdbcTemplate.queryForList("SELECT event_type, COUNT(*) AS events FROM expense_events "
+            + "GROUP BY event_type ORDER BY event_type"))
+            .extracting(row -> row.get("EVENT_TYPE") + "=" + row.get("EVENTS"))
+            .containsExactly("CREATED=1000", "DELETED=1000");
+        // Every deletion comes before every re-creation
+        assertThat(jdbcTemplate.queryForObject("SELECT MAX(id) FROM expense_events WHERE event_type = 'DELETED'", Long.class))
+            .isLessThan(jdbcTemplate.queryForObject("SELECT MIN(id) FROM expense_events WHERE event_type = 'CREATED'", Long.class));
+    }
+    
+    @Test
+    @DisplayName("Should send sync clients that synced before the restore a full resync")
+    void importSnapshot_ShouldForceFullResyncForEarlierWatermarks() {
+        // Arrange: the snapshot's rows were last updated long before the client's watermark
+        jdbcTemplate.update("UPDATE expenses SET updated_at = TIMESTAMP '2024-06-01 00:00:00'");
+        byte[] snapshot = export();
+        String watermark = expenseSyncService.getChangesSince(null).getWatermark();
+        Long restoredId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM expenses", Long.class);
+        jdbcTemplate.update("DELETE FROM expenses WHERE id = ?", restoredId);
+        jdbcTemplate.update("INSERT INTO expense_tombstones (expense_id, deleted_at) VALUES (?, CURRENT_TIMESTAMP)", restoredId);
+        
+        // Act
+        datasetSnapshotService.importSnapshot(new ByteArrayInputStream(snapshot));
+        ExpenseChangesResponse changes = expenseSyncService.getChangesSince(watermark);
+        
+        // Assert
+        assertThat(changes.isFullResync()).isTrue();
+        assertThat(changes.getUpserts()).hasSize(1_000);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expense_tombstones WHERE expense_id = ?",
+            Long.class, restoredId)).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should reject a file that is not a snapshot and leave the data alone")
+    void importSnapshot_NotASnapshot_ShouldChangeNothing() {
+        // Arrange
+        Map<String, List<Map<String, Object>>> before = dump();
+        byte[] truncated = Arrays.copyOf(export(), 500);
+        
+        // Act & Assert
+        assertThatThrownBy(() -> datasetSnapshotService.importSnapshot(new ByteArrayInputStream("id,amount\n".getBytes())))
+            .isInstanceOf(SnapshotImportException.class);
+        assertThatThrownBy(() -> datasetSnapshotService.importSnapshot(new ByteArrayInputStream(truncated)))
+            .isInstanceOf(SnapshotImportException.class);
+        assertThat(dump()).isEqualTo(before);
+    }
+    
+    private byte[] export() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        datasetSnapshotService.export(out);
+        return out.toByteArray();
+    }
+    
+    private Map<String, List<Map<String, Object>>> dump() {
+        Map<String, List<Map<String, Object>>> tables = new LinkedHashMap<>();
+        for (String table : TABLES) {
+            tables.put(table, jdbcTemplate.queryForList("SELECT * FROM " + table + " ORDER BY id"));
+        }
+        return tables;
+    }
+}
@@ -0,0 +1,119 @@
+package com.expensetracker.summary;
+
+import com.expensetracker.dto.CategorySummaryResponse;
+import com.expensetracker.dto.ExpenseRequest;
+import com.expensetracker.dto.MonthlySummaryResponse;
+import com.expensetracker.service.ExpenseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.datasource.url=jdbc:h2:mem:summaryviews",
+    "app.projections.poll-interval=PT1H",
+    "app.summary-views.enabled=true",
+    "app.summary-views.debounce=PT1H",
+    "app.summary-views.check-interval=PT1H"
+})
+@ActiveProfiles("test")
+@DisplayName("SummaryViews Tests")
+class SummaryViewsTest {
+    
+    @Autowired
+    private SummaryViews summaryViews;
+    
+    @Autowired
+    private ExpenseService expenseService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long groceries;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO categories (name, is_default, created_at, version) VALUES "
+            + "('Groceries', true, CURRENT_TIMESTAMP, 0), ('Travel', false, CURRENT_TIMESTAMP, 0)");
+        groceries = jdbcTemplate.queryForObject("SELECT id FROM categories WHERE name = 'Groceries'", Long.class);
+        Long travel = jdbcTemplate.queryForObject("SELECT id FROM categories WHERE name = 'Travel'", Long.class);
+        jdbcTemplate.update("INSERT INTO expenses (amount, category_id, date, created_at, version) VALUES "
+            + "(10.00, ?, CURRENT_DATE, CURRENT_TIMESTAMP, 0), (2.50, ?, CURRENT_DATE, CURRENT_TIMESTAMP, 0), "
+            + "(30.00, ?, DATE '2024-01-15', CURRENT_TIMESTAMP, 0)", groceries, groceries, travel);
+        // The rows above bypassed the services, so bump the version the way a bulk load does
+        jdbcTemplate.update("UPDATE table_versions SET version = version + 1 WHERE table_name = 'EXPENSES'");
+        summaryViews.refreshIfStale();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM expense_events");
+        jdbcTemplate.update("DELETE FROM expenses");
+        jdbcTemplate.update("DELETE FROM categories");
+        jdbcTemplate.update("UPDATE table_versions SET version = version + 1 WHERE table_name = 'EXPENSES'");
+        summaryViews.refreshIfStale();
+    }
+    
+    @Test
+    @DisplayName("Should serve the summaries from the views along with when they were refreshed")
+    void summaries_ShouldComeFromTheViews() {
+        // Act
+        List<CategorySummaryResponse> categories = expenseService.getCategorySummary();
+        MonthlySummaryResponse month = expenseService.getMonthlySummary();
+        
+        // Assert
+        assertThat(summaryViews.isReady()).isTrue();
+        assertThat(categories).extracting(CategorySummaryResponse::getCategory, CategorySummaryResponse::getTotal)
+            .containsExactly(
+                tuple("Travel", new BigDecimal("30.00")),
+                tuple("Groceries", new BigDecimal("12.50")));
+        assertThat(categories).allSatisfy(summary -> assertThat(summary.getAsOf()).isNotNull());
+        assertThat(month.getTotal()).isEqualByComparingTo("12.50");
+        assertThat(month.getAsOf()).isEqualTo(categories.get(0).getAsOf());
+    }
+    
+    @Test
+    @DisplayName("Should refresh once writes go quiet, and only when the expenses changed")
+    void refreshAfterChanges_ShouldWaitForAQuietTick() {
+        // Arrange
+        expenseService.createExpense(new ExpenseRequest(new BigDecimal("5.00"), groceries, LocalDate.now(), "Snack", null));
+        
+        // Act & Assert: the first tick sees new changes and waits, the next one refreshes
+        summaryViews.refreshAfterChanges();
+        assertThat(expenseService.getMonthlySummary().getTotal()).isEqualByComparingTo("12.50");
+        summaryViews.refreshAfterChanges();
+        assertThat(expenseService.getMonthlySummary().getTotal()).isEqualByComparingTo("17.50");
+        assertThat(summaryViews.refreshIfStale()).isFalse();
+    }
+    
+    @Test
+    @DisplayName("Should become ready on a scheduled check when the fill at startup failed")
+    void refreshOnSchedule_AfterFailedStart_ShouldBecomeReady() {
+        // Arrange: a constraint the totals break makes the startup refresh fail
+        jdbcTemplate.update("DELETE FROM summary_view_refreshes");
+        jdbcTemplate.update("DELETE FROM " + SummaryViews.MONTHLY_TOTALS);
+        jdbcTemplate.execute("ALTER TABLE " + SummaryViews.MONTHLY_TOTALS + " ADD CONSTRAINT ck_no_totals CHECK (total < 0)");
+        summaryViews.start();
+        assertThat(summaryViews.isReady()).isFalse();
+        jdbcTemplate.execute("ALTER TABLE " + SummaryViews.MONTHLY_TOTALS + " DROP CONSTRAINT ck_no_totals");
+        
+        // Act
+        summaryViews.refreshOnSchedule();
+        
+        // Assert
+        assertThat(summaryViews.isReady()).isTrue();
+        assertThat(expenseService.getMonthlySummary().getTotal()).isEqualByComparingTo("12.50");
+    }
+}
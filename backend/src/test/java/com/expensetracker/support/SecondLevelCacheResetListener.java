@@ -0,0 +1,14 @@
+package com.expensetracker.support;
+
+import com.expensetracker.repository.SecondLevelCache;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+// The @Sql fixtures reload the tables behind Hibernate's back, so every test starts from cold caches
+public class SecondLevelCacheResetListener extends AbstractTestExecutionListener {
+    
+    @Override
+    public void beforeTestMethod(TestContext testContext) {
+        testContext.getApplicationContext().getBean(SecondLevelCache.class).evictAll();
+    }
+}
@@ -0,0 +1,34 @@
+package com.expensetracker.support;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Full application against H2 with a small fixed dataset, for asserting how many SQL statements an
+// endpoint issues. MockMvc runs the request on the test thread, and the summary stream's flush and the
+// projection poll are pushed out of the way, so the count covers exactly that request.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "app.stream.coalesce-window=PT1H",
+    "app.stream.heartbeat-interval=PT1H",
+    "app.projections.poll-interval=PT1H"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(StatementCounter.class)
+@Sql(scripts = "/statement-budget/data.sql")
+@Sql(scripts = "/statement-budget/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@TestExecutionListeners(listeners = SecondLevelCacheResetListener.class,
+    mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+public @interface StatementBudgetTest {
+}
@@ -0,0 +1,45 @@
+package com.expensetracker.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Counts JDBC round trips: one per statement execution, so a JDBC batch counts once.
+// Registered as a bean, the SQL monitoring config attaches it to every connection pool.
+public class StatementCounter implements QueryExecutionListener {
+    
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+    
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        statements.add(queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")));
+    }
+    
+    public void assertStatementBudget(int maxStatements, ThrowingRunnable action) throws Exception {
+        statements.clear();
+        action.run();
+        List<String> executed;
+        synchronized (statements) {
+            executed = new ArrayList<>(statements);
+        }
+        assertThat(executed)
+            .as("SQL statements executed (budget %d)", maxStatements)
+            .hasSizeLessThanOrEqualTo(maxStatements);
+    }
+    
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,6 @@
+DELETE FROM expenses;
+DELETE FROM expense_tombstones;
+DELETE FROM recurring_expenses;
+DELETE FROM budgets;
+DELETE FROM categories;
+DELETE FROM expense_events;
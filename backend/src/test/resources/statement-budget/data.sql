@@ -0,0 +1,18 @@
+-- Enough rows across several categories that a per-row lazy load would show up as extra statements
+INSERT INTO categories (name, description, is_default, created_at, updated_at) VALUES
+    ('Groceries', 'Food', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    ('Transportation', 'Travel', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    ('Utilities', 'Bills', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    ('Hobbies', 'Unused', false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+
+INSERT INTO expenses (amount, category_id, date, description, created_at, updated_at)
+SELECT 10.00 + X, (SELECT id FROM categories WHERE name = CASE MOD(X, 3) WHEN 0 THEN 'Groceries' WHEN 1 THEN 'Transportation' ELSE 'Utilities' END),
+       DATEADD(DAY, -MOD(X, 40), CURRENT_DATE), 'Expense ' || X, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 12);
+
+INSERT INTO budgets (monthly_limit, created_at, updated_at) VALUES (500.00, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+
+INSERT INTO recurring_expenses (amount, category_id, description, frequency, start_date, end_date, next_occurrence, active, created_at, updated_at)
+SELECT 20.00 * X, (SELECT id FROM categories WHERE name = CASE MOD(X, 3) WHEN 0 THEN 'Groceries' WHEN 1 THEN 'Transportation' ELSE 'Utilities' END),
+       'Recurring ' || X, 'MONTHLY', DATEADD(MONTH, -2, CURRENT_DATE), NULL, DATEADD(DAY, -X, CURRENT_DATE), true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 4);
@@ -8,7 +8,16 @@ import { BudgetTracker } from "@/components/BudgetTracker"
 import { ExpenseFilter } from "@/components/ExpenseFilter"
 import { RecurringExpenses } from "@/components/RecurringExpenses"
 import { CategoryManagement } from "@/components/CategoryManagement"
-import { expenseApi, type Expense, type CategorySummary, type MonthlySummary } from "@/lib/api"
+import {
+  dashboardApi,
+  streamApi,
+  type Expense,
+  type CategorySummary,
+  type MonthlySummary,
+  type BudgetStatus,
+  type Category,
+  type RecurringExpense,
+} from "@/lib/api"
 import { useToast } from "@/components/ui/use-toast"
 import { Wallet } from "lucide-react"
 
@@ -21,6 +30,9 @@ export default function Home() {
     month: new Date().getMonth() + 1,
     year: new Date().getFullYear(),
   })
+  const [budgetStatus, setBudgetStatus] = useState<BudgetStatus | null>(null)
+  const [categories, setCategories] = useState<Category[]>([])
+  const [recurringExpenses, setRecurringExpenses] = useState<RecurringExpense[]>([])
   const [loading, setLoading] = useState(true)
   const [filterCategories, setFilterCategories] = useState<string[]>([])
   const [filterStartDate, setFilterStartDate] = useState<string | undefined>(undefined)
@@ -28,17 +40,22 @@ export default function Home() {
 
   const loadData = useCallback(async () => {
     try {
-      const [expensesData, categoryData, monthlyData] = await Promise.all([
-        expenseApi.getFilteredExpenses(filterCategories.length > 0 ? filterCategories : undefined, filterStartDate, filterEndDate),
-        expenseApi.getCategorySummary(),
-        expenseApi.getMonthlySummary(),
-      ])
+      const dashboard = await dashboardApi.getDashboard(
+        filterCategories.length > 0 ? filterCategories : undefined,
+        filterStartDate,
+        filterEndDate,
+      )
 
-      setExpenses(expensesData.sort((a, b) => 
+      setExpenses(dashboard.expenses.sort((a, b) => 
         new Date(b.date).getTime() - new Date(a.date).getTime()
       ))
-      setCategorySummary(categoryData)
-      setMonthlySummary(monthlyData)
+      setCategorySummary(dashboard.categorySummary)
+      setMonthlySummary(dashboard.monthlySummary)
+      setBudgetStatus(dashboard.budgetStatus)
+      setCategories(dashboard.categories.sort((a, b) => a.name.localeCompare(b.name)))
+      setRecurringExpenses(dashboard.recurringExpenses.sort((a, b) =>
+        new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime()
+      ))
     } catch (error) {
       toast({
         title: "Error",
@@ -60,6 +77,14 @@ export default function Home() {
     loadData()
   }, [loadData])
 
+  // One stream per tab; the server pushes both whenever this month's spending changes
+  useEffect(() => {
+    return streamApi.subscribeSummary({
+      onMonthlySummary: setMonthlySummary,
+      onBudgetStatus: setBudgetStatus,
+    })
+  }, [])
+
   if (loading) {
     return (
       <div className="min-h-screen flex items-center justify-center">
@@ -88,16 +113,20 @@ export default function Home() {
         <div className="grid grid-cols-1 lg:grid-cols-3 gap-6">
           {/* Left Column - Form, Filter, and List */}
           <div className="lg:col-span-2 space-y-6">
-            <ExpenseForm onSuccess={loadData} />
-            <ExpenseFilter onFilter={handleFilter} />
-            <RecurringExpenses onUpdate={loadData} />
-            <ExpenseList expenses={expenses} onUpdate={loadData} />
+            <ExpenseForm categories={categories} onSuccess={loadData} />
+            <ExpenseFilter categories={categories} onFilter={handleFilter} />
+            <RecurringExpenses
+              recurringExpenses={recurringExpenses}
+              categories={categories}
+              onUpdate={loadData}
+            />
+            <ExpenseList expenses={expenses} categories={categories} onUpdate={loadData} />
           </div>
 
           {/* Right Column - Budget, Categories, and Summary */}
           <div className="lg:col-span-1 space-y-6">
-            <BudgetTracker onBudgetChange={loadData} />
-            <CategoryManagement onUpdate={loadData} />
+            <BudgetTracker budgetStatus={budgetStatus} onBudgetChange={loadData} />
+            <CategoryManagement categories={categories} onUpdate={loadData} />
             <SpendingSummary
               categorySummary={categorySummary}
               monthlySummary={monthlySummary}
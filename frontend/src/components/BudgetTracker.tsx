@@ -12,32 +12,24 @@ import { useToast } from "@/components/ui/use-toast"
 import { AlertCircle, CheckCircle, TrendingUp, DollarSign } from "lucide-react"
 
 interface BudgetTrackerProps {
+  // Loaded with the dashboard and then pushed by the summary stream
+  budgetStatus: BudgetStatus | null
   onBudgetChange: () => void
 }
 
-export function BudgetTracker({ onBudgetChange }: BudgetTrackerProps) {
+export function BudgetTracker({ budgetStatus, onBudgetChange }: BudgetTrackerProps) {
   const { toast } = useToast()
-  const [budgetStatus, setBudgetStatus] = useState<BudgetStatus | null>(null)
-  const [isEditing, setIsEditing] = useState(false)
-  const [monthlyLimit, setMonthlyLimit] = useState<string>("")
+  // Budget not set yet
+  const [isEditing, setIsEditing] = useState(budgetStatus === null)
+  const [monthlyLimit, setMonthlyLimit] = useState<string>(budgetStatus?.monthlyLimit.toString() ?? "")
   const [loading, setLoading] = useState(false)
 
+  const currentLimit = budgetStatus?.monthlyLimit
   useEffect(() => {
-    loadBudgetStatus()
-  }, [])
-
-  const loadBudgetStatus = async () => {
-    try {
-      const status = await budgetApi.getBudgetStatus()
-      setBudgetStatus(status)
-      setMonthlyLimit(status.monthlyLimit.toString())
-    } catch (error: any) {
-      // Budget not set yet
-      if (error.response?.status === 404) {
-        setIsEditing(true)
-      }
+    if (currentLimit !== undefined) {
+      setMonthlyLimit(currentLimit.toString())
     }
-  }
+  }, [currentLimit])
 
   const handleSubmit = async (e: FormEvent<HTMLFormElement>) => {
     e.preventDefault()
@@ -55,7 +47,6 @@ export function BudgetTracker({ onBudgetChange }: BudgetTrackerProps) {
       }
 
       await budgetApi.setBudget({ monthlyLimit: limit })
-      await loadBudgetStatus()
       setIsEditing(false)
       onBudgetChange()
       
@@ -1,6 +1,6 @@
 "use client"
 
-import { useState, useEffect } from "react"
+import { useState } from "react"
 import type { FormEvent } from "react"
 import { Button } from "@/components/ui/button"
 import { Input } from "@/components/ui/input"
@@ -19,12 +19,12 @@ import { useToast } from "@/components/ui/use-toast"
 import { Plus, Edit, Trash2, Tag } from "lucide-react"
 
 interface CategoryManagementProps {
+  categories: Category[]
   onUpdate: () => void
 }
 
-export function CategoryManagement({ onUpdate }: CategoryManagementProps) {
+export function CategoryManagement({ categories, onUpdate }: CategoryManagementProps) {
   const { toast } = useToast()
-  const [categories, setCategories] = useState<Category[]>([])
   const [isDialogOpen, setIsDialogOpen] = useState(false)
   const [isEditing, setIsEditing] = useState(false)
   const [editingId, setEditingId] = useState<number | null>(null)
@@ -34,23 +34,6 @@ export function CategoryManagement({ onUpdate }: CategoryManagementProps) {
     description: '',
   })
 
-  useEffect(() => {
-    loadCategories()
-  }, [])
-
-  const loadCategories = async () => {
-    try {
-      const data = await categoryApi.getAllCategories()
-      setCategories(data.sort((a, b) => a.name.localeCompare(b.name)))
-    } catch (error) {
-      toast({
-        title: "Error",
-        description: "Failed to load categories",
-        variant: "destructive",
-      })
-    }
-  }
-
   const handleOpenDialog = () => {
     setIsEditing(false)
     setEditingId(null)
@@ -64,6 +47,7 @@ export function CategoryManagement({ onUpdate }: CategoryManagementProps) {
     setFormData({
       name: category.name,
       description: category.description || '',
+      version: category.version,
     })
     setIsDialogOpen(true)
   }
@@ -90,7 +74,6 @@ export function CategoryManagement({ onUpdate }: CategoryManagementProps) {
       setIsEditing(false)
       setEditingId(null)
       setFormData({ name: '', description: '' })
-      loadCategories()
       onUpdate()
     } catch (error: any) {
       toast({
@@ -121,7 +104,6 @@ export function CategoryManagement({ onUpdate }: CategoryManagementProps) {
         title: "Success",
         description: "Category deleted successfully",
       })
-      loadCategories()
       onUpdate()
     } catch (error: any) {
       toast({
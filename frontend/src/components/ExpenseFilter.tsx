@@ -1,6 +1,6 @@
 "use client"
 
-import { useState, useEffect } from "react"
+import { useState } from "react"
 import { Button } from "@/components/ui/button"
 import { Input } from "@/components/ui/input"
 import { Label } from "@/components/ui/label"
@@ -12,39 +12,20 @@ import {
   SelectValue,
 } from "@/components/ui/select"
 import { Card, CardContent, CardHeader, CardTitle } from "@/components/ui/card"
-import { categoryApi, type Category } from "@/lib/api"
-import { useToast } from "@/components/ui/use-toast"
+import { type Category } from "@/lib/api"
 import { Filter, X } from "lucide-react"
 
 interface ExpenseFilterProps {
+  categories: Category[]
   onFilter: (categories: string[], startDate?: string, endDate?: string) => void
 }
 
-export function ExpenseFilter({ onFilter }: ExpenseFilterProps) {
-  const { toast } = useToast()
-  const [categories, setCategories] = useState<Category[]>([])
+export function ExpenseFilter({ categories, onFilter }: ExpenseFilterProps) {
   const [selectedCategories, setSelectedCategories] = useState<string[]>([])
   const [startDate, setStartDate] = useState<string>("")
   const [endDate, setEndDate] = useState<string>("")
   const [isExpanded, setIsExpanded] = useState(false)
 
-  useEffect(() => {
-    loadCategories()
-  }, [])
-
-  const loadCategories = async () => {
-    try {
-      const data = await categoryApi.getAllCategories()
-      setCategories(data.sort((a, b) => a.name.localeCompare(b.name)))
-    } catch (error) {
-      toast({
-        title: "Error",
-        description: "Failed to load categories",
-        variant: "destructive",
-      })
-    }
-  }
-
   const handleAddCategory = (category: string) => {
     if (category !== "placeholder" && !selectedCategories.includes(category)) {
       const newCategories = [...selectedCategories, category]
@@ -13,19 +13,19 @@ import {
   SelectValue,
 } from "@/components/ui/select"
 import { Card, CardContent, CardHeader, CardTitle } from "@/components/ui/card"
-import { expenseApi, categoryApi, type Expense, type ExpenseRequest, type Category } from "@/lib/api"
+import { expenseApi, type Expense, type ExpenseRequest, type Category } from "@/lib/api"
 import { useToast } from "@/components/ui/use-toast"
 
 interface ExpenseFormProps {
   expense?: Expense
+  categories: Category[]
   onSuccess: () => void
   onCancel?: () => void
 }
 
-export function ExpenseForm({ expense, onSuccess, onCancel }: ExpenseFormProps) {
+export function ExpenseForm({ expense, categories, onSuccess, onCancel }: ExpenseFormProps) {
   const { toast } = useToast()
   const [loading, setLoading] = useState(false)
-  const [categories, setCategories] = useState<Category[]>([])
   const [formData, setFormData] = useState<ExpenseRequest>({
     amount: 0,
     categoryId: 0,
@@ -33,10 +33,6 @@ export function ExpenseForm({ expense, onSuccess, onCancel }: ExpenseFormProps)
     description: '',
   })
 
-  useEffect(() => {
-    loadCategories()
-  }, [])
-
   useEffect(() => {
     if (expense && categories.length > 0) {
       const category = categories.find(c => c.name === expense.category)
@@ -45,26 +41,17 @@ export function ExpenseForm({ expense, onSuccess, onCancel }: ExpenseFormProps)
         categoryId: category?.id || categories[0]?.id || 0,
         date: expense.date,
         description: expense.description || '',
+        version: expense.version,
       })
     }
   }, [expense, categories])
 
-  const loadCategories = async () => {
-    try {
-      const data = await categoryApi.getAllCategories()
-      setCategories(data.sort((a, b) => a.name.localeCompare(b.name)))
-      // Set default category if creating new expense
-      if (!expense && data.length > 0) {
-        setFormData(prev => ({ ...prev, categoryId: data[0].id }))
-      }
-    } catch (error) {
-      toast({
-        title: "Error",
-        description: "Failed to load categories",
-        variant: "destructive",
-      })
+  // Set default category if creating new expense
+  useEffect(() => {
+    if (!expense && categories.length > 0) {
+      setFormData(prev => categories.some(c => c.id === prev.categoryId) ? prev : { ...prev, categoryId: categories[0].id })
     }
-  }
+  }, [expense, categories])
 
   const handleSubmit = async (e: FormEvent<HTMLFormElement>) => {
     e.preventDefault()
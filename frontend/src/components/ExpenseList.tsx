@@ -12,17 +12,18 @@ import {
   DialogHeader,
   DialogTitle,
 } from "@/components/ui/dialog"
-import { expenseApi, type Expense } from "@/lib/api"
+import { expenseApi, type Expense, type Category } from "@/lib/api"
 import { formatCurrency, formatDate, exportExpensesToCSV } from "@/lib/utils"
 import { useToast } from "@/components/ui/use-toast"
 import { ExpenseForm } from "./ExpenseForm"
 
 interface ExpenseListProps {
   expenses: Expense[]
+  categories: Category[]
   onUpdate: () => void
 }
 
-export function ExpenseList({ expenses, onUpdate }: ExpenseListProps) {
+export function ExpenseList({ expenses, categories, onUpdate }: ExpenseListProps) {
   const { toast } = useToast()
   const [editingExpense, setEditingExpense] = useState<Expense | null>(null)
   const [deletingExpense, setDeletingExpense] = useState<Expense | null>(null)
@@ -158,6 +159,7 @@ export function ExpenseList({ expenses, onUpdate }: ExpenseListProps) {
           {editingExpense && (
             <ExpenseForm
               expense={editingExpense}
+              categories={categories}
               onSuccess={() => {
                 setEditingExpense(null)
                 onUpdate()
@@ -21,19 +21,21 @@ import {
   DialogHeader,
   DialogTitle,
 } from "@/components/ui/dialog"
-import { recurringExpenseApi, categoryApi, RecurrenceFrequency, type RecurringExpense, type RecurringExpenseRequest, type Category } from "@/lib/api"
+import { recurringExpenseApi, RecurrenceFrequency, type RecurringExpense, type RecurringExpenseRequest, type Category } from "@/lib/api"
 import { formatCurrency, formatDate } from "@/lib/utils"
 import { useToast } from "@/components/ui/use-toast"
 import { Plus, Repeat, Trash2, Power, PowerOff, Edit } from "lucide-react"
 
 interface RecurringExpensesProps {
+  recurringExpenses: RecurringExpense[]
+  categories: Category[]
   onUpdate: () => void
 }
 
-export function RecurringExpenses({ onUpdate }: RecurringExpensesProps) {
+export function RecurringExpenses({ recurringExpenses: loadedExpenses, categories, onUpdate }: RecurringExpensesProps) {
   const { toast } = useToast()
-  const [recurringExpenses, setRecurringExpenses] = useState<RecurringExpense[]>([])
-  const [categories, setCategories] = useState<Category[]>([])
+  // A copy, so toggles can show before the dashboard is reloaded
+  const [recurringExpenses, setRecurringExpenses] = useState<RecurringExpense[]>(loadedExpenses)
   const [isDialogOpen, setIsDialogOpen] = useState(false)
   const [isEditing, setIsEditing] = useState(false)
   const [editingId, setEditingId] = useState<number | null>(null)
@@ -48,41 +50,14 @@ export function RecurringExpenses({ onUpdate }: RecurringExpensesProps) {
   })
 
   useEffect(() => {
-    loadRecurringExpenses()
-    loadCategories()
-    // eslint-disable-next-line react-hooks/exhaustive-deps
-  }, [])
+    setRecurringExpenses(loadedExpenses)
+  }, [loadedExpenses])
 
-  const loadRecurringExpenses = async () => {
-    try {
-      const data = await recurringExpenseApi.getAllRecurringExpenses()
-      setRecurringExpenses(data.sort((a, b) => 
-        new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime()
-      ))
-    } catch (error) {
-      toast({
-        title: "Error",
-        description: "Failed to load recurring expenses",
-        variant: "destructive",
-      })
-    }
-  }
-
-  const loadCategories = async () => {
-    try {
-      const data = await categoryApi.getAllCategories()
-      setCategories(data.sort((a, b) => a.name.localeCompare(b.name)))
-      if (data.length > 0 && formData.categoryId === 0) {
-        setFormData(prev => ({ ...prev, categoryId: data[0].id }))
-      }
-    } catch (error) {
-      toast({
-        title: "Error",
-        description: "Failed to load categories",
-        variant: "destructive",
-      })
+  useEffect(() => {
+    if (categories.length > 0) {
+      setFormData(prev => prev.categoryId === 0 ? { ...prev, categoryId: categories[0].id } : prev)
     }
-  }
+  }, [categories])
 
   const handleOpenDialog = () => {
     setIsEditing(false)
@@ -109,6 +84,7 @@ export function RecurringExpenses({ onUpdate }: RecurringExpensesProps) {
       frequency: expense.frequency,
       startDate: expense.startDate,
       endDate: expense.endDate || undefined,
+      version: expense.version,
     })
     setIsDialogOpen(true)
   }
@@ -142,7 +118,6 @@ export function RecurringExpenses({ onUpdate }: RecurringExpensesProps) {
         startDate: new Date().toISOString().split('T')[0],
         endDate: undefined,
       })
-      loadRecurringExpenses()
       onUpdate()
     } catch (error) {
       toast({
@@ -171,6 +146,7 @@ export function RecurringExpenses({ onUpdate }: RecurringExpensesProps) {
         title: "Success",
         description: `Recurring expense ${newActive ? 'activated' : 'deactivated'}`,
       })
+      onUpdate()
     } catch (error) {
       // Revert the optimistic update on error
       setRecurringExpenses(prev => 
@@ -195,7 +171,6 @@ export function RecurringExpenses({ onUpdate }: RecurringExpensesProps) {
         title: "Success",
         description: "Recurring expense deleted successfully",
       })
-      loadRecurringExpenses()
       onUpdate()
     } catch (error) {
       toast({
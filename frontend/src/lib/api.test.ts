@@ -8,7 +8,11 @@ jest.mock('axios', () => {
     post: jest.fn(),
     put: jest.fn(),
     delete: jest.fn(),
-    patch: jest.fn()
+    patch: jest.fn(),
+    interceptors: {
+      request: { use: jest.fn() },
+      response: { use: jest.fn() }
+    }
   }
   
   return {
@@ -20,11 +24,15 @@ jest.mock('axios', () => {
 })
 
 // Import API after mocking
-const { expenseApi, budgetApi, categoryApi, recurringExpenseApi } = require('./api')
+const { expenseApi, budgetApi, categoryApi, recurringExpenseApi, dashboardApi, streamApi } = require('./api')
 
 // Get reference to the mock instance
 const mockAxiosInstance = (axios.create as jest.Mock).mock.results[0].value
 
+// Capture the interceptors before clearAllMocks wipes the recorded calls
+const requestInterceptor = mockAxiosInstance.interceptors.request.use.mock.calls[0][0]
+const responseInterceptor = mockAxiosInstance.interceptors.response.use.mock.calls[0][0]
+
 describe('API Tests', () => {
   beforeEach(() => {
     // Clear mock calls between tests
@@ -56,6 +64,16 @@ describe('API Tests', () => {
       expect(mockAxiosInstance.get).toHaveBeenCalled()
     })
 
+    it('should get expense changes since watermark', async () => {
+      const mockChanges = { upserts: [], deletedIds: [3], watermark: '1700000000000', fullResync: false }
+      mockAxiosInstance.get.mockResolvedValueOnce({ data: mockChanges })
+
+      const result = await expenseApi.getChanges('1690000000000')
+
+      expect(result).toEqual(mockChanges)
+      expect(mockAxiosInstance.get).toHaveBeenCalledWith('/expenses/changes?since=1690000000000')
+    })
+
     it('should create expense', async () => {
       const mockExpense = { id: 1, amount: 50, category: 'Groceries', date: '2025-01-01', createdAt: '', updatedAt: '' }
       const request = { amount: 50, categoryId: 1, date: '2025-01-01' }
@@ -68,8 +86,8 @@ describe('API Tests', () => {
     })
 
     it('should update expense', async () => {
-      const mockExpense = { id: 1, amount: 100, category: 'Groceries', date: '2025-01-01', createdAt: '', updatedAt: '' }
-      const request = { amount: 100, categoryId: 1, date: '2025-01-01' }
+      const mockExpense = { id: 1, amount: 100, category: 'Groceries', date: '2025-01-01', createdAt: '', updatedAt: '', version: 2 }
+      const request = { amount: 100, categoryId: 1, date: '2025-01-01', version: 1 }
       mockAxiosInstance.put.mockResolvedValueOnce({ data: mockExpense })
 
       const result = await expenseApi.updateExpense(1, request)
@@ -190,4 +208,98 @@ describe('API Tests', () => {
       expect(mockAxiosInstance.patch).toHaveBeenCalledWith('/recurring-expenses/1/toggle?active=false')
     })
   })
+
+  describe('dashboardApi', () => {
+    it('should get dashboard with filters', async () => {
+      const mockDashboard = {
+        expenses: [],
+        categorySummary: [],
+        monthlySummary: { total: 0, month: 1, year: 2025 },
+        budgetStatus: null,
+        categories: [],
+        recurringExpenses: []
+      }
+      mockAxiosInstance.get.mockResolvedValueOnce({ data: mockDashboard })
+
+      const result = await dashboardApi.getDashboard(['Groceries'], '2025-01-01', '2025-12-31')
+
+      expect(result).toEqual(mockDashboard)
+      expect(mockAxiosInstance.get).toHaveBeenCalledWith(
+        '/dashboard?categories=Groceries&startDate=2025-01-01&endDate=2025-12-31'
+      )
+    })
+
+    it('should request a consistent snapshot', async () => {
+      mockAxiosInstance.get.mockResolvedValueOnce({ data: {} })
+
+      await dashboardApi.getDashboard(undefined, undefined, undefined, true)
+
+      expect(mockAxiosInstance.get).toHaveBeenCalledWith('/dashboard?consistent=true')
+    })
+  })
+
+  describe('streamApi', () => {
+    const originalEventSource = (global as any).EventSource
+
+    afterEach(() => {
+      (global as any).EventSource = originalEventSource
+    })
+
+    it('should dispatch summary events and close on unsubscribe', () => {
+      const listeners: Record<string, (event: { data: string }) => void> = {}
+      const close = jest.fn()
+      const MockEventSource = jest.fn().mockImplementation(() => ({
+        addEventListener: (name: string, listener: (event: { data: string }) => void) => {
+          listeners[name] = listener
+        },
+        close,
+      }))
+      ;(global as any).EventSource = MockEventSource
+      const onMonthlySummary = jest.fn()
+      const onBudgetStatus = jest.fn()
+
+      const unsubscribe = streamApi.subscribeSummary({ onMonthlySummary, onBudgetStatus })
+      listeners['monthly-summary']({ data: '{"total":10,"month":1,"year":2025}' })
+      listeners['budget-status']({ data: '{"status":"HEALTHY"}' })
+      unsubscribe()
+
+      expect(MockEventSource).toHaveBeenCalledWith('http://localhost:8080/api/stream/summary')
+      expect(onMonthlySummary).toHaveBeenCalledWith({ total: 10, month: 1, year: 2025 })
+      expect(onBudgetStatus).toHaveBeenCalledWith({ status: 'HEALTHY' })
+      expect(close).toHaveBeenCalled()
+    })
+
+    it('should do nothing when EventSource is unavailable', () => {
+      (global as any).EventSource = undefined
+
+      const unsubscribe = streamApi.subscribeSummary({})
+
+      expect(() => unsubscribe()).not.toThrow()
+    })
+  })
+
+  describe('read-your-writes interceptors', () => {
+    const requestConfig = () => {
+      const headers: Record<string, string> = {}
+      return { headers: { set: (name: string, value: string) => { headers[name] = value } }, sent: headers }
+    }
+
+    it('should report the age of the last write on later requests', () => {
+      const before = requestConfig()
+      requestInterceptor(before)
+      expect(before.sent['X-Last-Write-Age']).toBeUndefined()
+
+      responseInterceptor({ config: { method: 'post' } })
+      const after = requestConfig()
+      requestInterceptor(after)
+
+      expect(Number(after.sent['X-Last-Write-Age'])).toBeGreaterThanOrEqual(0)
+    })
+
+    it('should not treat reads as writes', () => {
+      const response = { config: { method: 'get' } }
+
+      expect(responseInterceptor(response)).toBe(response)
+    })
+  })
 })
@@ -10,6 +10,7 @@ export interface Expense {
   description?: string
   createdAt: string
   updatedAt: string
+  version: number
 }
 
 export interface Category {
@@ -19,11 +20,14 @@ export interface Category {
   isDefault: boolean
   createdAt: string
   updatedAt: string
+  version: number
 }
 
 export interface CategoryRequest {
   name: string
   description?: string
+  // The version the edit started from; required on updates
+  version?: number
 }
 
 export interface ExpenseRequest {
@@ -31,6 +35,8 @@ export interface ExpenseRequest {
   categoryId: number
   date: string
   description?: string
+  // The version the edit started from; required on updates
+  version?: number
 }
 
 export interface CategorySummary {
@@ -75,6 +81,7 @@ export interface RecurringExpense {
   active: boolean
   createdAt: string
   updatedAt: string
+  version: number
 }
 
 export interface RecurringExpenseRequest {
@@ -84,6 +91,24 @@ export interface RecurringExpenseRequest {
   frequency: RecurrenceFrequency
   startDate: string
   endDate?: string
+  // The version the edit started from; required on updates
+  version?: number
+}
+
+export interface Dashboard {
+  expenses: Expense[]
+  categorySummary: CategorySummary[]
+  monthlySummary: MonthlySummary
+  budgetStatus: BudgetStatus | null
+  categories: Category[]
+  recurringExpenses: RecurringExpense[]
+}
+
+export interface ExpenseChanges {
+  upserts: Expense[]
+  deletedIds: number[]
+  watermark: string
+  fullResync: boolean
 }
 
 export enum RecurrenceFrequency {
@@ -102,6 +127,25 @@ const api = axios.create({
   },
 })
 
+// Reads may be served by a replica that lags behind the primary. Telling the backend how long ago we
+// last wrote lets it pin reads that closely follow a write to the primary, so we see our own changes.
+let lastWriteAt: number | null = null
+
+api.interceptors.request.use((config) => {
+  if (lastWriteAt !== null) {
+    config.headers.set('X-Last-Write-Age', String(Date.now() - lastWriteAt))
+  }
+  return config
+})
+
+api.interceptors.response.use((response) => {
+  const method = response.config.method?.toLowerCase()
+  if (method && method !== 'get' && method !== 'head') {
+    lastWriteAt = Date.now()
+  }
+  return response
+})
+
 export const expenseApi = {
   getAllExpenses: async (): Promise<Expense[]> => {
     const response = await api.get<Expense[]>('/expenses')
@@ -120,6 +164,14 @@ export const expenseApi = {
     return response.data
   },
 
+  getChanges: async (since?: string): Promise<ExpenseChanges> => {
+    const params = new URLSearchParams()
+    if (since) params.append('since', since)
+
+    const response = await api.get<ExpenseChanges>(`/expenses/changes?${params.toString()}`)
+    return response.data
+  },
+
   getExpenseById: async (id: number): Promise<Expense> => {
     const response = await api.get<Expense>(`/expenses/${id}`)
     return response.data
@@ -231,3 +283,40 @@ export const recurringExpenseApi = {
     await api.post('/recurring-expenses/process')
   },
 }
+
+export const dashboardApi = {
+  getDashboard: async (categories?: string[], startDate?: string, endDate?: string, consistent = false): Promise<Dashboard> => {
+    const params = new URLSearchParams()
+    if (categories && categories.length > 0) {
+      categories.forEach(cat => params.append('categories', cat))
+    }
+    if (startDate) params.append('startDate', startDate)
+    if (endDate) params.append('endDate', endDate)
+    if (consistent) params.append('consistent', 'true')
+
+    const response = await api.get<Dashboard>(`/dashboard?${params.toString()}`)
+    return response.data
+  },
+}
+
+export interface SummaryStreamHandlers {
+  onMonthlySummary?: (summary: MonthlySummary) => void
+  onBudgetStatus?: (status: BudgetStatus) => void
+}
+
+export const streamApi = {
+  // Returns an unsubscribe function. EventSource reconnects on its own after network errors.
+  subscribeSummary: (handlers: SummaryStreamHandlers): (() => void) => {
+    if (typeof EventSource === 'undefined') {
+      return () => {}
+    }
+    const source = new EventSource(`${API_URL}/stream/summary`)
+    source.addEventListener('monthly-summary', (event) => {
+      handlers.onMonthlySummary?.(JSON.parse((event as MessageEvent).data))
+    })
+    source.addEventListener('budget-status', (event) => {
+      handlers.onBudgetStatus?.(JSON.parse((event as MessageEvent).data))
+    })
+    return () => source.close()
+  },
+}
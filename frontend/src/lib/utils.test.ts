@@ -82,7 +82,8 @@ describe('Utils', () => {
           date: '2025-01-01',
           description: 'Weekly shopping',
           createdAt: '',
-          updatedAt: ''
+          updatedAt: '',
+          version: 0
         },
         {
           id: 2,
@@ -90,7 +91,8 @@ describe('Utils', () => {
           category: 'Transportation',
           date: '2025-01-02',
           createdAt: '',
-          updatedAt: ''
+          updatedAt: '',
+          version: 0
         }
       ]
 
@@ -117,7 +119,8 @@ describe('Utils', () => {
           date: '2025-01-01',
           description: 'Test, with comma',
           createdAt: '',
-          updatedAt: ''
+          updatedAt: '',
+          version: 0
         }
       ]
 